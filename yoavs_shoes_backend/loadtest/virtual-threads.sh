@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Compare platform and virtual threads under the same load.
+#
+# Starts the backend once per mode against the configured database, runs ApacheBench
+# against each URL and prints throughput, latency percentiles and failures side by side.
+# Needs a JDK 21 runtime, a jar built with `./mvnw -Pjdk21 package -DskipTests`, and `ab`.
+#
+# Usage: loadtest/virtual-threads.sh [requests] [concurrency]
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-500}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+URLS=(
+  "/api/products/filtered?page=0&size=20"
+  "/api/products/search?q=run&size=20"
+)
+
+JAR=$(ls target/yoavs_shoes-*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+if [[ -z "$JAR" ]]; then
+  echo "No jar in target/, build it with: ./mvnw -Pjdk21 package -DskipTests" >&2
+  exit 1
+fi
+
+JAVA_MAJOR=$(java -version 2>&1 | sed -n 's/.*version "\([0-9]*\).*/\1/p' | head -n 1)
+if (( JAVA_MAJOR < 21 )); then
+  echo "Java ${JAVA_MAJOR} found, virtual threads need Java 21 or later" >&2
+  exit 1
+fi
+
+command -v ab >/dev/null || { echo "ApacheBench (ab) is required" >&2; exit 1; }
+
+OUT=$(mktemp -d)
+echo "Writing raw results to ${OUT}"
+
+run_mode() {
+  local virtual=$1
+  local log="${OUT}/app-virtual-${virtual}.log"
+
+  java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+    --spring.jpa.show-sql=false > "$log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  for _ in $(seq 1 120); do
+    curl -fs "${BASE_URL}/actuator/health" >/dev/null 2>&1 && break
+    sleep 1
+  done
+
+  local index=0
+  for url in "${URLS[@]}"; do
+    # Warm up JIT and caches before measuring
+    ab -q -n 2000 -c 50 "${BASE_URL}${url}" >/dev/null 2>&1 || true
+    ab -q -n "$REQUESTS" -c "$CONCURRENCY" "${BASE_URL}${url}" > "${OUT}/ab-virtual-${virtual}-${index}.txt" 2>&1 || true
+    index=$((index + 1))
+  done
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+summarize() {
+  local file=$1
+  local rps p50 p99 failed
+  rps=$(awk '/Requests per second/ {print $4}' "$file")
+  p50=$(awk '$1 == "50%" {print $2}' "$file")
+  p99=$(awk '$1 == "99%" {print $2}' "$file")
+  failed=$(awk '/Failed requests/ {print $3}' "$file")
+  printf "%10s req/s  p50 %6s ms  p99 %6s ms  failed %s" "${rps:-?}" "${p50:-?}" "${p99:-?}" "${failed:-?}"
+}
+
+run_mode false
+run_mode true
+
+echo
+echo "${REQUESTS} requests, concurrency ${CONCURRENCY}, $(java -version 2>&1 | head -n 1)"
+index=0
+for url in "${URLS[@]}"; do
+  echo "${url}"
+  echo "  platform: $(summarize "${OUT}/ab-virtual-false-${index}.txt")"
+  echo "  virtual:  $(summarize "${OUT}/ab-virtual-true-${index}.txt")"
+  index=$((index + 1))
+done
@@ -1,5 +1,6 @@
 package com.shoestore;
 
+import com.shoestore.repository.base.BaseRepositoryImpl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -15,7 +16,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * JPA repositories, entity scanning, and auditing capabilities.
  */
 @SpringBootApplication(scanBasePackages = "com.shoestore")
-@EnableJpaRepositories(basePackages = "com.shoestore.repository")
+@EnableJpaRepositories(basePackages = "com.shoestore.repository", repositoryBaseClass = BaseRepositoryImpl.class)
 @EntityScan(basePackages = "com.shoestore.entity")
 @EnableTransactionManagement
 @EnableAspectJAutoProxy
@@ -0,0 +1,46 @@
+package com.shoestore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Cache configuration
+ *
+ * Every cache in {@link CacheNames} is a bounded Caffeine cache with its own spec
+ * (app.cache.specs.&lt;name&gt;, e.g. maximumSize=500,expireAfterWrite=30m).
+ * Statistics are always recorded so hits, misses and evictions show up under /actuator/metrics (cache.*).
+ */
+@Configuration
+@EnableCaching
+@Slf4j
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            Environment environment,
+            @Value("${app.cache.default-spec:maximumSize=1000,expireAfterWrite=10m}") String defaultSpec
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered below exist; a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+
+        for (String name : CacheNames.ALL) {
+            String spec = environment.getProperty("app.cache.specs." + name, defaultSpec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+            log.debug("Registered cache {} with spec {}", name, spec);
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,57 @@
+package com.shoestore.config;
+
+import java.util.List;
+
+/**
+ * Names of the application caches, each configured by an app.cache.specs.&lt;name&gt; property.
+ * Caches hold mapped DTOs, never managed entities.
+ */
+public final class CacheNames {
+
+    /**
+     * Brand DTO by ID
+     */
+    public static final String BRANDS = "brands";
+
+    /**
+     * Pages of brand DTOs by pageable
+     */
+    public static final String BRAND_PAGES = "brandPages";
+
+    /**
+     * Category DTO by ID
+     */
+    public static final String CATEGORIES = "categories";
+
+    /**
+     * Pages of category DTOs by pageable
+     */
+    public static final String CATEGORY_PAGES = "categoryPages";
+
+    /**
+     * Shoe DTO (with brand and category) by ID
+     */
+    public static final String SHOES = "shoes";
+
+    /**
+     * Pages of shoe DTOs by pageable
+     */
+    public static final String SHOE_PAGES = "shoePages";
+
+    /**
+     * Model DTOs (with sizes) of a shoe by shoe ID
+     */
+    public static final String SHOE_MODELS_BY_SHOE = "shoeModelsByShoe";
+
+    /**
+     * Model DTO (with shoe, brand, category and sizes) by ID, for batch lookups
+     */
+    public static final String SHOE_MODELS = "shoeModels";
+
+    public static final List<String> ALL = List.of(
+            BRANDS, BRAND_PAGES, CATEGORIES, CATEGORY_PAGES, SHOES, SHOE_PAGES, SHOE_MODELS_BY_SHOE, SHOE_MODELS
+    );
+
+    private CacheNames() {
+    }
+}
@@ -14,8 +14,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 /**
- * Filter to clean up the entity cache after each request
- * This prevents memory leaks and ensures cache doesn't persist between requests
+ * Filter to bind the entity cache to each request and clean it up once the request completes
+ * Also runs on async dispatches, so a request suspended by DeferredResult keeps its cache
+ * until its final dispatch
  */
 @Component
 @Slf4j
@@ -28,11 +29,19 @@ public class EntityCacheCleanupFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
                                   @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
+        entityCache.open(request);
         try {
             filterChain.doFilter(request, response);
         } finally {
-            // Always clean up the cache after request processing
-            entityCache.cleanup();
+            // Clean up the cache unless the request continues in an async dispatch
+            if (!request.isAsyncStarted()) {
+                entityCache.clear(request);
+            }
         }
     }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
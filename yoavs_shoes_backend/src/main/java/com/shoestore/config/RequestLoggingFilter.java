@@ -1,5 +1,6 @@
 package com.shoestore.config;
 
+import com.shoestore.security.service.EntityCache;
 import com.shoestore.util.LoggingUtil;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,17 +53,62 @@ public class RequestLoggingFilter implements Filter {
             chain.doFilter(request, response);
 
         } finally {
-            // Calculate response time
-            long responseTime = System.currentTimeMillis() - startTime;
-
-            // Log outgoing response
-            logOutgoingResponse(httpRequest, httpResponse, responseTime);
+            if (httpRequest.isAsyncStarted()) {
+                // DeferredResult or Callable: log once the async processing completes
+                httpRequest.getAsyncContext().addListener(new ResponseLoggingListener(requestId, startTime));
+            } else {
+                // Calculate response time
+                long responseTime = System.currentTimeMillis() - startTime;
+
+                // Log outgoing response
+                logOutgoingResponse(httpRequest, httpResponse, responseTime);
+            }
 
             // Clear MDC context
             LoggingUtil.clearContext();
         }
     }
 
+    /**
+     * Logs the response of a request that went async when it completes
+     */
+    private class ResponseLoggingListener implements AsyncListener {
+
+        private final String requestId;
+        private final long startTime;
+
+        ResponseLoggingListener(String requestId, long startTime) {
+            this.requestId = requestId;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            LoggingUtil.setRequestContext(requestId);
+            try {
+                logOutgoingResponse((HttpServletRequest) event.getSuppliedRequest(),
+                        (HttpServletResponse) event.getSuppliedResponse(),
+                        System.currentTimeMillis() - startTime);
+            } finally {
+                LoggingUtil.clearContext();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops the listeners, register again for its completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
     /**
      * Log incoming HTTP request
      */
@@ -102,6 +148,12 @@ public class RequestLoggingFilter implements Filter {
         // Log API call using utility
         LoggingUtil.logApiCall(method, uri, status, responseTime);
 
+        // Entity cache usage of the request
+        EntityCache.Stats cacheStats = EntityCache.statsOf(request);
+        if (cacheStats != null && cacheStats.lookups() > 0 && !shouldSkipLogging(uri)) {
+            log.info("Entity cache for {} {}: {} hits, {} misses", method, uri, cacheStats.hits(), cacheStats.misses());
+        }
+
         // Additional logging for errors
         if (status >= 400) {
             log.warn("Request failed: {} {} returned status {} in {}ms",
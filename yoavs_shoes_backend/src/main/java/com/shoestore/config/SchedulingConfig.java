@@ -0,0 +1,18 @@
+package com.shoestore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration
+ *
+ * Enables @Scheduled background jobs such as the inventory ledger flush, and @Async methods.
+ * Both run on Spring Boot's task executor and scheduler, which use virtual threads when
+ * spring.threads.virtual.enabled is set (Java 21+).
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class SchedulingConfig {
+}
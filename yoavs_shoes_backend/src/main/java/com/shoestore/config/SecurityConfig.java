@@ -78,6 +78,7 @@ public class SecurityConfig {
 
                         // Health check endpoint
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/favicon.ico").permitAll()
                         .requestMatchers("/api/health").permitAll()
 
@@ -7,6 +7,8 @@ import com.shoestore.dto.user.UserDto;
 import com.shoestore.dto.user.UserDto.CreateUserDto;
 import com.shoestore.dto.view.Views;
 import com.shoestore.entity.user.User;
+import com.shoestore.security.JwtVerifier;
+import com.shoestore.security.VerifiedToken;
 import com.shoestore.service.auth.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +26,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 /**
  * Controller for authentication endpoints
  */
@@ -35,6 +39,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController extends BaseController {
 
     private final AuthService authService;
+    private final JwtVerifier jwtVerifier;
 
     /**
      * Register a new user
@@ -317,13 +322,12 @@ public class AuthController extends BaseController {
     @PostMapping("/logout")
     @JsonView(Views.Summary.class)
     public ResponseEntity<StandardResponse<LogoutResponse>> logout(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-
+        // Already verified by the JWT filter, read back from the request
+        Optional<VerifiedToken> token = jwtVerifier.verify(request);
+        if (token.isPresent()) {
             logAction("LOGOUT_ATTEMPT", "User logout attempt");
 
-            LogoutResponse response = authService.logout(token);
+            LogoutResponse response = authService.logout(token.get());
 
             logAction("LOGOUT_SUCCESS", "User logged out successfully");
 
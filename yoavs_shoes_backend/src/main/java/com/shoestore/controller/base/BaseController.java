@@ -3,8 +3,9 @@ package com.shoestore.controller.base;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.dto.view.Views;
 import com.shoestore.entity.user.User;
-import com.shoestore.exception.UnauthorizedException;
-import com.shoestore.security.CustomUserDetailsService;
+import com.shoestore.exception.BadRequestException;
+import com.shoestore.security.service.AccessControlService;
+import com.shoestore.security.service.CurrentUserContext;
 import com.shoestore.security.service.EntityCache;
 import com.shoestore.service.user.UserService;
 import com.shoestore.util.LoggingUtil;
@@ -12,17 +13,17 @@ import com.shoestore.util.LoggingUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,46 +35,37 @@ public abstract class BaseController {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected CurrentUserContext currentUserContext;
+
+    @Autowired
+    protected AccessControlService accessControlService;
+
     @Autowired
     private EntityCache entityCache;
 
+    @Value("${app.api.batch.max-ids:100}")
+    private int maxBatchSize;
+
     /**
-     * Get the currently authenticated user
+     * Get the currently authenticated user, loaded once per request
      */
     protected User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new UnauthorizedException("Authentication required");
-        }
-
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof CustomUserDetailsService.UserPrincipal userPrincipal) {
-            User user = userService.getById(userPrincipal.getId());
-            return user;
-        }
-
-        throw new UnauthorizedException("Invalid authentication principal");
+        return currentUserContext.getUser();
     }
 
     /**
      * Get the current user ID
      */
     protected Long getCurrentUserId() {
-        return getCurrentUser().getId();
+        return currentUserContext.getUserId();
     }
 
     /**
      * Check if current user is admin
      */
     protected boolean isCurrentUserAdmin() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            return authentication.getAuthorities().stream()
-                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        } catch (Exception e) {
-            return false;
-        }
+        return currentUserContext.isAdmin();
     }
 
     /**
@@ -88,8 +80,7 @@ public abstract class BaseController {
      */
     protected <T> T getCachedEntity(Class<T> entityType, Object id) {
         if (entityCache != null) {
-            String cacheKey = EntityCache.generateKey(entityType, id);
-            return entityCache.get(cacheKey, entityType);
+            return entityCache.get(entityType, id);
         }
         return null;
     }
@@ -109,8 +100,7 @@ public abstract class BaseController {
         T entity = fetchFunction.get();
         
         if (entity != null && entityCache != null) {
-            String cacheKey = EntityCache.generateKey(entityType, id);
-            entityCache.put(cacheKey, entity);
+            entityCache.put(entityType, id, entity);
         }
         
         return entity;
@@ -222,6 +212,15 @@ public abstract class BaseController {
         }
     }
 
+    /**
+     * Validate the number of IDs requested by a batch endpoint
+     */
+    protected void validateBatchSize(List<?> ids) {
+        if (ids.isEmpty() || ids.size() > maxBatchSize) {
+            throw new BadRequestException("Between 1 and " + maxBatchSize + " IDs can be requested at once", "ids", ids.size());
+        }
+    }
+
     /**
      * Validate sort parameters
      */
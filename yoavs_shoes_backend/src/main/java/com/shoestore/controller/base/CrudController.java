@@ -3,6 +3,7 @@ package com.shoestore.controller.base;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.dto.base.BaseCrudDto;
 import com.shoestore.dto.base.BaseCrudMapper;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.view.Views;
 import com.shoestore.entity.base.BaseEntity;
@@ -14,7 +15,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -89,13 +92,53 @@ public abstract class CrudController<
         validateSort(sortBy, getAllowedSortFields());
 
         Pageable pageable = createPageable(page, size, sortBy, sortDir);
-        Page<T> entityPage = service.findAll(pageable);
+        Page<ResponseDto> dtoPage = findDtoPage(pageable);
+
+        PageResponse<ResponseDto> pageResponse = PageResponse.of(dtoPage, dtoPage.getContent());
+
+        logAction("GET_ALL_" + entityName.toUpperCase(),
+                String.format("Retrieved %d %s entities", dtoPage.getNumberOfElements(), entityName));
+
+        return success(pageResponse);
+    }
+
+    /**
+     * Get all entities with cursor (keyset) pagination
+     * Used instead of page numbers when the "after" parameter is present; pass an empty value for the first page
+     */
+    @Operation(summary = "Get all entities after a cursor", description = "Retrieve entities following an opaque cursor, without total counts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entities retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or pagination parameters")
+    })
+    @GetMapping(params = "after")
+    @JsonView(Views.Detailed.class)
+    public ResponseEntity<StandardResponse<CursorPageResponse<ResponseDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page")
+            @RequestParam String after,
+
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+
+            @Parameter(description = "Sort field", example = "id")
+            @RequestParam(required = false) String sortBy,
+
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        log.debug("Getting all {} after cursor: {}, size: {}, sortBy: {}, sortDir: {}",
+                entityName, after, size, sortBy, sortDir);
 
-        List<ResponseDto> dtoList = convertToDtoList(entityPage.getContent());
-        PageResponse<ResponseDto> pageResponse = PageResponse.of(entityPage, dtoList);
+        validatePagination(0, size);
+        validateSort(sortBy, getAllowedSortFields());
+
+        Slice<T> entitySlice = service.findAllAfter(service.resolveSort(sortBy, sortDir), after, size);
+
+        List<ResponseDto> dtoList = convertToDtoList(entitySlice.getContent());
+        CursorPageResponse<ResponseDto> pageResponse = CursorPageResponse.of(entitySlice, dtoList);
 
         logAction("GET_ALL_" + entityName.toUpperCase(),
-                String.format("Retrieved %d %s entities", entityPage.getNumberOfElements(), entityName));
+                String.format("Retrieved %d %s entities", entitySlice.getNumberOfElements(), entityName));
 
         return success(pageResponse);
     }
@@ -116,10 +159,7 @@ public abstract class CrudController<
 
         log.debug("Getting {} with id: {}", entityName, id);
 
-        // Use the getCachedEntityOrFetch helper method for optimal caching
-        T entity = getEntityWithCache(id);
-        
-        ResponseDto dto = mapper.toDto(entity);
+        ResponseDto dto = findDto(id);
 
         logAction("GET_" + entityName.toUpperCase(),
                 String.format("Retrieved %s with id: %s", entityName, id));
@@ -316,6 +356,24 @@ public abstract class CrudController<
         return entityName;
     }
 
+    /**
+     * Load the DTO served by getById
+     * Override in controllers whose service caches DTOs
+     */
+    protected ResponseDto findDto(ID id) {
+        // Use the getCachedEntityOrFetch helper method for optimal caching
+        return mapper.toDto(getEntityWithCache(id));
+    }
+
+    /**
+     * Load the page of DTOs served by getAll
+     * Override in controllers whose service caches DTOs
+     */
+    protected Page<ResponseDto> findDtoPage(Pageable pageable) {
+        Page<T> entityPage = service.findAll(pageable);
+        return new PageImpl<>(convertToDtoList(entityPage.getContent()), entityPage.getPageable(), entityPage.getTotalElements());
+    }
+
     /**
      * Get entity by ID with cache optimization
      * This method first checks the cache and only fetches from database if not found
@@ -17,7 +17,7 @@ package com.shoestore.controller.documentation;
  * 
  * SOLUTION:
  * ========
- * We implement a ThreadLocal entity cache that:
+ * We implement a request-scoped entity cache that:
  * 1. Stores entities fetched during access validation
  * 2. Makes them available to controller methods
  * 3. Automatically cleans up after request completion
@@ -25,10 +25,10 @@ package com.shoestore.controller.documentation;
  * COMPONENTS:
  * ==========
  * 
- * 1. EntityCache - ThreadLocal cache for storing entities
+ * 1. EntityCache - cache bound to a request attribute for storing entities
  * 2. AccessControlAspect - Updated to cache entities during validation
  * 3. BaseController - Helper methods to retrieve cached entities
- * 4. EntityCacheCleanupFilter - Cleans up cache after request
+ * 4. EntityCacheCleanupFilter - Binds the cache to the request and cleans it up after
  * 
  * USAGE EXAMPLES:
  * ==============
@@ -90,29 +90,30 @@ package com.shoestore.controller.documentation;
  * ===============
  * 
  * 1. REQUEST START
- *    - ThreadLocal cache is empty
+ *    - EntityCacheCleanupFilter binds an empty cache to the request
  * 
  * 2. ACCESS CONTROL VALIDATION
  *    - Aspect loads entity: UserAddress:123
- *    - Entity cached with key "UserAddress:123"
+ *    - Entity cached with key (UserAddress.class, 123)
  * 
  * 3. CONTROLLER METHOD EXECUTION
  *    - Controller checks cache: getCachedEntity(UserAddress.class, 123)
  *    - Returns cached entity (no database call)
  * 
  * 4. REQUEST END
- *    - EntityCacheCleanupFilter clears ThreadLocal
- *    - Memory is freed, no leaks
+ *    - EntityCacheCleanupFilter clears the cached entities (after the last async dispatch)
+ *    - RequestLoggingFilter logs the request's cache hits and misses
  * 
  * CACHE KEYS:
  * ==========
  * 
- * Cache keys are generated using the pattern: "{EntityType}:{ID}"
+ * Cache keys are EntityCache.EntityKey records of the entity class and ID,
+ * numeric IDs being normalized to Long
  * 
  * Examples:
- * - UserAddress:123
- * - Order:456  
- * - Product:789
+ * - (UserAddress.class, 123)
+ * - (Order.class, 456)
+ * - (ShoeModel.class, 789)
  * 
  * HELPER METHODS:
  * ==============
@@ -133,10 +134,13 @@ package com.shoestore.controller.documentation;
  * @Component
  * public class EntityCacheCleanupFilter extends OncePerRequestFilter {
  *     protected void doFilterInternal(...) {
+ *         entityCache.open(request);
  *         try {
  *             filterChain.doFilter(request, response);
  *         } finally {
- *             entityCache.cleanup(); // Always clean up
+ *             if (!request.isAsyncStarted()) {
+ *                 entityCache.clear(request); // Clean up once the request completes
+ *             }
  *         }
  *     }
  * }
@@ -151,16 +155,16 @@ package com.shoestore.controller.documentation;
  * 
  * Negative:
  * - Minimal memory overhead (entities stored temporarily)
- * - ThreadLocal cleanup overhead (negligible)
+ * - One request attribute per request (negligible)
  * 
  * THREAD SAFETY:
  * =============
  * 
- * The cache uses ThreadLocal storage, ensuring:
- * - Each request thread has its own cache
+ * The cache is stored in a request attribute, ensuring:
+ * - Each request has its own cache, whichever thread (platform or virtual) serves it
+ * - The cache follows the request across async dispatches (DeferredResult, Callable)
  * - No cross-request contamination
- * - No synchronization needed
- * - Automatic cleanup prevents memory leaks
+ * - Nothing is left on pooled threads
  * 
  * CONFIGURATION:
  * =============
@@ -222,8 +226,7 @@ package com.shoestore.controller.documentation;
  * 1. Automatic cache population for manual fetches
  * 2. Cache invalidation on entity updates
  * 3. Configurable cache size limits
- * 4. Cache hit/miss metrics
- * 5. Cross-request caching (with proper invalidation)
+ * 4. Cross-request caching (with proper invalidation)
  */
 public class EntityCachingOptimizationGuide {
     // This is a documentation-only class
@@ -1,6 +1,7 @@
 package com.shoestore.controller.order;
 
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.order.OrderDto;
 import com.shoestore.dto.order.OrderMapper;
@@ -22,6 +23,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -135,6 +137,37 @@ public class OrderController extends CrudController<
         return success(pageResponse);
     }
 
+    /**
+     * Get many orders by ID at once - each must belong to the current user unless admin
+     */
+    @GetMapping("/batch")
+    @JsonView(Views.Detailed.class)
+    @AccessControl(level = AccessControl.AccessLevel.AUTHENTICATED)
+    @Operation(
+        summary = "Get orders by IDs",
+        description = "Retrieve up to 100 orders in one call, in the order of the requested IDs. " +
+                      "Fails if any ID is unknown or owned by another user (admins get the orders that exist)"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StandardResponse<List<OrderDto>>> getByIds(
+            @Parameter(description = "Order IDs, comma separated", required = true, example = "12,7,31")
+            @RequestParam List<Long> ids) {
+
+        validateBatchSize(ids);
+        log.debug("Getting {} orders by ID", ids.size());
+
+        // One ownership query for all IDs instead of a per-ID check
+        accessControlService.validateOwnerOrAdminAccess(Order.class, ids);
+        List<OrderDto> orders = convertToDtoList(service.findAllByIdInOrder(ids));
+
+        return success(orders, "Orders retrieved successfully");
+    }
+
     /**
      * Cancel an order
      */
@@ -225,6 +258,29 @@ public class OrderController extends CrudController<
         return super.getAll(page, size, sortBy, sortDir);
     }
 
+    /**
+     * Admin route: Get all orders after a cursor
+     */
+    @JsonView(Views.Admin.class)
+    @Operation(summary = "Get all orders after a cursor (Admin only)", description = "Get all orders with cursor pagination - Admin access required")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    @Override
+    public ResponseEntity<StandardResponse<CursorPageResponse<OrderDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page")
+            @RequestParam String after,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Sort field", example = "id")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return super.getAllAfter(after, size, sortBy, sortDir);
+    }
+
     /**
      * Get orders by status (admin only) - updated endpoint path
      */
@@ -0,0 +1,83 @@
+package com.shoestore.controller.report;
+
+import com.shoestore.controller.base.BaseController;
+import com.shoestore.dto.report.SalesReportResponse;
+import com.shoestore.entity.report.RollupGranularity;
+import com.shoestore.security.annotation.AccessControl;
+import com.shoestore.service.report.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Admin sales reports, read from the hourly and daily sales rollups
+ */
+@RestController
+@RequestMapping("/api/admin/reports")
+@Tag(name = "Reports", description = "Admin sales reports")
+@Slf4j
+public class ReportController extends BaseController {
+
+    private final SalesRollupService salesRollupService;
+
+    public ReportController(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    /**
+     * Admin route: Get sales over a date range
+     */
+    @GetMapping("/sales")
+    @Operation(summary = "Get sales report (Admin only)",
+               description = "Totals, a time series and per model, brand and category sales of confirmed orders placed in the range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved sales report"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or parameters"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    public ResponseEntity<StandardResponse<SalesReportResponse>> getSalesReport(
+            @Parameter(description = "First day of the range", example = "2025-06-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive", example = "2025-06-30", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Series bucket width; HOUR ranges are limited to 31 days", example = "DAY")
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @Parameter(description = "Number of top models", example = "10")
+            @RequestParam(defaultValue = "10") int top) {
+
+        log.debug("Admin getting {} sales report from {} to {}", granularity, from, to);
+
+        SalesReportResponse report = salesRollupService.getSalesReport(from, to, granularity, top);
+
+        return success(report, "Sales report retrieved successfully");
+    }
+
+    /**
+     * Admin route: Recompute the sales rollups from the orders
+     */
+    @PostMapping("/sales/rebuild")
+    @Operation(summary = "Rebuild sales rollups (Admin only)",
+               description = "Recompute every sales bucket from the orders, repairing changes the rollups missed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sales rollups rebuilt"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    public ResponseEntity<StandardResponse<Map<String, Object>>> rebuildSalesRollups() {
+        log.info("Admin rebuilding sales rollups");
+
+        int rows = salesRollupService.rebuildAll();
+
+        return success(Map.of("rollups", rows), "Sales rollups rebuilt successfully");
+    }
+}
@@ -1,5 +1,7 @@
 package com.shoestore.controller.shoe;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,6 +29,16 @@ public class BrandController extends CrudController<
         super(service, "Brand", mapper);
     }
 
+    @Override
+    protected BrandDto findDto(Long id) {
+        return service.getDto(id);
+    }
+
+    @Override
+    protected Page<BrandDto> findDtoPage(Pageable pageable) {
+        return service.findAllDtos(pageable);
+    }
+
     @Override
     protected String[] getAllowedSortFields() {
         return new String[]{"name", "createdAt", "updatedAt"};
@@ -0,0 +1,67 @@
+package com.shoestore.controller.shoe;
+
+import com.shoestore.controller.base.BaseController;
+import com.shoestore.dto.shoe.CatalogImportResponse;
+import com.shoestore.security.annotation.AccessControl;
+import com.shoestore.service.shoe.bulk.CatalogImportFormat;
+import com.shoestore.service.shoe.bulk.CatalogImportService;
+import com.shoestore.service.shoe.bulk.CatalogImportTarget;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Admin bulk loading of the catalog from CSV or NDJSON files
+ */
+@RestController
+@RequestMapping("/api/admin/catalog")
+@Tag(name = "Catalog Import", description = "Bulk loading of shoes, models and inventory")
+@Slf4j
+public class CatalogImportController extends BaseController {
+
+    private final CatalogImportService catalogImportService;
+
+    public CatalogImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    /**
+     * Admin route: Import a catalog file streamed as the request body
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Import catalog file (Admin only)",
+               description = "Stream a CSV (with header) or NDJSON file of one entity type as the request body. " +
+                             "SHOE rows: brand or brandId, category or categoryId, name, description, gender, basePrice, isActive. " +
+                             "SHOE_MODEL rows: shoeId or shoe and brand, modelName, color, material, sku, price, imageUrl, isActive. " +
+                             "SHOE_INVENTORY rows: sku or shoeModelId, size, quantityAvailable; existing sizes are overwritten. " +
+                             "Invalid rows are reported and skipped, the rest is imported")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File imported, see failed and errors for rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Unreadable file or another import is running"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    public ResponseEntity<StandardResponse<CatalogImportResponse>> importCatalog(
+            @Parameter(description = "Entity the rows describe", example = "SHOE_MODEL", required = true)
+            @RequestParam CatalogImportTarget target,
+            @Parameter(description = "File layout; defaults to CSV for text/csv bodies, NDJSON otherwise", example = "CSV")
+            @RequestParam(required = false) CatalogImportFormat format,
+            HttpServletRequest request) throws IOException {
+
+        CatalogImportFormat fileFormat = format != null ? format : CatalogImportFormat.fromContentType(request.getContentType());
+        log.info("Admin importing {} catalog file as {}", target, fileFormat);
+
+        CatalogImportResponse response = catalogImportService.importCatalog(request.getInputStream(), target, fileFormat);
+
+        return success(response, String.format("Imported %d of %d rows",
+                response.getCreated() + response.getUpdated(), response.getRows()));
+    }
+}
@@ -2,27 +2,38 @@ package com.shoestore.controller.shoe;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.shoe.AvailableFiltersResponse;
+import com.shoestore.dto.shoe.ProductBatchItem;
 import com.shoestore.dto.shoe.ProductFilterCriteria;
+import com.shoestore.dto.shoe.ProductSuggestionResponse;
 import com.shoestore.dto.shoe.ShoeModelDto;
 import com.shoestore.dto.shoe.ShoeModelMapper;
 import com.shoestore.dto.view.Views;
 import com.shoestore.entity.shoe.ShoeModel;
+import com.shoestore.service.shoe.ProductFeedService;
 import com.shoestore.service.shoe.ShoeModelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for product listing operations
@@ -41,8 +52,13 @@ public class ProductController extends CrudController<
         ShoeModelService
 > {
 
-    public ProductController(ShoeModelMapper mapper, ShoeModelService service) {
+    private static final String FEED_WATERMARK_HEADER = "X-Feed-Watermark";
+
+    private final ProductFeedService productFeedService;
+
+    public ProductController(ShoeModelMapper mapper, ShoeModelService service, ProductFeedService productFeedService) {
         super(service, "Product", mapper);
+        this.productFeedService = productFeedService;
     }
 
 
@@ -121,22 +137,129 @@ public class ProductController extends CrudController<
         return success(pageResponse, "Products retrieved successfully");
     }
 
+    /**
+     * Get products with filters using cursor (keyset) pagination
+     */
+    @GetMapping(value = "/filtered", params = "after")
+    @Operation(
+        summary = "Get products with filters after a cursor",
+        description = "Retrieve products following an opaque cursor instead of a page number. Pass an empty \"after\" for the first page " +
+                      "and the returned nextCursor for the next ones. No total count is computed; sortBy supports createdAt, price, name and brand"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or filter parameters"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @JsonView(Views.Detailed.class)
+    public ResponseEntity<StandardResponse<CursorPageResponse<ShoeModelDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page") 
+            @RequestParam String after,
+            
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "20") int size,
+            
+            @Parameter(description = "Sort field (createdAt, price, name, brand)") 
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            
+            @Parameter(description = "Sort direction (ASC, DESC)") 
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            
+            @Parameter(description = "Filter by brand IDs") 
+            @RequestParam(required = false) List<Long> brandIds,
+            
+            @Parameter(description = "Filter by category IDs") 
+            @RequestParam(required = false) List<Long> categoryIds,
+            
+            @Parameter(description = "Filter by colors") 
+            @RequestParam(required = false) List<String> colors,
+            
+            @Parameter(description = "Filter by sizes") 
+            @RequestParam(required = false) List<String> sizes,
+            
+            @Parameter(description = "Minimum price") 
+            @RequestParam(required = false) BigDecimal minPrice,
+            
+            @Parameter(description = "Maximum price") 
+            @RequestParam(required = false) BigDecimal maxPrice,
+            
+            @Parameter(description = "Search term for product name or model") 
+            @RequestParam(required = false) String search,
+            
+            @Parameter(description = "Filter by availability (true/false)") 
+            @RequestParam(required = false) Boolean inStock) {
+
+        log.debug("Getting products with filters after cursor: {} - size: {}, sortBy: {}, sortDirection: {}", 
+                 after, size, sortBy, sortDirection);
+
+        validatePagination(0, size);
+
+        ProductFilterCriteria criteria = ProductFilterCriteria.builder()
+                .size(size)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .brandIds(brandIds)
+                .categoryIds(categoryIds)
+                .colors(colors)
+                .sizes(sizes)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .searchTerm(search)
+                .inStock(inStock)
+                .build();
+        Slice<ShoeModel> products = service.getProductsAfter(criteria, after);
+        log.debug("Retrieved {} products", products.getNumberOfElements());
+        CursorPageResponse<ShoeModelDto> pageResponse = CursorPageResponse.of(products, convertToDtoList(products.getContent()));
+
+        return success(pageResponse, "Products retrieved successfully");
+    }
+
     /**
      * Get available filters
      */
     @GetMapping("/filters")
     @Operation(
         summary = "Get available filters",
-        description = "Retrieve available filter options like brands, categories, colors, and price ranges"
+        description = "Retrieve available filter options like brands, categories, colors, sizes and price ranges with product counts. " +
+                      "Counts for each facet are scoped by the other applied filters"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Filters retrieved successfully"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<StandardResponse<AvailableFiltersResponse>> getAvailableFilters() {
+    public ResponseEntity<StandardResponse<AvailableFiltersResponse>> getAvailableFilters(
+            @Parameter(description = "Filter by brand IDs") 
+            @RequestParam(required = false) List<Long> brandIds,
+            
+            @Parameter(description = "Filter by category IDs") 
+            @RequestParam(required = false) List<Long> categoryIds,
+            
+            @Parameter(description = "Filter by colors") 
+            @RequestParam(required = false) List<String> colors,
+            
+            @Parameter(description = "Filter by sizes") 
+            @RequestParam(required = false) List<String> sizes,
+            
+            @Parameter(description = "Minimum price") 
+            @RequestParam(required = false) BigDecimal minPrice,
+            
+            @Parameter(description = "Maximum price") 
+            @RequestParam(required = false) BigDecimal maxPrice,
+            
+            @Parameter(description = "Search term for product name or model") 
+            @RequestParam(required = false) String search) {
         log.debug("Getting available filters");
-        
-        AvailableFiltersResponse filters = service.getAvailableFilters();
+
+        ProductFilterCriteria criteria = ProductFilterCriteria.builder()
+                .brandIds(brandIds)
+                .categoryIds(categoryIds)
+                .colors(colors)
+                .sizes(sizes)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .searchTerm(search)
+                .build();
+        AvailableFiltersResponse filters = service.getAvailableFilters(criteria);
         
         log.debug("Retrieved filters with {} brands, {} categories, {} colors", 
                  filters.getBrands().size(), 
@@ -146,13 +269,41 @@ public class ProductController extends CrudController<
         return success(filters, "Available filters retrieved successfully");
     }
 
+    /**
+     * Get autocomplete suggestions for the search box
+     */
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Autocomplete suggestions",
+        description = "Suggest brand, category, shoe and model names starting with the typed prefix (at the start of any word), best stocked first"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StandardResponse<List<ProductSuggestionResponse>>> getSuggestions(
+            @Parameter(description = "Typed prefix", required = true) 
+            @RequestParam String q,
+            
+            @Parameter(description = "Maximum number of suggestions (max 10)") 
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("Getting suggestions for: '{}'", q);
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        return success(service.getSuggestions(q, limit));
+    }
+
     /**
      * Search products by text
      */
     @GetMapping("/search")
     @Operation(
         summary = "Search products",
-        description = "Search products by name, model, or brand with pagination"
+        description = "Full-text search over shoe, model, brand and category names, ranked by relevance by default"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Search completed successfully"),
@@ -169,8 +320,8 @@ public class ProductController extends CrudController<
             @Parameter(description = "Page size") 
             @RequestParam(defaultValue = "20") int size,
             
-            @Parameter(description = "Sort field") 
-            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort field (relevance, name, price, brand, createdAt)") 
+            @RequestParam(defaultValue = "relevance") String sortBy,
             
             @Parameter(description = "Sort direction") 
             @RequestParam(defaultValue = "DESC") String sortDirection) {
@@ -193,6 +344,69 @@ public class ProductController extends CrudController<
         return success(response, "Search completed successfully");
     }
 
+    /**
+     * Get many products by ID at once
+     */
+    @GetMapping("/batch")
+    @Operation(
+        summary = "Get products by IDs",
+        description = "Resolve up to 100 products (with shoe, brand and sizes) in one call, e.g. for cart and wishlist screens. " +
+                      "Results follow the order of the requested IDs; IDs with no product are returned with found: false"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @JsonView(Views.Detailed.class)
+    public ResponseEntity<StandardResponse<List<ProductBatchItem>>> getByIds(
+            @Parameter(description = "Shoe model IDs, comma separated", required = true, example = "12,7,31")
+            @RequestParam List<Long> ids) {
+
+        log.debug("Getting {} products by ID", ids.size());
+
+        List<Optional<ShoeModelDto>> models = service.getByIds(ids);
+        List<ProductBatchItem> items = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            ShoeModelDto product = models.get(i).orElse(null);
+            items.add(ProductBatchItem.builder()
+                    .id(ids.get(i))
+                    .found(product != null)
+                    .product(product)
+                    .build());
+        }
+
+        return success(items, "Products retrieved successfully");
+    }
+
+    /**
+     * Stream the whole catalog as NDJSON
+     */
+    @GetMapping("/feed")
+    @Operation(
+        summary = "Product feed",
+        description = "Stream every sold model with its shoe, brand, category and stock per size, one JSON object per line. " +
+                      "With updatedSince, stream only models changed since then, including the ones no longer sold (active: false). " +
+                      "Pass the " + FEED_WATERMARK_HEADER + " response header as updatedSince on the next sync"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Feed streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid updatedSince")
+    })
+    public void getFeed(
+            @Parameter(description = "Only models changed after this time (ISO date-time)", example = "2025-06-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            HttpServletResponse response) throws IOException {
+
+        log.debug("Streaming product feed, updatedSince: {}", updatedSince);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(FEED_WATERMARK_HEADER, productFeedService.nextWatermark().toString());
+
+        productFeedService.writeFeed(updatedSince, response.getOutputStream());
+    }
+
     /*
      * Get models for a specific shoe
      */
@@ -209,9 +423,7 @@ public class ProductController extends CrudController<
     @JsonView(Views.Detailed.class)
     public ResponseEntity<StandardResponse<List<ShoeModelDto>>> getShoeModels(@PathVariable Long shoeId) {
         log.debug("Getting models for shoe ID: {}", shoeId);
-        List<ShoeModel> models = service.getShoeModels(shoeId);
-        List<ShoeModelDto> modelDtos = models.stream()
-                .map(this::convertToDto).toList();
+        List<ShoeModelDto> modelDtos = service.getShoeModels(shoeId);
         return success(modelDtos, "Shoe models retrieved successfully");
     }
 
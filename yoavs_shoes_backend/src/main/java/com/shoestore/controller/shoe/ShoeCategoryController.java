@@ -1,5 +1,7 @@
 package com.shoestore.controller.shoe;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,6 +28,16 @@ public class ShoeCategoryController extends CrudController<
         super(service, "ShoeCategory", mapper);
     }
 
+    @Override
+    protected ShoeCategoryDto findDto(Long id) {
+        return service.getDto(id);
+    }
+
+    @Override
+    protected Page<ShoeCategoryDto> findDtoPage(Pageable pageable) {
+        return service.findAllDtos(pageable);
+    }
+
     @Override
     protected String[] getAllowedSortFields() {
         return new String[] {"name", "description"};
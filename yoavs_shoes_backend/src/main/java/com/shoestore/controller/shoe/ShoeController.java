@@ -2,6 +2,7 @@ package com.shoestore.controller.shoe;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.shoe.ShoeDto;
 import com.shoestore.dto.shoe.ShoeDto.ShoeInventoryViewDto;
@@ -19,6 +20,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,6 +50,16 @@ public class ShoeController extends CrudController<
         super(service, "Shoe", mapper);
     }
 
+    @Override
+    protected ShoeDto findDto(Long id) {
+        return service.getDto(id);
+    }
+
+    @Override
+    protected Page<ShoeDto> findDtoPage(Pageable pageable) {
+        return service.findAllDtos(pageable);
+    }
+
     /**
      * Get paginated list of shoes with filters
      */
@@ -111,6 +124,72 @@ public class ShoeController extends CrudController<
         return success(pageResponse, "Shoes retrieved successfully");
     }
 
+    /**
+     * Get shoes with filters using cursor (keyset) pagination
+     */
+    @GetMapping(value = "/filtered", params = "after")
+    @Operation(
+        summary = "Get shoes with filters after a cursor",
+        description = "Retrieve shoes following an opaque cursor instead of a page number. Pass an empty \"after\" for the first page " +
+                      "and the returned nextCursor for the next ones. No total count is computed"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Shoes retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or filter parameters"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @JsonView(Views.Detailed.class)
+    public ResponseEntity<StandardResponse<CursorPageResponse<ShoeDto>>> getShoesFilteredAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page") 
+            @RequestParam String after,
+            
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "20") int size,
+            
+            @Parameter(description = "Sort field (name, price, brand, createdAt)") 
+            @RequestParam(defaultValue = "name") String sortBy,
+            
+            @Parameter(description = "Sort direction (ASC, DESC)") 
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            
+            @Parameter(description = "Filter by brand IDs") 
+            @RequestParam(required = false) List<Long> brandIds,
+            
+            @Parameter(description = "Filter by category IDs") 
+            @RequestParam(required = false) List<Long> categoryIds,
+            
+            @Parameter(description = "Search term for shoe name or brand") 
+            @RequestParam(required = false) String search,
+            
+            @Parameter(description = "Minimum base price") 
+            @RequestParam(required = false) BigDecimal minPrice,
+            
+            @Parameter(description = "Maximum base price") 
+            @RequestParam(required = false) BigDecimal maxPrice) {
+
+        log.debug("Getting shoes with filters after cursor: {} - size: {}, sortBy: {}, sortDirection: {}", 
+                 after, size, sortBy, sortDirection);
+
+        validatePagination(0, size);
+
+        ShoeFilterCriteria criteria = ShoeFilterCriteria.builder()
+                .size(size)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .brandIds(brandIds)
+                .categoryIds(categoryIds)
+                .searchTerm(search)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        Slice<Shoe> shoes = service.getShoesAfter(criteria, after);
+        log.debug("Retrieved {} shoes", shoes.getNumberOfElements());
+        CursorPageResponse<ShoeDto> pageResponse = CursorPageResponse.of(shoes, convertToDtoList(shoes.getContent()));
+
+        return success(pageResponse, "Shoes retrieved successfully");
+    }
+
     /**
      * Get shoes with model count and stock information
      */
@@ -175,7 +254,7 @@ public class ShoeController extends CrudController<
         Page<IShoeInventoryView> shoes = service.getShoesWithModelCountAggregated(criteria);
                 
         log.debug("Retrieved {} shoes with model count", shoes.getContent().size());
-        PageResponse<ShoeInventoryViewDto> pageResponse = new PageResponse<>(shoes.map(view -> mapper.toInventoryViewDto(view.getShoe(), view.getModelCount(), view.getTotalStock())));
+        PageResponse<ShoeInventoryViewDto> pageResponse = new PageResponse<>(shoes.map(mapper::toInventoryViewDto));
         
         return success(pageResponse, "Shoes with model count retrieved successfully");
     }
@@ -2,6 +2,7 @@ package com.shoestore.controller.shoe;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.shoe.ShoeInventoryDto;
 import com.shoestore.dto.shoe.ShoeInventoryMapper;
@@ -180,6 +181,31 @@ public class ShoeInventoryController extends CrudController<
         return super.getAll(page, size, sortBy, sortDir);
     }
 
+    /**
+     * Admin route: Get all inventory after a cursor
+     */
+    @JsonView(Views.Detailed.class)
+    @Operation(summary = "Get all inventory after a cursor (Admin only)", description = "Retrieve inventory entries following an opaque cursor, without total counts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved inventory"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    @Override
+    public ResponseEntity<StandardResponse<CursorPageResponse<ShoeInventoryDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page")
+            @RequestParam String after,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Sort field", example = "id")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        log.debug("Getting inventory after cursor for admin");
+
+        return super.getAllAfter(after, size, sortBy, sortDir);
+    }
+
 
     /**
      * Create new inventory entry (admin only)
@@ -2,6 +2,7 @@ package com.shoestore.controller.user;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.user.UserAddressDto;
 import com.shoestore.dto.user.UserAddressMapper;
 import com.shoestore.dto.view.Views;
@@ -88,6 +89,37 @@ public class UserAddressController extends CrudController<
         return success(response, "Addresses retrieved successfully");
     }
 
+    /**
+     * Get many addresses by ID at once - each must belong to the current user unless admin
+     */
+    @GetMapping("/batch")
+    @AccessControl(level = AccessControl.AccessLevel.AUTHENTICATED)
+    @Operation(
+        summary = "Get addresses by IDs",
+        description = "Retrieve up to 100 addresses in one call, in the order of the requested IDs. " +
+                      "Fails if any ID is unknown or owned by another user (admins get the addresses that exist)"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Addresses retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @JsonView(Views.Detailed.class)
+    public ResponseEntity<StandardResponse<List<UserAddressDto>>> getByIds(
+            @Parameter(description = "Address IDs, comma separated", required = true, example = "12,7,31")
+            @RequestParam List<Long> ids) {
+
+        validateBatchSize(ids);
+        log.debug("Getting {} addresses by ID", ids.size());
+
+        // One ownership query for all IDs instead of a per-ID check
+        accessControlService.validateOwnerOrAdminAccess(UserAddress.class, ids);
+        List<UserAddressDto> response = mapper.toDtoList(service.findAllByIdInOrder(ids));
+
+        return success(response, "Addresses retrieved successfully");
+    }
+
     /**
      * Get address by ID - accessible by address owner or admin
      */
@@ -257,6 +289,29 @@ public class UserAddressController extends CrudController<
         return success(hasDefault);
     }
 
+    /**
+     * Admin route: Get all addresses after a cursor
+     */
+    @JsonView(Views.Admin.class)
+    @Operation(summary = "Get all addresses after a cursor (Admin only)", description = "Get all addresses with cursor pagination - Admin access required")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved addresses"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    @Override
+    public ResponseEntity<StandardResponse<CursorPageResponse<UserAddressDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page")
+            @RequestParam String after,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Sort field", example = "id")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return super.getAllAfter(after, size, sortBy, sortDir);
+    }
+
     // ==============================================
     // 3. OVERRIDDEN LOGIC (Abstract Methods Implementation)
     // ==============================================
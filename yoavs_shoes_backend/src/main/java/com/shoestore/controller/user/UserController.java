@@ -1,9 +1,12 @@
 package com.shoestore.controller.user;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import com.shoestore.controller.base.CrudController;
+import com.shoestore.dto.base.CursorPageResponse;
 import com.shoestore.dto.base.PageResponse;
 import com.shoestore.dto.user.UserDto;
 import com.shoestore.dto.user.UserMapper;
+import com.shoestore.dto.view.Views;
 import com.shoestore.entity.user.User;
 import com.shoestore.security.annotation.AccessControl;
 import com.shoestore.service.user.UserService;
@@ -129,6 +132,29 @@ public class UserController extends CrudController<
         return success(stats, "User statistics retrieved successfully");
     }
 
+    /**
+     * Admin route: Get all users after a cursor
+     */
+    @JsonView(Views.Admin.class)
+    @Operation(summary = "Get all users after a cursor (Admin only)", description = "Get all users with cursor pagination - Admin access required")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @AccessControl(level = AccessControl.AccessLevel.ADMIN_ONLY)
+    @Override
+    public ResponseEntity<StandardResponse<CursorPageResponse<UserDto>>> getAllAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, empty for the first page")
+            @RequestParam String after,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "Sort field", example = "id")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return super.getAllAfter(after, size, sortBy, sortDir);
+    }
+
     @Override
     protected String[] getAllowedSortFields() {
         return new String[]{"email", "firstName", "lastName", "isAdmin", "isActive"};
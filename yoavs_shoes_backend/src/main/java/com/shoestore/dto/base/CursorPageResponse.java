@@ -0,0 +1,58 @@
+package com.shoestore.dto.base;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.shoestore.dto.view.Views;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Cursor (keyset) page response: no total count, just a token for the next page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    @JsonView(Views.Summary.class)
+    private List<T> content;
+
+    @JsonView(Views.Summary.class)
+    private int size;
+
+    @JsonView(Views.Summary.class)
+    private int numberOfElements;
+
+    @JsonView(Views.Summary.class)
+    private boolean hasNext;
+
+    /**
+     * Opaque token to pass as "after" to get the next page, null on the last page
+     */
+    @JsonView(Views.Summary.class)
+    private String nextCursor;
+
+    /**
+     * Create CursorPageResponse from a Slice sorted with its keyset sort, with mapped content
+     */
+    public static <T, R> CursorPageResponse<R> of(Slice<T> slice, List<R> mappedContent) {
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.after(last, slice.getSort()).encode();
+        }
+
+        return CursorPageResponse.<R>builder()
+                .content(mappedContent)
+                .size(slice.getSize())
+                .numberOfElements(slice.getNumberOfElements())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package com.shoestore.dto.base;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoestore.exception.BadRequestException;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset pagination cursor.
+ *
+ * Holds the sort signature and the sort key values of the last returned row, ID last.
+ * Encoded as base64url JSON so clients treat it as an opaque "after" token.
+ *
+ * @param sort   signature of the sort the cursor was created for, e.g. "price:DESC,id:DESC"
+ * @param values sort key values of the last row, as strings, in sort order
+ */
+public record KeysetCursor(String sort, List<String> values) {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Add the ID as final tie-breaker so that the sort defines a total order
+     */
+    public static Sort withTieBreaker(Sort sort) {
+        if (sort.getOrderFor(ID_PROPERTY) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream()
+                .reduce((first, second) -> second)
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID_PROPERTY));
+    }
+
+    /**
+     * Build the cursor pointing after the given row
+     */
+    public static KeysetCursor after(Object row, Sort sort) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            values.add(format(wrapper.getPropertyValue(order.getProperty())));
+        }
+        return new KeysetCursor(signature(sort), values);
+    }
+
+    /**
+     * Decode an "after" token; a blank token means "start from the first row"
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            return MAPPER.readValue(json, KeysetCursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException("Invalid pagination cursor", "after", token);
+        }
+    }
+
+    /**
+     * Encode as an opaque URL-safe token
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MAPPER.writeValueAsString(this).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode pagination cursor", e);
+        }
+    }
+
+    /**
+     * Ensure the cursor was issued for the same sort it is used with
+     */
+    public void verify(Sort sort) {
+        if (!signature(sort).equals(this.sort) || values == null || values.size() != sort.stream().count()) {
+            throw new BadRequestException("Pagination cursor does not match the requested sort", "after", this.sort);
+        }
+    }
+
+    /**
+     * Get the value of the i-th sort key converted to the property type
+     */
+    public Object value(int index, Class<?> type) {
+        return parse(values.get(index), type);
+    }
+
+    public static String signature(Sort sort) {
+        List<String> parts = new ArrayList<>();
+        sort.forEach(order -> parts.add(order.getProperty() + ":" + order.getDirection()));
+        return String.join(",", parts);
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String raw, Class<?> type) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return raw;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(raw);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(raw);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(raw);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(raw);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(raw);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return Boolean.valueOf(raw);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, raw);
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor", "after", raw);
+        }
+        throw new BadRequestException("Cursor pagination is not supported for this sort field", "after", type.getSimpleName());
+    }
+}
@@ -0,0 +1,103 @@
+package com.shoestore.dto.report;
+
+import com.shoestore.entity.report.RollupGranularity;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a sales report over a date range, read from the sales rollups
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sales over a date range: totals, a time series and breakdowns")
+public class SalesReportResponse {
+
+    @Schema(description = "First day of the range", example = "2025-06-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the range, inclusive", example = "2025-06-30")
+    private LocalDate to;
+
+    @Schema(description = "Width of the series buckets", example = "DAY")
+    private RollupGranularity granularity;
+
+    @Schema(description = "Orders in the range")
+    private Long orderCount;
+
+    @Schema(description = "Units sold in the range")
+    private Long units;
+
+    @Schema(description = "Revenue in the range", example = "1299.90")
+    private BigDecimal revenue;
+
+    @Schema(description = "Sales per bucket, oldest first; buckets without sales are omitted")
+    private List<Bucket> series;
+
+    @Schema(description = "Best selling models by revenue")
+    private List<Entry> topModels;
+
+    @Schema(description = "Sales per brand by revenue")
+    private List<Entry> brands;
+
+    @Schema(description = "Sales per category by revenue")
+    private List<Entry> categories;
+
+    /**
+     * Sales of one time bucket
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Sales of one time bucket")
+    public static class Bucket {
+
+        @Schema(description = "Start of the bucket", example = "2025-06-01T00:00:00")
+        private LocalDateTime start;
+
+        @Schema(description = "Orders in the bucket")
+        private Long orderCount;
+
+        @Schema(description = "Units sold in the bucket")
+        private Long units;
+
+        @Schema(description = "Revenue in the bucket", example = "259.98")
+        private BigDecimal revenue;
+    }
+
+    /**
+     * Sales of one model, brand or category
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Sales of one model, brand or category")
+    public static class Entry {
+
+        @Schema(description = "ID of the model, brand or category", example = "1")
+        private Long id;
+
+        @Schema(description = "Display name", example = "Nike")
+        private String name;
+
+        @Schema(description = "Orders including it")
+        private Long orderCount;
+
+        @Schema(description = "Units sold")
+        private Long units;
+
+        @Schema(description = "Revenue", example = "599.95")
+        private BigDecimal revenue;
+    }
+}
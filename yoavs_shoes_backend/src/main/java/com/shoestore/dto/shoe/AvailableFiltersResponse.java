@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -27,6 +28,15 @@ public class AvailableFiltersResponse {
     @Schema(description = "Available colors")
     private List<String> colors;
 
+    @Schema(description = "Available colors with product counts")
+    private List<ColorInfo> colorCounts;
+
+    @Schema(description = "Sizes in stock with product counts")
+    private List<SizeInfo> sizes;
+
+    @Schema(description = "Price ranges with product counts")
+    private List<PriceRangeInfo> priceRanges;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -58,4 +68,46 @@ public class AvailableFiltersResponse {
         @Schema(description = "Number of products", example = "8")
         private Long productCount;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Color information")
+    public static class ColorInfo {
+        @Schema(description = "Color name", example = "White")
+        private String name;
+
+        @Schema(description = "Number of products", example = "6")
+        private Long productCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Size information")
+    public static class SizeInfo {
+        @Schema(description = "Shoe size", example = "42")
+        private String size;
+
+        @Schema(description = "Number of products with this size in stock", example = "12")
+        private Long productCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Price range information")
+    public static class PriceRangeInfo {
+        @Schema(description = "Minimum price (inclusive)", example = "50.00")
+        private BigDecimal minPrice;
+
+        @Schema(description = "Maximum price (exclusive), null for the last range", example = "100.00")
+        private BigDecimal maxPrice;
+
+        @Schema(description = "Number of products", example = "9")
+        private Long productCount;
+    }
 }
@@ -0,0 +1,65 @@
+package com.shoestore.dto.shoe;
+
+import com.shoestore.service.shoe.bulk.CatalogImportFormat;
+import com.shoestore.service.shoe.bulk.CatalogImportTarget;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a catalog import: row counts and the rows that were rejected
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a catalog import")
+public class CatalogImportResponse {
+
+    @Schema(description = "Entity the file was imported into", example = "SHOE_MODEL")
+    private CatalogImportTarget target;
+
+    @Schema(description = "Layout the file was read as", example = "CSV")
+    private CatalogImportFormat format;
+
+    @Schema(description = "Rows read from the file")
+    private Long rows;
+
+    @Schema(description = "Rows inserted")
+    private Long created;
+
+    @Schema(description = "Rows that overwrote an existing row (inventory only)")
+    private Long updated;
+
+    @Schema(description = "Rows rejected")
+    private Long failed;
+
+    @Schema(description = "Rejected rows with the reason, in file order; capped, see errorsTruncated")
+    private List<RowError> errors;
+
+    @Schema(description = "Whether more rows failed than are listed in errors")
+    private Boolean errorsTruncated;
+
+    @Schema(description = "Import duration in milliseconds")
+    private Long durationMs;
+
+    /**
+     * A rejected row
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        @Schema(description = "1-based row number, not counting the CSV header", example = "42")
+        private Long row;
+
+        @Schema(description = "Why the row was rejected", example = "Unknown brand: Nikee")
+        private String message;
+    }
+}
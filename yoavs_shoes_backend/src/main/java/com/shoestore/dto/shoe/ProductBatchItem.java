@@ -0,0 +1,32 @@
+package com.shoestore.dto.shoe;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.shoestore.dto.view.Views;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one requested ID of a batch product lookup: the product, or a not-found marker
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product of a batch lookup, in the position of its requested ID")
+public class ProductBatchItem {
+
+    @JsonView(Views.Summary.class)
+    @Schema(description = "Requested shoe model ID", example = "12")
+    private Long id;
+
+    @JsonView(Views.Summary.class)
+    @Schema(description = "Whether a product exists with this ID", example = "true")
+    private boolean found;
+
+    @JsonView(Views.Summary.class)
+    @Schema(description = "The product with its shoe and sizes, absent when not found")
+    private ShoeModelDto product;
+}
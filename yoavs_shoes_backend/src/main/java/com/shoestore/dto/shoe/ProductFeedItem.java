@@ -0,0 +1,125 @@
+package com.shoestore.dto.shoe;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for one line of the product feed: a shoe model with its shoe, brand, category and stock
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Shoe model in the product feed, one JSON object per line")
+public class ProductFeedItem {
+
+    @Schema(description = "Shoe model ID", example = "12")
+    private Long id;
+
+    @Schema(description = "Model SKU", example = "NIKE-AM90-WHT")
+    private String sku;
+
+    @Schema(description = "Model name", example = "Air Max 90")
+    private String modelName;
+
+    @Schema(description = "Color", example = "White")
+    private String color;
+
+    @Schema(description = "Material", example = "Leather")
+    private String material;
+
+    @Schema(description = "Price", example = "129.99")
+    private BigDecimal price;
+
+    @Schema(description = "Image URL")
+    private String imageUrl;
+
+    @Schema(description = "Whether the model is sold: model, shoe, brand and category are all active. " +
+                          "Only incremental feeds contain inactive models, so they can be removed")
+    private Boolean active;
+
+    @Schema(description = "Latest change of the model, its shoe, brand, category or stock")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Parent shoe")
+    private Shoe shoe;
+
+    @Schema(description = "Brand of the shoe")
+    private Reference brand;
+
+    @Schema(description = "Category of the shoe")
+    private Reference category;
+
+    @Schema(description = "Stock per size, by size")
+    private List<Size> sizes;
+
+    /**
+     * Parent shoe of a model
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shoe {
+
+        @Schema(description = "Shoe ID", example = "3")
+        private Long id;
+
+        @Schema(description = "Shoe name", example = "Air Max")
+        private String name;
+
+        @Schema(description = "Shoe description")
+        private String description;
+
+        @Schema(description = "Target gender", example = "UNISEX")
+        private String gender;
+
+        @Schema(description = "Base price", example = "119.99")
+        private BigDecimal basePrice;
+    }
+
+    /**
+     * Brand or category
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reference {
+
+        @Schema(description = "ID", example = "1")
+        private Long id;
+
+        @Schema(description = "Name", example = "Nike")
+        private String name;
+    }
+
+    /**
+     * Stock of one size
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Size {
+
+        @Schema(description = "Size", example = "42")
+        private String size;
+
+        @Schema(description = "Units that can be ordered (available minus reserved)", example = "7")
+        private Integer available;
+
+        @Schema(description = "Units in stock", example = "9")
+        private Integer quantityAvailable;
+
+        @Schema(description = "Units reserved by pending orders", example = "2")
+        private Integer quantityReserved;
+    }
+}
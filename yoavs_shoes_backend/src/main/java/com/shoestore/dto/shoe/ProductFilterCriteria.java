@@ -51,7 +51,7 @@ public class ProductFilterCriteria {
     @Builder.Default
     private Boolean activeOnly = true;
 
-    @Schema(description = "Sort field", example = "price", allowableValues = {"name", "price", "brand", "createdAt"})
+    @Schema(description = "Sort field", example = "price", allowableValues = {"relevance", "name", "price", "brand", "createdAt"})
     @Builder.Default
     private String sortBy = "name";
 
@@ -0,0 +1,30 @@
+package com.shoestore.dto.shoe;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for search box autocomplete suggestions
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Autocomplete suggestion for the product search box")
+public class ProductSuggestionResponse {
+
+    @Schema(description = "What the suggestion names", example = "BRAND", allowableValues = {"BRAND", "CATEGORY", "SHOE", "MODEL"})
+    private String type;
+
+    @Schema(description = "ID of the brand, category, shoe or shoe model", example = "1")
+    private Long id;
+
+    @Schema(description = "Suggested text", example = "Nike")
+    private String text;
+
+    @Schema(description = "Number of products", example = "15")
+    private Integer productCount;
+}
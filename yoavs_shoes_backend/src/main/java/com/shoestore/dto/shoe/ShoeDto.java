@@ -171,5 +171,11 @@ public class ShoeDto extends BaseCrudDto {
 
         @JsonView(Views.Summary.class)
         private Long totalStock;
+
+        @JsonView(Views.Summary.class)
+        private Long reservedStock;
+
+        @JsonView(Views.Summary.class)
+        private Boolean lowStock;
     }
 }
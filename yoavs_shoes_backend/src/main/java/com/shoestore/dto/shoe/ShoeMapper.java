@@ -2,6 +2,7 @@ package com.shoestore.dto.shoe;
 
 import com.shoestore.dto.base.BaseCrudMapper;
 import com.shoestore.dto.shoe.ShoeDto.ShoeInventoryViewDto;
+import com.shoestore.entity.shoe.IShoeInventoryView;
 import com.shoestore.entity.shoe.Shoe;
 import org.springframework.stereotype.Component;
 
@@ -100,7 +101,8 @@ public class ShoeMapper implements BaseCrudMapper<Shoe, ShoeDto,
                 .build();
     }
 
-    public ShoeInventoryViewDto toInventoryViewDto(Shoe shoe, Long modelCount, Long totalStock) {
+    public ShoeInventoryViewDto toInventoryViewDto(IShoeInventoryView view) {
+        Shoe shoe = view.getShoe();
         if (shoe == null) {
             return null;
         }
@@ -114,8 +116,10 @@ public class ShoeMapper implements BaseCrudMapper<Shoe, ShoeDto,
                 .gender(shoeDto.getGender())
                 .brand(shoeDto.getBrand())
                 .category(shoeDto.getCategory())
-                .modelCount(modelCount)
-                .totalStock(totalStock)
+                .modelCount(view.getModelCount())
+                .totalStock(view.getTotalStock())
+                .reservedStock(view.getReservedStock())
+                .lowStock(view.getLowStock())
                 .build();
 
         // Map base entity fields to inventory view DTO
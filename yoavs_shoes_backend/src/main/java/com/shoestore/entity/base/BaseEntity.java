@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
  * Base entity class that provides common auditing fields for all entities
  *
  * This class includes:
- * - ID field with auto-generation strategy
+ * - ID field drawn from a per-entity sequence (<entity>_seq), handed out in blocks by the
+ *   pooled-lo optimizer so inserts need no round trip for their ID and can be batched
  * - Created date/time and created by user
  * - Last modified date/time and last modified by user
  * - Version field for optimistic locking
@@ -34,7 +35,7 @@ import java.time.LocalDateTime;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -0,0 +1,11 @@
+package com.shoestore.entity.order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an order's ID and placement date
+ */
+public interface IOrderDateView {
+    Long getId();
+    LocalDateTime getOrderDate();
+}
@@ -0,0 +1,17 @@
+package com.shoestore.entity.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an order item with what sales rollups break it down by
+ */
+public interface IOrderItemSalesView {
+    Long getOrderId();
+    LocalDateTime getOrderDate();
+    Long getShoeModelId();
+    Long getBrandId();
+    Long getCategoryId();
+    Integer getQuantity();
+    BigDecimal getTotalPrice();
+}
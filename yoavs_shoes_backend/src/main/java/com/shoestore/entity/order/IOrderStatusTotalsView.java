@@ -0,0 +1,12 @@
+package com.shoestore.entity.order;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the order count and summed totals of one status
+ */
+public interface IOrderStatusTotalsView {
+    OrderStatus getStatus();
+    Long getOrderCount();
+    BigDecimal getTotalAmount();
+}
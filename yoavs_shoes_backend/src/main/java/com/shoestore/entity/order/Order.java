@@ -3,6 +3,7 @@ package com.shoestore.entity.order;
 import com.shoestore.entity.base.BaseEntity;
 import com.shoestore.entity.user.User;
 import com.shoestore.entity.user.UserAddress;
+import com.shoestore.security.annotation.UserOwned;
 import com.shoestore.validation.ValidOrderNumber;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -26,6 +27,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@UserOwned(userIdPath = "user.id")
 public class Order extends BaseEntity {
 
     /**
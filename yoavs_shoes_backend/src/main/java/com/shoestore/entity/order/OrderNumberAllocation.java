@@ -0,0 +1,37 @@
+package com.shoestore.entity.order;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * Hi/lo allocation row: the next unleased index of a number sequence.
+ * Nodes lease blocks of indexes by advancing it under a row lock (see OrderNumberGenerator)
+ */
+@Entity
+@Table(name = "order_number_allocations",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"name"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderNumberAllocation extends BaseEntity {
+
+    /**
+     * Name of the allocated sequence
+     */
+    @Column(name = "name", nullable = false, length = 50)
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    /**
+     * First index not leased to any node yet
+     */
+    @Column(name = "next_index", nullable = false)
+    @NotNull(message = "Next index is required")
+    @Builder.Default
+    private Long nextIndex = 0L;
+}
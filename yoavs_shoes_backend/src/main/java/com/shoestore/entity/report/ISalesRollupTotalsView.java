@@ -0,0 +1,13 @@
+package com.shoestore.entity.report;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of sales rollups summed per dimension ID
+ */
+public interface ISalesRollupTotalsView {
+    Long getDimensionId();
+    Long getOrderCount();
+    Long getUnits();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,14 @@
+package com.shoestore.entity.report;
+
+/**
+ * What a sales rollup row is broken down by
+ */
+public enum SalesDimension {
+    /**
+     * All sales, dimension ID 0
+     */
+    TOTAL,
+    MODEL,
+    BRAND,
+    CATEGORY
+}
@@ -0,0 +1,70 @@
+package com.shoestore.entity.report;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sales of one time bucket, in total or for one model, brand or category.
+ * Maintained incrementally from order status changes (see SalesRollupService)
+ */
+@Entity
+@Table(name = "sales_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "dimension", "dimension_id"}),
+       indexes = @Index(name = "idx_sales_rollups_range", columnList = "granularity, dimension, bucket_start"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesRollup extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    @NotNull(message = "Granularity is required")
+    private RollupGranularity granularity;
+
+    /**
+     * Start of the bucket, truncated to its granularity
+     */
+    @Column(name = "bucket_start", nullable = false)
+    @NotNull(message = "Bucket start is required")
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 10)
+    @NotNull(message = "Dimension is required")
+    private SalesDimension dimension;
+
+    /**
+     * Model, brand or category ID; 0 for totals
+     */
+    @Column(name = "dimension_id", nullable = false)
+    @NotNull(message = "Dimension ID is required")
+    private Long dimensionId;
+
+    /**
+     * Number of orders with sales in this bucket and dimension
+     */
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    /**
+     * Units sold
+     */
+    @Column(name = "units", nullable = false)
+    @Builder.Default
+    private Long units = 0L;
+
+    /**
+     * Revenue from the units sold
+     */
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,13 @@
+package com.shoestore.entity.shoe;
+
+import java.math.BigDecimal;
+
+public interface IFacetCountView {
+    Long getBrandId();
+    String getBrandName();
+    Long getCategoryId();
+    String getCategoryName();
+    String getColor();
+    BigDecimal getPrice();
+    Long getModelCount();
+}
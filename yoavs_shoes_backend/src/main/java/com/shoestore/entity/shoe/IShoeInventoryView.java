@@ -4,4 +4,6 @@ public interface IShoeInventoryView {
     Shoe getShoe();
     Long getModelCount();
     Long getTotalStock();
+    Long getReservedStock();
+    Boolean getLowStock();
 }
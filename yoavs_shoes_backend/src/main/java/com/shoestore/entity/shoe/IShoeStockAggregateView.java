@@ -0,0 +1,15 @@
+package com.shoestore.entity.shoe;
+
+/**
+ * Model and stock totals of a shoe, aggregated from its models and inventory
+ */
+public interface IShoeStockAggregateView {
+    Long getShoeId();
+    Boolean getShoeActive();
+    Long getModelCount();
+    Long getActiveModelCount();
+    Long getTotalStock();
+    Long getActiveStock();
+    Long getReservedStock();
+    Long getLowStockSizes();
+}
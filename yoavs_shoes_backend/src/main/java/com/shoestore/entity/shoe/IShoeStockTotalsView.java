@@ -0,0 +1,11 @@
+package com.shoestore.entity.shoe;
+
+/**
+ * Catalog-wide totals read from the shoe stock summaries
+ */
+public interface IShoeStockTotalsView {
+    Long getShoeCount();
+    Long getModelCount();
+    Long getTotalStock();
+    Long getLowStockSizes();
+}
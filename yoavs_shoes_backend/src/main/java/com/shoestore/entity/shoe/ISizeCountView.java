@@ -0,0 +1,6 @@
+package com.shoestore.entity.shoe;
+
+public interface ISizeCountView {
+    String getSize();
+    Long getModelCount();
+}
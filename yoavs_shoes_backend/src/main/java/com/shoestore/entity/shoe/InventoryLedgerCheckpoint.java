@@ -0,0 +1,37 @@
+package com.shoestore.entity.shoe;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * Last inventory ledger journal segment of a node whose deltas are in shoe_inventory.
+ * Written in the flush transaction, so replay after a crash skips segments already applied (see InventoryLedger)
+ */
+@Entity
+@Table(name = "inventory_ledger_checkpoints",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"node_id"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryLedgerCheckpoint extends BaseEntity {
+
+    /**
+     * Node owning the journal
+     */
+    @Column(name = "node_id", nullable = false, length = 100)
+    @NotBlank(message = "Node ID is required")
+    private String nodeId;
+
+    /**
+     * Number of the last flushed journal segment
+     */
+    @Column(name = "flushed_segment", nullable = false)
+    @NotNull(message = "Flushed segment is required")
+    @Builder.Default
+    private Long flushedSegment = 0L;
+}
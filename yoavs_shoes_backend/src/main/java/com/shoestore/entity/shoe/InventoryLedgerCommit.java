@@ -0,0 +1,37 @@
+package com.shoestore.entity.shoe;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * Proof that a journaled inventory ledger transaction committed: inserted in the transaction
+ * itself, so replay applies a journal record only when its row exists (see InventoryLedger).
+ * Deleted once the transaction's deltas are flushed to shoe_inventory
+ */
+@Entity
+@Table(name = "inventory_ledger_commits",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"node_id", "transaction_id"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryLedgerCommit extends BaseEntity {
+
+    /**
+     * Node owning the journal
+     */
+    @Column(name = "node_id", nullable = false, length = 100)
+    @NotBlank(message = "Node ID is required")
+    private String nodeId;
+
+    /**
+     * Ledger transaction ID written in the journal records
+     */
+    @Column(name = "transaction_id", nullable = false)
+    @NotNull(message = "Transaction ID is required")
+    private Long transactionId;
+}
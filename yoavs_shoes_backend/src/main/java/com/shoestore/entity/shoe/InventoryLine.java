@@ -0,0 +1,26 @@
+package com.shoestore.entity.shoe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantity of one inventory row (shoe model and size), e.g. an order line
+ */
+public record InventoryLine(Long shoeModelId, String size, int quantity) {
+
+    /**
+     * Merge lines of the same model and size by summing their quantities, keeping first-seen order
+     */
+    public static List<InventoryLine> merge(Collection<InventoryLine> lines) {
+        Map<List<Object>, InventoryLine> merged = new LinkedHashMap<>();
+        for (InventoryLine line : lines) {
+            merged.merge(List.of(line.shoeModelId(), line.size()), line,
+                    (existing, added) -> new InventoryLine(existing.shoeModelId(), existing.size(),
+                            existing.quantity() + added.quantity()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
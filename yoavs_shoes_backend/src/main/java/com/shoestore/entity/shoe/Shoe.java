@@ -10,7 +10,9 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Shoe entity representing base shoe models in the system
@@ -28,7 +30,16 @@ public class Shoe extends BaseEntity {
      * Gender enum for shoes
      */
     public enum Gender {
-        MEN, WOMEN, UNISEX
+        MEN, WOMEN, UNISEX;
+
+        /**
+         * Gender by name, ignoring case; empty for unknown names
+         */
+        public static Optional<Gender> parse(String name) {
+            return Arrays.stream(values())
+                    .filter(gender -> gender.name().equalsIgnoreCase(name.trim()))
+                    .findFirst();
+        }
     }
 
     /**
@@ -0,0 +1,108 @@
+package com.shoestore.entity.shoe;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Precomputed model and stock totals of a shoe, one row per shoe.
+ * Recomputed in the transaction of every model, inventory or shoe write (see ShoeStockSummaryService)
+ */
+@Entity
+@Table(name = "shoe_stock_summaries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"shoe_id"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShoeStockSummary extends BaseEntity {
+
+    /**
+     * Shoe ID this summary belongs to
+     */
+    @Column(name = "shoe_id", nullable = false)
+    @NotNull(message = "Shoe ID is required")
+    private Long shoeId;
+
+    /**
+     * Summarized shoe - the row is deleted with it
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shoe_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Shoe shoe;
+
+    /**
+     * Copy of the shoe's active flag
+     */
+    @Column(name = "shoe_active", nullable = false)
+    @Builder.Default
+    private Boolean shoeActive = true;
+
+    /**
+     * Number of models, active or not
+     */
+    @Column(name = "model_count", nullable = false)
+    @Builder.Default
+    private Long modelCount = 0L;
+
+    /**
+     * Number of active models
+     */
+    @Column(name = "active_model_count", nullable = false)
+    @Builder.Default
+    private Long activeModelCount = 0L;
+
+    /**
+     * Available quantity over all models
+     */
+    @Column(name = "total_stock", nullable = false)
+    @Builder.Default
+    private Long totalStock = 0L;
+
+    /**
+     * Available quantity over active models
+     */
+    @Column(name = "active_stock", nullable = false)
+    @Builder.Default
+    private Long activeStock = 0L;
+
+    /**
+     * Reserved quantity over active models
+     */
+    @Column(name = "reserved_stock", nullable = false)
+    @Builder.Default
+    private Long reservedStock = 0L;
+
+    /**
+     * Number of sizes (over all models) below the low stock threshold
+     */
+    @Column(name = "low_stock_sizes", nullable = false)
+    @Builder.Default
+    private Long lowStockSizes = 0L;
+
+    /**
+     * Check if any size of the shoe is below the low stock threshold
+     */
+    public boolean isLowStock() {
+        return lowStockSizes != null && lowStockSizes > 0;
+    }
+
+    /**
+     * Copy freshly aggregated totals into this summary
+     */
+    public void apply(IShoeStockAggregateView aggregate) {
+        this.shoeActive = Boolean.TRUE.equals(aggregate.getShoeActive());
+        this.modelCount = aggregate.getModelCount();
+        this.activeModelCount = aggregate.getActiveModelCount();
+        this.totalStock = aggregate.getTotalStock();
+        this.activeStock = aggregate.getActiveStock();
+        this.reservedStock = aggregate.getReservedStock();
+        this.lowStockSizes = aggregate.getLowStockSizes();
+    }
+}
@@ -0,0 +1,13 @@
+package com.shoestore.entity.user;
+
+import java.time.LocalDateTime;
+
+/**
+ * Security stamp, lock and role of a user, checked against the claims of their tokens
+ */
+public interface IUserSecurityStampView {
+    Long getUserId();
+    Long getSecurityStamp();
+    LocalDateTime getAccountLockedUntil();
+    Boolean getIsAdmin();
+}
@@ -98,6 +98,23 @@ public class User extends BaseEntity {
     @Column(name = "account_locked_until")
     private LocalDateTime accountLockedUntil;
 
+    /**
+     * Security stamp version, carried by issued tokens and rotated to revoke them
+     */
+    @Column(name = "security_stamp")
+    @Builder.Default
+    private Long securityStamp = 0L;
+
+    /**
+     * Password, role and lock state as loaded, to tell whether an update changed any of them
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SecurityState loadedSecurityState;
+
     // Utility methods
 
     /**
@@ -153,6 +170,33 @@ public class User extends BaseEntity {
         this.lastLogin = java.time.LocalDateTime.now();
     }
 
+    /**
+     * Rotate the security stamp, invalidating every token issued before
+     */
+    public void rotateSecurityStamp() {
+        this.securityStamp = (this.securityStamp == null ? 0L : this.securityStamp) + 1;
+    }
+
+    /**
+     * Whether the password, role or lock state differs from the loaded one; a user not loaded
+     * from the database counts as changed
+     */
+    public boolean hasSecurityChanges() {
+        return !currentSecurityState().equals(loadedSecurityState);
+    }
+
+    @PostLoad
+    protected void onLoad() {
+        loadedSecurityState = currentSecurityState();
+    }
+
+    private SecurityState currentSecurityState() {
+        return new SecurityState(passwordHash, hasAdminRole(), isAccountLocked());
+    }
+
+    private record SecurityState(String passwordHash, boolean admin, boolean locked) {
+    }
+
     /**
      * Pre-persist callback to set default values
      */
@@ -165,5 +209,8 @@ public class User extends BaseEntity {
         if (failedLoginAttempts == null) {
             failedLoginAttempts = 0;
         }
+        if (securityStamp == null) {
+            securityStamp = 0L;
+        }
     }
 }
\ No newline at end of file
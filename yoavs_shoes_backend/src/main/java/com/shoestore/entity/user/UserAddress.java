@@ -1,6 +1,7 @@
 package com.shoestore.entity.user;
 
 import com.shoestore.entity.base.BaseEntity;
+import com.shoestore.security.annotation.UserOwned;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -17,6 +18,7 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@UserOwned(userIdPath = "user.id")
 public class UserAddress extends BaseEntity {
 
     /**
@@ -0,0 +1,38 @@
+package com.shoestore.entity.user;
+
+import com.shoestore.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted user, written in the deleting transaction so every node rejects the
+ * user's tokens until they expire (see SecurityStampRegistry)
+ */
+@Entity
+@Table(name = "user_tombstones",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id"}),
+       indexes = @Index(name = "idx_user_tombstones_deleted_at", columnList = "deleted_at"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTombstone extends BaseEntity {
+
+    /**
+     * ID of the deleted user
+     */
+    @Column(name = "user_id", nullable = false)
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    /**
+     * When the user was deleted
+     */
+    @Column(name = "deleted_at", nullable = false)
+    @NotNull(message = "Deletion time is required")
+    private LocalDateTime deletedAt;
+}
@@ -4,12 +4,14 @@ import com.shoestore.entity.base.BaseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +22,14 @@ import java.util.Optional;
  * @param <ID> Entity ID type
  */
 @NoRepositoryBean
-public interface BaseRepository<T extends BaseEntity, ID> extends JpaRepository<T, ID> {
+public interface BaseRepository<T extends BaseEntity, ID>
+        extends JpaRepository<T, ID>, JpaSpecificationExecutor<T>, TwoPhaseQueryExecutor<T, ID> {
+
+    /**
+     * Find entities by IDs, used to hydrate a page of IDs
+     * Override with an @EntityGraph to fetch the associations the listing needs
+     */
+    List<T> findByIdIn(Collection<ID> ids);
 
     /**
      * Find entities created between two dates
@@ -0,0 +1,78 @@
+package com.shoestore.repository.base;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Repository base class adding the id-only queries of {@link TwoPhaseQueryExecutor}
+ * to every repository
+ *
+ * @param <T> Entity type
+ * @param <ID> Entity ID type
+ */
+public class BaseRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements TwoPhaseQueryExecutor<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+
+    public BaseRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<ID> findIds(Specification<T> spec, Pageable pageable) {
+        TypedQuery<ID> query = createIdQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // Count only when the page content doesn't already tell the total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ID> findIds(Specification<T> spec, Sort sort, int limit) {
+        return createIdQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<ID> createIdQuery(Specification<T> spec, Sort sort) {
+        Class<ID> idType = (Class<ID>) entityInformation.getIdType();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ID> query = criteriaBuilder.createQuery(idType);
+        Root<T> root = query.from(getDomainClass());
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        // The ID as final tie-breaker keeps pages stable when sort values are equal
+        String idAttribute = entityInformation.getIdAttribute().getName();
+        Sort stableSort = sort.getOrderFor(idAttribute) == null ? sort.and(Sort.by(idAttribute)) : sort;
+
+        query.select(root.get(idAttribute));
+        query.orderBy(QueryUtils.toOrders(stableSort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+}
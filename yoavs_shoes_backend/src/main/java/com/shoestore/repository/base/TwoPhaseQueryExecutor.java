@@ -0,0 +1,34 @@
+package com.shoestore.repository.base;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+/**
+ * Id-only queries for two-phase pagination.
+ *
+ * Phase one pages just the IDs with the filters and sort applied in the database; phase two
+ * loads exactly those IDs with their associations (see {@link BaseRepository#findByIdIn}).
+ * This keeps LIMIT/OFFSET in SQL for entities whose listing needs fetched collections,
+ * instead of Hibernate applying the page in memory.
+ *
+ * @param <T> Entity type
+ * @param <ID> Entity ID type
+ */
+@NoRepositoryBean
+public interface TwoPhaseQueryExecutor<T, ID> {
+
+    /**
+     * Find a page of IDs matching the specification, in the pageable's order
+     */
+    Page<ID> findIds(Specification<T> spec, Pageable pageable);
+
+    /**
+     * Find at most limit IDs matching the specification, in the given order
+     */
+    List<ID> findIds(Specification<T> spec, Sort sort, int limit);
+}
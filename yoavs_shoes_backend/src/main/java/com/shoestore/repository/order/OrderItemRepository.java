@@ -1,13 +1,17 @@
 package com.shoestore.repository.order;
 
+import com.shoestore.entity.order.IOrderItemSalesView;
 import com.shoestore.entity.order.OrderItem;
+import com.shoestore.entity.order.OrderStatus;
 import com.shoestore.repository.base.BaseRepository;
 
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for OrderItem entity operations
@@ -21,4 +25,19 @@ public interface OrderItemRepository extends BaseRepository<OrderItem, Long> {
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId")
     List<OrderItem> findByOrderId(@Param("orderId") Long orderId);
 
+    /**
+     * Find the items of the given orders with their order date, brand and category, grouped by order
+     */
+    @Query(SALES_SELECT + "WHERE oi.orderId IN :orderIds ORDER BY oi.orderId")
+    List<IOrderItemSalesView> findSalesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Stream the items of all orders in the given statuses with their order date, brand and category, grouped by order
+     */
+    @Query(SALES_SELECT + "WHERE o.status IN :statuses ORDER BY oi.orderId")
+    Stream<IOrderItemSalesView> streamSalesByOrderStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    String SALES_SELECT = "SELECT oi.orderId AS orderId, o.orderDate AS orderDate, oi.shoeModelId AS shoeModelId, " +
+            "s.brandId AS brandId, s.categoryId AS categoryId, oi.quantity AS quantity, oi.totalPrice AS totalPrice " +
+            "FROM OrderItem oi JOIN oi.order o JOIN oi.shoeModel sm JOIN sm.shoe s ";
 }
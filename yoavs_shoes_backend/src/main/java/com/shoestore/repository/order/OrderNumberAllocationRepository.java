@@ -0,0 +1,28 @@
+package com.shoestore.repository.order;
+
+import com.shoestore.entity.order.OrderNumberAllocation;
+import com.shoestore.repository.base.BaseRepository;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for OrderNumberAllocation entity operations
+ */
+@Repository
+public interface OrderNumberAllocationRepository extends BaseRepository<OrderNumberAllocation, Long> {
+
+    /**
+     * Find an allocation row, locking it until the transaction ends.
+     * Serializes block leases across nodes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM OrderNumberAllocation a WHERE a.name = :name")
+    Optional<OrderNumberAllocation> findByNameForUpdate(@Param("name") String name);
+}
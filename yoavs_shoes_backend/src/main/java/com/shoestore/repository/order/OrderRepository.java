@@ -1,15 +1,20 @@
 package com.shoestore.repository.order;
 
+import com.shoestore.entity.order.IOrderDateView;
+import com.shoestore.entity.order.IOrderStatusTotalsView;
 import com.shoestore.entity.order.Order;
 import com.shoestore.entity.order.OrderStatus;
 import com.shoestore.repository.base.BaseRepository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,16 +24,14 @@ import java.util.Optional;
 public interface OrderRepository extends BaseRepository<Order, Long> {
 
     /**
-     * Find orders by user ID
+     * Find orders by IDs with user, shipping address and items with their shoe models fetched
      */
-    @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.orderDate DESC")
-    Page<Order> findByUserId(@Param("userId") Long userId, Pageable pageable);
-
-    /**
-     * Find orders by status
-     */
-    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.orderDate DESC")
-    Page<Order> findByStatus(@Param("status") OrderStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = {
+            "user", "shippingAddress", "orderItems",
+            "orderItems.shoeModel", "orderItems.shoeModel.shoe",
+            "orderItems.shoeModel.shoe.brand", "orderItems.shoeModel.shoe.category"
+    })
+    List<Order> findByIdIn(Collection<Long> ids);
 
     /**
      * Find order by ID with user relationship for access control
@@ -41,9 +44,31 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
      */
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     long countByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * Count orders and sum their totals per status
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, COALESCE(SUM(o.totalAmount), 0) AS totalAmount " +
+           "FROM Order o GROUP BY o.status")
+    List<IOrderStatusTotalsView> getTotalsByStatus();
+
+    /**
+     * Find the IDs and order dates of orders in a status
+     */
+    @Query("SELECT o.id AS id, o.orderDate AS orderDate FROM Order o WHERE o.status = :status")
+    List<IOrderDateView> findOrderDatesByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * Find the IDs of orders in a status placed at or before a cutoff, oldest first
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.orderDate <= :cutoff ORDER BY o.orderDate, o.id")
+    List<Long> findIdsByStatusPlacedBefore(@Param("status") OrderStatus status,
+                                           @Param("cutoff") LocalDateTime cutoff,
+                                           Pageable pageable);
  
     /**
-     * Check if order number exists
+     * Find which of the given order numbers are taken
      */
-    boolean existsByOrderNumber(String orderNumber);
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
 }
@@ -0,0 +1,72 @@
+package com.shoestore.repository.report;
+
+import com.shoestore.entity.report.ISalesRollupTotalsView;
+import com.shoestore.entity.report.RollupGranularity;
+import com.shoestore.entity.report.SalesDimension;
+import com.shoestore.entity.report.SalesRollup;
+import com.shoestore.repository.base.BaseRepository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for SalesRollup entity operations
+ */
+@Repository
+public interface SalesRollupRepository extends BaseRepository<SalesRollup, Long> {
+
+    /**
+     * Check whether a bucket row exists
+     */
+    boolean existsByGranularityAndBucketStartAndDimensionAndDimensionId(
+            RollupGranularity granularity, LocalDateTime bucketStart, SalesDimension dimension, Long dimensionId);
+
+    /**
+     * Add to a bucket row in place; returns the number of rows updated (0 when the row doesn't exist)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SalesRollup r SET r.orderCount = r.orderCount + :orders, r.units = r.units + :units, " +
+           "r.revenue = r.revenue + :revenue, r.version = r.version + 1, r.updatedAt = LOCAL DATETIME " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart " +
+           "AND r.dimension = :dimension AND r.dimensionId = :dimensionId")
+    int increment(@Param("granularity") RollupGranularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("dimension") SalesDimension dimension,
+                  @Param("dimensionId") Long dimensionId,
+                  @Param("orders") long orders,
+                  @Param("units") long units,
+                  @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Find the bucket rows of a dimension ID in [from, to), oldest first
+     */
+    @Query("SELECT r FROM SalesRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension " +
+           "AND r.dimensionId = :dimensionId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart")
+    List<SalesRollup> findSeries(@Param("granularity") RollupGranularity granularity,
+                                 @Param("dimension") SalesDimension dimension,
+                                 @Param("dimensionId") Long dimensionId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Sum the bucket rows in [from, to) per dimension ID, highest revenue first
+     */
+    @Query("SELECT r.dimensionId as dimensionId, SUM(r.orderCount) as orderCount, SUM(r.units) as units, " +
+           "SUM(r.revenue) as revenue " +
+           "FROM SalesRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.dimensionId ORDER BY SUM(r.revenue) DESC, r.dimensionId")
+    List<ISalesRollupTotalsView> sumByDimension(@Param("granularity") RollupGranularity granularity,
+                                                @Param("dimension") SalesDimension dimension,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+}
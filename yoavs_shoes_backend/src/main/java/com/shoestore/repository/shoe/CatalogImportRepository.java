@@ -0,0 +1,210 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.base.BaseEntity;
+import com.shoestore.entity.shoe.Shoe;
+import com.shoestore.entity.shoe.ShoeInventory;
+import com.shoestore.entity.shoe.ShoeModel;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Plain JDBC reads and batched writes for catalog imports.
+ *
+ * Rows are written without going through the persistence context, so nothing is tracked per
+ * row and each chunk goes out as one JDBC batch per statement. IDs come from the same
+ * sequences as Hibernate's and are handed out the same way (pooled-lo: each sequence value
+ * starts a block of {@link #ID_BLOCK_SIZE} IDs), so imported and application rows never collide.
+ */
+@Repository
+public class CatalogImportRepository {
+
+    /**
+     * Allocation size of the entity sequences (see BaseEntity)
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public CatalogImportRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Find which of the given shoe IDs exist
+     */
+    public Set<Long> findExistingShoeIds(Collection<Long> shoeIds) {
+        if (shoeIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT id FROM shoes WHERE id IN (:ids)", Map.of("ids", shoeIds), Long.class));
+    }
+
+    /**
+     * Find the IDs of shoes by brand and lower-case name, keyed by {@link #shoeKey}.
+     * A key maps to several IDs when a brand has more than one shoe with that name.
+     */
+    public Map<String, List<Long>> findShoeIdsByName(Collection<String> lowerCaseNames) {
+        if (lowerCaseNames.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, List<Long>> shoeIds = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, brand_id, name FROM shoes WHERE LOWER(name) IN (:names)",
+                Map.of("names", lowerCaseNames),
+                resultSet -> {
+                    shoeIds.computeIfAbsent(shoeKey(resultSet.getLong("brand_id"), resultSet.getString("name")),
+                            key -> new ArrayList<>()).add(resultSet.getLong("id"));
+                });
+        return shoeIds;
+    }
+
+    /**
+     * Key of a shoe by brand and name, as returned by {@link #findShoeIdsByName}
+     */
+    public static String shoeKey(Long brandId, String name) {
+        return brandId + "|" + name.trim().toLowerCase();
+    }
+
+    /**
+     * Find which of the given model IDs exist
+     */
+    public Set<Long> findExistingModelIds(Collection<Long> shoeModelIds) {
+        if (shoeModelIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT id FROM shoe_models WHERE id IN (:ids)", Map.of("ids", shoeModelIds), Long.class));
+    }
+
+    /**
+     * Find model IDs by SKU
+     */
+    public Map<String, Long> findModelIdsBySku(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Long> modelIds = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, sku FROM shoe_models WHERE sku IN (:skus)",
+                Map.of("skus", skus),
+                resultSet -> {
+                    modelIds.put(resultSet.getString("sku"), resultSet.getLong("id"));
+                });
+        return modelIds;
+    }
+
+    /**
+     * Find the inventory row IDs of every size of the given models, by model ID and size
+     */
+    public Map<Long, Map<String, Long>> findInventoryIds(Collection<Long> shoeModelIds) {
+        if (shoeModelIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Map<String, Long>> inventoryIds = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, shoe_model_id, size FROM shoe_inventory WHERE shoe_model_id IN (:ids)",
+                Map.of("ids", shoeModelIds),
+                resultSet -> {
+                    inventoryIds.computeIfAbsent(resultSet.getLong("shoe_model_id"), id -> new HashMap<>())
+                            .put(resultSet.getString("size"), resultSet.getLong("id"));
+                });
+        return inventoryIds;
+    }
+
+    /**
+     * Take count IDs from an entity sequence, one sequence call per block
+     */
+    public long[] allocateIds(String sequence, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (i % ID_BLOCK_SIZE == 0) {
+                ids[i] = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+            } else {
+                ids[i] = ids[i - 1] + 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Insert new shoes, assigning their IDs
+     */
+    public void insertShoes(List<Shoe> shoes, String auditor) {
+        assignIds("shoes_seq", shoes);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO shoes (id, brand_id, category_id, name, description, gender, base_price, is_active, "
+                        + "created_at, updated_at, created_by, updated_by, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                shoes.stream().map(shoe -> new Object[]{
+                        shoe.getId(), shoe.getBrandId(), shoe.getCategoryId(), shoe.getName(), shoe.getDescription(),
+                        shoe.getGender().name(), shoe.getBasePrice(), shoe.getIsActive(),
+                        now, now, auditor, auditor
+                }).toList());
+    }
+
+    /**
+     * Insert new shoe models, assigning their IDs
+     */
+    public void insertModels(List<ShoeModel> models, String auditor) {
+        assignIds("shoe_models_seq", models);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO shoe_models (id, shoe_id, model_name, color, material, sku, price, image_url, is_active, "
+                        + "created_at, updated_at, created_by, updated_by, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                models.stream().map(model -> new Object[]{
+                        model.getId(), model.getShoeId(), model.getModelName(), model.getColor(), model.getMaterial(),
+                        model.getSku(), model.getPrice(), model.getImageUrl(), model.getIsActive(),
+                        now, now, auditor, auditor
+                }).toList());
+    }
+
+    /**
+     * Insert new inventory rows with nothing reserved, assigning their IDs
+     */
+    public void insertInventory(List<ShoeInventory> inventory, String auditor) {
+        assignIds("shoe_inventory_seq", inventory);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO shoe_inventory (id, shoe_model_id, size, quantity_available, quantity_reserved, "
+                        + "created_at, updated_at, created_by, updated_by, version) "
+                        + "VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?, 0)",
+                inventory.stream().map(row -> new Object[]{
+                        row.getId(), row.getShoeModelId(), row.getSize(), row.getQuantityAvailable(),
+                        now, now, auditor, auditor
+                }).toList());
+    }
+
+    /**
+     * Overwrite the available quantity of existing inventory rows by ID, leaving reservations alone.
+     * The version is bumped so entities loaded before the import fail their optimistic check.
+     */
+    public void updateInventoryQuantities(List<ShoeInventory> inventory, String auditor) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "UPDATE shoe_inventory SET quantity_available = ?, updated_at = ?, updated_by = ?, version = version + 1 "
+                        + "WHERE id = ?",
+                inventory.stream().map(row -> new Object[]{
+                        row.getQuantityAvailable(), now, auditor, row.getId()
+                }).toList());
+    }
+
+    private void assignIds(String sequence, List<? extends BaseEntity> entities) {
+        long[] ids = allocateIds(sequence, entities.size());
+        for (int i = 0; i < ids.length; i++) {
+            entities.get(i).setId(ids[i]);
+        }
+    }
+}
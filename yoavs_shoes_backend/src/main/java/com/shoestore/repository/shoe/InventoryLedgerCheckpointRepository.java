@@ -0,0 +1,20 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.InventoryLedgerCheckpoint;
+import com.shoestore.repository.base.BaseRepository;
+
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for InventoryLedgerCheckpoint entity operations
+ */
+@Repository
+public interface InventoryLedgerCheckpointRepository extends BaseRepository<InventoryLedgerCheckpoint, Long> {
+
+    /**
+     * Find the checkpoint of a node
+     */
+    Optional<InventoryLedgerCheckpoint> findByNodeId(String nodeId);
+}
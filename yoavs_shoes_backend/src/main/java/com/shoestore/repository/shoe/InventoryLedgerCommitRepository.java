@@ -0,0 +1,39 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.InventoryLedgerCommit;
+import com.shoestore.repository.base.BaseRepository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for InventoryLedgerCommit entity operations
+ */
+@Repository
+public interface InventoryLedgerCommitRepository extends BaseRepository<InventoryLedgerCommit, Long> {
+
+    /**
+     * IDs of the committed ledger transactions of a node not flushed yet
+     */
+    @Query("SELECT c.transactionId FROM InventoryLedgerCommit c WHERE c.nodeId = :nodeId")
+    List<Long> findTransactionIds(@Param("nodeId") String nodeId);
+
+    /**
+     * Delete the commit rows of flushed ledger transactions
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryLedgerCommit c WHERE c.nodeId = :nodeId AND c.transactionId IN :transactionIds")
+    int deleteTransactions(@Param("nodeId") String nodeId, @Param("transactionIds") Collection<Long> transactionIds);
+
+    /**
+     * Delete every commit row of a node
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryLedgerCommit c WHERE c.nodeId = :nodeId")
+    int deleteByNode(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,33 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.InventoryLine;
+
+import java.util.List;
+
+/**
+ * Multi-row conditional inventory updates: every operation is a single UPDATE statement over
+ * all lines and returns the number of rows it changed. Lines must not repeat a model and size
+ * (see {@link InventoryLine#merge}).
+ */
+public interface InventoryReservationRepository {
+
+    /**
+     * Reserve every line that still has enough unreserved stock
+     */
+    int reserveAll(List<InventoryLine> lines);
+
+    /**
+     * Release reserved quantities, never below zero
+     */
+    int releaseAll(List<InventoryLine> lines);
+
+    /**
+     * Turn reserved quantities into sold ones, taking them off available and reserved stock
+     */
+    int commitAll(List<InventoryLine> lines);
+
+    /**
+     * Put sold quantities back into available stock
+     */
+    int restoreAll(List<InventoryLine> lines);
+}
@@ -0,0 +1,108 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.InventoryLine;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the multi-row statements of {@link InventoryReservationRepository}.
+ *
+ * Per-line quantities are selected with a CASE over (model, size) and the WHERE clause
+ * ORs the lines, each with its own stock condition, so a line without enough stock is
+ * simply not updated and shows up as a missing affected row.
+ */
+public class InventoryReservationRepositoryImpl implements InventoryReservationRepository {
+
+    private static final String AVAILABLE = "si.quantityAvailable";
+    private static final String RESERVED = "si.quantityReserved";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int reserveAll(List<InventoryLine> lines) {
+        return execute(lines,
+                RESERVED + " = " + RESERVED + " + " + quantity(lines),
+                i -> AVAILABLE + " - " + RESERVED + " >= :q" + i);
+    }
+
+    @Override
+    public int releaseAll(List<InventoryLine> lines) {
+        return execute(lines,
+                RESERVED + " = " + subtractClamped(RESERVED, quantity(lines)),
+                i -> null);
+    }
+
+    @Override
+    public int commitAll(List<InventoryLine> lines) {
+        String quantity = quantity(lines);
+        return execute(lines,
+                AVAILABLE + " = " + subtractClamped(AVAILABLE, quantity) + ", "
+                        + RESERVED + " = " + subtractClamped(RESERVED, quantity),
+                i -> null);
+    }
+
+    @Override
+    public int restoreAll(List<InventoryLine> lines) {
+        return execute(lines,
+                AVAILABLE + " = " + AVAILABLE + " + " + quantity(lines),
+                i -> null);
+    }
+
+    /**
+     * Run "UPDATE ... SET assignments WHERE (line 0 [AND condition 0]) OR (line 1 ...)"
+     */
+    private int execute(List<InventoryLine> lines, String assignments, IntFunction<String> lineCondition) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+
+        List<String> alternatives = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String condition = lineCondition.apply(i);
+            alternatives.add("(" + matches(i) + (condition != null ? " AND " + condition : "") + ")");
+        }
+
+        // Bump the version so entities loaded before this statement fail their optimistic check
+        Query query = entityManager.createQuery(
+                "UPDATE ShoeInventory si SET " + assignments + ", "
+                        + "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME "
+                        + "WHERE " + String.join(" OR ", alternatives));
+
+        for (int i = 0; i < lines.size(); i++) {
+            InventoryLine line = lines.get(i);
+            query.setParameter("m" + i, line.shoeModelId());
+            query.setParameter("s" + i, line.size());
+            query.setParameter("q" + i, line.quantity());
+        }
+
+        // Pending changes must reach the database before the bulk update
+        entityManager.flush();
+        return query.executeUpdate();
+    }
+
+    /**
+     * CASE picking the quantity of the line matching the row
+     */
+    private String quantity(List<InventoryLine> lines) {
+        StringBuilder expression = new StringBuilder("CASE");
+        for (int i = 0; i < lines.size(); i++) {
+            expression.append(" WHEN ").append(matches(i)).append(" THEN :q").append(i);
+        }
+        return expression.append(" ELSE 0 END").toString();
+    }
+
+    private String subtractClamped(String column, String quantity) {
+        return "CASE WHEN " + column + " >= " + quantity + " THEN " + column + " - " + quantity + " ELSE 0 END";
+    }
+
+    private String matches(int line) {
+        return "si.shoeModelId = :m" + line + " AND si.size = :s" + line;
+    }
+}
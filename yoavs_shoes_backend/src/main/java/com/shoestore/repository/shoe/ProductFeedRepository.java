@@ -0,0 +1,169 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.dto.shoe.ProductFeedItem;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Reads the product feed through a forward-only JDBC cursor.
+ *
+ * One row per model and size comes back ordered by model, fetchSize rows per round trip, and
+ * consecutive rows are folded into one {@link ProductFeedItem} at a time, so neither the driver
+ * nor the caller holds more than a fetch of the catalog. Must run inside a transaction: the
+ * PostgreSQL driver only streams with auto-commit off and reads everything at once otherwise.
+ */
+@Repository
+public class ProductFeedRepository {
+
+    private static final String SELECT =
+            "SELECT m.id, m.sku, m.model_name, m.color, m.material, m.price, m.image_url, " +
+            "m.is_active AS model_active, m.updated_at AS model_updated_at, " +
+            "s.id AS shoe_id, s.name AS shoe_name, s.description AS shoe_description, s.gender, s.base_price, " +
+            "s.is_active AS shoe_active, s.updated_at AS shoe_updated_at, " +
+            "b.id AS brand_id, b.name AS brand_name, b.is_active AS brand_active, b.updated_at AS brand_updated_at, " +
+            "c.id AS category_id, c.name AS category_name, c.is_active AS category_active, c.updated_at AS category_updated_at, " +
+            "i.size, i.quantity_available, i.quantity_reserved, i.updated_at AS size_updated_at " +
+            "FROM shoe_models m " +
+            "JOIN shoes s ON s.id = m.shoe_id " +
+            "JOIN brands b ON b.id = s.brand_id " +
+            "JOIN shoe_categories c ON c.id = s.category_id " +
+            "LEFT JOIN shoe_inventory i ON i.shoe_model_id = m.id ";
+
+    private static final String ACTIVE =
+            "WHERE m.is_active = true AND s.is_active = true AND b.is_active = true AND c.is_active = true ";
+
+    private static final String CHANGED_SINCE =
+            "WHERE m.updated_at > :since OR s.updated_at > :since OR b.updated_at > :since OR c.updated_at > :since " +
+            "OR EXISTS (SELECT 1 FROM shoe_inventory ci WHERE ci.shoe_model_id = m.id AND ci.updated_at > :since) ";
+
+    private static final String ORDER = "ORDER BY m.id, i.size";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductFeedRepository(DataSource dataSource,
+                                 @Value("${app.catalog.feed.fetch-size:500}") int fetchSize) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    /**
+     * Stream every sold model (model, shoe, brand and category active) in ID order
+     */
+    public void streamActive(Consumer<ProductFeedItem> consumer) {
+        stream(SELECT + ACTIVE + ORDER, new MapSqlParameterSource(), consumer);
+    }
+
+    /**
+     * Stream every model whose own row, shoe, brand, category or stock changed after the given time,
+     * active or not, in ID order
+     */
+    public void streamChangedSince(LocalDateTime since, Consumer<ProductFeedItem> consumer) {
+        stream(SELECT + CHANGED_SINCE + ORDER, new MapSqlParameterSource("since", Timestamp.valueOf(since)), consumer);
+    }
+
+    private void stream(String sql, MapSqlParameterSource parameters, Consumer<ProductFeedItem> consumer) {
+        ItemAssembler assembler = new ItemAssembler(consumer);
+        jdbcTemplate.query(sql, parameters, assembler);
+        assembler.finish();
+    }
+
+    /**
+     * Folds the rows of one model into an item and hands it over when the next model starts
+     */
+    private static class ItemAssembler implements RowCallbackHandler {
+
+        private final Consumer<ProductFeedItem> consumer;
+        private ProductFeedItem current;
+
+        ItemAssembler(Consumer<ProductFeedItem> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = startItem(rs);
+            }
+
+            String size = rs.getString("size");
+            if (size != null) {
+                int available = rs.getInt("quantity_available");
+                int reserved = rs.getInt("quantity_reserved");
+                current.getSizes().add(ProductFeedItem.Size.builder()
+                        .size(size)
+                        .available(Math.max(0, available - reserved))
+                        .quantityAvailable(available)
+                        .quantityReserved(reserved)
+                        .build());
+                current.setUpdatedAt(latest(current.getUpdatedAt(), rs.getTimestamp("size_updated_at")));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+
+        private ProductFeedItem startItem(ResultSet rs) throws SQLException {
+            LocalDateTime updatedAt = null;
+            for (String column : new String[]{"model_updated_at", "shoe_updated_at", "brand_updated_at", "category_updated_at"}) {
+                updatedAt = latest(updatedAt, rs.getTimestamp(column));
+            }
+
+            return ProductFeedItem.builder()
+                    .id(rs.getLong("id"))
+                    .sku(rs.getString("sku"))
+                    .modelName(rs.getString("model_name"))
+                    .color(rs.getString("color"))
+                    .material(rs.getString("material"))
+                    .price(rs.getBigDecimal("price"))
+                    .imageUrl(rs.getString("image_url"))
+                    .active(rs.getBoolean("model_active") && rs.getBoolean("shoe_active")
+                            && rs.getBoolean("brand_active") && rs.getBoolean("category_active"))
+                    .updatedAt(updatedAt)
+                    .shoe(ProductFeedItem.Shoe.builder()
+                            .id(rs.getLong("shoe_id"))
+                            .name(rs.getString("shoe_name"))
+                            .description(rs.getString("shoe_description"))
+                            .gender(rs.getString("gender"))
+                            .basePrice(rs.getBigDecimal("base_price"))
+                            .build())
+                    .brand(ProductFeedItem.Reference.builder()
+                            .id(rs.getLong("brand_id"))
+                            .name(rs.getString("brand_name"))
+                            .build())
+                    .category(ProductFeedItem.Reference.builder()
+                            .id(rs.getLong("category_id"))
+                            .name(rs.getString("category_name"))
+                            .build())
+                    .sizes(new ArrayList<>())
+                    .build();
+        }
+
+        private static LocalDateTime latest(LocalDateTime current, Timestamp candidate) {
+            if (candidate == null) {
+                return current;
+            }
+            LocalDateTime value = candidate.toLocalDateTime();
+            return current == null || value.isAfter(current) ? value : current;
+        }
+    }
+}
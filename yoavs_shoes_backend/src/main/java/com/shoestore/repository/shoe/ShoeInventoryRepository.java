@@ -4,10 +4,12 @@ import com.shoestore.entity.shoe.ShoeInventory;
 import com.shoestore.entity.shoe.ShoeModel;
 import com.shoestore.repository.base.BaseRepository;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +17,7 @@ import java.util.Optional;
  * Repository interface for ShoeInventory entity operations
  */
 @Repository
-public interface ShoeInventoryRepository extends BaseRepository<ShoeInventory, Long> {
+public interface ShoeInventoryRepository extends BaseRepository<ShoeInventory, Long>, InventoryReservationRepository {
 
     /**
      * Find inventory by shoe model and size
@@ -39,4 +41,68 @@ public interface ShoeInventoryRepository extends BaseRepository<ShoeInventory, L
     @Query("SELECT SUM(si.quantityAvailable) FROM ShoeInventory si WHERE si.quantityAvailable > 0")
     Long getTotalAvailableStock();
 
+    /**
+     * Find all inventory rows of the given shoe models
+     */
+    List<ShoeInventory> findByShoeModelIdIn(Collection<Long> shoeModelIds);
+
+    /**
+     * Get the current unreserved quantity of a row, read as a value so it bypasses loaded entities
+     */
+    @Query("SELECT si.quantityAvailable - si.quantityReserved FROM ShoeInventory si " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size")
+    Optional<Integer> findUnreservedQuantity(@Param("shoeModelId") Long shoeModelId, @Param("size") String size);
+
+    /**
+     * Reserve stock if enough is unreserved; returns the number of rows updated (0 or 1)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ShoeInventory si SET si.quantityReserved = si.quantityReserved + :quantity, " +
+           "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size " +
+           "AND si.quantityAvailable - si.quantityReserved >= :quantity")
+    int reserve(@Param("shoeModelId") Long shoeModelId, @Param("size") String size, @Param("quantity") int quantity);
+
+    /**
+     * Release reserved stock, never below zero; returns the number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ShoeInventory si SET si.quantityReserved = " +
+           "CASE WHEN si.quantityReserved >= :quantity THEN si.quantityReserved - :quantity ELSE 0 END, " +
+           "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size")
+    int release(@Param("shoeModelId") Long shoeModelId, @Param("size") String size, @Param("quantity") int quantity);
+
+    /**
+     * Take reserved stock off available and reserved quantities; returns the number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ShoeInventory si SET " +
+           "si.quantityAvailable = CASE WHEN si.quantityAvailable >= :quantity THEN si.quantityAvailable - :quantity ELSE 0 END, " +
+           "si.quantityReserved = CASE WHEN si.quantityReserved >= :quantity THEN si.quantityReserved - :quantity ELSE 0 END, " +
+           "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size")
+    int commit(@Param("shoeModelId") Long shoeModelId, @Param("size") String size, @Param("quantity") int quantity);
+
+    /**
+     * Return sold stock to available stock; returns the number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ShoeInventory si SET si.quantityAvailable = si.quantityAvailable + :quantity, " +
+           "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size")
+    int restore(@Param("shoeModelId") Long shoeModelId, @Param("size") String size, @Param("quantity") int quantity);
+
+    /**
+     * Add deltas to the quantities of a row, never below zero; returns the number of rows updated.
+     * Relative, so it composes with changes made concurrently by other nodes
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ShoeInventory si SET " +
+           "si.quantityAvailable = CASE WHEN si.quantityAvailable + :available >= 0 THEN si.quantityAvailable + :available ELSE 0 END, " +
+           "si.quantityReserved = CASE WHEN si.quantityReserved + :reserved >= 0 THEN si.quantityReserved + :reserved ELSE 0 END, " +
+           "si.version = si.version + 1, si.updatedAt = LOCAL DATETIME " +
+           "WHERE si.shoeModelId = :shoeModelId AND si.size = :size")
+    int addQuantities(@Param("shoeModelId") Long shoeModelId, @Param("size") String size,
+                      @Param("available") int available, @Param("reserved") int reserved);
 }
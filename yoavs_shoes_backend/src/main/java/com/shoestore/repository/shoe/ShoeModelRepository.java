@@ -1,8 +1,8 @@
 package com.shoestore.repository.shoe;
 
+import com.shoestore.entity.shoe.IFacetCountView;
+import com.shoestore.entity.shoe.ISizeCountView;
 import com.shoestore.entity.shoe.ShoeModel;
-import com.shoestore.entity.shoe.Brand;
-import com.shoestore.entity.shoe.ShoeCategory;
 import com.shoestore.repository.base.BaseRepository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -11,7 +11,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for ShoeModel entity operations
@@ -20,26 +22,71 @@ import java.util.List;
 public interface ShoeModelRepository extends BaseRepository<ShoeModel, Long>, JpaSpecificationExecutor<ShoeModel> {
 
     /**
-     * Find distinct colors for active models
+     * Find all models by shoe ID
      */
-    @Query("SELECT DISTINCT sm.color FROM ShoeModel sm WHERE sm.isActive = true AND sm.color IS NOT NULL")
-    List<String> findDistinctColorsByIsActiveTrue();
+    @EntityGraph(attributePaths = {"availableSizes"})
+    List<ShoeModel> findByShoeId(Long shoeId);
 
     /**
-     * Count active models by brand
+     * Find all models with the associations needed by the catalog indexes
      */
-    @Query("SELECT COUNT(sm) FROM ShoeModel sm WHERE sm.shoe.brand = :brand AND sm.isActive = true")
-    long countByShoe_BrandAndIsActiveTrue(@Param("brand") Brand brand);
+    @EntityGraph(attributePaths = {"shoe", "shoe.brand", "shoe.category", "availableSizes"})
+    @Query("SELECT sm FROM ShoeModel sm")
+    List<ShoeModel> findAllForCatalogIndex();
 
     /**
-     * Count active models by category
+     * Find models by IDs with shoe, brand, category and sizes fetched
      */
-    @Query("SELECT COUNT(sm) FROM ShoeModel sm WHERE sm.shoe.category = :category AND sm.isActive = true")
-    long countByShoe_CategoryAndIsActiveTrue(@Param("category") ShoeCategory category);
+    @EntityGraph(attributePaths = {"shoe", "shoe.brand", "shoe.category", "availableSizes"})
+    List<ShoeModel> findByIdIn(Collection<Long> ids);
 
     /**
-     * Find all models by shoe ID
+     * Find model IDs for a shoe
      */
-    @EntityGraph(attributePaths = {"availableSizes"})
-    List<ShoeModel> findByShoeId(Long shoeId);
+    @Query("SELECT sm.id FROM ShoeModel sm WHERE sm.shoeId = :shoeId")
+    List<Long> findIdsByShoeId(@Param("shoeId") Long shoeId);
+
+    /**
+     * Find the shoe ID of a model
+     */
+    @Query("SELECT sm.shoeId FROM ShoeModel sm WHERE sm.id = :id")
+    Optional<Long> findShoeIdById(@Param("id") Long id);
+
+    /**
+     * Find the distinct shoe IDs of the given models
+     */
+    @Query("SELECT DISTINCT sm.shoeId FROM ShoeModel sm WHERE sm.id IN :ids")
+    List<Long> findShoeIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find model IDs for a brand
+     */
+    @Query("SELECT sm.id FROM ShoeModel sm WHERE sm.shoe.brandId = :brandId")
+    List<Long> findIdsByBrandId(@Param("brandId") Long brandId);
+
+    /**
+     * Find model IDs for a category
+     */
+    @Query("SELECT sm.id FROM ShoeModel sm WHERE sm.shoe.categoryId = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Count storefront-visible models grouped by every facet value in a single pass
+     */
+    @Query("SELECT b.id as brandId, b.name as brandName, c.id as categoryId, c.name as categoryName, " +
+           "sm.color as color, sm.price as price, COUNT(sm) as modelCount " +
+           "FROM ShoeModel sm JOIN sm.shoe s JOIN s.brand b JOIN s.category c " +
+           "WHERE sm.isActive = true AND s.isActive = true AND b.isActive = true AND c.isActive = true " +
+           "GROUP BY b.id, b.name, c.id, c.name, sm.color, sm.price")
+    List<IFacetCountView> countVisibleModelsByFacets();
+
+    /**
+     * Count storefront-visible models having each size in stock
+     */
+    @Query("SELECT si.size as size, COUNT(DISTINCT sm.id) as modelCount " +
+           "FROM ShoeInventory si JOIN si.shoeModel sm JOIN sm.shoe s JOIN s.brand b JOIN s.category c " +
+           "WHERE si.quantityAvailable > 0 " +
+           "AND sm.isActive = true AND s.isActive = true AND b.isActive = true AND c.isActive = true " +
+           "GROUP BY si.size")
+    List<ISizeCountView> countVisibleModelsBySizeInStock();
 }
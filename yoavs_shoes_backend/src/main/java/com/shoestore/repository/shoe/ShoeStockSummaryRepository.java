@@ -0,0 +1,72 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.IShoeStockAggregateView;
+import com.shoestore.entity.shoe.IShoeStockTotalsView;
+import com.shoestore.entity.shoe.ShoeStockSummary;
+import com.shoestore.repository.base.BaseRepository;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ShoeStockSummary entity operations
+ */
+@Repository
+public interface ShoeStockSummaryRepository extends BaseRepository<ShoeStockSummary, Long> {
+
+    /**
+     * Find the summaries of the given shoes
+     */
+    List<ShoeStockSummary> findByShoeIdIn(Collection<Long> shoeIds);
+
+    /**
+     * Find a shoe's summary, locking the row until the transaction ends.
+     * Serializes concurrent recomputations of the same shoe.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ss FROM ShoeStockSummary ss WHERE ss.shoeId = :shoeId")
+    Optional<ShoeStockSummary> findByShoeIdForUpdate(@Param("shoeId") Long shoeId);
+
+    /**
+     * Aggregate a shoe's models and inventory; empty when the shoe doesn't exist
+     */
+    @Query(AGGREGATE_SELECT + "WHERE s.id = :shoeId GROUP BY s.id, s.isActive")
+    Optional<IShoeStockAggregateView> aggregateByShoeId(@Param("shoeId") Long shoeId,
+                                                        @Param("threshold") int lowStockThreshold);
+
+    /**
+     * Aggregate the models and inventory of every shoe
+     */
+    @Query(AGGREGATE_SELECT + "GROUP BY s.id, s.isActive")
+    List<IShoeStockAggregateView> aggregateAll(@Param("threshold") int lowStockThreshold);
+
+    /**
+     * Catalog-wide totals; the low stock sizes only count active shoes
+     */
+    @Query("SELECT COUNT(ss) as shoeCount, " +
+           "COALESCE(SUM(ss.modelCount), 0) as modelCount, " +
+           "COALESCE(SUM(ss.totalStock), 0) as totalStock, " +
+           "COALESCE(SUM(CASE WHEN ss.shoeActive = true THEN ss.lowStockSizes ELSE 0 END), 0) as lowStockSizes " +
+           "FROM ShoeStockSummary ss")
+    IShoeStockTotalsView getTotals();
+
+    String AGGREGATE_SELECT =
+            "SELECT s.id as shoeId, s.isActive as shoeActive, " +
+            "COUNT(DISTINCT sm.id) as modelCount, " +
+            "COUNT(DISTINCT CASE WHEN sm.isActive = true THEN sm.id END) as activeModelCount, " +
+            "COALESCE(SUM(si.quantityAvailable), 0) as totalStock, " +
+            "COALESCE(SUM(CASE WHEN sm.isActive = true THEN si.quantityAvailable ELSE 0 END), 0) as activeStock, " +
+            "COALESCE(SUM(CASE WHEN sm.isActive = true THEN si.quantityReserved ELSE 0 END), 0) as reservedStock, " +
+            "COALESCE(SUM(CASE WHEN si.quantityAvailable < :threshold THEN 1 ELSE 0 END), 0) as lowStockSizes " +
+            "FROM Shoe s " +
+            "LEFT JOIN s.shoeModels sm " +
+            "LEFT JOIN sm.availableSizes si ";
+}
@@ -1,5 +1,6 @@
 package com.shoestore.repository.user;
 
+import com.shoestore.entity.user.IUserSecurityStampView;
 import com.shoestore.entity.user.User;
 import com.shoestore.repository.base.BaseRepository;
 
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -62,4 +64,12 @@ public interface UserRepository extends BaseRepository<User, Long> {
     @Query("UPDATE User u SET u.accountLockedUntil = :lockUntil WHERE u.id = :userId")
     void lockUserAccount(@Param("userId") Long userId, @Param("lockUntil") LocalDateTime lockUntil);
 
-}
\ No newline at end of file
+    /**
+     * Find the users whose tokens need checking: a rotated security stamp, a lock still running,
+     * or the admin role (a token claiming it for anyone else is rejected)
+     */
+    @Query("SELECT u.id AS userId, u.securityStamp AS securityStamp, u.accountLockedUntil AS accountLockedUntil, " +
+            "u.isAdmin AS isAdmin " +
+            "FROM User u WHERE u.securityStamp > 0 OR u.accountLockedUntil > :now OR u.isAdmin = true")
+    List<IUserSecurityStampView> findSecurityStamps(@Param("now") LocalDateTime now);
+}
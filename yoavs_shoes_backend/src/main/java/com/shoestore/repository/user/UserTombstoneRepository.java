@@ -0,0 +1,24 @@
+package com.shoestore.repository.user;
+
+import com.shoestore.entity.user.UserTombstone;
+import com.shoestore.repository.base.BaseRepository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for UserTombstone entity operations
+ */
+@Repository
+public interface UserTombstoneRepository extends BaseRepository<UserTombstone, Long> {
+
+    /**
+     * IDs of the users deleted after the given time, whose tokens may not have expired yet
+     */
+    @Query("SELECT t.userId FROM UserTombstone t WHERE t.deletedAt > :since")
+    List<Long> findUserIdsDeletedAfter(@Param("since") LocalDateTime since);
+}
@@ -92,6 +92,17 @@ public class CustomUserDetailsService implements UserDetailsService {
             );
         }
 
+        /**
+         * Create a principal from verified token claims, without loading the user.
+         * The password is unknown and the lock is checked against the security stamp table instead.
+         */
+        public static UserPrincipal fromClaims(Long id, String email, String role) {
+            List<GrantedAuthority> authorities = List.of(
+                    new SimpleGrantedAuthority("ADMIN".equals(role) ? "ROLE_ADMIN" : "ROLE_USER"));
+
+            return new UserPrincipal(id, email, null, authorities, true);
+        }
+
         public Long getId() {
             return id;
         }
@@ -1,12 +1,12 @@
 package com.shoestore.security;
 
-import com.shoestore.util.JwtUtil;
+import com.shoestore.security.service.SecurityStampRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,20 +17,34 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter
  *
  * This filter intercepts incoming requests and validates JWT tokens.
  * If a valid token is found, it sets the authentication in the SecurityContext.
+ * In stateless principal mode the principal is built from the token claims and checked against
+ * the security stamp table, instead of loading the user on every request.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerifier jwtVerifier;
     private final UserDetailsService userDetailsService;
+    private final SecurityStampRegistry securityStampRegistry;
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier,
+                                   UserDetailsService userDetailsService,
+                                   SecurityStampRegistry securityStampRegistry,
+                                   @Value("${app.jwt.stateless-principal:false}") boolean statelessPrincipal) {
+        this.jwtVerifier = jwtVerifier;
+        this.userDetailsService = userDetailsService;
+        this.securityStampRegistry = securityStampRegistry;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -42,15 +56,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             // Extract JWT token from request
-            String jwt = getJwtFromRequest(request);
+            String jwt = JwtVerifier.getBearerToken(request);
             log.debug("Extracted JWT token: {}", jwt != null ? "present" : "absent");
 
             // Validate token and set authentication
             if (StringUtils.hasText(jwt)) {
                 log.debug("Attempting to validate JWT token");
 
-                if (jwtUtil.validateToken(jwt)) {
-                    String username = jwtUtil.getUsernameFromToken(jwt);
+                // Parsed once here; later readers of the request get the same claims
+                Optional<VerifiedToken> verifiedToken = jwtVerifier.verify(request);
+                if (verifiedToken.isPresent()) {
+                    String username = verifiedToken.get().subject();
                     log.debug("Token is valid for user: {}", username);
 
                     // Check if authentication is already set
@@ -58,7 +74,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         log.debug("Loading user details for: {}", username);
 
                         // Load user details
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        UserDetails userDetails = loadUserDetails(verifiedToken.get());
+                        if (userDetails == null) {
+                            log.warn("JWT token of user {} was revoked", username);
+                            filterChain.doFilter(request, response);
+                            return;
+                        }
                         log.debug("User details loaded: {}", userDetails.getUsername());
 
                         // Create authentication token
@@ -95,19 +116,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Extract JWT token from Authorization header
+     * Build the principal from the token claims in stateless mode, or load it by username.
+     * Returns null when the token's security stamp is revoked, the user is locked or no longer has the claimed role.
      */
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        log.debug("Authorization header: {}", bearerToken != null ? "Bearer ***" : "not present");
-
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            String token = bearerToken.substring(7);
-            log.debug("Extracted token length: {}", token.length());
-            return token;
+    private UserDetails loadUserDetails(VerifiedToken token) {
+        // Tokens issued before the claims were added still load the user
+        if (statelessPrincipal && token.userId() != null) {
+            if (!securityStampRegistry.isCurrent(token.userId(), token.securityStamp(), token.role())) {
+                return null;
+            }
+            return CustomUserDetailsService.UserPrincipal.fromClaims(token.userId(), token.subject(), token.role());
         }
-
-        return null;
+        return userDetailsService.loadUserByUsername(token.subject());
     }
 
     /**
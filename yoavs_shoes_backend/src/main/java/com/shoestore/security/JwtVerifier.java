@@ -0,0 +1,142 @@
+package com.shoestore.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shoestore.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies the bearer token of a request once.
+ *
+ * The result is stored as a request attribute for everything running later in the request,
+ * and the claims of verified tokens are kept by SHA-256 digest until the token expires, so a
+ * client sending the same token again skips the signature check and JSON parsing.
+ */
+@Component
+@Slf4j
+public class JwtVerifier {
+
+    /**
+     * Request attribute holding the {@link VerifiedToken} of the request
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtVerifier(JwtUtil jwtUtil,
+                       @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        this.jwtUtil = jwtUtil;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verify the bearer token of the request, at most once per request.
+     * Empty when the request has no token or an invalid one.
+     */
+    public Optional<VerifiedToken> verify(HttpServletRequest request) {
+        Object verified = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (verified instanceof VerifiedToken token) {
+            return Optional.of(token);
+        }
+
+        String token = getBearerToken(request);
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        Optional<VerifiedToken> result = verify(token);
+        result.ifPresent(value -> request.setAttribute(REQUEST_ATTRIBUTE, value));
+        return result;
+    }
+
+    /**
+     * Verify a token, from the cache of verified tokens when it was seen before
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.of(cached);
+        }
+
+        try {
+            VerifiedToken verified = toVerifiedToken(jwtUtil.getAllClaimsFromToken(token));
+            verifiedTokens.put(digest, verified);
+            return Optional.of(verified);
+        } catch (ExpiredJwtException ex) {
+            log.debug("JWT token is expired: {}", ex.getMessage());
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.warn("Invalid JWT token: {}", ex.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Extract the token from the Authorization header
+     */
+    public static String getBearerToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                jwtUtil.getUserId(claims),
+                claims.get(JwtUtil.CLAIM_ROLE, String.class),
+                jwtUtil.getSecurityStamp(claims),
+                // Our tokens always expire; one without expiration is just not kept
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : Instant.now()
+        );
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.shoestore.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT token whose signature and expiration were verified.
+ * userId and role are null for tokens issued before they were added to the claims.
+ */
+public record VerifiedToken(
+        String subject,
+        Long userId,
+        String role,
+        long securityStamp,
+        Instant expiresAt
+) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,93 @@
+package com.shoestore.security.aspect;
+
+import com.shoestore.security.annotation.AccessControl;
+import com.shoestore.security.service.OwnershipResolver;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Access check of one @AccessControl method on one controller, resolved once by
+ * {@link AccessPlanCompiler} so the aspect only reads arguments and invokes handles.
+ *
+ * @param entityIdIndex position of the entity ID argument, -1 to read it from the path
+ * @param ownerQuery    projection of the owner ID, null when ownership needs the loaded entity
+ * @param loader        (Long)Object handle bound to the entity's service, null when no service was found
+ * @param ownerIdPaths  getter chains (Object)Object from the entity to its owner's ID, tried in order
+ */
+record AccessPlan(
+        String methodName,
+        AccessControl.AccessLevel level,
+        boolean skipValidation,
+        String accessDeniedMessage,
+        String entityIdParam,
+        int entityIdIndex,
+        Class<?> entityType,
+        OwnershipResolver.OwnerQuery ownerQuery,
+        MethodHandle loader,
+        List<List<MethodHandle>> ownerIdPaths
+) {
+
+    boolean requiresOwnership() {
+        return level == AccessControl.AccessLevel.OWNER_OR_ADMIN;
+    }
+
+    /**
+     * Entity ID argument as a Long, null when absent or not numeric
+     */
+    Long entityId(Object[] args) {
+        if (entityIdIndex < 0) {
+            return null;
+        }
+        Object value = args[entityIdIndex];
+        if (value instanceof Long id) {
+            return id;
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load the entity through its service, null when it doesn't exist
+     */
+    Object loadEntity(Long entityId) {
+        Object result = invoke(loader, entityId);
+        return result instanceof Optional<?> optional ? optional.orElse(null) : result;
+    }
+
+    /**
+     * Owner user ID from the first path that yields one
+     */
+    Long ownerId(Object entity) {
+        for (List<MethodHandle> path : ownerIdPaths) {
+            Object current = entity;
+            for (MethodHandle getter : path) {
+                if (current == null) {
+                    break;
+                }
+                current = invoke(getter, current);
+            }
+            if (current instanceof Long ownerId) {
+                return ownerId;
+            }
+        }
+        return null;
+    }
+
+    private static Object invoke(MethodHandle handle, Object argument) {
+        try {
+            return handle.invoke(argument);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.shoestore.security.aspect;
+
+import com.shoestore.security.annotation.AccessControl;
+import com.shoestore.security.annotation.UserOwned;
+import com.shoestore.security.service.OwnershipResolver;
+import com.shoestore.service.base.BaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves every @AccessControl method of the controllers into an {@link AccessPlan} at startup:
+ * the entity ID argument, the entity type, and either the projection query of its @UserOwned path
+ * or the service method loading it and the getters leading to its owner.
+ * Methods reached another way are compiled on first call.
+ *
+ * To support ownership checks with lazy-loaded relationships, services can implement one of
+ * these methods (in order of preference), returning the entity or Optional of it, loaded with
+ * JOIN FETCH of the owner; otherwise getById is used:
+ * findByIdWithUser, findByIdWithOwner, findByIdWithRelations, findByIdForAccessControl, findByIdEager
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AccessPlanCompiler implements SmartInitializingSingleton {
+
+    private static final String[] LOADER_METHOD_NAMES = {
+            "findByIdWithUser",
+            "findByIdWithOwner",
+            "findByIdWithRelations",
+            "findByIdForAccessControl",
+            "findByIdEager"
+    };
+
+    /**
+     * Owner paths tried when neither the method, the controller nor the entity has @UserOwned
+     */
+    private static final String[] COMMON_OWNER_PATHS = {
+            "userId", "user.id", "owner.id", "ownerId", "createdBy.id", "createdById",
+            "assignedTo.id", "assignedToId", "customer.id", "customerId"
+    };
+
+    private static final MethodType LOADER_TYPE = MethodType.methodType(Object.class, Long.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final ApplicationContext applicationContext;
+    private final OwnershipResolver ownershipResolver;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<PlanKey, AccessPlan> plans = new ConcurrentHashMap<>();
+
+    private record PlanKey(Class<?> controllerClass, Method method) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        for (Object controller : applicationContext.getBeansWithAnnotation(RestController.class).values()) {
+            Class<?> controllerClass = AopUtils.getTargetClass(controller);
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(controllerClass, m -> !m.isBridge())) {
+                AccessControl accessControl = method.getAnnotation(AccessControl.class);
+                if (accessControl != null) {
+                    planFor(controllerClass, method, accessControl);
+                }
+            }
+        }
+        log.info("Compiled {} access control plans in {}ms", plans.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Plan of a method as called on the given controller class
+     */
+    public AccessPlan planFor(Class<?> controllerClass, Method method, AccessControl accessControl) {
+        PlanKey key = new PlanKey(controllerClass, method);
+        AccessPlan plan = plans.get(key);
+        if (plan != null) {
+            return plan;
+        }
+        // Compiled outside of the map's bin lock: it queries the bean factory, which synchronizes,
+        // and a virtual thread blocked there would pin its carrier
+        AccessPlan compiled = compile(controllerClass, method, accessControl);
+        plan = plans.putIfAbsent(key, compiled);
+        return plan != null ? plan : compiled;
+    }
+
+    private AccessPlan compile(Class<?> controllerClass, Method method, AccessControl accessControl) {
+        int entityIdIndex = -1;
+        Class<?> entityType = null;
+        OwnershipResolver.OwnerQuery ownerQuery = null;
+        MethodHandle loader = null;
+        List<List<MethodHandle>> ownerIdPaths = List.of();
+
+        if (accessControl.level() == AccessControl.AccessLevel.OWNER_OR_ADMIN && !accessControl.skipValidation()) {
+            entityIdIndex = findParameter(method, accessControl.entityIdParam());
+            entityType = resolveEntityType(controllerClass, accessControl);
+            if (entityType == null) {
+                log.warn("Could not determine entity type for access validation of {}.{}",
+                        controllerClass.getSimpleName(), method.getName());
+            } else {
+                UserOwned userOwned = findUserOwned(controllerClass, method, entityType);
+                if (userOwned != null && userOwned.userIdMethod().isEmpty()) {
+                    ownerQuery = ownershipResolver.queryFor(entityType, userOwned.userIdPath()).orElse(null);
+                }
+            }
+            // Without a projection the entity is loaded and walked to its owner
+            if (entityType != null && ownerQuery == null) {
+                loader = resolveLoader(entityType);
+                ownerIdPaths = resolveOwnerIdPaths(entityType, findUserOwned(controllerClass, method, entityType));
+                if (loader == null) {
+                    log.warn("No service found for entity type: {}", entityType.getName());
+                }
+                if (ownerIdPaths.isEmpty()) {
+                    log.warn("No owner path found for entity type: {}", entityType.getName());
+                }
+            }
+        }
+
+        return new AccessPlan(
+                method.getName(),
+                accessControl.level(),
+                accessControl.skipValidation(),
+                accessControl.accessDeniedMessage(),
+                accessControl.entityIdParam(),
+                entityIdIndex,
+                entityType,
+                ownerQuery,
+                loader,
+                ownerIdPaths
+        );
+    }
+
+    private int findParameter(Method method, String name) {
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        if (parameterNames != null) {
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (name.equals(parameterNames[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Declared entity type, or the controller's generic entity type when the declared one is
+     * Object or a supertype of it (as BaseEntity on the inherited CRUD routes)
+     */
+    private Class<?> resolveEntityType(Class<?> controllerClass, AccessControl accessControl) {
+        Class<?> declared = accessControl.entityType();
+        Class<?> inferred = inferEntityTypeFromController(controllerClass);
+        if (inferred != null && declared.isAssignableFrom(inferred)) {
+            return inferred;
+        }
+        return declared == Object.class ? null : declared;
+    }
+
+    private Class<?> inferEntityTypeFromController(Class<?> controllerClass) {
+        Type genericSuperclass = controllerClass.getGenericSuperclass();
+        if (genericSuperclass instanceof ParameterizedType paramType) {
+            Type[] typeArgs = paramType.getActualTypeArguments();
+            if (typeArgs.length > 0 && typeArgs[0] instanceof Class<?> entityClass) {
+                return entityClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Handle of the service method loading the entity, bound to the service bean (its proxy,
+     * so the method's transaction applies)
+     */
+    private MethodHandle resolveLoader(Class<?> entityType) {
+        for (BaseService<?, ?, ?> service : applicationContext.getBeansOfType(BaseService.class).values()) {
+            Class<?> serviceClass = AopUtils.getTargetClass(service);
+            Class<?> serviceEntity = ResolvableType.forClass(BaseService.class, serviceClass).getGeneric(0).resolve();
+            if (serviceEntity != entityType) {
+                continue;
+            }
+
+            try {
+                for (String methodName : LOADER_METHOD_NAMES) {
+                    Method loaderMethod = ReflectionUtils.findMethod(service.getClass(), methodName, Long.class);
+                    if (loaderMethod != null) {
+                        log.debug("Using {} method for {} access validation", methodName, entityType.getSimpleName());
+                        return bind(loaderMethod, service);
+                    }
+                }
+                return bind(service.getClass().getMethod("getById", Object.class), service);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Could not resolve loader of {}: {}", entityType.getSimpleName(), e.getMessage());
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private MethodHandle bind(Method method, Object target) throws IllegalAccessException {
+        return MethodHandles.lookup().unreflect(method).bindTo(target).asType(LOADER_TYPE);
+    }
+
+    /**
+     * @UserOwned on the method, then on the controller class, then on the entity class
+     */
+    private UserOwned findUserOwned(Class<?> controllerClass, Method method, Class<?> entityType) {
+        UserOwned methodAnnotation = method.getAnnotation(UserOwned.class);
+        if (methodAnnotation != null) {
+            return methodAnnotation;
+        }
+        UserOwned controllerAnnotation = controllerClass.getAnnotation(UserOwned.class);
+        return controllerAnnotation != null ? controllerAnnotation : entityType.getAnnotation(UserOwned.class);
+    }
+
+    private List<List<MethodHandle>> resolveOwnerIdPaths(Class<?> entityType, UserOwned userOwned) {
+        List<List<MethodHandle>> paths = new ArrayList<>();
+        if (userOwned != null && !userOwned.userIdMethod().isEmpty()) {
+            Method ownerMethod = ReflectionUtils.findMethod(entityType, userOwned.userIdMethod());
+            if (ownerMethod != null) {
+                paths.add(List.of(getter(ownerMethod)));
+            }
+        } else if (userOwned != null) {
+            addPath(paths, entityType, userOwned.userIdPath());
+        } else {
+            for (String path : COMMON_OWNER_PATHS) {
+                addPath(paths, entityType, path);
+            }
+        }
+        return List.copyOf(paths);
+    }
+
+    /**
+     * Resolve a dotted path to getters (fields when there is no getter), skipping it if a part is missing
+     */
+    private void addPath(List<List<MethodHandle>> paths, Class<?> entityType, String path) {
+        List<MethodHandle> getters = new ArrayList<>();
+        Class<?> current = entityType;
+        for (String part : path.split("\\.")) {
+            PropertyDescriptor property = BeanUtils.getPropertyDescriptor(current, part);
+            if (property != null && property.getReadMethod() != null) {
+                getters.add(getter(property.getReadMethod()));
+                current = property.getPropertyType();
+                continue;
+            }
+
+            Field field = ReflectionUtils.findField(current, part);
+            if (field == null) {
+                return;
+            }
+            try {
+                ReflectionUtils.makeAccessible(field);
+                getters.add(MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
+            } catch (IllegalAccessException e) {
+                return;
+            }
+            current = field.getType();
+        }
+        if (current == Long.class) {
+            paths.add(List.copyOf(getters));
+        }
+    }
+
+    private MethodHandle getter(Method method) {
+        try {
+            // Virtual dispatch through the handle, so Hibernate proxies answer with their own ID
+            return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
+    }
+}
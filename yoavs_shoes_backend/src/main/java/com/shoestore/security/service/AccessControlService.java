@@ -2,15 +2,16 @@ package com.shoestore.security.service;
 
 import com.shoestore.entity.user.User;
 import com.shoestore.exception.UnauthorizedException;
-import com.shoestore.security.CustomUserDetailsService;
 import com.shoestore.security.annotation.AccessControl;
 import com.shoestore.service.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
 /**
  * Service for handling access control validation
  */
@@ -20,31 +21,21 @@ import org.springframework.stereotype.Service;
 public class AccessControlService {
 
     private final UserService userService;
+    private final OwnershipResolver ownershipResolver;
+    private final CurrentUserContext currentUserContext;
 
     /**
-     * Get the currently authenticated user
+     * Get the currently authenticated user, loaded once per request
      */
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new UnauthorizedException("Authentication required");
-        }
-
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof CustomUserDetailsService.UserPrincipal userPrincipal) {
-            User user = userService.getById(userPrincipal.getId());
-            return user;
-        }
-
-        throw new UnauthorizedException("Invalid authentication principal");
+        return currentUserContext.getUser();
     }
 
     /**
      * Get the current user ID
      */
     public Long getCurrentUserId() {
-        return getCurrentUser().getId();
+        return currentUserContext.getUserId();
     }
 
     /**
@@ -58,13 +49,7 @@ public class AccessControlService {
      * Check if current user is admin
      */
     public boolean isCurrentUserAdmin() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            return authentication.getAuthorities().stream()
-                    .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
-        } catch (Exception e) {
-            return false;
-        }
+        return currentUserContext.isAdmin();
     }
 
     /**
@@ -78,7 +63,7 @@ public class AccessControlService {
                 
             case AUTHENTICATED:
                 // Just verify user is authenticated
-                getCurrentUser();
+                currentUserContext.getPrincipal();
                 return;
                 
             case ADMIN_ONLY:
@@ -98,8 +83,8 @@ public class AccessControlService {
      * Validate admin access
      */
     public void validateAdminAccess() {
-        User currentUser = getCurrentUser();
-        if (!isAdmin(currentUser)) {
+        currentUserContext.getPrincipal();
+        if (!currentUserContext.isAdmin()) {
             throw new UnauthorizedException("Admin access required");
         }
     }
@@ -108,10 +93,10 @@ public class AccessControlService {
      * Validate owner or admin access
      */
     public void validateOwnerOrAdminAccess(Long entityOwnerId) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserContext.getUserId();
         
         // Admin can access anything
-        if (isAdmin(currentUser)) {
+        if (currentUserContext.isAdmin()) {
             return;
         }
 
@@ -119,34 +104,57 @@ public class AccessControlService {
             throw new UnauthorizedException("Could not determine entity ownership");
         }
 
-        if (!currentUser.getId().equals(entityOwnerId)) {
+        if (!currentUserId.equals(entityOwnerId)) {
             throw new UnauthorizedException("Access denied: not the owner of this entity");
         }
     }
 
+    /**
+     * Validate owner or admin access to many entities at once (for list endpoints),
+     * resolving their owners with one query. Entities that don't exist are denied, as on the
+     * single-ID path.
+     */
+    public void validateOwnerOrAdminAccess(Class<?> entityType, Collection<Long> entityIds) {
+        Long currentUserId = currentUserContext.getUserId();
+        if (currentUserContext.isAdmin() || entityIds.isEmpty()) {
+            return;
+        }
+
+        OwnershipResolver.OwnerQuery query = ownershipResolver.queryFor(entityType)
+                .orElseThrow(() -> new UnauthorizedException("Could not determine entity ownership"));
+        Map<Long, Long> owners = ownershipResolver.findOwnerIds(query, entityIds);
+        if (!owners.keySet().containsAll(new HashSet<>(entityIds))) {
+            throw new UnauthorizedException("Could not determine entity ownership");
+        }
+        boolean allOwned = owners.values().stream().allMatch(currentUserId::equals);
+        if (!allOwned) {
+            throw new UnauthorizedException("Access denied: not the owner of these entities");
+        }
+    }
+
     /**
      * Validate user entity access (for user-specific operations)
      */
     public User validateUserEntityAccess(Long userId, String operation, AccessControl.AccessLevel accessLevel) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserContext.getUserId();
 
         if (accessLevel == AccessControl.AccessLevel.ADMIN_ONLY) {
-            if (!isAdmin(currentUser)) {
+            if (!currentUserContext.isAdmin()) {
                 throw new UnauthorizedException("Admin access required for " + operation);
             }
             return userService.getById(userId);
         }
 
         if (accessLevel == AccessControl.AccessLevel.OWNER_OR_ADMIN) {
-            if (isAdmin(currentUser)) {
+            if (currentUserContext.isAdmin()) {
                 return userService.getById(userId);
             }
 
-            if (!currentUser.getId().equals(userId)) {
+            if (!currentUserId.equals(userId)) {
                 throw new UnauthorizedException("Cannot " + operation + " another user's data");
             }
         }
 
-        return currentUser;
+        return currentUserContext.getUser();
     }
 }
@@ -0,0 +1,77 @@
+package com.shoestore.security.service;
+
+import com.shoestore.entity.user.User;
+import com.shoestore.exception.UnauthorizedException;
+import com.shoestore.security.CustomUserDetailsService;
+import com.shoestore.service.user.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The authenticated user of the current request, shared by the access control aspect,
+ * controllers and services.
+ *
+ * ID and role come from the principal's authorities without touching the database;
+ * the User entity is loaded on first use and reused for the rest of the request.
+ */
+@Component
+@RequestScope
+@Slf4j
+@RequiredArgsConstructor
+public class CurrentUserContext {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final UserService userService;
+
+    private User user;
+
+    /**
+     * Principal of the authenticated user
+     */
+    public CustomUserDetailsService.UserPrincipal getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UnauthorizedException("Authentication required");
+        }
+
+        if (authentication.getPrincipal() instanceof CustomUserDetailsService.UserPrincipal userPrincipal) {
+            return userPrincipal;
+        }
+
+        throw new UnauthorizedException("Invalid authentication principal");
+    }
+
+    /**
+     * ID of the authenticated user
+     */
+    public Long getUserId() {
+        return getPrincipal().getId();
+    }
+
+    /**
+     * Whether the authenticated user has the admin role
+     */
+    public boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+    }
+
+    /**
+     * The authenticated user, loaded at most once per request
+     */
+    public User getUser() {
+        Long userId = getUserId();
+        if (user == null || !user.getId().equals(userId)) {
+            log.debug("Loading current user {}", userId);
+            user = userService.getById(userId);
+        }
+        return user;
+    }
+}
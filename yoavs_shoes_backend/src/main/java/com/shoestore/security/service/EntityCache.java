@@ -1,90 +1,139 @@
 package com.shoestore.security.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Thread-local cache for storing entities fetched during access control validation
+ * Request-scoped cache for storing entities fetched during access control validation
  * This prevents duplicate database calls when the controller method needs the same entity
+ *
+ * Entities are kept in an attribute of the current request rather than on the thread, so the
+ * cache follows the request across async dispatches (DeferredResult, Callable) and doesn't
+ * depend on which thread, platform or virtual, serves it. Outside of a request it is a no-op.
  */
 @Component
 @Slf4j
 public class EntityCache {
 
-    private static final ThreadLocal<Map<String, Object>> entityCache = 
-        ThreadLocal.withInitial(HashMap::new);
+    public static final String REQUEST_ATTRIBUTE = EntityCache.class.getName() + ".ENTITIES";
 
     /**
-     * Store an entity in the cache with a key
+     * Cache key of an entity; numeric IDs are normalized to Long
      */
-    public void put(String key, Object entity) {
-        log.debug("Caching entity with key: {}", key);
-        entityCache.get().put(key, entity);
+    public record EntityKey(Class<?> entityType, Object id) {
+
+        public static EntityKey of(Class<?> entityType, Object id) {
+            return new EntityKey(entityType, id instanceof Number number ? Long.valueOf(number.longValue()) : id);
+        }
     }
 
     /**
-     * Retrieve an entity from the cache
+     * Lookups made by one request
      */
-    @SuppressWarnings("unchecked")
-    public <T> T get(String key, Class<T> entityType) {
-        Object entity = entityCache.get().get(key);
-        if (entity != null && entityType.isInstance(entity)) {
-            log.debug("Retrieved cached entity with key: {}", key);
-            return (T) entity;
+    public record Stats(long hits, long misses) {
+
+        public long lookups() {
+            return hits + misses;
         }
-        return null;
+    }
+
+    private static final class RequestEntities {
+        private final Map<EntityKey, Object> entities = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
     }
 
     /**
-     * Check if an entity exists in the cache
+     * Bind an empty cache to the request, keeping the one of an earlier dispatch
      */
-    public boolean contains(String key) {
-        return entityCache.get().containsKey(key);
+    public void open(HttpServletRequest request) {
+        if (!(request.getAttribute(REQUEST_ATTRIBUTE) instanceof RequestEntities)) {
+            request.setAttribute(REQUEST_ATTRIBUTE, new RequestEntities());
+        }
     }
 
     /**
-     * Remove an entity from the cache
+     * Store an entity in the cache by type and ID
      */
-    public void remove(String key) {
-        entityCache.get().remove(key);
-        log.debug("Removed cached entity with key: {}", key);
+    public void put(Class<?> entityType, Object id, Object entity) {
+        RequestEntities current = current();
+        if (current != null && entity != null) {
+            log.debug("Caching entity: {}:{}", entityType.getSimpleName(), id);
+            current.entities.put(EntityKey.of(entityType, id), entity);
+        }
     }
 
     /**
-     * Clear all cached entities for the current thread
-     * This should be called after request processing is complete
+     * Retrieve an entity from the cache, null when it isn't cached
      */
-    public void clear() {
-        Map<String, Object> cache = entityCache.get();
-        if (!cache.isEmpty()) {
-            log.debug("Clearing entity cache with {} entries", cache.size());
-            cache.clear();
+    public <T> T get(Class<T> entityType, Object id) {
+        RequestEntities current = current();
+        if (current == null) {
+            return null;
         }
+
+        Object entity = current.entities.get(EntityKey.of(entityType, id));
+        if (entityType.isInstance(entity)) {
+            current.hits.increment();
+            log.debug("Retrieved cached entity: {}:{}", entityType.getSimpleName(), id);
+            return entityType.cast(entity);
+        }
+        current.misses.increment();
+        return null;
     }
 
     /**
-     * Remove the ThreadLocal to prevent memory leaks
-     * This should be called after request processing is complete
+     * Check if an entity exists in the cache
      */
-    public void cleanup() {
-        clear();
-        entityCache.remove();
+    public boolean contains(Class<?> entityType, Object id) {
+        RequestEntities current = current();
+        return current != null && current.entities.containsKey(EntityKey.of(entityType, id));
     }
 
     /**
-     * Generate a cache key for an entity by type and ID
+     * Remove an entity from the cache
      */
-    public static String generateKey(Class<?> entityType, Object id) {
-        return entityType.getSimpleName() + ":" + id;
+    public void remove(Class<?> entityType, Object id) {
+        RequestEntities current = current();
+        if (current != null) {
+            current.entities.remove(EntityKey.of(entityType, id));
+            log.debug("Removed cached entity: {}:{}", entityType.getSimpleName(), id);
+        }
     }
 
     /**
-     * Generate a cache key for an entity by type name and ID
+     * Drop the cached entities of the request once it's complete, keeping its hit and miss counts
      */
-    public static String generateKey(String entityTypeName, Object id) {
-        return entityTypeName + ":" + id;
+    public void clear(HttpServletRequest request) {
+        if (request.getAttribute(REQUEST_ATTRIBUTE) instanceof RequestEntities current && !current.entities.isEmpty()) {
+            log.debug("Clearing entity cache with {} entries", current.entities.size());
+            current.entities.clear();
+        }
+    }
+
+    /**
+     * Hit and miss counts of the request, null when it used no cache
+     */
+    public static Stats statsOf(HttpServletRequest request) {
+        if (request.getAttribute(REQUEST_ATTRIBUTE) instanceof RequestEntities current) {
+            return new Stats(current.hits.sum(), current.misses.sum());
+        }
+        return null;
+    }
+
+    private RequestEntities current() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        open(request);
+        return (RequestEntities) request.getAttribute(REQUEST_ATTRIBUTE);
     }
 }
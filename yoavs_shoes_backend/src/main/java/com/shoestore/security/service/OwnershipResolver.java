@@ -0,0 +1,178 @@
+package com.shoestore.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shoestore.security.annotation.UserOwned;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the owner user ID of entities with a projection of their @UserOwned path
+ * (SELECT e.user.id FROM ... WHERE e.id = :id) instead of loading them.
+ *
+ * An entity never changes owner, so owner IDs are kept in a bounded cache by entity type and ID;
+ * missing entities are not cached.
+ */
+@Component
+@Slf4j
+public class OwnershipResolver {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<OwnerPath, Optional<OwnerQuery>> queries = new ConcurrentHashMap<>();
+    private final Cache<OwnerKey, Long> ownerIds;
+
+    public OwnershipResolver(@Value("${app.security.ownership-cache-size:10000}") long ownershipCacheSize) {
+        this.ownerIds = Caffeine.newBuilder()
+                .maximumSize(ownershipCacheSize)
+                .build();
+    }
+
+    /**
+     * Projection of the owner of an entity type along a path such as "user.id"
+     *
+     * @param entityType entity class
+     * @param userIdPath  attribute path from the entity to the owner's ID
+     */
+    public record OwnerQuery(Class<?> entityType, String userIdPath, String singleQuery, String batchQuery) {
+    }
+
+    private record OwnerPath(Class<?> entityType, String userIdPath) {
+    }
+
+    private record OwnerKey(Class<?> entityType, Long id) {
+    }
+
+    /**
+     * Owner query declared by @UserOwned on the entity class, empty when it has none
+     * or the path isn't made of persistent attributes ending in a Long
+     */
+    public Optional<OwnerQuery> queryFor(Class<?> entityType) {
+        UserOwned userOwned = entityType.getAnnotation(UserOwned.class);
+        if (userOwned == null || !userOwned.userIdMethod().isEmpty()) {
+            return Optional.empty();
+        }
+        return queryFor(entityType, userOwned.userIdPath());
+    }
+
+    /**
+     * Owner query along the given path, empty when it isn't made of persistent attributes ending in a Long
+     */
+    public Optional<OwnerQuery> queryFor(Class<?> entityType, String userIdPath) {
+        return queries.computeIfAbsent(new OwnerPath(entityType, userIdPath), key -> compile(entityType, userIdPath));
+    }
+
+    /**
+     * Owner user ID of an entity, empty when the entity doesn't exist
+     */
+    public Optional<Long> findOwnerId(OwnerQuery query, Long id) {
+        OwnerKey key = new OwnerKey(query.entityType(), id);
+        Long cached = ownerIds.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        List<Long> result = entityManager.createQuery(query.singleQuery(), Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (result.isEmpty() || result.get(0) == null) {
+            return Optional.empty();
+        }
+        ownerIds.put(key, result.get(0));
+        return Optional.of(result.get(0));
+    }
+
+    /**
+     * Owner user IDs of many entities in one query for the uncached ones; missing entities are left out
+     */
+    public Map<Long, Long> findOwnerIds(OwnerQuery query, Collection<Long> ids) {
+        Map<Long, Long> owners = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Long cached = ownerIds.getIfPresent(new OwnerKey(query.entityType(), id));
+            if (cached != null) {
+                owners.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Object[]> rows = entityManager.createQuery(query.batchQuery(), Object[].class)
+                    .setParameter("ids", missing)
+                    .getResultList();
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                Long ownerId = (Long) row[1];
+                if (ownerId != null) {
+                    owners.put(id, ownerId);
+                    ownerIds.put(new OwnerKey(query.entityType(), id), ownerId);
+                }
+            }
+        }
+        return owners;
+    }
+
+    private Optional<OwnerQuery> compile(Class<?> entityType, String userIdPath) {
+        Metamodel metamodel = entityManager.getMetamodel();
+        String entityName;
+        try {
+            entityName = metamodel.entity(entityType).getName();
+        } catch (IllegalArgumentException e) {
+            log.debug("{} is not an entity, no owner query", entityType.getName());
+            return Optional.empty();
+        }
+
+        ManagedType<?> current = metamodel.managedType(entityType);
+        Class<?> valueType = null;
+        String[] parts = userIdPath.split("\\.");
+        for (int i = 0; i < parts.length; i++) {
+            Attribute<?, ?> attribute;
+            try {
+                attribute = current.getAttribute(parts[i]);
+            } catch (IllegalArgumentException e) {
+                log.warn("No attribute '{}' in owner path '{}' of {}", parts[i], userIdPath, entityType.getSimpleName());
+                return Optional.empty();
+            }
+            if (attribute.isCollection()) {
+                return Optional.empty();
+            }
+            valueType = attribute.getJavaType();
+            if (i < parts.length - 1) {
+                try {
+                    current = metamodel.managedType(valueType);
+                } catch (IllegalArgumentException e) {
+                    return Optional.empty();
+                }
+            }
+        }
+        if (valueType != Long.class) {
+            return Optional.empty();
+        }
+
+        // A to-one path ending in the target's ID reads the foreign key, without a join
+        String projection = "e." + userIdPath;
+        return Optional.of(new OwnerQuery(
+                entityType,
+                userIdPath,
+                "SELECT " + projection + " FROM " + entityName + " e WHERE e.id = :id",
+                "SELECT e.id, " + projection + " FROM " + entityName + " e WHERE e.id IN :ids"
+        ));
+    }
+}
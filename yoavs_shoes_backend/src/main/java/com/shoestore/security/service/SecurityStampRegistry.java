@@ -0,0 +1,142 @@
+package com.shoestore.security.service;
+
+import com.shoestore.entity.user.IUserSecurityStampView;
+import com.shoestore.repository.user.UserRepository;
+import com.shoestore.repository.user.UserTombstoneRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the users whose tokens may be rejected, so stateless principals are
+ * checked without a database call.
+ *
+ * Only admins, users with a rotated security stamp or a running lock, and users deleted within
+ * a token lifetime have an entry; a token is current when its stamp claim is at least the user's
+ * stamp, the user is not locked, and a claimed admin role is still held. Changes made through this
+ * node apply once committed, the ones made elsewhere (including direct edits of is_admin) on the
+ * next refresh from the users and user_tombstones tables.
+ */
+@Component
+@Slf4j
+public class SecurityStampRegistry {
+
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final boolean enabled;
+    private final Duration tokenLifetime;
+
+    private final Map<Long, Stamp> stamps = new ConcurrentHashMap<>();
+
+    public SecurityStampRegistry(UserRepository userRepository,
+                                 UserTombstoneRepository userTombstoneRepository,
+                                 @Value("${app.jwt.stateless-principal:false}") boolean enabled,
+                                 @Value("${app.jwt.expiration}") long jwtExpirationMs) {
+        this.userRepository = userRepository;
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.enabled = enabled;
+        this.tokenLifetime = Duration.ofMillis(jwtExpirationMs);
+    }
+
+    /**
+     * Whether a token with the given stamp and role claims may still authenticate the user
+     */
+    public boolean isCurrent(Long userId, long tokenStamp, String tokenRole) {
+        boolean claimsAdmin = ADMIN_ROLE.equals(tokenRole);
+        Stamp stamp = stamps.get(userId);
+        if (stamp == null) {
+            return !claimsAdmin;
+        }
+        return tokenStamp >= stamp.version()
+                && (!claimsAdmin || stamp.admin())
+                && (stamp.lockedUntil() == null || !stamp.lockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    /**
+     * Reject the user's tokens carrying a stamp older than the given one, and admin claims
+     * unless the user is an admin
+     */
+    public void revoke(Long userId, long securityStamp, boolean admin) {
+        stamps.merge(userId, new Stamp(securityStamp, null, admin), Stamp::latest);
+        log.info("Revoked tokens of user {} below stamp {}", userId, securityStamp);
+    }
+
+    /**
+     * Reject every token of a deleted user; other nodes and restarts pick it up from the
+     * user's tombstone
+     */
+    public void revokeAll(Long userId) {
+        stamps.put(userId, Stamp.DELETED);
+        log.info("Revoked all tokens of deleted user {}", userId);
+    }
+
+    /**
+     * Reject the user's tokens until the lock ends
+     */
+    public void lock(Long userId, LocalDateTime lockedUntil, boolean admin) {
+        stamps.merge(userId, new Stamp(0L, lockedUntil, admin), Stamp::latest);
+        log.info("Locked tokens of user {} until {}", userId, lockedUntil);
+    }
+
+    /**
+     * Pick up stamps, locks, roles and deletions written elsewhere, and drop the locks that ended
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.stamp-refresh-interval:PT30S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Stamp> loaded = new ConcurrentHashMap<>();
+        for (IUserSecurityStampView view : userRepository.findSecurityStamps(now)) {
+            long version = view.getSecurityStamp() != null ? view.getSecurityStamp() : 0L;
+            loaded.put(view.getUserId(), new Stamp(version, view.getAccountLockedUntil(), Boolean.TRUE.equals(view.getIsAdmin())));
+        }
+        for (Long userId : userTombstoneRepository.findUserIdsDeletedAfter(now.minus(tokenLifetime))) {
+            loaded.put(userId, Stamp.DELETED);
+        }
+
+        // Local changes may have committed after the query read: keep the stricter stamp and lock,
+        // the role being the one of the table
+        stamps.forEach((userId, stamp) -> {
+            if (stamp.version() > 0 || (stamp.lockedUntil() != null && stamp.lockedUntil().isAfter(now))) {
+                loaded.merge(userId, stamp, (table, local) -> {
+                    Stamp latest = Stamp.latest(table, local);
+                    return new Stamp(latest.version(), latest.lockedUntil(), table.admin());
+                });
+            }
+        });
+        stamps.keySet().retainAll(loaded.keySet());
+        stamps.putAll(loaded);
+
+        log.debug("Refreshed security stamps, {} users with revoked or locked tokens", stamps.size());
+    }
+
+    /**
+     * Stamp, lock and role of a user; merging keeps the later stamp and lock and the role of the newer entry
+     */
+    private record Stamp(long version, LocalDateTime lockedUntil, boolean admin) {
+
+        static final Stamp DELETED = new Stamp(Long.MAX_VALUE, null, false);
+
+        static Stamp latest(Stamp a, Stamp b) {
+            LocalDateTime lockedUntil = a.lockedUntil() == null ? b.lockedUntil()
+                    : b.lockedUntil() == null || a.lockedUntil().isAfter(b.lockedUntil()) ? a.lockedUntil() : b.lockedUntil();
+            return new Stamp(Math.max(a.version(), b.version()), lockedUntil, b.admin());
+        }
+    }
+}
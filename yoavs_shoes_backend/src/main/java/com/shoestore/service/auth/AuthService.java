@@ -7,6 +7,8 @@ import com.shoestore.dto.user.UserDto.CreateUserDto;
 import com.shoestore.entity.user.User;
 import com.shoestore.exception.*;
 import com.shoestore.repository.user.UserRepository;
+import com.shoestore.security.VerifiedToken;
+import com.shoestore.security.service.SecurityStampRegistry;
 import com.shoestore.util.JwtUtil;
 import com.shoestore.util.LoggingUtil;
 import lombok.RequiredArgsConstructor;
@@ -14,13 +16,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Service for handling authentication operations
@@ -36,6 +38,7 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final SecurityStampRegistry securityStampRegistry;
 
     /**
      * Register a new user
@@ -59,7 +62,7 @@ public class AuthService {
         User savedUser = userRepository.save(user);
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(savedUser.getEmail());
+        String token = jwtUtil.generateToken(savedUser);
 
         // Update last login
         savedUser.setLastLogin(LocalDateTime.now());
@@ -91,7 +94,7 @@ public class AuthService {
             }
 
             // Authenticate
-            Authentication authentication = authenticationManager.authenticate(
+            authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
 
@@ -100,7 +103,7 @@ public class AuthService {
             userRepository.save(user);
 
             // Generate JWT token
-            String token = jwtUtil.generateToken(authentication);
+            String token = jwtUtil.generateToken(user);
 
             LoggingUtil.logUserAction(user.getId(), "LOGIN", "User logged in successfully");
             LoggingUtil.logSecurityEvent("LOGIN_SUCCESS", user.getEmail(), "Successful login");
@@ -120,14 +123,16 @@ public class AuthService {
     /**
      * Logout user (invalidate token)
      */
-    public LogoutResponse logout(String token) {
-        String username = jwtUtil.getUsernameFromToken(token);
+    public LogoutResponse logout(VerifiedToken token) {
+        // Tokens issued before the user ID was a claim need the lookup
+        Optional<Long> userId = token.userId() != null
+                ? Optional.of(token.userId())
+                : userRepository.findByEmailIgnoreCase(token.subject()).map(User::getId);
 
-        userRepository.findByEmailIgnoreCase(username)
-                .ifPresent(user -> {
-                    LoggingUtil.logUserAction(user.getId(), "LOGOUT", "User logged out");
-                    log.info("User logged out: {}", user.getId());
-                });
+        userId.ifPresent(id -> {
+            LoggingUtil.logUserAction(id, "LOGOUT", "User logged out");
+            log.info("User logged out: {}", id);
+        });
 
         return LogoutResponse.builder()
                 .message("Logout successful")
@@ -167,7 +172,9 @@ public class AuthService {
                     if (user.getFailedLoginAttempts() >= 5) {
                         LoggingUtil.logSecurityEvent("ACCOUNT_LOCKED", email,
                                 "Account locked due to " + user.getFailedLoginAttempts() + " failed login attempts");
-                        userRepository.lockUserAccount(user.getId(), LocalDateTime.now().plusMinutes(30));
+                        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(30);
+                        userRepository.lockUserAccount(user.getId(), lockedUntil);
+                        securityStampRegistry.lock(user.getId(), lockedUntil, user.hasAdminRole());
                     }
                 });
     }
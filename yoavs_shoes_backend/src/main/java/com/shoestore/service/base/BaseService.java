@@ -1,5 +1,6 @@
 package com.shoestore.service.base;
 
+import com.shoestore.dto.base.KeysetCursor;
 import com.shoestore.entity.base.BaseEntity;
 import com.shoestore.exception.ResourceNotFoundException;
 import com.shoestore.repository.base.BaseRepository;
@@ -7,12 +8,32 @@ import com.shoestore.util.LoggingUtil;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Base service class providing common CRUD operations for all services
@@ -29,6 +50,13 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
     protected final R repository;
     protected final String entityName;
 
+    private CacheManager cacheManager;
+
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     /**
      * Find entity by ID
      */
@@ -45,6 +73,30 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
                 .orElseThrow(() -> new ResourceNotFoundException(entityName, id.toString()));
     }
 
+    /**
+     * Get entity by ID mapped to a DTO, read through the entity cache when the subclass names one.
+     * The DTO is mapped inside the loading transaction and cached in place of the entity, so no
+     * managed entity is shared between requests; callers must not modify it
+     */
+    @SuppressWarnings("unchecked")
+    protected <D> D getDtoById(ID id, Function<? super T, ? extends D> toDto) {
+        // A writer may see its own uncommitted changes, which must not reach other readers
+        Cache cache = getCache(getEntityCacheName());
+        if (cache == null || isWriteTransaction()) {
+            return toDto.apply(getById(id));
+        }
+
+        Cache.ValueWrapper cached = cache.get(id);
+        if (cached != null) {
+            return (D) cached.get();
+        }
+
+        // Misses are not cached, a later create must not be hidden
+        D dto = toDto.apply(getById(id));
+        cache.put(id, dto);
+        return dto;
+    }
+
     /**
      * Find all entities
      */
@@ -61,6 +113,59 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
         return repository.findAll(pageable);
     }
 
+    /**
+     * Find all entities after a keyset cursor, without a count query
+     */
+    public Slice<T> findAllAfter(Sort sort, String after, int size) {
+        return findSlice(null, sort, after, size);
+    }
+
+    /**
+     * Find a slice of entities after a keyset cursor, without a count query.
+     * The ID is appended to the sort as tie-breaker; a blank cursor starts from the first row.
+     */
+    public Slice<T> findSlice(Specification<T> spec, Sort sort, String after, int size) {
+        log.debug("Finding {} slice after cursor: {}, sort: {}, size: {}", entityName, after, sort, size);
+
+        Sort keysetSort = KeysetCursor.withTieBreaker(sort);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+
+        Specification<T> where = spec != null ? spec : (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        if (cursor != null) {
+            cursor.verify(keysetSort);
+            where = where.and(keysetSpecification(keysetSort, cursor));
+        }
+
+        // Fetch one extra ID to know if there is a next slice
+        List<ID> ids = repository.findIds(where, keysetSort, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<ID> sliceIds = hasNext ? ids.subList(0, size) : ids;
+
+        return new SliceImpl<>(hydrate(sliceIds), PageRequest.of(0, size, keysetSort), hasNext);
+    }
+
+    /**
+     * Find a page of entities in two phases: page the IDs in the database, then load
+     * exactly those entities with {@link BaseRepository#findByIdIn}
+     */
+    public Page<T> findPage(Specification<T> spec, Pageable pageable) {
+        log.debug("Finding {} page in two phases: {}", entityName, pageable);
+
+        return hydrate(repository.findIds(spec, pageable));
+    }
+
+    /**
+     * Resolve an API sort field and direction to entity sort properties
+     * Override in subclasses to map API aliases (e.g. "brand") to entity paths
+     */
+    public Sort resolveSort(String sortBy, String sortDirection) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (sortBy == null || sortBy.trim().isEmpty()) {
+            return Sort.by(direction, KeysetCursor.ID_PROPERTY);
+        }
+        return Sort.by(direction, sortBy);
+    }
+
     /**
      * Check if entity exists by ID
      */
@@ -84,6 +189,8 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
 
         validateBeforeCreate(entity);
         T savedEntity = repository.save(entity);
+        afterCreate(savedEntity);
+        evictCaches(savedEntity.getId());
 
         LoggingUtil.logEntityOperation(
                 "CREATE",
@@ -108,6 +215,8 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
 
         updateEntityFields(existingEntity, entity);
         T savedEntity = repository.save(existingEntity);
+        afterUpdate(savedEntity);
+        evictCaches(id);
 
         LoggingUtil.logEntityOperation(
                 "UPDATE",
@@ -131,6 +240,8 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
         validateBeforeDelete(entity);
 
         repository.deleteById(id);
+        afterDelete(entity);
+        evictCaches(id);
 
         LoggingUtil.logEntityOperation(
                 "DELETE",
@@ -151,6 +262,8 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
 
         validateBeforeDelete(entity);
         repository.delete(entity);
+        afterDelete(entity);
+        evictCaches(entity.getId());
 
         LoggingUtil.logEntityOperation(
                 "DELETE",
@@ -181,6 +294,12 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
         }
 
         T savedEntity = repository.save(entity);
+        if (isNew) {
+            afterCreate(savedEntity);
+        } else {
+            afterUpdate(savedEntity);
+        }
+        evictCaches(savedEntity.getId());
 
         LoggingUtil.logEntityOperation(
                 operation,
@@ -202,6 +321,8 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
 
         entities.forEach(this::validateBeforeCreate);
         List<T> savedEntities = repository.saveAll(entities);
+        savedEntities.forEach(this::afterCreate);
+        evictCaches(null);
 
         LoggingUtil.logEntityOperation(
                 "BULK_CREATE",
@@ -223,6 +344,7 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
 
         long count = repository.count();
         repository.deleteAll();
+        clearCaches();
 
         LoggingUtil.logEntityOperation(
                 "DELETE_ALL",
@@ -242,6 +364,14 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
         return repository.findAllById(ids);
     }
 
+    /**
+     * Find entities by IDs, keeping the ID order and skipping IDs that don't exist
+     */
+    public List<T> findAllByIdInOrder(List<ID> ids) {
+        log.debug("Finding {} {} entities by IDs in order", ids.size(), entityName);
+        return hydrate(ids);
+    }
+
     // Protected methods for subclasses to override
 
     /**
@@ -271,12 +401,191 @@ public abstract class BaseService<T extends BaseEntity, ID, R extends BaseReposi
         log.debug("Validating {} before deletion", entityName);
     }
 
+    /**
+     * Called after an entity has been created
+     * Override in subclasses to propagate the change (indexes, caches, events)
+     */
+    protected void afterCreate(T entity) {
+        // Default implementation - nothing to propagate
+    }
+
+    /**
+     * Called after an entity has been updated
+     * Override in subclasses to propagate the change (indexes, caches, events)
+     */
+    protected void afterUpdate(T entity) {
+        // Default implementation - nothing to propagate
+    }
+
+    /**
+     * Called after an entity has been deleted
+     * Override in subclasses to propagate the change (indexes, caches, events)
+     */
+    protected void afterDelete(T entity) {
+        // Default implementation - nothing to propagate
+    }
+
+    /**
+     * Name of the cache holding DTOs by ID (see getDtoById), null when nothing is cached by ID
+     * Override in subclasses that serve cached DTOs
+     */
+    protected String getEntityCacheName() {
+        return null;
+    }
+
+    /**
+     * Names of caches holding query results over this entity, cleared on every write
+     * Override in subclasses that cache lists or pages
+     */
+    protected List<String> getQueryCacheNames() {
+        return List.of();
+    }
+
     /**
      * Update entity fields during update operation
      * Override in subclasses to implement specific field updates
      */
     protected abstract void updateEntityFields(T existingEntity, T newEntity);
 
+    /**
+     * Evict an entity (null for none) and clear the query caches
+     */
+    protected void evictCaches(Object id) {
+        nowAndAfterCompletion(() -> doEvictCaches(id));
+    }
+
+    /**
+     * Clear the entity and query caches
+     */
+    protected void clearCaches() {
+        nowAndAfterCompletion(() -> {
+            Cache entityCache = getCache(getEntityCacheName());
+            if (entityCache != null) {
+                entityCache.clear();
+            }
+            doEvictCaches(null);
+        });
+    }
+
+    /**
+     * Run a cache eviction now and again once the transaction completes,
+     * so a reader can't put back a version it loaded before the commit
+     */
+    private void nowAndAfterCompletion(Runnable eviction) {
+        if (cacheManager == null) {
+            return;
+        }
+
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private void doEvictCaches(Object id) {
+        Cache entityCache = getCache(getEntityCacheName());
+        if (entityCache != null && id != null) {
+            entityCache.evict(id);
+        }
+        for (String name : getQueryCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private Cache getCache(String name) {
+        return name != null && cacheManager != null ? cacheManager.getCache(name) : null;
+    }
+
+    private boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Build the "rows after the cursor" predicate for a keyset sort:
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... with the comparison flipped for descending keys.
+     * NULL keys are placed as PostgreSQL sorts them by default: last ascending, first descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<T> keysetSpecification(Sort sort, KeysetCursor cursor) {
+        List<Sort.Order> orders = sort.toList();
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalities = new ArrayList<>();
+
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Path<Comparable> path = (Path<Comparable>) resolvePath(root, order.getProperty());
+                Comparable value = (Comparable) cursor.value(i, path.getJavaType());
+
+                if (value == null) {
+                    // Descending, the non-null keys come after the NULLs
+                    if (!order.isAscending()) {
+                        alternatives.add(and(criteriaBuilder, equalities, criteriaBuilder.isNotNull(path)));
+                    }
+                    equalities.add(criteriaBuilder.isNull(path));
+                    continue;
+                }
+
+                alternatives.add(and(criteriaBuilder, equalities, order.isAscending()
+                        ? criteriaBuilder.greaterThan(path, value)
+                        : criteriaBuilder.lessThan(path, value)));
+                // Ascending, the NULL keys come after every value
+                if (order.isAscending()) {
+                    alternatives.add(and(criteriaBuilder, equalities, criteriaBuilder.isNull(path)));
+                }
+                equalities.add(criteriaBuilder.equal(path, value));
+            }
+
+            return criteriaBuilder.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    private Predicate and(CriteriaBuilder criteriaBuilder, List<Predicate> equalities, Predicate comparison) {
+        List<Predicate> predicates = new ArrayList<>(equalities);
+        predicates.add(comparison);
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    private Path<?> resolvePath(Root<T> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    /**
+     * Load a page of entities by ID, keeping the ID order
+     */
+    protected Page<T> hydrate(Page<ID> ids) {
+        return new PageImpl<>(hydrate(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Load entities by ID, keeping the ID order
+     */
+    protected List<T> hydrate(List<ID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Object, T> entitiesById = new HashMap<>();
+        repository.findByIdIn(ids).forEach(entity -> entitiesById.put(entity.getId(), entity));
+        return ids.stream()
+                .map(entitiesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     /**
      * Get repository instance
      */
@@ -0,0 +1,156 @@
+package com.shoestore.service.order;
+
+import com.shoestore.entity.order.IOrderDateView;
+import com.shoestore.entity.order.OrderStatus;
+import com.shoestore.repository.order.OrderRepository;
+import com.shoestore.util.HashedTimingWheel;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Cancels PENDING orders nobody confirmed within the reservation TTL, releasing their reserved stock.
+ *
+ * Deadlines sit in a {@link HashedTimingWheel}; order status events add and remove them, and each
+ * tick cancels the expired orders in batches. The wheel is rebuilt from the orders table at startup.
+ * Status events are local, so a node only tracks the orders pending at its startup and the ones it
+ * placed afterwards; orders placed on a node that went down would keep their stock. A low-frequency
+ * rescan of the orders table cancels any PENDING order past its TTL as a backstop. The status check
+ * when cancelling makes a second cancellation (by another node or the rescan) a no-op.
+ */
+@Service
+@Slf4j
+public class OrderExpiryService {
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final Duration reservationTtl;
+    private final Duration retryDelay;
+    private final int batchSize;
+    private final HashedTimingWheel<Long> wheel;
+
+    public OrderExpiryService(
+            OrderRepository orderRepository,
+            OrderService orderService,
+            @Value("${app.orders.expiry.enabled:true}") boolean enabled,
+            @Value("${app.orders.reservation-ttl:PT30M}") Duration reservationTtl,
+            @Value("${app.orders.expiry.tick:PT1S}") Duration tick,
+            @Value("${app.orders.expiry.wheel-size:512}") int wheelSize,
+            @Value("${app.orders.expiry.batch-size:100}") int batchSize,
+            @Value("${app.orders.expiry.retry-delay:PT1M}") Duration retryDelay
+    ) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.reservationTtl = reservationTtl;
+        this.retryDelay = retryDelay;
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedule the deadlines of all pending orders once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Order reservation expiry disabled, pending orders keep their stock until cancelled");
+            return;
+        }
+
+        List<IOrderDateView> pending = orderRepository.findOrderDatesByStatus(OrderStatus.PENDING);
+        pending.forEach(order -> schedule(order.getId(), order.getOrderDate()));
+        log.info("Scheduled reservation expiry of {} pending orders", pending.size());
+    }
+
+    /**
+     * Track committed orders entering or leaving PENDING
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChange(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.to() == OrderStatus.PENDING) {
+            schedule(event.orderId(), event.orderDate());
+        } else {
+            wheel.cancel(event.orderId());
+        }
+    }
+
+    /**
+     * Cancel the orders whose reservation expired
+     */
+    @Scheduled(fixedDelayString = "${app.orders.expiry.tick:PT1S}")
+    public void expireDue() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> expired = wheel.advance(System.currentTimeMillis());
+        for (int start = 0; start < expired.size(); start += batchSize) {
+            List<Long> batch = expired.subList(start, Math.min(start + batchSize, expired.size()));
+            try {
+                orderService.cancelExpiredOrders(batch, LocalDateTime.now().minus(reservationTtl));
+            } catch (RuntimeException e) {
+                // E.g. a concurrent status change; the status check drops orders that are no longer pending
+                log.warn("Failed to cancel {} expired orders, retrying in {}", batch.size(), retryDelay, e);
+                long retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+                batch.forEach(orderId -> wheel.schedule(orderId, retryAt));
+            }
+        }
+    }
+
+    /**
+     * Cancel the expired PENDING orders no wheel picked up, oldest first
+     */
+    @Scheduled(fixedDelayString = "${app.orders.expiry.rescan-interval:PT5M}",
+               initialDelayString = "${app.orders.expiry.rescan-interval:PT5M}")
+    public void rescan() {
+        if (!enabled) {
+            return;
+        }
+
+        int cancelled = 0;
+        while (true) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(reservationTtl);
+            List<Long> expired = orderRepository.findIdsByStatusPlacedBefore(OrderStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+            if (expired.isEmpty()) {
+                break;
+            }
+            try {
+                int count = orderService.cancelExpiredOrders(expired, cutoff).size();
+                cancelled += count;
+                if (count == 0 || expired.size() < batchSize) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to cancel {} expired orders found by the rescan, retrying on the next one", expired.size(), e);
+                break;
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Expiry rescan cancelled {} expired pending orders", cancelled);
+        }
+    }
+
+    private void schedule(Long orderId, LocalDateTime orderDate) {
+        long placedAt = orderDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(orderId, placedAt + reservationTtl.toMillis());
+    }
+}
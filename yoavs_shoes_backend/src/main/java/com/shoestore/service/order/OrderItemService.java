@@ -2,6 +2,7 @@ package com.shoestore.service.order;
 
 import com.shoestore.dto.order.OrderItemDto;
 import com.shoestore.entity.order.OrderItem;
+import com.shoestore.entity.shoe.InventoryLine;
 import com.shoestore.entity.shoe.ShoeModel;
 import com.shoestore.exception.BadRequestException;
 import com.shoestore.exception.ResourceNotFoundException;
@@ -16,7 +17,6 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -71,15 +71,14 @@ public class OrderItemService extends BaseService<OrderItem, Long, OrderItemRepo
 
         Map<Long, ShoeModel> shoeModelMap = loadShoeModels(itemDtoList);
         validateOrderItems(itemDtoList, shoeModelMap);
-        
-        List<OrderItemDto.CreateOrderItemDto> reservedItems = new ArrayList<>();
-        
-        try {
-            reserveInventoryForItems(itemDtoList, reservedItems);
 
+        List<InventoryLine> lines = toInventoryLines(itemDtoList);
+        reserveInventoryForItems(lines);
+
+        try {
             return createAndSaveOrderItems(orderId, itemDtoList, shoeModelMap);
         } catch (Exception e) {
-            releaseReservedInventory(reservedItems);
+            releaseReservedInventory(lines);
             throw e;
         }
     }
@@ -132,19 +131,28 @@ public class OrderItemService extends BaseService<OrderItem, Long, OrderItemRepo
             if (itemDto.getQuantity() <= 0) {
                 throw new BadRequestException("Quantity must be positive");
             }
-            
-            if (!shoeInventoryService.isInventoryAvailable(itemDto.getShoeModelId(), itemDto.getSize(), itemDto.getQuantity())) {
-                throw new BadRequestException("Insufficient inventory for shoe model " + itemDto.getShoeModelId() +
-                                            " size " + itemDto.getSize() + ". Requested: " + itemDto.getQuantity());
-            }
         }
+
+        // One read for the whole cart; the reservation below is what actually guards the stock
+        shoeInventoryService.findUnavailable(toInventoryLines(itemDtoList)).stream()
+                .findFirst()
+                .ifPresent(line -> {
+                    throw new BadRequestException("Insufficient inventory for shoe model " + line.shoeModelId() +
+                                                " size " + line.size() + ". Requested: " + line.quantity());
+                });
     }
 
-    private void reserveInventoryForItems(List<OrderItemDto.CreateOrderItemDto> itemDtoList, List<OrderItemDto.CreateOrderItemDto> reservedItems) {
-        for (OrderItemDto.CreateOrderItemDto itemDto : itemDtoList) {
-            shoeInventoryService.reserveInventory(itemDto.getShoeModelId(), itemDto.getSize(), itemDto.getQuantity());
-            reservedItems.add(itemDto);
-        }
+    /**
+     * Reserve the whole cart in one statement; throws if any line lost its stock meanwhile
+     */
+    private void reserveInventoryForItems(List<InventoryLine> lines) {
+        shoeInventoryService.reserveAll(lines);
+    }
+
+    private List<InventoryLine> toInventoryLines(List<OrderItemDto.CreateOrderItemDto> itemDtoList) {
+        return itemDtoList.stream()
+                .map(itemDto -> new InventoryLine(itemDto.getShoeModelId(), itemDto.getSize(), itemDto.getQuantity()))
+                .toList();
     }
 
     private List<OrderItem> createAndSaveOrderItems(Long orderId, List<OrderItemDto.CreateOrderItemDto> itemDtoList, Map<Long, ShoeModel> shoeModelMap) {
@@ -168,14 +176,11 @@ public class OrderItemService extends BaseService<OrderItem, Long, OrderItemRepo
         return savedItems;
     }
 
-    private void releaseReservedInventory(List<OrderItemDto.CreateOrderItemDto> reservedItems) {
-        for (OrderItemDto.CreateOrderItemDto itemDto : reservedItems) {
-            try {
-                shoeInventoryService.releaseReservedInventory(itemDto.getShoeModelId(), itemDto.getSize(), itemDto.getQuantity());
-            } catch (Exception e) {
-                log.error("Failed to release reserved inventory for shoe model {} size {}: {}", 
-                         itemDto.getShoeModelId(), itemDto.getSize(), e.getMessage());
-            }
+    private void releaseReservedInventory(List<InventoryLine> lines) {
+        try {
+            shoeInventoryService.releaseAll(lines);
+        } catch (Exception e) {
+            log.error("Failed to release reserved inventory for {} lines: {}", lines.size(), e.getMessage());
         }
     }
 }
@@ -0,0 +1,122 @@
+package com.shoestore.service.order;
+
+import com.shoestore.entity.order.IOrderStatusTotalsView;
+import com.shoestore.entity.order.OrderStatus;
+import com.shoestore.repository.order.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order counts and totals per status, kept in memory for the admin order statistics.
+ *
+ * Committed order creations and status changes are applied as deltas; a periodic reconcile
+ * replaces the counters with one grouped aggregate, correcting changes made by other nodes
+ * and any delta that raced with the previous reconcile. Readers get an immutable snapshot.
+ */
+@Component
+@Slf4j
+public class OrderMetricsEngine {
+
+    private final OrderRepository orderRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, BigDecimal> amounts = new EnumMap<>(OrderStatus.class);
+
+    private volatile Map<String, Object> snapshot;
+
+    public OrderMetricsEngine(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Get the order statistics: total, per-status counts and revenue of delivered orders
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            reconcile();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Replace the counters with the database totals, at startup and then periodically
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.orders.metrics.reconcile-interval:PT5M}",
+               initialDelayString = "${app.orders.metrics.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        lock.lock();
+        try {
+            counts.clear();
+            amounts.clear();
+            for (IOrderStatusTotalsView totals : orderRepository.getTotalsByStatus()) {
+                counts.put(totals.getStatus(), totals.getOrderCount());
+                amounts.put(totals.getStatus(), totals.getTotalAmount());
+            }
+            publishSnapshot();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Reconciled order metrics in {}ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Move a committed order between statuses
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChange(OrderStatusChangedEvent event) {
+        BigDecimal amount = event.totalAmount() != null ? event.totalAmount() : BigDecimal.ZERO;
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                // Not loaded yet; the first reconcile includes this order
+                return;
+            }
+            if (event.from() != null) {
+                add(event.from(), -1, amount.negate());
+            }
+            add(event.to(), 1, amount);
+            publishSnapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(OrderStatus status, long count, BigDecimal amount) {
+        counts.merge(status, count, Long::sum);
+        amounts.merge(status, amount, BigDecimal::add);
+    }
+
+    /**
+     * Same keys as the former per-request statistics
+     */
+    private void publishSnapshot() {
+        Map<String, Object> stats = new HashMap<>();
+        long totalOrders = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            long count = counts.getOrDefault(status, 0L);
+            stats.put(status.name().toLowerCase() + "Orders", count);
+            totalOrders += count;
+        }
+        stats.put("totalOrders", totalOrders);
+        // Total revenue (sum of all delivered orders)
+        stats.put("totalRevenue", amounts.getOrDefault(OrderStatus.DELIVERED, BigDecimal.ZERO));
+        snapshot = Map.copyOf(stats);
+    }
+}
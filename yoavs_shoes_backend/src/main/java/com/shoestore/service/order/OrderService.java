@@ -4,6 +4,7 @@ import com.shoestore.dto.order.*;
 import com.shoestore.entity.order.Order;
 import com.shoestore.entity.order.OrderItem;
 import com.shoestore.entity.order.OrderStatus;
+import com.shoestore.entity.shoe.InventoryLine;
 import com.shoestore.entity.user.User;
 import com.shoestore.entity.user.UserAddress;
 import com.shoestore.exception.BadRequestException;
@@ -13,14 +14,18 @@ import com.shoestore.service.shoe.ShoeInventoryService;
 import com.shoestore.service.user.UserAddressService;
 import com.shoestore.util.OrderNumberGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,17 +42,23 @@ public class OrderService extends BaseService<Order, Long, OrderRepository> {
     private final ShoeInventoryService inventoryService;
     private final UserAddressService userAddressService;
     private final OrderItemService orderItemService;
+    private final OrderMetricsEngine orderMetricsEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(OrderRepository repository, 
                        OrderNumberGenerator orderNumberGenerator,
                        UserAddressService userAddressService,
                        ShoeInventoryService inventoryService,
-                       OrderItemService orderItemService) {
+                       OrderItemService orderItemService,
+                       OrderMetricsEngine orderMetricsEngine,
+                       ApplicationEventPublisher eventPublisher) {
         super(repository, "Order");
         this.orderNumberGenerator = orderNumberGenerator;
         this.userAddressService = userAddressService;
         this.inventoryService = inventoryService;
         this.orderItemService = orderItemService;
+        this.orderMetricsEngine = orderMetricsEngine;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -78,19 +89,29 @@ public class OrderService extends BaseService<Order, Long, OrderRepository> {
         
         savedOrder.setTotalAmount(totalAmount);
         savedOrder = repository.save(savedOrder);   
+        publishStatusChange(savedOrder, null);
         
         log.info("Created order {} with total amount: {}", orderNumber, savedOrder.getTotalAmount());
 
         return savedOrder;
     }
 
+    @Override
+    public Page<Order> findAll(Pageable pageable) {
+        log.debug("Finding all orders with items: {}", pageable);
+
+        // Page the IDs, then fetch the orders with their items
+        return findPage(null, pageable);
+    }
+
     /**
      * Get user's orders with pagination
      */
     public Page<Order> getUserOrders(Long userId, Pageable pageable) {
         log.debug("Getting orders for user: {}", userId);
-        
-        return repository.findByUserId(userId, pageable);
+
+        Specification<Order> spec = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("userId"), userId);
+        return findPage(spec, newestFirst(pageable));
     }
 
     /**
@@ -111,19 +132,42 @@ public class OrderService extends BaseService<Order, Long, OrderRepository> {
         
         order.setStatus(newStatus);
         Order updatedOrder = repository.save(order);
+        publishStatusChange(updatedOrder, currentStatus);
         
         log.info("Updated order {} status from {} to {}", orderId, currentStatus, newStatus);
         
         return updatedOrder;
     }
 
+    /**
+     * Cancel orders still PENDING that were placed before the cutoff, releasing their
+     * reserved inventory in one statement. Returns the cancelled orders; others are skipped.
+     */
+    @Transactional
+    public List<Order> cancelExpiredOrders(Collection<Long> orderIds, LocalDateTime cutoff) {
+        List<Order> expired = repository.findByIdIn(orderIds).stream()
+                .filter(order -> order.getStatus() == OrderStatus.PENDING && !order.getOrderDate().isAfter(cutoff))
+                .toList();
+        if (expired.isEmpty()) {
+            return expired;
+        }
+
+        handleStatusChange(expired, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        repository.saveAll(expired);
+        expired.forEach(order -> publishStatusChange(order, OrderStatus.PENDING));
+
+        log.info("Cancelled {} expired pending orders", expired.size());
+        return expired;
+    }
+
     /**
      * Get orders by status 
      */
     public Page<Order> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         log.debug("Getting orders with status: {}", status);
 
-        return repository.findByStatus(status, pageable);
+        Specification<Order> spec = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), status);
+        return findPage(spec, newestFirst(pageable));
     }
 
     /**
@@ -131,31 +175,7 @@ public class OrderService extends BaseService<Order, Long, OrderRepository> {
      */
     public Map<String, Object> getOrderStatistics() {
         log.debug("Getting order statistics");
-        
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Total orders
-        long totalOrders = repository.count();
-        stats.put("totalOrders", totalOrders);
-        
-        // Orders by status
-        for (OrderStatus status : OrderStatus.values()) {
-            long count = repository.countByStatus(status);
-            stats.put(status.name().toLowerCase() + "Orders", count);
-        }
-        
-        // Total revenue (sum of all delivered orders)
-        BigDecimal totalRevenue = repository.findAll().stream()
-                .filter(order -> order.getStatus() == OrderStatus.DELIVERED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("totalRevenue", totalRevenue);
-        
-        // Pending orders specifically for quick access
-        long pendingOrders = repository.countByStatus(OrderStatus.PENDING);
-        stats.put("pendingOrders", pendingOrders);
-        
-        return stats;
+        return orderMetricsEngine.getStatistics();
     }
 
     private void validateStatusTransition(OrderStatus from, OrderStatus to) {
@@ -188,59 +208,75 @@ public class OrderService extends BaseService<Order, Long, OrderRepository> {
     }
 
     private void handleStatusChange(Order order, OrderStatus from, OrderStatus to) {
+        handleStatusChange(List.of(order), from, to);
+    }
+
+    /**
+     * Apply a status change to orders sharing the same current status, moving their inventory in one statement
+     */
+    private void handleStatusChange(List<Order> orders, OrderStatus from, OrderStatus to) {
         switch (to) {
             case PENDING:
                 // No special handling needed for pending
                 break;
             case CONFIRMED:
                 // Commit reserved inventory when order is confirmed
-                for (OrderItem item : order.getOrderItems()) {
-                    inventoryService.commitReservedInventory(
-                            item.getShoeModel().getId(), 
-                            item.getSize(), 
-                            item.getQuantity()
-                    );
-                }
-                order.confirm();
-                log.info("Committed inventory for confirmed order {}", order.getOrderNumber());
+                inventoryService.commitAll(toInventoryLines(orders));
+                orders.forEach(Order::confirm);
+                log.info("Committed inventory for confirmed orders {}", orderNumbers(orders));
                 break;
             case SHIPPED:
-                order.markAsShipped();
+                orders.forEach(Order::markAsShipped);
                 break;
             case DELIVERED:
-                order.markAsDelivered();
+                orders.forEach(Order::markAsDelivered);
                 break;
             case PROCESSING:
-                order.startProcessing();
+                orders.forEach(Order::startProcessing);
                 break;
             case CANCELLED:
                 // Release inventory when order is cancelled
                 if (from == OrderStatus.PENDING) {
                     // If cancelling from PENDING, release reserved inventory
-                    for (OrderItem item : order.getOrderItems()) {
-                        inventoryService.releaseReservedInventory(
-                                item.getShoeModel().getId(), 
-                                item.getSize(), 
-                                item.getQuantity()
-                        );
-                    }
-                    log.info("Released reserved inventory for cancelled pending order {}", order.getOrderNumber());
+                    inventoryService.releaseAll(toInventoryLines(orders));
+                    log.info("Released reserved inventory for cancelled pending orders {}", orderNumbers(orders));
                 } else if (from == OrderStatus.CONFIRMED || from == OrderStatus.PROCESSING) {
                     // If cancelling from CONFIRMED/PROCESSING, return sold inventory back to available
-                    for (OrderItem item : order.getOrderItems()) {
-                        inventoryService.restoreInventory(
-                                item.getShoeModel().getId(), 
-                                item.getSize(), 
-                                item.getQuantity()
-                        );
-                    }
-                    log.info("Restored inventory for cancelled order {}", order.getOrderNumber());
+                    inventoryService.restoreAll(toInventoryLines(orders));
+                    log.info("Restored inventory for cancelled orders {}", orderNumbers(orders));
                 }
-                order.markAsCancelled();
+                orders.forEach(Order::markAsCancelled);
                 break;
         }
     }
 
+    private void publishStatusChange(Order order, OrderStatus from) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), from, order.getStatus(),
+                order.getOrderDate(), order.getTotalAmount()));
+    }
+
+    private List<String> orderNumbers(List<Order> orders) {
+        return orders.stream().map(Order::getOrderNumber).toList();
+    }
+
+    /**
+     * Inventory lines of the orders' items, applied in one statement per status change
+     */
+    private List<InventoryLine> toInventoryLines(List<Order> orders) {
+        return orders.stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .map(item -> new InventoryLine(item.getShoeModelId(), item.getSize(), item.getQuantity()))
+                .toList();
+    }
+
+    /**
+     * Order by date, newest first, then by the requested sort
+     */
+    private Pageable newestFirst(Pageable pageable) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "orderDate").and(pageable.getSort());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     @Override
     protected void updateEntityFields(Order existingEntity, Order newEntity) {
         // Orders are generally not updated directly, status changes are handled separately
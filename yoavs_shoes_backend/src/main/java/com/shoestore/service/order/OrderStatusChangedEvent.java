@@ -0,0 +1,20 @@
+package com.shoestore.service.order;
+
+import com.shoestore.entity.order.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Event published by {@link OrderService} when an order is created or changes status.
+ * Listeners handle it after the surrounding transaction commits.
+ *
+ * @param orderId     id of the order
+ * @param from        previous status, null for a new order
+ * @param to          new status
+ * @param orderDate   when the order was placed
+ * @param totalAmount order total
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderStatus from, OrderStatus to, LocalDateTime orderDate,
+                                      BigDecimal totalAmount) {
+}
@@ -0,0 +1,360 @@
+package com.shoestore.service.report;
+
+import com.shoestore.dto.report.SalesReportResponse;
+import com.shoestore.entity.order.IOrderItemSalesView;
+import com.shoestore.entity.order.OrderStatus;
+import com.shoestore.entity.report.ISalesRollupTotalsView;
+import com.shoestore.entity.report.RollupGranularity;
+import com.shoestore.entity.report.SalesDimension;
+import com.shoestore.entity.report.SalesRollup;
+import com.shoestore.entity.shoe.Brand;
+import com.shoestore.entity.shoe.ShoeCategory;
+import com.shoestore.entity.shoe.ShoeModel;
+import com.shoestore.exception.BadRequestException;
+import com.shoestore.repository.order.OrderItemRepository;
+import com.shoestore.repository.report.SalesRollupRepository;
+import com.shoestore.repository.shoe.BrandRepository;
+import com.shoestore.repository.shoe.ShoeCategoryRepository;
+import com.shoestore.repository.shoe.ShoeModelRepository;
+import com.shoestore.service.order.OrderStatusChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hourly and daily sales rollups backing the admin reports.
+ *
+ * An order counts as a sale while it is confirmed, processing, shipped or delivered. When a
+ * committed status change moves an order into or out of those statuses, its items are added to
+ * or subtracted from the buckets of its order date, in total and per model, brand and category.
+ * Reports read the buckets only. Rows are updated in key order, so concurrent nodes can't deadlock.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    private static final Set<OrderStatus> SOLD_STATUSES =
+            EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final long TOTAL_ID = 0L;
+    private static final long MAX_HOUR_RANGE_DAYS = 31;
+    private static final long MAX_DAY_RANGE_DAYS = 366;
+    private static final int MAX_TOP = 100;
+
+    private final SalesRollupRepository rollupRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ShoeModelRepository shoeModelRepository;
+    private final BrandRepository brandRepository;
+    private final ShoeCategoryRepository categoryRepository;
+    private final TransactionTemplate rollupTransaction;
+
+    /**
+     * Serializes this node's rollup writes and rebuilds
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SalesRollupService(
+            SalesRollupRepository rollupRepository,
+            OrderItemRepository orderItemRepository,
+            ShoeModelRepository shoeModelRepository,
+            BrandRepository brandRepository,
+            ShoeCategoryRepository categoryRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.shoeModelRepository = shoeModelRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupTransaction = new TransactionTemplate(transactionManager);
+        // Events arrive after the order's transaction committed
+        this.rollupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Add or subtract a committed order's sales when it enters or leaves a sold status
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChange(OrderStatusChangedEvent event) {
+        int sign = Boolean.compare(SOLD_STATUSES.contains(event.to()), SOLD_STATUSES.contains(event.from()));
+        if (sign == 0) {
+            return;
+        }
+        try {
+            apply(event.orderId(), sign);
+        } catch (RuntimeException e) {
+            // The order change already committed; the buckets are off until rebuilt
+            log.error("Failed to roll up sales of order {} ({} -> {}), rebuild the sales rollups",
+                    event.orderId(), event.from(), event.to(), e);
+        }
+    }
+
+    /**
+     * Recompute every bucket from the orders, once at startup when there are none yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Replace every bucket with totals recomputed from the orders; returns the number of rows written
+     */
+    public int rebuildAll() {
+        long start = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Integer rows = rollupTransaction.execute(status -> {
+                rollupRepository.deleteAllInBatch();
+                Map<RollupKey, Totals> totals;
+                try (Stream<IOrderItemSalesView> items = orderItemRepository.streamSalesByOrderStatusIn(SOLD_STATUSES)) {
+                    totals = aggregate(items.iterator());
+                }
+                rollupRepository.saveAll(totals.entrySet().stream()
+                        .map(entry -> entry.getKey().toRollup(entry.getValue()))
+                        .toList());
+                return totals.size();
+            });
+            log.info("Rebuilt {} sales rollups in {}ms", rows, System.currentTimeMillis() - start);
+            return rows != null ? rows : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the sales report of the days [from, to]: totals, a series at the given granularity,
+     * the top models and the per-brand and per-category breakdowns
+     */
+    @Transactional(readOnly = true)
+    public SalesReportResponse getSalesReport(LocalDate from, LocalDate to, RollupGranularity granularity, int top) {
+        validateRange(from, to, granularity);
+        if (top < 1 || top > MAX_TOP) {
+            throw new BadRequestException("Top must be between 1 and " + MAX_TOP, "top", top);
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        List<SalesReportResponse.Bucket> series = rollupRepository
+                .findSeries(granularity, SalesDimension.TOTAL, TOTAL_ID, start, end).stream()
+                .map(rollup -> SalesReportResponse.Bucket.builder()
+                        .start(rollup.getBucketStart())
+                        .orderCount(rollup.getOrderCount())
+                        .units(rollup.getUnits())
+                        .revenue(rollup.getRevenue())
+                        .build())
+                .toList();
+
+        // Whole days: the daily buckets cover the range with the fewest rows
+        Optional<ISalesRollupTotalsView> totals = sum(SalesDimension.TOTAL, start, end, Pageable.unpaged())
+                .stream().findFirst();
+
+        List<ISalesRollupTotalsView> models = sum(SalesDimension.MODEL, start, end, PageRequest.of(0, top));
+        List<ISalesRollupTotalsView> brands = sum(SalesDimension.BRAND, start, end, Pageable.unpaged());
+        List<ISalesRollupTotalsView> categories = sum(SalesDimension.CATEGORY, start, end, Pageable.unpaged());
+
+        return SalesReportResponse.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity)
+                .orderCount(totals.map(ISalesRollupTotalsView::getOrderCount).orElse(0L))
+                .units(totals.map(ISalesRollupTotalsView::getUnits).orElse(0L))
+                .revenue(totals.map(ISalesRollupTotalsView::getRevenue).orElse(BigDecimal.ZERO))
+                .series(series)
+                .topModels(toEntries(models, ids -> shoeModelRepository.findByIdIn(ids).stream()
+                        .collect(Collectors.toMap(ShoeModel::getId, ShoeModel::getFullDisplayName))))
+                .brands(toEntries(brands, ids -> brandRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Brand::getId, Brand::getName))))
+                .categories(toEntries(categories, ids -> categoryRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(ShoeCategory::getId, ShoeCategory::getName))))
+                .build();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("To date must not be before from date", "to", to);
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        long maxDays = granularity == RollupGranularity.HOUR ? MAX_HOUR_RANGE_DAYS : MAX_DAY_RANGE_DAYS;
+        if (days > maxDays) {
+            throw new BadRequestException("Date range of " + granularity + " reports can't exceed " + maxDays + " days",
+                    "to", to);
+        }
+    }
+
+    private List<ISalesRollupTotalsView> sum(SalesDimension dimension, LocalDateTime start, LocalDateTime end,
+                                             Pageable pageable) {
+        return rollupRepository.sumByDimension(RollupGranularity.DAY, dimension, start, end, pageable);
+    }
+
+    private List<SalesReportResponse.Entry> toEntries(List<ISalesRollupTotalsView> rows,
+                                                      Function<Set<Long>, Map<Long, String>> names) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> byId = names.apply(rows.stream()
+                .map(ISalesRollupTotalsView::getDimensionId)
+                .collect(Collectors.toSet()));
+        return rows.stream()
+                .map(row -> SalesReportResponse.Entry.builder()
+                        .id(row.getDimensionId())
+                        .name(byId.get(row.getDimensionId()))
+                        .orderCount(row.getOrderCount())
+                        .units(row.getUnits())
+                        .revenue(row.getRevenue())
+                        .build())
+                .toList();
+    }
+
+    private void apply(Long orderId, int sign) {
+        lock.lock();
+        try {
+            Map<RollupKey, Totals> deltas = aggregate(
+                    orderItemRepository.findSalesByOrderIdIn(List.of(orderId)).iterator());
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<RollupKey> missing = rollupTransaction.execute(status -> increment(deltas, sign));
+            if (missing == null || missing.isEmpty()) {
+                return;
+            }
+
+            // First sale in these buckets; rows are created on their own so a concurrent insert only costs a retry
+            missing.forEach(this::createRow);
+            rollupTransaction.executeWithoutResult(status -> {
+                Map<RollupKey, Totals> rest = new TreeMap<>(deltas);
+                rest.keySet().retainAll(missing);
+                increment(rest, sign);
+            });
+            log.debug("Rolled up sales of order {} ({} new buckets)", orderId, missing.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the deltas to their rows in key order; returns the keys without a row
+     */
+    private List<RollupKey> increment(Map<RollupKey, Totals> deltas, int sign) {
+        List<RollupKey> missing = new ArrayList<>();
+        deltas.forEach((key, totals) -> {
+            int updated = rollupRepository.increment(key.granularity(), key.bucketStart(), key.dimension(),
+                    key.dimensionId(), sign * totals.orderCount, sign * totals.units,
+                    sign < 0 ? totals.revenue.negate() : totals.revenue);
+            if (updated == 0) {
+                missing.add(key);
+            }
+        });
+        return missing;
+    }
+
+    private void createRow(RollupKey key) {
+        try {
+            rollupTransaction.executeWithoutResult(status -> {
+                if (!rollupRepository.existsByGranularityAndBucketStartAndDimensionAndDimensionId(
+                        key.granularity(), key.bucketStart(), key.dimension(), key.dimensionId())) {
+                    rollupRepository.saveAndFlush(key.toRollup(new Totals()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Sales rollup {} created concurrently", key);
+        }
+    }
+
+    /**
+     * Sum items into buckets of both granularities; items must be grouped by order
+     */
+    private Map<RollupKey, Totals> aggregate(Iterator<IOrderItemSalesView> items) {
+        Map<RollupKey, Totals> totals = new TreeMap<>();
+        while (items.hasNext()) {
+            IOrderItemSalesView item = items.next();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.bucketStart(item.getOrderDate());
+                add(totals, new RollupKey(granularity, bucketStart, SalesDimension.TOTAL, TOTAL_ID), item);
+                add(totals, new RollupKey(granularity, bucketStart, SalesDimension.MODEL, item.getShoeModelId()), item);
+                add(totals, new RollupKey(granularity, bucketStart, SalesDimension.BRAND, item.getBrandId()), item);
+                add(totals, new RollupKey(granularity, bucketStart, SalesDimension.CATEGORY, item.getCategoryId()), item);
+            }
+        }
+        return totals;
+    }
+
+    private void add(Map<RollupKey, Totals> totals, RollupKey key, IOrderItemSalesView item) {
+        totals.computeIfAbsent(key, k -> new Totals()).add(item);
+    }
+
+    /**
+     * Identity of a rollup row, ordered the same way on every node
+     */
+    private record RollupKey(RollupGranularity granularity, LocalDateTime bucketStart, SalesDimension dimension,
+                             Long dimensionId) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::granularity)
+                .thenComparing(RollupKey::dimension)
+                .thenComparing(RollupKey::dimensionId)
+                .thenComparing(RollupKey::bucketStart);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        SalesRollup toRollup(Totals totals) {
+            return SalesRollup.builder()
+                    .granularity(granularity)
+                    .bucketStart(bucketStart)
+                    .dimension(dimension)
+                    .dimensionId(dimensionId)
+                    .orderCount(totals.orderCount)
+                    .units(totals.units)
+                    .revenue(totals.revenue)
+                    .build();
+        }
+    }
+
+    /**
+     * Running totals of one bucket; an order is counted once however many of its items fall in it
+     */
+    private static final class Totals {
+        private long orderCount;
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private Long lastOrderId;
+
+        void add(IOrderItemSalesView item) {
+            if (!item.getOrderId().equals(lastOrderId)) {
+                lastOrderId = item.getOrderId();
+                orderCount++;
+            }
+            units += item.getQuantity();
+            revenue = revenue.add(item.getTotalPrice());
+        }
+    }
+}
@@ -1,23 +1,72 @@
 package com.shoestore.service.shoe;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.shoestore.config.CacheNames;
+import com.shoestore.dto.shoe.BrandDto;
+import com.shoestore.dto.shoe.BrandMapper;
 import com.shoestore.entity.shoe.Brand;
 import com.shoestore.repository.shoe.BrandRepository;
 import com.shoestore.service.base.BaseService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 
 @Service
 @Slf4j
 @Transactional(readOnly = true)
 public class BrandService extends BaseService<Brand, Long, BrandRepository> {
 
+    private final ApplicationEventPublisher eventPublisher;
+    private final BrandMapper brandMapper;
 
-    public BrandService(BrandRepository brandRepository) {
+    public BrandService(BrandRepository brandRepository, ApplicationEventPublisher eventPublisher, BrandMapper brandMapper) {
         super(brandRepository, "Brand");
+        this.eventPublisher = eventPublisher;
+        this.brandMapper = brandMapper;
+    }
+
+    /**
+     * Get a brand by ID as a DTO, cached
+     */
+    public BrandDto getDto(Long id) {
+        return getDtoById(id, brandMapper::toDto);
+    }
+
+    /**
+     * Get a page of brands as DTOs, cached
+     */
+    @Cacheable(cacheNames = CacheNames.BRAND_PAGES, key = "#pageable")
+    public Page<BrandDto> findAllDtos(Pageable pageable) {
+        return findAll(pageable).map(brandMapper::toDto);
+    }
+
+    @Override
+    protected String getEntityCacheName() {
+        return CacheNames.BRANDS;
+    }
+
+    @Override
+    protected List<String> getQueryCacheNames() {
+        return List.of(CacheNames.BRAND_PAGES);
+    }
+
+    @Override
+    protected void afterUpdate(Brand entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.brand(entity.getId()));
+    }
+
+    @Override
+    protected void afterDelete(Brand entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.all());
     }
 
     @Override
@@ -0,0 +1,94 @@
+package com.shoestore.service.shoe;
+
+import com.shoestore.config.CacheNames;
+import com.shoestore.repository.shoe.ShoeModelRepository;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Clears catalog caches holding data of another entity than the one written.
+ * Each service evicts its own entries (see BaseService#evictCaches); this covers what is
+ * denormalized across entities: brand and category inside cached shoes and models, stock inside cached models.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final ShoeModelRepository shoeModelRepository;
+
+    /**
+     * Evict the caches affected by a committed catalog change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        try {
+            switch (event.scope()) {
+                case MODEL -> {
+                    evict(CacheNames.SHOE_MODELS, event.id());
+                    evictModelsOfShoe(event.id());
+                }
+                case SHOE -> {
+                    evict(CacheNames.SHOE_MODELS_BY_SHOE, event.id());
+                    evictModelsByShoe(event.id());
+                }
+                case BRAND, CATEGORY -> {
+                    clear(CacheNames.SHOES);
+                    clear(CacheNames.SHOE_PAGES);
+                    clear(CacheNames.SHOE_MODELS);
+                }
+                case ALL -> CacheNames.ALL.forEach(this::clear);
+            }
+            log.debug("Evicted caches for catalog change {}", event);
+        } catch (RuntimeException e) {
+            // The write already committed; fall back to dropping everything the change could have touched
+            log.error("Failed to evict caches for catalog change {}", event, e);
+            CacheNames.ALL.forEach(this::clear);
+        }
+    }
+
+    private void evictModelsOfShoe(Long shoeModelId) {
+        Optional<Long> shoeId = shoeModelRepository.findShoeIdById(shoeModelId);
+        if (shoeId.isPresent()) {
+            evict(CacheNames.SHOE_MODELS_BY_SHOE, shoeId.get());
+        } else {
+            // Deleted model, its shoe is unknown
+            clear(CacheNames.SHOE_MODELS_BY_SHOE);
+        }
+    }
+
+    private void evictModelsByShoe(Long shoeId) {
+        List<Long> shoeModelIds = shoeModelRepository.findIdsByShoeId(shoeId);
+        if (!shoeModelIds.isEmpty()) {
+            shoeModelIds.forEach(shoeModelId -> evict(CacheNames.SHOE_MODELS, shoeModelId));
+        } else {
+            // Deleted shoe, its models are gone with it
+            clear(CacheNames.SHOE_MODELS);
+        }
+    }
+
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.shoestore.service.shoe;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shoestore.dto.shoe.ProductFeedItem;
+import com.shoestore.repository.shoe.ProductFeedRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Writes the product feed as NDJSON: one {@link ProductFeedItem} per line, serialized as the
+ * rows come off the database cursor, for partners and search indexers syncing the whole catalog.
+ */
+@Service
+@Slf4j
+public class ProductFeedService {
+
+    private final ProductFeedRepository feedRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
+    private final Duration watermarkOverlap;
+
+    public ProductFeedService(
+            ProductFeedRepository feedRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.catalog.feed.watermark-overlap:PT1M}") Duration watermarkOverlap
+    ) {
+        this.feedRepository = feedRepository;
+        this.objectMapper = objectMapper;
+        // The generator buffers lines and flushes when full, not once per item
+        this.itemWriter = objectMapper.writerFor(ProductFeedItem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.watermarkOverlap = watermarkOverlap;
+    }
+
+    /**
+     * Value to pass as updatedSince on the next incremental sync, taken before reading.
+     * Writes still in flight may commit with an earlier updatedAt, so it lags by an overlap;
+     * items changed in the overlap are sent twice.
+     */
+    public LocalDateTime nextWatermark() {
+        return LocalDateTime.now().minus(watermarkOverlap);
+    }
+
+    /**
+     * Write every sold model, or every model changed after updatedSince (including the ones
+     * no longer sold, flagged inactive), to the output stream. The stream is flushed, not closed.
+     */
+    @Transactional(readOnly = true)
+    public long writeFeed(LocalDateTime updatedSince, OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are ended explicitly instead of separated by the default space
+        generator.setRootValueSeparator(null);
+
+        long[] count = {0};
+        Consumer<ProductFeedItem> writeLine = item -> {
+            try {
+                itemWriter.writeValue(generator, item);
+                generator.writeRaw('\n');
+                count[0]++;
+            } catch (IOException e) {
+                // Usually the client went away; abandons the cursor
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            if (updatedSince != null) {
+                feedRepository.streamChangedSince(updatedSince, writeLine);
+            } else {
+                feedRepository.streamActive(writeLine);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+
+        log.info("Wrote product feed of {} models (updatedSince: {}) in {}ms",
+                count[0], updatedSince, System.currentTimeMillis() - start);
+        return count[0];
+    }
+}
@@ -1,21 +1,72 @@
 package com.shoestore.service.shoe;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.shoestore.config.CacheNames;
+import com.shoestore.dto.shoe.ShoeCategoryDto;
+import com.shoestore.dto.shoe.ShoeCategoryMapper;
 import com.shoestore.entity.shoe.ShoeCategory;
 import com.shoestore.repository.shoe.ShoeCategoryRepository;
 import com.shoestore.service.base.BaseService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 @Service
 @Slf4j
 @Transactional(readOnly = true)
 public class ShoeCategoryService extends BaseService<ShoeCategory, Long, ShoeCategoryRepository> {
 
-    public ShoeCategoryService(ShoeCategoryRepository repository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShoeCategoryMapper categoryMapper;
+
+    public ShoeCategoryService(ShoeCategoryRepository repository, ApplicationEventPublisher eventPublisher,
+                               ShoeCategoryMapper categoryMapper) {
         super(repository, "Category");
+        this.eventPublisher = eventPublisher;
+        this.categoryMapper = categoryMapper;
+    }
+
+    /**
+     * Get a category by ID as a DTO, cached
+     */
+    public ShoeCategoryDto getDto(Long id) {
+        return getDtoById(id, categoryMapper::toDto);
+    }
+
+    /**
+     * Get a page of categories as DTOs, cached
+     */
+    @Cacheable(cacheNames = CacheNames.CATEGORY_PAGES, key = "#pageable")
+    public Page<ShoeCategoryDto> findAllDtos(Pageable pageable) {
+        return findAll(pageable).map(categoryMapper::toDto);
+    }
+
+    @Override
+    protected String getEntityCacheName() {
+        return CacheNames.CATEGORIES;
+    }
+
+    @Override
+    protected List<String> getQueryCacheNames() {
+        return List.of(CacheNames.CATEGORY_PAGES);
+    }
+
+    @Override
+    protected void afterUpdate(ShoeCategory entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.category(entity.getId()));
+    }
+
+    @Override
+    protected void afterDelete(ShoeCategory entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.all());
     }
 
     @Override
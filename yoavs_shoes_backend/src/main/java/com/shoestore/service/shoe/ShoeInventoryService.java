@@ -1,17 +1,31 @@
 package com.shoestore.service.shoe;
 
 import com.shoestore.dto.shoe.ShoeInventoryDto.UpdateShoeInventoryDto;
+import com.shoestore.entity.shoe.InventoryLine;
 import com.shoestore.entity.shoe.ShoeInventory;
 import com.shoestore.entity.shoe.ShoeModel;
+import com.shoestore.exception.BadRequestException;
+import com.shoestore.exception.InsufficientStockException;
 import com.shoestore.exception.ResourceNotFoundException;
 import com.shoestore.repository.shoe.ShoeInventoryRepository;
 import com.shoestore.service.base.BaseService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
+import com.shoestore.service.shoe.ledger.InventoryLedger;
+import com.shoestore.service.shoe.ledger.InventorySku;
+import com.shoestore.service.shoe.ledger.LedgerDelta;
+import com.shoestore.service.shoe.ledger.LedgerTransaction;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing shoe inventory
@@ -22,14 +36,87 @@ import java.util.Optional;
 public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeInventoryRepository> {
 
     private final ShoeModelService shoeModelService;
-
-    public ShoeInventoryService(ShoeInventoryRepository repository, ShoeModelService shoeModelService) {
+    private final ShoeStockSummaryService shoeStockSummaryService;
+    private final InventoryLedger inventoryLedger;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ShoeInventoryService(ShoeInventoryRepository repository, ShoeModelService shoeModelService,
+                                ShoeStockSummaryService shoeStockSummaryService,
+                                InventoryLedger inventoryLedger,
+                                ApplicationEventPublisher eventPublisher) {
         super(repository, "ShoeInventory");
         this.shoeModelService = shoeModelService;
+        this.shoeStockSummaryService = shoeStockSummaryService;
+        this.inventoryLedger = inventoryLedger;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    protected void afterCreate(ShoeInventory entity) {
+        publishStockChange(entity.getShoeModelId());
+        shoeStockSummaryService.markModelChanged(entity.getShoeModelId());
+    }
+
+    @Override
+    protected void afterUpdate(ShoeInventory entity) {
+        publishStockChange(entity.getShoeModelId());
+        shoeStockSummaryService.markModelChanged(entity.getShoeModelId());
+    }
+
+    @Override
+    protected void afterDelete(ShoeInventory entity) {
+        publishStockChange(entity.getShoeModelId());
+        shoeStockSummaryService.markModelChanged(entity.getShoeModelId());
+    }
+
+    /**
+     * Notify catalog indexes that the in-stock sizes of a model may have changed.
+     * Only quantityAvailable drives the indexes, so reserve and release don't publish;
+     * row creates, updates and deletes always do, even when only quantityReserved changed.
+     */
+    private void publishStockChange(Long shoeModelId) {
+        eventPublisher.publishEvent(CatalogChangeEvent.model(shoeModelId));
+    }
+
+    /**
+     * Update an inventory row; quantities of hot SKUs go through the inventory ledger
+     */
+    @Override
+    @Transactional
+    public ShoeInventory update(Long id, ShoeInventory entity) {
+        return withLedgerQuantities(super.update(id, entity));
+    }
+
+    /**
+     * Save an inventory row as given. Rows of hot SKUs are rejected: saving them would write
+     * absolute quantities past the ledger, use update() instead
+     */
+    @Override
+    @Transactional
+    public ShoeInventory save(ShoeInventory entity) {
+        rejectHotRow(entity);
+        return super.save(entity);
+    }
+
+    @Override
+    @Transactional
+    public List<ShoeInventory> saveAll(List<ShoeInventory> entities) {
+        entities.forEach(this::rejectHotRow);
+        return super.saveAll(entities);
     }
 
     @Override
     protected void updateEntityFields(ShoeInventory existingEntity, ShoeInventory newEntity) {
+        InventorySku sku = new InventorySku(existingEntity.getShoeModelId(), existingEntity.getSize());
+        if (inventoryLedger.isHot(sku)) {
+            // The row keeps its quantities, the ledger moves it by the difference on its next flush
+            int[] current = inventoryLedger.getQuantities(sku);
+            int available = newEntity.getQuantityAvailable() != null ? newEntity.getQuantityAvailable() : current[0];
+            int reserved = newEntity.getQuantityReserved() != null ? newEntity.getQuantityReserved() : current[1];
+            settle(List.of(inventoryLedger.set(sku, available, reserved)));
+            return;
+        }
+
         if (newEntity.getQuantityAvailable() != null) {
             existingEntity.setQuantityAvailable(newEntity.getQuantityAvailable());
         }
@@ -44,12 +131,25 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
         log.debug("Updating inventory for shoe model {} and size {} with request {}", shoeModelId, size, request.getQuantityAvailable());
 
         ShoeInventory inventory = getInventoryByShoeModelAndSize(shoeModelId, size);
-        inventory.setQuantityAvailable(request.getQuantityAvailable());
-        if (request.getQuantityReserved() != null) {
-            inventory.setQuantityReserved(request.getQuantityReserved());
+        InventorySku sku = new InventorySku(shoeModelId, size);
+        ShoeInventory savedInventory;
+        if (inventoryLedger.isHot(sku)) {
+            // The ledger owns hot quantities and moves the row by the difference on its next flush
+            int reserved = request.getQuantityReserved() != null
+                    ? request.getQuantityReserved()
+                    : inventoryLedger.getQuantities(sku)[1];
+            settle(List.of(inventoryLedger.set(sku, request.getQuantityAvailable(), reserved)));
+            savedInventory = withLedgerQuantities(inventory);
+        } else {
+            inventory.setQuantityAvailable(request.getQuantityAvailable());
+            if (request.getQuantityReserved() != null) {
+                inventory.setQuantityReserved(request.getQuantityReserved());
+            }
+            savedInventory = repository.save(inventory);
         }
-
-        return repository.save(inventory);
+        shoeStockSummaryService.markModelChanged(inventory.getShoeModelId());
+        publishStockChange(shoeModelId);
+        return savedInventory;
     }
 
     /**
@@ -95,34 +195,28 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
     }
 
     /**
-     * Reserve inventory for an order
+     * Reserve inventory for an order.
+     * A single conditional UPDATE, so concurrent reservations can't oversell the row.
      */
     @Transactional
     public boolean reserveInventory(Long shoeModelId, String size, Integer quantity) {
         log.debug("Reserving inventory: shoeModelId={}, size={}, quantity={}", shoeModelId, size, quantity);
-        
-        ShoeModel shoeModel = shoeModelService.getById(shoeModelId);
-        
-        Optional<ShoeInventory> inventoryOpt = repository.findByShoeModelAndSize(shoeModel, size);
-        if (inventoryOpt.isEmpty()) {
-            log.warn("No inventory found for shoe model {} and size {}", shoeModelId, size);
-            return false;
+
+        InventorySku sku = new InventorySku(shoeModelId, size);
+        if (inventoryLedger.isHot(sku)) {
+            Optional<LedgerDelta> reserved = inventoryLedger.reserve(sku, quantity);
+            reserved.ifPresent(delta -> settle(List.of(delta)));
+            return reserved.isPresent();
         }
-        
-        ShoeInventory inventory = inventoryOpt.get();
-        Integer availableQuantity = inventory.getActualAvailableQuantity();
-        
-        if (availableQuantity < quantity) {
-            log.warn("Insufficient inventory: requested={}, available={}", quantity, availableQuantity);
+
+        if (repository.reserve(shoeModelId, size, quantity) == 0) {
+            log.warn("Insufficient or missing inventory for shoe model {} size {}: requested={}",
+                    shoeModelId, size, quantity);
             return false;
         }
-        
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
-        repository.save(inventory);
-        
-        log.info("Reserved {} units for shoe model {} size {}. New reserved total: {}", 
-                quantity, shoeModelId, size, inventory.getQuantityReserved());
-        
+        shoeStockSummaryService.markModelChanged(shoeModelId);
+
+        log.info("Reserved {} units for shoe model {} size {}", quantity, shoeModelId, size);
         return true;
     }
 
@@ -133,20 +227,16 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
     public void releaseReservedInventory(Long shoeModelId, String size, Integer quantity) {
         log.debug("Releasing reserved inventory: shoeModelId={}, size={}, quantity={}", shoeModelId, size, quantity);
 
-        ShoeModel shoeModel = shoeModelService.getById(shoeModelId);
-
-        Optional<ShoeInventory> inventoryOpt = repository.findByShoeModelAndSize(shoeModel, size);
-        if (inventoryOpt.isPresent()) {
-            ShoeInventory inventory = inventoryOpt.get();
-            int newReserved = Math.max(0, inventory.getQuantityReserved() - quantity);
-            inventory.setQuantityReserved(newReserved);
-            repository.save(inventory);
-            
-            log.info("Released {} reserved units for shoe model {} size {}. New reserved total: {}", 
-                    quantity, shoeModelId, size, newReserved);
-        } else {
+        if (applyToLedger(List.of(new InventoryLine(shoeModelId, size, quantity)), inventoryLedger::release).isEmpty()) {
+            return;
+        }
+        if (repository.release(shoeModelId, size, quantity) == 0) {
             log.warn("No inventory found to release for shoe model {} and size {}", shoeModelId, size);
+            return;
         }
+        shoeStockSummaryService.markModelChanged(shoeModelId);
+
+        log.info("Released {} reserved units for shoe model {} size {}", quantity, shoeModelId, size);
     }
 
     /**
@@ -156,25 +246,266 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
     public void commitReservedInventory(Long shoeModelId, String size, Integer quantity) {
         log.debug("Committing reserved inventory: shoeModelId={}, size={}, quantity={}", shoeModelId, size, quantity);
 
-        ShoeModel shoeModel = shoeModelService.getById(shoeModelId);
-
-        Optional<ShoeInventory> inventoryOpt = repository.findByShoeModelAndSize(shoeModel, size);
-        if (inventoryOpt.isPresent()) {
-            ShoeInventory inventory = inventoryOpt.get();
-            
-            // Reduce both available and reserved quantities
-            inventory.setQuantityAvailable(Math.max(0, inventory.getQuantityAvailable() - quantity));
-            inventory.setQuantityReserved(Math.max(0, inventory.getQuantityReserved() - quantity));
-            
-            repository.save(inventory);
-            
-            log.info("Committed {} units for shoe model {} size {}. Available: {}, Reserved: {}", 
-                    quantity, shoeModelId, size, inventory.getQuantityAvailable(), inventory.getQuantityReserved());
-        } else {
+        if (applyToLedger(List.of(new InventoryLine(shoeModelId, size, quantity)), inventoryLedger::commit).isEmpty()) {
+            return;
+        }
+        // Reduce both available and reserved quantities
+        if (repository.commit(shoeModelId, size, quantity) == 0) {
             log.warn("No inventory found to commit for shoe model {} and size {}", shoeModelId, size);
+            return;
+        }
+        shoeStockSummaryService.markModelChanged(shoeModelId);
+        publishStockChange(shoeModelId);
+
+        log.info("Committed {} units for shoe model {} size {}", quantity, shoeModelId, size);
+    }
+
+    /**
+     * Reserve every line in one statement, all or nothing.
+     * Throws when a line lacks stock, rolling back the reservation of the others with the transaction.
+     */
+    @Transactional
+    public void reserveAll(Collection<InventoryLine> lines) {
+        List<InventoryLine> merged = InventoryLine.merge(lines);
+        if (merged.isEmpty()) {
+            return;
+        }
+        log.debug("Reserving inventory for {} lines", merged.size());
+
+        List<InventoryLine> cold = reserveInLedger(merged);
+        int reserved = cold.isEmpty() ? 0 : repository.reserveAll(cold);
+        if (reserved < cold.size()) {
+            log.warn("Reserved only {} of {} inventory lines, rolling back", reserved, cold.size());
+            throw insufficientStock(cold);
+        }
+        shoeStockSummaryService.markModelsChanged(shoeModelIds(cold));
+
+        log.info("Reserved inventory for {} lines", merged.size());
+    }
+
+    /**
+     * Release the reservations of every line in one statement
+     */
+    @Transactional
+    public void releaseAll(Collection<InventoryLine> lines) {
+        List<InventoryLine> merged = InventoryLine.merge(lines);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        List<InventoryLine> cold = applyToLedger(merged, inventoryLedger::release);
+        int released = cold.isEmpty() ? 0 : repository.releaseAll(cold);
+        warnIfIncomplete("release", released, cold.size());
+        shoeStockSummaryService.markModelsChanged(shoeModelIds(cold));
+
+        log.info("Released reserved inventory for {} lines", merged.size() - cold.size() + released);
+    }
+
+    /**
+     * Commit the reservations of every line in one statement
+     */
+    @Transactional
+    public void commitAll(Collection<InventoryLine> lines) {
+        List<InventoryLine> merged = InventoryLine.merge(lines);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        List<InventoryLine> cold = applyToLedger(merged, inventoryLedger::commit);
+        int committed = cold.isEmpty() ? 0 : repository.commitAll(cold);
+        warnIfIncomplete("commit", committed, cold.size());
+        Set<Long> shoeModelIds = shoeModelIds(cold);
+        shoeStockSummaryService.markModelsChanged(shoeModelIds);
+        shoeModelIds.forEach(this::publishStockChange);
+
+        log.info("Committed inventory for {} lines", merged.size() - cold.size() + committed);
+    }
+
+    /**
+     * Return the sold quantities of every line to available stock in one statement
+     */
+    @Transactional
+    public void restoreAll(Collection<InventoryLine> lines) {
+        List<InventoryLine> merged = InventoryLine.merge(lines);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        List<InventoryLine> cold = applyToLedger(merged, inventoryLedger::restore);
+        int restored = cold.isEmpty() ? 0 : repository.restoreAll(cold);
+        warnIfIncomplete("restore", restored, cold.size());
+        Set<Long> shoeModelIds = shoeModelIds(cold);
+        shoeStockSummaryService.markModelsChanged(shoeModelIds);
+        shoeModelIds.forEach(this::publishStockChange);
+
+        log.info("Restored inventory for {} lines", merged.size() - cold.size() + restored);
+    }
+
+    /**
+     * Get the lines that can't be fulfilled from current unreserved stock, read in one query.
+     * Advisory only: reservations still decide atomically.
+     */
+    public List<InventoryLine> findUnavailable(Collection<InventoryLine> lines) {
+        List<InventoryLine> merged = InventoryLine.merge(lines);
+        if (merged.isEmpty()) {
+            return List.of();
+        }
+
+        List<InventoryLine> cold = merged.stream().filter(line -> !inventoryLedger.isHot(sku(line))).toList();
+        Map<List<Object>, ShoeInventory> inventory = cold.isEmpty() ? Map.of() : loadInventory(cold);
+        return merged.stream()
+                .filter(line -> {
+                    InventorySku sku = sku(line);
+                    int available = inventoryLedger.isHot(sku)
+                            ? inventoryLedger.getUnreservedQuantity(sku)
+                            : availableQuantity(inventory, line);
+                    return available < line.quantity();
+                })
+                .toList();
+    }
+
+    /**
+     * Reserve the lines held by the inventory ledger, settled when the transaction completes;
+     * returns the lines left for the database
+     */
+    private List<InventoryLine> reserveInLedger(List<InventoryLine> lines) {
+        List<InventoryLine> cold = new ArrayList<>();
+        List<LedgerDelta> deltas = new ArrayList<>();
+        try {
+            for (InventoryLine line : lines) {
+                InventorySku sku = sku(line);
+                if (!inventoryLedger.isHot(sku)) {
+                    cold.add(line);
+                    continue;
+                }
+                Optional<LedgerDelta> reserved = inventoryLedger.reserve(sku, line.quantity());
+                if (reserved.isEmpty()) {
+                    log.warn("Insufficient inventory for hot SKU {}: requested={}", sku, line.quantity());
+                    throw new InsufficientStockException(line.shoeModelId(), line.size(), line.quantity(),
+                            inventoryLedger.getUnreservedQuantity(sku));
+                }
+                deltas.add(reserved.get());
+            }
+        } finally {
+            settle(deltas);
+        }
+        return cold;
+    }
+
+    /**
+     * Apply an operation to the lines held by the inventory ledger, settled when the transaction completes;
+     * returns the lines left for the database
+     */
+    private List<InventoryLine> applyToLedger(List<InventoryLine> lines, BiFunction<InventorySku, Integer, LedgerDelta> operation) {
+        List<InventoryLine> cold = new ArrayList<>();
+        List<LedgerDelta> deltas = new ArrayList<>();
+        for (InventoryLine line : lines) {
+            InventorySku sku = sku(line);
+            if (inventoryLedger.isHot(sku)) {
+                deltas.add(operation.apply(sku, line.quantity()));
+            } else {
+                cold.add(line);
+            }
+        }
+        settle(deltas);
+        return cold;
+    }
+
+    /**
+     * Ledger changes aren't transactional: journal them ahead of the surrounding transaction's commit,
+     * queue them once it committed and revert them when it rolled back
+     */
+    private void settle(List<LedgerDelta> changes) {
+        List<LedgerDelta> deltas = changes.stream().filter(delta -> !delta.isEmpty()).toList();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inventoryLedger.confirm(inventoryLedger.prepare(deltas));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private LedgerTransaction prepared;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                prepared = inventoryLedger.prepare(deltas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (prepared == null) {
+                    inventoryLedger.undo(deltas);
+                } else if (status == STATUS_COMMITTED) {
+                    inventoryLedger.confirm(prepared);
+                } else {
+                    inventoryLedger.abort(prepared);
+                }
+            }
+        });
+    }
+
+    private void rejectHotRow(ShoeInventory inventory) {
+        if (inventory.getId() != null
+                && inventoryLedger.isHot(new InventorySku(inventory.getShoeModelId(), inventory.getSize()))) {
+            throw new BadRequestException("Stock of shoe model " + inventory.getShoeModelId() + " size "
+                    + inventory.getSize() + " is held by the inventory ledger, update it through the inventory API");
         }
     }
 
+    /**
+     * Copy of a hot SKU's row carrying the ledger's quantities, leaving the managed row untouched
+     */
+    private ShoeInventory withLedgerQuantities(ShoeInventory inventory) {
+        InventorySku sku = new InventorySku(inventory.getShoeModelId(), inventory.getSize());
+        if (!inventoryLedger.isHot(sku)) {
+            return inventory;
+        }
+        ShoeInventory copy = new ShoeInventory();
+        BeanUtils.copyProperties(inventory, copy);
+        int[] quantities = inventoryLedger.getQuantities(sku);
+        copy.setQuantityAvailable(quantities[0]);
+        copy.setQuantityReserved(quantities[1]);
+        return copy;
+    }
+
+    private InventorySku sku(InventoryLine line) {
+        return new InventorySku(line.shoeModelId(), line.size());
+    }
+
+    private InsufficientStockException insufficientStock(List<InventoryLine> lines) {
+        // The statement only reports a count; lines it did reserve already include this
+        // transaction's quantity, so the first short line is a best guess at the culprit
+        for (InventoryLine line : lines) {
+            int unreserved = Math.max(0, repository.findUnreservedQuantity(line.shoeModelId(), line.size()).orElse(0));
+            if (unreserved < line.quantity()) {
+                return new InsufficientStockException(line.shoeModelId(), line.size(), line.quantity(), unreserved);
+            }
+        }
+        InventoryLine first = lines.get(0);
+        return new InsufficientStockException(first.shoeModelId(), first.size(), first.quantity(), 0);
+    }
+
+    private Map<List<Object>, ShoeInventory> loadInventory(List<InventoryLine> lines) {
+        return repository.findByShoeModelIdIn(shoeModelIds(lines)).stream()
+                .collect(Collectors.toMap(si -> List.of(si.getShoeModelId(), si.getSize()), Function.identity()));
+    }
+
+    private int availableQuantity(Map<List<Object>, ShoeInventory> inventory, InventoryLine line) {
+        ShoeInventory si = inventory.get(List.of(line.shoeModelId(), line.size()));
+        return si == null || !si.isAvailable() ? 0 : si.getActualAvailableQuantity();
+    }
+
+    private void warnIfIncomplete(String operation, int affected, int expected) {
+        if (affected < expected) {
+            log.warn("Inventory {} updated {} of {} lines, missing rows skipped", operation, affected, expected);
+        }
+    }
+
+    private Set<Long> shoeModelIds(List<InventoryLine> lines) {
+        return lines.stream().map(InventoryLine::shoeModelId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
     /**
      * Check if inventory is available for purchase
      */
@@ -191,31 +522,12 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
         }
         
         ShoeInventory inventory = inventoryOpt.get();
-        return inventory.isAvailable() && inventory.getActualAvailableQuantity() >= quantity;
-    }
-
-    /**
-     * Reserve inventory by inventory ID
-     */
-    @Transactional
-    public boolean reserveInventoryById(Long inventoryId, Integer quantity) {
-        log.debug("Reserving inventory by ID: {} quantity: {}", inventoryId, quantity);
-        
-        ShoeInventory inventory = getById(inventoryId);
-        
-        if (inventory.getQuantityAvailable() < quantity) {
-            log.warn("Insufficient available inventory for ID {}: available={}, requested={}", 
-                    inventoryId, inventory.getQuantityAvailable(), quantity);
-            return false;
+        InventorySku sku = new InventorySku(shoeModelId, size);
+        if (inventoryLedger.isHot(sku)) {
+            // The row lags the ledger by up to one flush
+            return inventoryLedger.getUnreservedQuantity(sku) >= quantity;
         }
-        
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
-        
-        repository.save(inventory);
-        
-        log.info("Reserved {} units for inventory ID: {}", quantity, inventoryId);
-        return true;
+        return inventory.isAvailable() && inventory.getActualAvailableQuantity() >= quantity;
     }
 
     /**
@@ -226,21 +538,17 @@ public class ShoeInventoryService extends BaseService<ShoeInventory, Long, ShoeI
     public void restoreInventory(Long shoeModelId, String size, Integer quantity) {
         log.debug("Restoring inventory: shoeModelId={}, size={}, quantity={}", shoeModelId, size, quantity);
 
-        ShoeModel shoeModel = shoeModelService.getById(shoeModelId);
-
-        Optional<ShoeInventory> inventoryOpt = repository.findByShoeModelAndSize(shoeModel, size);
-        if (inventoryOpt.isPresent()) {
-            ShoeInventory inventory = inventoryOpt.get();
-            
-            // Add the quantity back to available inventory
-            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
-            
-            repository.save(inventory);
-            
-            log.info("Restored {} units for shoe model {} size {}. New available total: {}", 
-                    quantity, shoeModelId, size, inventory.getQuantityAvailable());
-        } else {
+        if (applyToLedger(List.of(new InventoryLine(shoeModelId, size, quantity)), inventoryLedger::restore).isEmpty()) {
+            return;
+        }
+        // Add the quantity back to available inventory
+        if (repository.restore(shoeModelId, size, quantity) == 0) {
             log.warn("No inventory found to restore for shoe model {} and size {}", shoeModelId, size);
+            return;
         }
+        shoeStockSummaryService.markModelChanged(shoeModelId);
+        publishStockChange(shoeModelId);
+
+        log.info("Restored {} units for shoe model {} size {}", quantity, shoeModelId, size);
     }
 }
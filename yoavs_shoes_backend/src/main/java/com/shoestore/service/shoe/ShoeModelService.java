@@ -1,14 +1,28 @@
 package com.shoestore.service.shoe;
 
+import com.shoestore.config.CacheNames;
+import com.shoestore.dto.base.KeysetCursor;
 import com.shoestore.dto.shoe.*;
 import com.shoestore.entity.shoe.*;
+import com.shoestore.exception.BadRequestException;
 import com.shoestore.exception.ResourceNotFoundException;
 import com.shoestore.repository.shoe.*;
 import com.shoestore.service.base.BaseService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
+import com.shoestore.service.shoe.index.FacetCountEngine;
+import com.shoestore.service.shoe.index.FacetCounter;
+import com.shoestore.service.shoe.index.FacetCounts;
+import com.shoestore.service.shoe.index.ProductFilterIndex;
+import com.shoestore.service.shoe.index.ProductSearchIndex;
+import com.shoestore.service.shoe.index.ProductSuggestIndex;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -26,29 +40,56 @@ import java.util.*;
 public class ShoeModelService extends BaseService<ShoeModel, Long, ShoeModelRepository> {
 
     private final ShoeModelRepository shoeModelRepository;
-    private final BrandRepository brandRepository;
-    private final ShoeCategoryRepository categoryRepository;
-
+    private final ProductFilterIndex productFilterIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final FacetCountEngine facetCountEngine;
+    private final ShoeStockSummaryService shoeStockSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ShoeModelMapper shoeModelMapper;
+    private final int maxBatchSize;
 
     public ShoeModelService(
             ShoeModelRepository shoeModelRepository,
-            BrandRepository brandRepository,
-            ShoeCategoryRepository categoryRepository
+            ProductFilterIndex productFilterIndex,
+            ProductSearchIndex productSearchIndex,
+            ProductSuggestIndex productSuggestIndex,
+            FacetCountEngine facetCountEngine,
+            ShoeStockSummaryService shoeStockSummaryService,
+            ApplicationEventPublisher eventPublisher,
+            CacheManager cacheManager,
+            ShoeModelMapper shoeModelMapper,
+            @Value("${app.catalog.batch.max-ids:100}") int maxBatchSize
     ) {
         super(shoeModelRepository, "ShoeModel");
         this.shoeModelRepository = shoeModelRepository;
-        this.brandRepository = brandRepository;
-        this.categoryRepository = categoryRepository;
+        this.productFilterIndex = productFilterIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.facetCountEngine = facetCountEngine;
+        this.shoeStockSummaryService = shoeStockSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.shoeModelMapper = shoeModelMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
     public Page<ShoeModel> findAll(Pageable pageable) {
         log.debug("Finding all ShoeModels with pagination and joins: {}", pageable);
 
-        // Create specification with proper joins
+        // Page the IDs, then fetch the models with their associations
         Specification<ShoeModel> spec = createSpecificationWithJoins(null);
         
-        return shoeModelRepository.findAll(spec, pageable);
+        return findPage(spec, pageable);
+    }
+
+    @Override
+    public Slice<ShoeModel> findAllAfter(Sort sort, String after, int size) {
+        log.debug("Finding ShoeModels after cursor with joins: {}", after);
+
+        return findSlice(createSpecificationWithJoins(null), sort, after, size);
     }
 
     /**
@@ -56,43 +97,182 @@ public class ShoeModelService extends BaseService<ShoeModel, Long, ShoeModelRepo
      */
     public Page<ShoeModel> getProducts(ProductFilterCriteria criteria) {
         log.debug("Getting products with criteria: {}", criteria);
+        validateGender(criteria);
+
+        // Create pageable for pagination and sorting
+        Pageable pageable = createPageable(criteria);
+
+        // Answer from the in-memory indexes when possible
+        Optional<Page<Long>> indexedIds = findIndexedIds(criteria, pageable);
+        if (indexedIds.isPresent()) {
+            return hydrate(indexedIds.get());
+        }
 
         // Create specification for filtering with joins
         Specification<ShoeModel> spec = createSpecificationWithJoins(criteria);
 
-        // Create pageable for pagination and sorting
-        Pageable pageable = createPageable(criteria);
+        // Relevance needs the search index, the database falls back to name order
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.ASC, "shoe.name", "modelName"));
+        }
 
-        // Execute query
-        return shoeModelRepository.findAll(spec, pageable);
+        // Page the IDs, then fetch the models with their associations
+        return findPage(spec, pageable);
     }
 
     /**
-     * Get models by shoe ID
+     * Get the slice of products after a keyset cursor, with filters.
+     * No count query is run; relevance order is served as name order in cursor mode.
      */
-    public List<ShoeModel> getShoeModels(Long shoeId) {
+    public Slice<ShoeModel> getProductsAfter(ProductFilterCriteria criteria, String after) {
+        log.debug("Getting products after cursor: {} with criteria: {}", after, criteria);
+        validateGender(criteria);
+
+        int size = criteria.getSize() != null ? criteria.getSize() : 20;
+        Sort keysetSort = KeysetCursor.withTieBreaker(resolveSort(criteria.getSortBy(), criteria.getSortDirection()));
+        KeysetCursor cursor = KeysetCursor.decode(after);
+
+        // Answer from the in-memory indexes when possible
+        Optional<Slice<Long>> indexedIds;
+        if (criteria.getSearchTerm() != null && !criteria.getSearchTerm().trim().isEmpty()) {
+            indexedIds = productSearchIndex.search(criteria.getSearchTerm())
+                    .flatMap(rankedIds -> productFilterIndex.findIdsAfter(criteria, keysetSort, cursor, size, rankedIds));
+        } else {
+            indexedIds = productFilterIndex.findIdsAfter(criteria, keysetSort, cursor, size, null);
+        }
+        if (indexedIds.isPresent()) {
+            Slice<Long> ids = indexedIds.get();
+            return new SliceImpl<>(hydrate(ids.getContent()), ids.getPageable(), ids.hasNext());
+        }
+
+        return findSlice(createSpecificationWithJoins(criteria), keysetSort, after, size);
+    }
+
+    /**
+     * Map product sort fields to ShoeModel properties
+     */
+    @Override
+    public Sort resolveSort(String sortBy, String sortDirection) {
+        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String field = sortBy != null ? sortBy.toLowerCase() : "";
+
+        return switch (field) {
+            case "price" -> Sort.by(direction, "price");
+            case "brand" -> Sort.by(direction, "shoe.brand.name");
+            case "createdat" -> Sort.by(direction, "createdAt");
+            default -> Sort.by(direction, "shoe.name", "modelName");
+        };
+    }
+
+    /**
+     * Reject a gender filter that isn't a Shoe.Gender
+     */
+    private static void validateGender(ProductFilterCriteria criteria) {
+        String gender = criteria.getGender();
+        if (gender != null && !gender.trim().isEmpty() && Shoe.Gender.parse(gender).isEmpty()) {
+            throw new BadRequestException("Unknown gender, expected one of " + Arrays.toString(Shoe.Gender.values()),
+                    "gender", gender);
+        }
+    }
+
+    /**
+     * Resolve a page of product IDs from the search and filter indexes
+     */
+    private Optional<Page<Long>> findIndexedIds(ProductFilterCriteria criteria, Pageable pageable) {
+        if (criteria.getSearchTerm() != null && !criteria.getSearchTerm().trim().isEmpty()) {
+            return productSearchIndex.search(criteria.getSearchTerm())
+                    .flatMap(rankedIds -> productFilterIndex.findIds(criteria, pageable, rankedIds));
+        }
+        return productFilterIndex.findIds(criteria, pageable);
+    }
+
+    /**
+     * Get autocomplete suggestions for a search box prefix, best stocked first.
+     * Served only from the in-memory suggest index; empty while it is not available.
+     */
+    public List<ProductSuggestionResponse> getSuggestions(String prefix, int limit) {
+        log.debug("Getting suggestions for prefix: '{}'", prefix);
+
+        return productSuggestIndex.suggest(prefix, Math.min(limit, ProductSuggestIndex.MAX_SUGGESTIONS))
+                .orElseGet(() -> {
+                    log.debug("Suggest index not available, returning no suggestions");
+                    return List.of();
+                })
+                .stream()
+                .map(suggestion -> ProductSuggestionResponse.builder()
+                        .type(suggestion.type().name())
+                        .id(suggestion.id())
+                        .text(suggestion.text())
+                        .productCount(suggestion.productCount())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Get models (with shoe, brand, category and sizes) by ID, in the order of the given IDs.
+     * Cached models are served as is and the missing ones loaded in one query; an ID with no
+     * model gets an empty entry, and repeated IDs repeat the model. Models are mapped to DTOs
+     * before caching, so no managed entity is shared between requests; don't modify them.
+     */
+    @Transactional(readOnly = true)
+    public List<Optional<ShoeModelDto>> getByIds(List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " IDs can be requested at once", "ids", ids.size());
+        }
+
+        Cache cache = cacheManager.getCache(CacheNames.SHOE_MODELS);
+        Map<Long, ShoeModelDto> modelsById = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+            if (cached != null) {
+                modelsById.put(id, (ShoeModelDto) cached.get());
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // Misses are not cached, a later create must not be hidden
+            for (ShoeModel model : shoeModelRepository.findByIdIn(missing)) {
+                ShoeModelDto dto = shoeModelMapper.toDto(model);
+                modelsById.put(model.getId(), dto);
+                if (cache != null) {
+                    cache.put(model.getId(), dto);
+                }
+            }
+        }
+        log.debug("Resolved {} of {} shoe models, {} loaded from the database",
+                modelsById.size(), ids.size(), missing.size());
+
+        return ids.stream()
+                .map(id -> Optional.ofNullable(modelsById.get(id)))
+                .toList();
+    }
+
+    /**
+     * Get models by shoe ID, mapped to DTOs so the cached list holds no managed entities
+     */
+    @Cacheable(cacheNames = CacheNames.SHOE_MODELS_BY_SHOE, key = "#shoeId")
+    @Transactional(readOnly = true)
+    public List<ShoeModelDto> getShoeModels(Long shoeId) {
         log.debug("Getting shoe models for shoe ID: {}", shoeId);
         List<ShoeModel> models = shoeModelRepository.findByShoeId(shoeId);
         if (models.isEmpty()) {
             throw new ResourceNotFoundException("No models found for shoe ID: " + shoeId);
         }
 
-        return models;
+        return List.copyOf(shoeModelMapper.toDtoList(models));
     }
 
     /**
      * Create Pageable for pagination and sorting
      */
     private Pageable createPageable(ProductFilterCriteria criteria) {
-        Sort.Direction direction = "DESC".equalsIgnoreCase(criteria.getSortDirection()) 
-                ? Sort.Direction.DESC : Sort.Direction.ASC;
-        
-        Sort sort = switch (criteria.getSortBy().toLowerCase()) {
-            case "price" -> Sort.by(direction, "price");
-            case "brand" -> Sort.by(direction, "shoe.brand.name");
-            case "createdat" -> Sort.by(direction, "createdAt");
-            default -> Sort.by(direction, "shoe.name", "modelName");
-        };
+        Sort sort = "relevance".equalsIgnoreCase(criteria.getSortBy())
+                ? Sort.unsorted()
+                : resolveSort(criteria.getSortBy(), criteria.getSortDirection());
 
         return PageRequest.of(
                 criteria.getPage() != null ? criteria.getPage() : 0,
@@ -102,44 +282,102 @@ public class ShoeModelService extends BaseService<ShoeModel, Long, ShoeModelRepo
     }
 
     /**
-     * Get available filter options
+     * Get available filter options with product counts, scoped by the applied filters
      */
-    @Cacheable("availableFilters")
-    public AvailableFiltersResponse getAvailableFilters() {
-        log.debug("Getting available filter options");
-
-        // Get all active brands with product counts
-        List<AvailableFiltersResponse.BrandInfo> brands = brandRepository.findByIsActiveTrue()
-                .stream()
-                .map(brand -> AvailableFiltersResponse.BrandInfo.builder()
-                        .id(brand.getId())
-                        .name(brand.getName())
-                        .productCount(shoeModelRepository.countByShoe_BrandAndIsActiveTrue(brand))
-                        .build())
-                .filter(brandInfo -> brandInfo.getProductCount() > 0)
-                .toList();
+    public AvailableFiltersResponse getAvailableFilters(ProductFilterCriteria criteria) {
+        log.debug("Getting available filter options for criteria: {}", criteria);
+        validateGender(criteria);
+
+        Optional<FacetCounts> counts;
+        if (criteria.getSearchTerm() != null && !criteria.getSearchTerm().trim().isEmpty()) {
+            counts = productSearchIndex.search(criteria.getSearchTerm())
+                    .flatMap(rankedIds -> facetCountEngine.getCounts(criteria, rankedIds));
+        } else {
+            counts = facetCountEngine.getCounts(criteria, null);
+        }
 
-        // Get all active categories with product counts
-        List<AvailableFiltersResponse.CategoryInfo> categories = categoryRepository.findByIsActiveTrue()
-                .stream()
-                .map(category -> AvailableFiltersResponse.CategoryInfo.builder()
-                        .id(category.getId())
-                        .name(category.getName())
-                        .productCount(shoeModelRepository.countByShoe_CategoryAndIsActiveTrue(category))
-                        .build())
-                .filter(categoryInfo -> categoryInfo.getProductCount() > 0)
-                .toList();
+        return toAvailableFilters(counts.orElseGet(this::countFacetsFromDatabase));
+    }
 
-        // Get all available colors
-        List<String> colors = shoeModelRepository.findDistinctColorsByIsActiveTrue();
+    /**
+     * Count all facets with grouped queries when the in-memory indexes are not available.
+     * Applied filters are not taken into account here.
+     */
+    private FacetCounts countFacetsFromDatabase() {
+        log.debug("Catalog indexes not available, counting facets in the database");
+
+        FacetCounter counter = facetCountEngine.newCounter();
+        shoeModelRepository.countVisibleModelsByFacets().forEach(row -> {
+            counter.addBrand(row.getBrandId(), row.getBrandName(), row.getModelCount());
+            counter.addCategory(row.getCategoryId(), row.getCategoryName(), row.getModelCount());
+            counter.addColor(row.getColor(), row.getModelCount());
+            counter.addPrice(row.getPrice(), row.getModelCount());
+        });
+        shoeModelRepository.countVisibleModelsBySizeInStock()
+                .forEach(row -> counter.addSize(row.getSize(), row.getModelCount()));
+
+        return counter.snapshot();
+    }
 
+    private AvailableFiltersResponse toAvailableFilters(FacetCounts counts) {
         return AvailableFiltersResponse.builder()
-                .brands(brands)
-                .categories(categories)
-                .colors(colors)
+                .brands(counts.brands().stream()
+                        .map(brand -> AvailableFiltersResponse.BrandInfo.builder()
+                                .id(brand.key())
+                                .name(brand.label())
+                                .productCount(brand.count())
+                                .build())
+                        .toList())
+                .categories(counts.categories().stream()
+                        .map(category -> AvailableFiltersResponse.CategoryInfo.builder()
+                                .id(category.key())
+                                .name(category.label())
+                                .productCount(category.count())
+                                .build())
+                        .toList())
+                .colors(counts.colors().stream()
+                        .map(FacetCounts.FacetValue::label)
+                        .toList())
+                .colorCounts(counts.colors().stream()
+                        .map(color -> AvailableFiltersResponse.ColorInfo.builder()
+                                .name(color.label())
+                                .productCount(color.count())
+                                .build())
+                        .toList())
+                .sizes(counts.sizes().stream()
+                        .map(size -> AvailableFiltersResponse.SizeInfo.builder()
+                                .size(size.key())
+                                .productCount(size.count())
+                                .build())
+                        .toList())
+                .priceRanges(counts.priceRanges().stream()
+                        .map(range -> AvailableFiltersResponse.PriceRangeInfo.builder()
+                                .minPrice(range.min())
+                                .maxPrice(range.max())
+                                .productCount(range.count())
+                                .build())
+                        .toList())
                 .build();
     }
 
+    @Override
+    protected void afterCreate(ShoeModel entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.model(entity.getId()));
+        shoeStockSummaryService.markShoeChanged(entity.getShoeId());
+    }
+
+    @Override
+    protected void afterUpdate(ShoeModel entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.model(entity.getId()));
+        shoeStockSummaryService.markShoeChanged(entity.getShoeId());
+    }
+
+    @Override
+    protected void afterDelete(ShoeModel entity) {
+        eventPublisher.publishEvent(CatalogChangeEvent.model(entity.getId()));
+        shoeStockSummaryService.markShoeChanged(entity.getShoeId());
+    }
+
     @Override
     protected void updateEntityFields(ShoeModel existingEntity, ShoeModel newEntity) {
         log.debug("Updating ShoeModel fields for: {}", existingEntity.getId());
@@ -169,13 +407,8 @@ public class ShoeModelService extends BaseService<ShoeModel, Long, ShoeModelRepo
      */
     private Specification<ShoeModel> createSpecificationWithJoins(ProductFilterCriteria criteria) {
         return (root, query, criteriaBuilder) -> {
-            // Add fetch joins to avoid N+1 queries
-            if (query.getResultType().equals(ShoeModel.class)) {
-                Fetch<ShoeModel, Shoe> shoeFetch = root.fetch("shoe", JoinType.LEFT);
-                shoeFetch.fetch("brand", JoinType.LEFT);
-                shoeFetch.fetch("category", JoinType.LEFT);
-                root.fetch("availableSizes", JoinType.LEFT);
-            }
+            // Associations are fetched when hydrating the page of IDs (ShoeModelRepository.findByIdIn),
+            // fetch-joining the sizes collection here would make Hibernate paginate in memory
 
             List<Predicate> predicates = new ArrayList<>();
 
@@ -210,8 +443,9 @@ public class ShoeModelService extends BaseService<ShoeModel, Long, ShoeModelRepo
 
             // Gender filter
             if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("shoe").get("gender"), 
-                        Shoe.Gender.valueOf(criteria.getGender().toUpperCase())));
+                Shoe.Gender.parse(criteria.getGender()).ifPresentOrElse(
+                        gender -> predicates.add(criteriaBuilder.equal(root.get("shoe").get("gender"), gender)),
+                        () -> predicates.add(criteriaBuilder.disjunction()));
             }
 
             // Price range filters
@@ -1,12 +1,18 @@
 package com.shoestore.service.shoe;
 
+import com.shoestore.config.CacheNames;
+import com.shoestore.dto.shoe.ShoeDto;
 import com.shoestore.dto.shoe.ShoeFilterCriteria;
+import com.shoestore.dto.shoe.ShoeMapper;
 import com.shoestore.entity.shoe.*;
 import com.shoestore.repository.shoe.*;
 import com.shoestore.service.base.BaseService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -26,32 +32,52 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
     private final ShoeRepository shoeRepository;
     private final BrandRepository brandRepository;
     private final ShoeCategoryRepository categoryRepository;
-    private final ShoeModelService shoeModelService;
-    private final ShoeInventoryService shoeInventoryService;
+    private final ShoeStockSummaryService shoeStockSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShoeMapper shoeMapper;
 
     public ShoeService(
             ShoeRepository shoeRepository,
             BrandRepository brandRepository,
             ShoeCategoryRepository categoryRepository,
-            ShoeModelService shoeModelService,
-            ShoeInventoryService shoeInventoryService
+            ShoeStockSummaryService shoeStockSummaryService,
+            ApplicationEventPublisher eventPublisher,
+            ShoeMapper shoeMapper
     ) {
         super(shoeRepository, "Shoe");
         this.shoeRepository = shoeRepository;
         this.brandRepository = brandRepository;
         this.categoryRepository = categoryRepository;
-        this.shoeInventoryService = shoeInventoryService;
-        this.shoeModelService = shoeModelService;
+        this.shoeStockSummaryService = shoeStockSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.shoeMapper = shoeMapper;
     }
 
     @Override
     public Page<Shoe> findAll(Pageable pageable) {
         log.debug("Finding all Shoes with pagination and joins: {}", pageable);
 
-        // Create specification with proper joins
+        // Page the IDs, then fetch the shoes with their associations
         Specification<Shoe> spec = createSpecificationWithJoins(null);
         
-        return shoeRepository.findAll(spec, pageable);
+        return findPage(spec, pageable);
+    }
+
+    /**
+     * Get a shoe (with brand and category) by ID as a DTO, cached
+     */
+    @Transactional(readOnly = true)
+    public ShoeDto getDto(Long id) {
+        return getDtoById(id, shoeMapper::toDto);
+    }
+
+    /**
+     * Get a page of shoes (with brand and category) as DTOs, cached
+     */
+    @Cacheable(cacheNames = CacheNames.SHOE_PAGES, key = "#pageable")
+    @Transactional(readOnly = true)
+    public Page<ShoeDto> findAllDtos(Pageable pageable) {
+        return findAll(pageable).map(shoeMapper::toDto);
     }
 
     /**
@@ -66,12 +92,26 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
         // Create pageable for pagination and sorting
         Pageable pageable = createPageable(criteria);
 
-        // Execute query
-        return shoeRepository.findAll(spec, pageable);
+        // Page the IDs, then fetch the shoes with their associations
+        return findPage(spec, pageable);
     }
 
-       /**
-     * Get shoes with model count using aggregation query
+    /**
+     * Get the slice of shoes after a keyset cursor, with filters, without a count query
+     */
+    public Slice<Shoe> getShoesAfter(ShoeFilterCriteria criteria, String after) {
+        log.debug("Getting shoes after cursor: {} with criteria: {}", after, criteria);
+
+        return findSlice(
+                createSpecificationWithJoins(criteria),
+                resolveSort(criteria.getSortBy(), criteria.getSortDirection()),
+                after,
+                criteria.getSize() != null ? criteria.getSize() : 20
+        );
+    }
+
+    /**
+     * Get shoes with model count and stock, read from the precomputed stock summaries
      */
     public Page<IShoeInventoryView> getShoesWithModelCountAggregated(ShoeFilterCriteria criteria) {
         log.debug("Getting shoes with aggregated model count for criteria: {}", criteria);
@@ -79,31 +119,29 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
         // Create pageable for pagination and sorting
         Pageable pageable = createPageable(criteria);
         
-        // Use repository method for aggregated data
-        return shoeRepository.findShoesWithStockInfo(
-            criteria.getBrandIds(),
-            criteria.getCategoryIds(),
-            criteria.getSearchTerm(),
-            criteria.getGender(),
-            criteria.getMinPrice(),
-            criteria.getMaxPrice(),
-            pageable
-        );
+        // Page the shoes, then look up their summaries by shoe ID
+        Page<Shoe> shoes = findPage(createSpecificationWithJoins(criteria), pageable);
+        Map<Long, ShoeStockSummary> summaries = shoeStockSummaryService.getSummaries(
+                shoes.getContent().stream().map(Shoe::getId).toList());
+
+        return shoes.map(shoe -> new ShoeStockView(shoe, summaries.get(shoe.getId())));
     }
 
     /**
      * Get shoe stats
      * Total shoes, total models, total stock, low stock shoes
-     * This method aggregates data across all shoes
+     * Read from the precomputed stock summaries
      */
     public Map<String, Object> getShoeStatistics() {
         log.debug("Calculating shoe stats");
 
+        IShoeStockTotalsView totals = shoeStockSummaryService.getTotals();
+
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalShoes", shoeRepository.count());
-        stats.put("totalModels", shoeModelService.count());
-        stats.put("totalStock", shoeInventoryService.getTotalAvailableStock());
-        stats.put("lowStockShoes", shoeRepository.countShoeModelsWithLowStock(10)); 
+        stats.put("totalShoes", totals.getShoeCount());
+        stats.put("totalModels", totals.getModelCount());
+        stats.put("totalStock", totals.getTotalStock());
+        stats.put("lowStockShoes", totals.getLowStockSizes());
 
         log.debug("Shoe stats calculated: {}", stats);
         return stats;
@@ -121,6 +159,38 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
         return super.create(shoe);
     }
 
+    /**
+     * Shoe DTOs are cached with their brand and category; brand and category changes
+     * clear these caches through {@link CatalogCacheInvalidator}
+     */
+    @Override
+    protected String getEntityCacheName() {
+        return CacheNames.SHOES;
+    }
+
+    @Override
+    protected List<String> getQueryCacheNames() {
+        return List.of(CacheNames.SHOE_PAGES);
+    }
+
+    @Override
+    protected void afterCreate(Shoe entity) {
+        shoeStockSummaryService.markShoeChanged(entity.getId());
+    }
+
+    @Override
+    protected void afterUpdate(Shoe entity) {
+        // Name, gender, brand, category and active flag are denormalized into every model's index entry
+        eventPublisher.publishEvent(CatalogChangeEvent.shoe(entity.getId()));
+        shoeStockSummaryService.markShoeChanged(entity.getId());
+    }
+
+    @Override
+    protected void afterDelete(Shoe entity) {
+        // Models are removed by cascade and can no longer be looked up by shoe
+        eventPublisher.publishEvent(CatalogChangeEvent.all());
+    }
+
     @Override
     protected void updateEntityFields(Shoe existingShoe, Shoe newShoe) {
         log.debug("Updating shoe fields for: {}", existingShoe.getId());
@@ -164,22 +234,28 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
      * Create Pageable for pagination and sorting
      */
     private Pageable createPageable(ShoeFilterCriteria criteria) {
-        Sort.Direction direction = "DESC".equalsIgnoreCase(criteria.getSortDirection()) 
-                ? Sort.Direction.DESC : Sort.Direction.ASC;
-        
-        Sort sort = switch (criteria.getSortBy().toLowerCase()) {
-            case "baseprice" -> Sort.by(direction, "basePrice");
+        return PageRequest.of(
+                criteria.getPage() != null ? criteria.getPage() : 0,
+                criteria.getSize() != null ? criteria.getSize() : 20,
+                resolveSort(criteria.getSortBy(), criteria.getSortDirection())
+        );
+    }
+
+    /**
+     * Map shoe sort fields to Shoe properties
+     */
+    @Override
+    public Sort resolveSort(String sortBy, String sortDirection) {
+        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String field = sortBy != null ? sortBy.toLowerCase() : "";
+
+        return switch (field) {
+            case "baseprice", "price" -> Sort.by(direction, "basePrice");
             case "brand" -> Sort.by(direction, "brand.name");
             case "category" -> Sort.by(direction, "category.name");
             case "createdat" -> Sort.by(direction, "createdAt");
             default -> Sort.by(direction, "name");
         };
-
-        return PageRequest.of(
-                criteria.getPage() != null ? criteria.getPage() : 0,
-                criteria.getSize() != null ? criteria.getSize() : 20,
-                sort
-        );
     }
 
     /**
@@ -236,4 +312,35 @@ public class ShoeService extends BaseService<Shoe, Long, ShoeRepository> {
         };
     }
    
+
+    /**
+     * Shoe with its stock summary; a shoe without summary yet counts as empty
+     */
+    private record ShoeStockView(Shoe shoe, ShoeStockSummary summary) implements IShoeInventoryView {
+
+        @Override
+        public Shoe getShoe() {
+            return shoe;
+        }
+
+        @Override
+        public Long getModelCount() {
+            return summary != null ? summary.getActiveModelCount() : 0L;
+        }
+
+        @Override
+        public Long getTotalStock() {
+            return summary != null ? summary.getActiveStock() : 0L;
+        }
+
+        @Override
+        public Long getReservedStock() {
+            return summary != null ? summary.getReservedStock() : 0L;
+        }
+
+        @Override
+        public Boolean getLowStock() {
+            return summary != null && summary.isLowStock();
+        }
+    }
 }
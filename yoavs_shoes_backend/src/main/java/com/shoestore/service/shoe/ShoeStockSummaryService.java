@@ -0,0 +1,163 @@
+package com.shoestore.service.shoe;
+
+import com.shoestore.entity.shoe.IShoeStockAggregateView;
+import com.shoestore.entity.shoe.IShoeStockTotalsView;
+import com.shoestore.entity.shoe.ShoeStockSummary;
+import com.shoestore.repository.shoe.ShoeModelRepository;
+import com.shoestore.repository.shoe.ShoeStockSummaryRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-shoe stock summaries read by the admin inventory pages.
+ *
+ * Writers mark the shoes they touched; right before their transaction commits each marked
+ * shoe's row is locked and recomputed from its models and inventory. Rows are locked in
+ * shoe ID order, and the lock makes a concurrent writer recompute after this one commits.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class ShoeStockSummaryService {
+
+    private final ShoeStockSummaryRepository summaryRepository;
+    private final ShoeModelRepository shoeModelRepository;
+    private final int lowStockThreshold;
+
+    public ShoeStockSummaryService(
+            ShoeStockSummaryRepository summaryRepository,
+            ShoeModelRepository shoeModelRepository,
+            @Value("${app.inventory.low-stock-threshold:10}") int lowStockThreshold
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.shoeModelRepository = shoeModelRepository;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * Get the summaries of the given shoes by shoe ID
+     */
+    public Map<Long, ShoeStockSummary> getSummaries(Collection<Long> shoeIds) {
+        if (shoeIds.isEmpty()) {
+            return Map.of();
+        }
+        return summaryRepository.findByShoeIdIn(shoeIds).stream()
+                .collect(Collectors.toMap(ShoeStockSummary::getShoeId, Function.identity()));
+    }
+
+    /**
+     * Get catalog-wide totals
+     */
+    public IShoeStockTotalsView getTotals() {
+        return summaryRepository.getTotals();
+    }
+
+    /**
+     * Recompute the summary of a shoe when the current transaction commits
+     */
+    @Transactional
+    public void markShoeChanged(Long shoeId) {
+        if (shoeId == null) {
+            return;
+        }
+        pendingShoeIds().add(shoeId);
+    }
+
+    /**
+     * Recompute the summary of a model's shoe when the current transaction commits
+     */
+    @Transactional
+    public void markModelChanged(Long shoeModelId) {
+        shoeModelRepository.findShoeIdById(shoeModelId).ifPresent(this::markShoeChanged);
+    }
+
+    /**
+     * Recompute the summaries of the shoes of several models when the current transaction commits
+     */
+    @Transactional
+    public void markModelsChanged(Collection<Long> shoeModelIds) {
+        if (shoeModelIds.isEmpty()) {
+            return;
+        }
+        pendingShoeIds().addAll(shoeModelRepository.findShoeIdsByIdIn(shoeModelIds));
+    }
+
+    /**
+     * Recompute every summary once the application is up, repairing drift and threshold changes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+
+        Map<Long, ShoeStockSummary> existing = summaryRepository.findAll().stream()
+                .collect(Collectors.toMap(ShoeStockSummary::getShoeId, Function.identity()));
+
+        List<ShoeStockSummary> summaries = new ArrayList<>();
+        for (IShoeStockAggregateView aggregate : summaryRepository.aggregateAll(lowStockThreshold)) {
+            ShoeStockSummary summary = existing.remove(aggregate.getShoeId());
+            if (summary == null) {
+                summary = ShoeStockSummary.builder().shoeId(aggregate.getShoeId()).build();
+            }
+            summary.apply(aggregate);
+            summaries.add(summary);
+        }
+        summaryRepository.saveAll(summaries);
+        // Whatever is left has no shoe anymore
+        summaryRepository.deleteAll(existing.values());
+
+        log.info("Rebuilt {} shoe stock summaries in {}ms", summaries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Shoes marked in the current transaction, recomputed in ID order before it commits
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingShoeIds() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Set<Long> shoeIds = new TreeSet<>();
+        TransactionSynchronizationManager.bindResource(this, shoeIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                shoeIds.forEach(ShoeStockSummaryService.this::refresh);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShoeStockSummaryService.this);
+            }
+        });
+        return shoeIds;
+    }
+
+    private void refresh(Long shoeId) {
+        Optional<ShoeStockSummary> locked = summaryRepository.findByShoeIdForUpdate(shoeId);
+        Optional<IShoeStockAggregateView> aggregate = summaryRepository.aggregateByShoeId(shoeId, lowStockThreshold);
+        if (aggregate.isEmpty()) {
+            // Shoe deleted in this transaction, its summary goes with it
+            return;
+        }
+
+        ShoeStockSummary summary = locked.orElseGet(() -> ShoeStockSummary.builder().shoeId(shoeId).build());
+        summary.apply(aggregate.get());
+        summaryRepository.save(summary);
+        log.debug("Refreshed stock summary of shoe {}", shoeId);
+    }
+}
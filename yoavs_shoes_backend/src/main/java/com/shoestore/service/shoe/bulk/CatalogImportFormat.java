@@ -0,0 +1,24 @@
+package com.shoestore.service.shoe.bulk;
+
+/**
+ * Layout of a catalog import file
+ */
+public enum CatalogImportFormat {
+
+    /**
+     * Comma-separated values with a header row naming the fields; RFC 4180 quoting
+     */
+    CSV,
+
+    /**
+     * One JSON object per line
+     */
+    NDJSON;
+
+    /**
+     * Guess the format from a request content type, NDJSON unless it mentions csv
+     */
+    public static CatalogImportFormat fromContentType(String contentType) {
+        return contentType != null && contentType.toLowerCase().contains("csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,465 @@
+package com.shoestore.service.shoe.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoestore.dto.shoe.CatalogImportResponse;
+import com.shoestore.entity.shoe.Shoe;
+import com.shoestore.entity.shoe.ShoeInventory;
+import com.shoestore.entity.shoe.ShoeModel;
+import com.shoestore.exception.BadRequestException;
+import com.shoestore.repository.shoe.BrandRepository;
+import com.shoestore.repository.shoe.CatalogImportRepository;
+import com.shoestore.repository.shoe.ShoeCategoryRepository;
+import com.shoestore.service.shoe.ShoeStockSummaryService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
+import com.shoestore.service.shoe.ledger.InventoryLedger;
+import com.shoestore.service.shoe.ledger.InventorySku;
+import com.shoestore.util.LoggingUtil;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a catalog file of shoes, shoe models or inventory into the database.
+ *
+ * The file is read in chunks of a fixed number of rows, so memory stays flat whatever its size.
+ * For each chunk, references are resolved with one query per kind (brands and categories come
+ * from a {@link CatalogLookup} loaded once), rows are parsed and bean-validated in parallel,
+ * and the valid rows are written in one transaction as JDBC batches. A rejected row is reported
+ * with its row number and the import goes on; a chunk whose write fails is reported row by row.
+ *
+ * Stock summaries and catalog indexes are rebuilt once at the end instead of per row.
+ * One import runs at a time per node.
+ */
+@Service
+@Slf4j
+public class CatalogImportService {
+
+    private final CatalogImportRepository importRepository;
+    private final BrandRepository brandRepository;
+    private final ShoeCategoryRepository categoryRepository;
+    private final InventoryLedger inventoryLedger;
+    private final ShoeStockSummaryService shoeStockSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final ForkJoinPool validationPool;
+
+    private final ReentrantLock importLock = new ReentrantLock();
+
+    public CatalogImportService(
+            CatalogImportRepository importRepository,
+            BrandRepository brandRepository,
+            ShoeCategoryRepository categoryRepository,
+            InventoryLedger inventoryLedger,
+            ShoeStockSummaryService shoeStockSummaryService,
+            ApplicationEventPublisher eventPublisher,
+            AuditorAware<String> auditorAware,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalog.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.catalog.import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${app.catalog.import.parallelism:0}") int parallelism
+    ) {
+        this.importRepository = importRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.shoeStockSummaryService = shoeStockSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+        this.validationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    /**
+     * Import a whole file, reading it as it arrives
+     */
+    public CatalogImportResponse importCatalog(InputStream input, CatalogImportTarget target, CatalogImportFormat format) {
+        if (!importLock.tryLock()) {
+            throw new BadRequestException("Another catalog import is running, try again when it is done");
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            Tally tally = new Tally(maxReportedErrors);
+            String auditor = auditorAware.getCurrentAuditor().orElse("system");
+            CatalogLookup lookup = new CatalogLookup(brandRepository.findAll(), categoryRepository.findAll());
+
+            try (ImportRecordReader reader = ImportRecordReader.open(input, format, objectMapper)) {
+                List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+                ImportRecord record;
+                while ((record = reader.next()) != null) {
+                    chunk.add(record);
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, target, lookup, auditor, tally);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    importChunk(chunk, target, lookup, auditor, tally);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close import file", e);
+            } finally {
+                if (tally.created + tally.updated > 0) {
+                    refreshDerivedData();
+                }
+            }
+
+            long duration = System.currentTimeMillis() - start;
+            LoggingUtil.logEntityOperation(
+                    "BULK_IMPORT",
+                    target.name(),
+                    String.valueOf(tally.created + tally.updated),
+                    String.format("Imported %d of %d rows (%d created, %d updated) in %dms",
+                            tally.created + tally.updated, tally.rows, tally.created, tally.updated, duration)
+            );
+            log.info("Imported {} {} rows: {} created, {} updated, {} failed in {}ms",
+                    tally.rows, target, tally.created, tally.updated, tally.failed, duration);
+
+            return tally.toResponse(target, format, duration);
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    private void importChunk(List<ImportRecord> chunk, CatalogImportTarget target, CatalogLookup lookup,
+                             String auditor, Tally tally) {
+        tally.rows += chunk.size();
+
+        List<ImportRecord> readable = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (record.error() != null) {
+                tally.reject(record, record.error());
+            } else {
+                readable.add(record);
+            }
+        }
+        if (readable.isEmpty()) {
+            return;
+        }
+
+        switch (target) {
+            case SHOE -> importShoes(readable, lookup, auditor, tally);
+            case SHOE_MODEL -> importModels(readable, lookup, auditor, tally);
+            case SHOE_INVENTORY -> importInventory(readable, auditor, tally);
+        }
+    }
+
+    private void importShoes(List<ImportRecord> records, CatalogLookup lookup, String auditor, Tally tally) {
+        List<Parsed<Shoe>> parsed = parseAll(records, record -> Shoe.builder()
+                .brandId(lookup.brandId(record))
+                .categoryId(lookup.categoryId(record))
+                .name(record.requiredText("name"))
+                .description(record.text("description"))
+                .gender(record.enumValue("gender", Shoe.Gender.class))
+                .basePrice(record.decimalValue("basePrice"))
+                .isActive(record.booleanValue("isActive", true))
+                .build());
+
+        List<Parsed<Shoe>> valid = accepted(parsed, tally);
+        if (write(valid, tally, () -> importRepository.insertShoes(entities(valid), auditor))) {
+            tally.created += valid.size();
+        }
+    }
+
+    private void importModels(List<ImportRecord> records, CatalogLookup lookup, String auditor, Tally tally) {
+        // Resolve the shoes referenced by ID or by brand and name, one query each
+        Set<Long> existingShoeIds = importRepository.findExistingShoeIds(collect(records, record -> record.longValue("shoeId")));
+        Map<String, List<Long>> shoeIdsByName = importRepository.findShoeIdsByName(
+                collect(records, record -> record.text("shoeId") == null && record.text("shoe") != null
+                        ? record.text("shoe").toLowerCase() : null));
+        Set<String> existingSkus = importRepository.findModelIdsBySku(collect(records, record -> record.text("sku"))).keySet();
+
+        List<Parsed<ShoeModel>> parsed = parseAll(records, record -> ShoeModel.builder()
+                .shoeId(resolveShoeId(record, lookup, existingShoeIds, shoeIdsByName))
+                .modelName(record.requiredText("modelName"))
+                .color(record.text("color"))
+                .material(record.text("material"))
+                .sku(record.text("sku"))
+                .price(record.decimalValue("price"))
+                .imageUrl(record.text("imageUrl"))
+                .isActive(record.booleanValue("isActive", true))
+                .build());
+
+        // SKUs are unique: earlier chunks are in the database, this one is checked row by row
+        Set<String> chunkSkus = new HashSet<>();
+        List<Parsed<ShoeModel>> valid = new ArrayList<>();
+        for (Parsed<ShoeModel> row : accepted(parsed, tally)) {
+            String sku = row.entity().getSku();
+            if (existingSkus.contains(sku) || !chunkSkus.add(sku)) {
+                tally.reject(row.record(), "SKU already exists: " + sku);
+            } else {
+                valid.add(row);
+            }
+        }
+
+        if (write(valid, tally, () -> importRepository.insertModels(entities(valid), auditor))) {
+            tally.created += valid.size();
+        }
+    }
+
+    private void importInventory(List<ImportRecord> records, String auditor, Tally tally) {
+        Map<String, Long> modelIdsBySku = importRepository.findModelIdsBySku(collect(records, record -> record.text("sku")));
+        Set<Long> existingModelIds = importRepository.findExistingModelIds(collect(records, record -> record.longValue("shoeModelId")));
+
+        List<Parsed<ShoeInventory>> parsed = parseAll(records, record -> ShoeInventory.builder()
+                .shoeModelId(resolveModelId(record, modelIdsBySku, existingModelIds))
+                .size(record.requiredText("size"))
+                .quantityAvailable(record.intValue("quantityAvailable"))
+                .build());
+        List<Parsed<ShoeInventory>> accepted = accepted(parsed, tally);
+
+        Map<Long, Map<String, Long>> inventoryIds = importRepository.findInventoryIds(
+                accepted.stream().map(row -> row.entity().getShoeModelId()).collect(Collectors.toSet()));
+
+        // A size repeated within the file overwrites the earlier row, as it would across chunks
+        Map<InventorySku, Parsed<ShoeInventory>> latest = new LinkedHashMap<>();
+        List<Parsed<ShoeInventory>> superseded = new ArrayList<>();
+        for (Parsed<ShoeInventory> row : accepted) {
+            ShoeInventory inventory = row.entity();
+            InventorySku sku = new InventorySku(inventory.getShoeModelId(), inventory.getSize());
+            if (inventoryLedger.isHot(sku)) {
+                // Hot quantities only change through the ledger, which holds them in memory
+                tally.reject(row.record(), "Stock of " + sku + " is held by the inventory ledger, update it through the inventory API");
+                continue;
+            }
+            Parsed<ShoeInventory> previous = latest.put(sku, row);
+            if (previous != null) {
+                superseded.add(previous);
+            }
+            inventory.setId(inventoryIds.getOrDefault(inventory.getShoeModelId(), Map.of()).get(inventory.getSize()));
+        }
+
+        List<Parsed<ShoeInventory>> inserts = new ArrayList<>();
+        List<Parsed<ShoeInventory>> updates = new ArrayList<>();
+        latest.values().forEach(row -> (row.entity().getId() == null ? inserts : updates).add(row));
+
+        List<Parsed<ShoeInventory>> written = new ArrayList<>(latest.values());
+        written.addAll(superseded);
+        boolean committed = write(written, tally, () -> {
+            importRepository.insertInventory(entities(inserts), auditor);
+            importRepository.updateInventoryQuantities(entities(updates), auditor);
+        });
+        if (committed) {
+            tally.created += inserts.size();
+            tally.updated += updates.size() + superseded.size();
+        }
+    }
+
+    private Long resolveShoeId(ImportRecord record, CatalogLookup lookup,
+                               Set<Long> existingShoeIds, Map<String, List<Long>> shoeIdsByName) {
+        Long shoeId = record.longValue("shoeId");
+        if (shoeId != null) {
+            if (!existingShoeIds.contains(shoeId)) {
+                throw new BadRequestException("Unknown shoeId: " + shoeId, "shoeId", shoeId);
+            }
+            return shoeId;
+        }
+
+        String name = record.text("shoe");
+        if (name == null) {
+            throw new BadRequestException("shoeId or shoe (with brand) is required", "shoeId", null);
+        }
+        List<Long> candidates = shoeIdsByName.getOrDefault(CatalogImportRepository.shoeKey(lookup.brandId(record), name), List.of());
+        if (candidates.isEmpty()) {
+            throw new BadRequestException("Unknown shoe: " + name, "shoe", name);
+        }
+        if (candidates.size() > 1) {
+            throw new BadRequestException("Several shoes named " + name + " for this brand, use shoeId", "shoe", name);
+        }
+        return candidates.get(0);
+    }
+
+    private Long resolveModelId(ImportRecord record, Map<String, Long> modelIdsBySku, Set<Long> existingModelIds) {
+        Long shoeModelId = record.longValue("shoeModelId");
+        if (shoeModelId != null) {
+            if (!existingModelIds.contains(shoeModelId)) {
+                throw new BadRequestException("Unknown shoeModelId: " + shoeModelId, "shoeModelId", shoeModelId);
+            }
+            return shoeModelId;
+        }
+
+        String sku = record.requiredText("sku");
+        Long resolved = modelIdsBySku.get(sku);
+        if (resolved == null) {
+            throw new BadRequestException("Unknown sku: " + sku, "sku", sku);
+        }
+        return resolved;
+    }
+
+    /**
+     * Parse and bean-validate every row on the validation pool, keeping the row order
+     */
+    private <E> List<Parsed<E>> parseAll(List<ImportRecord> records, Function<ImportRecord, E> parser) {
+        return validationPool.submit(() -> records.parallelStream()
+                .map(record -> parse(record, parser))
+                .toList()
+        ).join();
+    }
+
+    private <E> Parsed<E> parse(ImportRecord record, Function<ImportRecord, E> parser) {
+        E entity;
+        try {
+            entity = parser.apply(record);
+        } catch (BadRequestException e) {
+            return new Parsed<>(record, null, e.getMessage());
+        }
+
+        Set<ConstraintViolation<E>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new Parsed<>(record, null, message);
+        }
+        return new Parsed<>(record, entity, null);
+    }
+
+    /**
+     * Report the rejected rows and return the others
+     */
+    private <E> List<Parsed<E>> accepted(List<Parsed<E>> parsed, Tally tally) {
+        List<Parsed<E>> accepted = new ArrayList<>(parsed.size());
+        for (Parsed<E> row : parsed) {
+            if (row.error() != null) {
+                tally.reject(row.record(), row.error());
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Run a chunk's statements in one transaction; when it fails every row of the chunk is reported
+     */
+    private <E> boolean write(List<Parsed<E>> rows, Tally tally, Runnable statements) {
+        if (rows.isEmpty()) {
+            return false;
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status -> statements.run());
+            return true;
+        } catch (DataAccessException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            log.warn("Catalog import chunk of {} rows failed: {}", rows.size(), cause);
+            rows.forEach(row -> tally.reject(row.record(), "Not imported, the write of its chunk failed: " + cause));
+            return false;
+        }
+    }
+
+    private static <E> List<E> entities(List<Parsed<E>> rows) {
+        return rows.stream().map(Parsed::entity).toList();
+    }
+
+    /**
+     * Collect the distinct non-null values of a field over a chunk; unparsable values are left to row validation
+     */
+    private static <V> Set<V> collect(List<ImportRecord> records, Function<ImportRecord, V> field) {
+        Set<V> values = new HashSet<>();
+        for (ImportRecord record : records) {
+            try {
+                V value = field.apply(record);
+                if (value != null) {
+                    values.add(value);
+                }
+            } catch (BadRequestException e) {
+                // Reported when the row is parsed
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Bring the stock summaries, catalog indexes and caches up to date with the imported rows
+     */
+    private void refreshDerivedData() {
+        try {
+            shoeStockSummaryService.rebuildAll();
+        } catch (RuntimeException e) {
+            // The rows are committed; summaries are rebuilt again on the next startup
+            log.error("Failed to rebuild stock summaries after catalog import", e);
+        }
+        eventPublisher.publishEvent(CatalogChangeEvent.all());
+    }
+
+    /**
+     * A row with its parsed entity, or why it was rejected
+     */
+    private record Parsed<E>(ImportRecord record, E entity, String error) {
+    }
+
+    /**
+     * Running counts of an import and the first rejected rows
+     */
+    private static class Tally {
+
+        private final int maxErrors;
+        private final List<CatalogImportResponse.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long created;
+        private long updated;
+        private long failed;
+
+        Tally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(ImportRecord record, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(CatalogImportResponse.RowError.builder().row(record.row()).message(message).build());
+            }
+        }
+
+        CatalogImportResponse toResponse(CatalogImportTarget target, CatalogImportFormat format, long durationMs) {
+            return CatalogImportResponse.builder()
+                    .target(target)
+                    .format(format)
+                    .rows(rows)
+                    .created(created)
+                    .updated(updated)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .durationMs(durationMs)
+                    .build();
+        }
+    }
+}
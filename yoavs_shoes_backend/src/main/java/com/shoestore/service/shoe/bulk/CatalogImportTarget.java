@@ -0,0 +1,22 @@
+package com.shoestore.service.shoe.bulk;
+
+/**
+ * Entity loaded by a catalog import, one per file
+ */
+public enum CatalogImportTarget {
+
+    /**
+     * Shoes, referencing their brand and category by name (or ID)
+     */
+    SHOE,
+
+    /**
+     * Shoe models, referencing their shoe by ID or by brand and shoe name
+     */
+    SHOE_MODEL,
+
+    /**
+     * Stock per model and size, referencing the model by SKU (or ID); existing sizes are overwritten
+     */
+    SHOE_INVENTORY
+}
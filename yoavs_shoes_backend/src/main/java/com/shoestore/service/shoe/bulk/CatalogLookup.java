@@ -0,0 +1,71 @@
+package com.shoestore.service.shoe.bulk;
+
+import com.shoestore.entity.shoe.Brand;
+import com.shoestore.entity.shoe.ShoeCategory;
+import com.shoestore.exception.BadRequestException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brand and category IDs by name, loaded once per import. Both tables are small, so rows
+ * resolve their references from memory instead of a query each. Read-only once built,
+ * so validation threads share it.
+ */
+public class CatalogLookup {
+
+    private final Map<String, Long> brandIds = new HashMap<>();
+    private final Map<String, Long> categoryIds = new HashMap<>();
+    private final Set<Long> knownBrandIds = new HashSet<>();
+    private final Set<Long> knownCategoryIds = new HashSet<>();
+
+    public CatalogLookup(Collection<Brand> brands, Collection<ShoeCategory> categories) {
+        brands.forEach(brand -> {
+            brandIds.put(key(brand.getName()), brand.getId());
+            knownBrandIds.add(brand.getId());
+        });
+        categories.forEach(category -> {
+            categoryIds.put(key(category.getName()), category.getId());
+            knownCategoryIds.add(category.getId());
+        });
+    }
+
+    /**
+     * Resolve the brand of a row from its "brandId" or "brand" (name) field
+     */
+    public Long brandId(ImportRecord record) {
+        return resolve(record, "brandId", "brand", brandIds, knownBrandIds);
+    }
+
+    /**
+     * Resolve the category of a row from its "categoryId" or "category" (name) field
+     */
+    public Long categoryId(ImportRecord record) {
+        return resolve(record, "categoryId", "category", categoryIds, knownCategoryIds);
+    }
+
+    private Long resolve(ImportRecord record, String idField, String nameField,
+                         Map<String, Long> idsByName, Set<Long> knownIds) {
+        Long id = record.longValue(idField);
+        if (id != null) {
+            if (!knownIds.contains(id)) {
+                throw new BadRequestException("Unknown " + idField + ": " + id, idField, id);
+            }
+            return id;
+        }
+
+        String name = record.requiredText(nameField);
+        Long resolved = idsByName.get(key(name));
+        if (resolved == null) {
+            throw new BadRequestException("Unknown " + nameField + ": " + name, nameField, name);
+        }
+        return resolved;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+}
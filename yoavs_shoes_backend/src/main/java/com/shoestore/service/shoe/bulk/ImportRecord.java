@@ -0,0 +1,96 @@
+package com.shoestore.service.shoe.bulk;
+
+import com.shoestore.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One row of a catalog import file: its field values by (case-insensitive) name, or the reason
+ * it could not be parsed.
+ *
+ * @param row    1-based position of the row in the file, not counting the CSV header
+ * @param fields values by lower-case field name; blank values are absent
+ * @param error  parse error, null when the row was read
+ */
+public record ImportRecord(long row, Map<String, String> fields, String error) {
+
+    public static ImportRecord of(long row, Map<String, String> fields) {
+        return new ImportRecord(row, fields, null);
+    }
+
+    public static ImportRecord unreadable(long row, String error) {
+        return new ImportRecord(row, Map.of(), error);
+    }
+
+    /**
+     * Get a field, null when missing or blank
+     */
+    public String text(String name) {
+        return fields.get(name.toLowerCase());
+    }
+
+    /**
+     * Get a required field
+     */
+    public String requiredText(String name) {
+        String value = text(name);
+        if (value == null) {
+            throw new BadRequestException(name + " is required", name, null);
+        }
+        return value;
+    }
+
+    public Long longValue(String name) {
+        String value = text(name);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be a whole number", name, value);
+        }
+    }
+
+    public Integer intValue(String name) {
+        String value = text(name);
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be a whole number", name, value);
+        }
+    }
+
+    public BigDecimal decimalValue(String name) {
+        String value = text(name);
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be a number", name, value);
+        }
+    }
+
+    /**
+     * Get a boolean field, the default when missing
+     */
+    public boolean booleanValue(String name, boolean defaultValue) {
+        String value = text(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new BadRequestException(name + " must be true or false", name, value);
+    }
+
+    public <E extends Enum<E>> E enumValue(String name, Class<E> type) {
+        String value = text(name);
+        try {
+            return value != null ? Enum.valueOf(type, value.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value, name, value);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.shoestore.service.shoe.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoestore.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a catalog import file one row at a time, so memory doesn't grow with the file.
+ * A row that can't be parsed is returned as an unreadable {@link ImportRecord} and reading goes on.
+ */
+public abstract class ImportRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final BufferedReader reader;
+    protected long row;
+
+    protected ImportRecordReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Open a reader for the given format
+     */
+    public static ImportRecordReader open(InputStream input, CatalogImportFormat format, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new CsvReader(input);
+            case NDJSON -> new NdjsonReader(input, objectMapper);
+        };
+    }
+
+    /**
+     * Read the next row, null at the end of the file
+     */
+    public ImportRecord next() {
+        try {
+            return read();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import file", e);
+        }
+    }
+
+    protected abstract ImportRecord read() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Put a value under its lower-case field name, leaving blank values out
+     */
+    protected static void put(Map<String, String> fields, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            fields.put(name.trim().toLowerCase(), value.trim());
+        }
+    }
+
+    /**
+     * CSV with a header row; quoted fields may contain commas, doubled quotes and line breaks
+     */
+    private static class CsvReader extends ImportRecordReader {
+
+        private static final char BOM = '\uFEFF';
+
+        private List<String> header;
+
+        CsvReader(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        protected ImportRecord read() throws IOException {
+            if (header == null) {
+                List<String> names = readFields();
+                if (names == null) {
+                    return null;
+                }
+                if (!names.isEmpty() && !names.get(0).isEmpty() && names.get(0).charAt(0) == BOM) {
+                    names.set(0, names.get(0).substring(1));
+                }
+                header = names;
+            }
+
+            List<String> values;
+            try {
+                values = readFields();
+            } catch (BadRequestException e) {
+                return ImportRecord.unreadable(++row, e.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+
+            row++;
+            if (values.size() != header.size()) {
+                return ImportRecord.unreadable(row,
+                        String.format("Expected %d fields, found %d", header.size(), values.size()));
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                put(fields, header.get(i), values.get(i));
+            }
+            return ImportRecord.of(row, fields);
+        }
+
+        /**
+         * Read the fields of the next non-empty record, null at the end of the file
+         */
+        private List<String> readFields() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+
+            int c;
+            while ((c = reader.read()) != -1) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch != '"') {
+                        field.append(ch);
+                        continue;
+                    }
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                    continue;
+                }
+
+                switch (ch) {
+                    case '"' -> {
+                        quoted = true;
+                        empty = false;
+                    }
+                    case ',' -> {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                        empty = false;
+                    }
+                    case '\r' -> {
+                        // Part of a \r\n line break
+                    }
+                    case '\n' -> {
+                        if (!empty) {
+                            fields.add(field.toString());
+                            return fields;
+                        }
+                        // Skip empty lines
+                    }
+                    default -> {
+                        field.append(ch);
+                        empty = false;
+                    }
+                }
+            }
+
+            if (quoted) {
+                throw new BadRequestException("Unterminated quoted field at end of file");
+            }
+            if (empty) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped
+     */
+    private static class NdjsonReader extends ImportRecordReader {
+
+        private final ObjectMapper objectMapper;
+
+        NdjsonReader(InputStream input, ObjectMapper objectMapper) {
+            super(input);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected ImportRecord read() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            row++;
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                return ImportRecord.unreadable(row, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                return ImportRecord.unreadable(row, "Expected a JSON object");
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                JsonNode value = entry.getValue();
+                if (!value.isNull()) {
+                    put(fields, entry.getKey(), value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            return ImportRecord.of(row, fields);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.shoestore.service.shoe.index;
+
+/**
+ * Event published by catalog services when data that feeds the catalog indexes changes.
+ * Handled after the surrounding transaction commits by {@link CatalogIndexMaintainer}.
+ *
+ * @param scope what kind of entity changed
+ * @param id    id of the changed entity (ignored for {@link Scope#ALL})
+ */
+public record CatalogChangeEvent(Scope scope, Long id) {
+
+    /**
+     * Kind of entity that changed
+     */
+    public enum Scope {
+        MODEL, SHOE, BRAND, CATEGORY, ALL
+    }
+
+    public static CatalogChangeEvent model(Long shoeModelId) {
+        return new CatalogChangeEvent(Scope.MODEL, shoeModelId);
+    }
+
+    public static CatalogChangeEvent shoe(Long shoeId) {
+        return new CatalogChangeEvent(Scope.SHOE, shoeId);
+    }
+
+    public static CatalogChangeEvent brand(Long brandId) {
+        return new CatalogChangeEvent(Scope.BRAND, brandId);
+    }
+
+    public static CatalogChangeEvent category(Long categoryId) {
+        return new CatalogChangeEvent(Scope.CATEGORY, categoryId);
+    }
+
+    public static CatalogChangeEvent all() {
+        return new CatalogChangeEvent(Scope.ALL, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.shoestore.service.shoe.index;
+
+import java.util.Collection;
+
+/**
+ * In-memory index over the product catalog, kept in sync by {@link CatalogIndexMaintainer}
+ */
+public interface CatalogIndex {
+
+    /**
+     * Replace the whole index content
+     */
+    void rebuild(Collection<ProductDocument> documents);
+
+    /**
+     * Insert or replace a single document
+     */
+    void upsert(ProductDocument document);
+
+    /**
+     * Remove a document by ShoeModel ID
+     */
+    void remove(Long shoeModelId);
+
+    /**
+     * Check if the index has been built and can answer queries
+     */
+    boolean isReady();
+}
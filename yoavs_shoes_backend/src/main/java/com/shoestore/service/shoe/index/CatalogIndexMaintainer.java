@@ -0,0 +1,121 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.entity.shoe.ShoeModel;
+import com.shoestore.repository.shoe.ShoeModelRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every {@link CatalogIndex} in sync with the database.
+ * Builds all indexes at startup and reloads the affected models after each committed catalog change.
+ */
+@Component
+@Slf4j
+public class CatalogIndexMaintainer {
+
+    private final ShoeModelRepository shoeModelRepository;
+    private final List<CatalogIndex> indexes;
+    private final boolean enabled;
+
+    /**
+     * Serializes reload + apply so that a slower listener can't overwrite a newer document
+     */
+    private final ReentrantLock applyLock = new ReentrantLock();
+
+    public CatalogIndexMaintainer(
+            ShoeModelRepository shoeModelRepository,
+            List<CatalogIndex> indexes,
+            @Value("${app.catalog.index.enabled:true}") boolean enabled
+    ) {
+        this.shoeModelRepository = shoeModelRepository;
+        this.indexes = indexes;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Build all catalog indexes once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        if (!enabled) {
+            log.info("Catalog indexes disabled, product queries will use the database");
+            return;
+        }
+
+        applyLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            List<ProductDocument> documents = shoeModelRepository.findAllForCatalogIndex().stream()
+                    .map(ProductDocument::from)
+                    .toList();
+            indexes.forEach(index -> index.rebuild(documents));
+            log.info("Built {} catalog indexes over {} shoe models in {}ms",
+                    indexes.size(), documents.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // Indexes stay not-ready and product queries keep using the database
+            log.error("Failed to build catalog indexes", e);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Reload the models affected by a committed catalog change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.scope() == CatalogChangeEvent.Scope.ALL) {
+            rebuildAll();
+            return;
+        }
+
+        applyLock.lock();
+        try {
+            Set<Long> modelIds = new HashSet<>(switch (event.scope()) {
+                case MODEL -> List.of(event.id());
+                case SHOE -> shoeModelRepository.findIdsByShoeId(event.id());
+                case BRAND -> shoeModelRepository.findIdsByBrandId(event.id());
+                case CATEGORY -> shoeModelRepository.findIdsByCategoryId(event.id());
+                case ALL -> List.<Long>of();
+            });
+            if (modelIds.isEmpty()) {
+                return;
+            }
+
+            List<ShoeModel> models = shoeModelRepository.findByIdIn(modelIds);
+            for (ShoeModel model : models) {
+                ProductDocument document = ProductDocument.from(model);
+                indexes.forEach(index -> index.upsert(document));
+                modelIds.remove(model.getId());
+            }
+            // Whatever was not found anymore has been deleted
+            for (Long removedId : modelIds) {
+                indexes.forEach(index -> index.remove(removedId));
+            }
+            log.debug("Applied catalog change {} to {} models", event, models.size());
+        } catch (RuntimeException e) {
+            // The write already committed; never fail the caller, just log and let the next change repair it
+            log.error("Failed to apply catalog change {}", event, e);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.dto.shoe.ProductFilterCriteria;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Facet counts for the product filter sidebar.
+ *
+ * Unfiltered counts over storefront-visible models are kept in memory and maintained by
+ * applying each changed model's old and new contribution as a delta. Counts scoped by
+ * applied filters are computed from {@link ProductFilterIndex} bitsets on demand.
+ */
+@Component
+@Slf4j
+public class FacetCountEngine implements CatalogIndex {
+
+    private final ProductFilterIndex productFilterIndex;
+    private final List<BigDecimal> priceBoundaries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Visible documents currently counted, so their contribution can be subtracted on change
+     */
+    private final Map<Long, ProductDocument> counted = new HashMap<>();
+    private FacetCounter globalCounter;
+
+    /**
+     * Snapshot of the global counts, rebuilt lazily after a change
+     */
+    private volatile FacetCounts globalSnapshot;
+    private volatile boolean ready;
+
+    public FacetCountEngine(
+            ProductFilterIndex productFilterIndex,
+            @Value("${app.catalog.facets.price-ranges:50,100,150,200}") List<BigDecimal> priceBoundaries
+    ) {
+        this.productFilterIndex = productFilterIndex;
+        this.priceBoundaries = priceBoundaries.stream().sorted().toList();
+        this.globalCounter = newCounter();
+    }
+
+    /**
+     * Create an empty counter using the configured price ranges
+     */
+    public FacetCounter newCounter() {
+        return new FacetCounter(priceBoundaries);
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.lock();
+        try {
+            counted.clear();
+            globalCounter = newCounter();
+            documents.forEach(this::apply);
+            globalSnapshot = null;
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument document) {
+        lock.lock();
+        try {
+            apply(document);
+            globalSnapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long shoeModelId) {
+        lock.lock();
+        try {
+            ProductDocument previous = counted.remove(shoeModelId);
+            if (previous != null) {
+                globalCounter.add(previous, -1);
+                globalSnapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get facet counts for the criteria; rankedIds restricts to search matches when searching.
+     * Returns empty when the in-memory indexes can't answer.
+     */
+    public Optional<FacetCounts> getCounts(ProductFilterCriteria criteria, List<Long> rankedIds) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        if (isUnfiltered(criteria) && rankedIds == null) {
+            return Optional.of(getGlobalCounts());
+        }
+
+        FacetCounter counter = newCounter();
+        return productFilterIndex.countFacets(criteria, rankedIds, counter)
+                ? Optional.of(counter.snapshot())
+                : Optional.empty();
+    }
+
+    private FacetCounts getGlobalCounts() {
+        FacetCounts snapshot = globalSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        lock.lock();
+        try {
+            if (globalSnapshot == null) {
+                globalSnapshot = globalCounter.snapshot();
+            }
+            return globalSnapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace a document's contribution with its new state
+     */
+    private void apply(ProductDocument document) {
+        ProductDocument previous = counted.remove(document.getId());
+        if (previous != null) {
+            globalCounter.add(previous, -1);
+        }
+        if (document.isFullyActive()) {
+            globalCounter.add(document, 1);
+            counted.put(document.getId(), document);
+        }
+    }
+
+    private boolean isUnfiltered(ProductFilterCriteria criteria) {
+        return Boolean.TRUE.equals(criteria.getActiveOnly())
+                && isEmpty(criteria.getBrandIds())
+                && isEmpty(criteria.getCategoryIds())
+                && isEmpty(criteria.getColors())
+                && isEmpty(criteria.getSizes())
+                && (criteria.getGender() == null || criteria.getGender().trim().isEmpty())
+                && criteria.getMinPrice() == null
+                && criteria.getMaxPrice() == null
+                && (criteria.getSearchTerm() == null || criteria.getSearchTerm().trim().isEmpty());
+    }
+
+    private boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
+}
@@ -0,0 +1,139 @@
+package com.shoestore.service.shoe.index;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Mutable accumulator of facet counts.
+ * Used both for the delta-maintained global counts and for one-off scoped or database counts.
+ * Not thread-safe; callers guard it.
+ */
+public class FacetCounter {
+
+    private static final Comparator<String> SIZE_ORDER = Comparator
+            .comparing(FacetCounter::numericSize, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Comparator.naturalOrder());
+
+    private final List<BigDecimal> priceBoundaries;
+
+    private final Map<Long, Long> brandCounts = new HashMap<>();
+    private final Map<Long, String> brandNames = new HashMap<>();
+    private final Map<Long, Long> categoryCounts = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<String, Long> colorCounts = new HashMap<>();
+    private final Map<String, String> colorLabels = new HashMap<>();
+    private final Map<String, Long> sizeCounts = new HashMap<>();
+    private final long[] priceRangeCounts;
+
+    /**
+     * @param priceBoundaries ascending upper bounds of the price ranges; a last open-ended range is added
+     */
+    public FacetCounter(List<BigDecimal> priceBoundaries) {
+        this.priceBoundaries = priceBoundaries;
+        this.priceRangeCounts = new long[priceBoundaries.size() + 1];
+    }
+
+    /**
+     * Add (delta = 1) or subtract (delta = -1) a document's contribution to every facet
+     */
+    public void add(ProductDocument document, long delta) {
+        addBrand(document.getBrandId(), document.getBrandName(), delta);
+        addCategory(document.getCategoryId(), document.getCategoryName(), delta);
+        addColor(document.getColor(), delta);
+        for (String size : document.getSizesInStock()) {
+            addSize(size, delta);
+        }
+        addPrice(document.getPrice(), delta);
+    }
+
+    public void addBrand(Long brandId, String name, long count) {
+        if (brandId != null) {
+            brandCounts.merge(brandId, count, Long::sum);
+            brandNames.put(brandId, name);
+        }
+    }
+
+    public void addCategory(Long categoryId, String name, long count) {
+        if (categoryId != null) {
+            categoryCounts.merge(categoryId, count, Long::sum);
+            categoryNames.put(categoryId, name);
+        }
+    }
+
+    /**
+     * Colors are grouped case-insensitively, the last seen spelling is used as label
+     */
+    public void addColor(String color, long count) {
+        if (color != null) {
+            String key = color.toLowerCase();
+            colorCounts.merge(key, count, Long::sum);
+            colorLabels.put(key, color);
+        }
+    }
+
+    public void addSize(String size, long count) {
+        if (size != null) {
+            sizeCounts.merge(size, count, Long::sum);
+        }
+    }
+
+    public void addPrice(BigDecimal price, long count) {
+        if (price != null) {
+            priceRangeCounts[priceRangeOf(price)] += count;
+        }
+    }
+
+    /**
+     * Build an immutable snapshot, leaving out values without products
+     */
+    public FacetCounts snapshot() {
+        List<FacetCounts.PriceRangeCount> priceRanges = new ArrayList<>();
+        for (int range = 0; range < priceRangeCounts.length; range++) {
+            if (priceRangeCounts[range] > 0) {
+                priceRanges.add(new FacetCounts.PriceRangeCount(
+                        range == 0 ? BigDecimal.ZERO : priceBoundaries.get(range - 1),
+                        range < priceBoundaries.size() ? priceBoundaries.get(range) : null,
+                        priceRangeCounts[range]));
+            }
+        }
+
+        return new FacetCounts(
+                values(brandCounts, brandNames::get, byLabel()),
+                values(categoryCounts, categoryNames::get, byLabel()),
+                values(colorCounts, colorLabels::get, byLabel()),
+                values(sizeCounts, size -> size, Comparator.comparing(FacetCounts.FacetValue::key, SIZE_ORDER)),
+                priceRanges
+        );
+    }
+
+    private <K> List<FacetCounts.FacetValue<K>> values(Map<K, Long> counts,
+                                                       Function<K, String> labels,
+                                                       Comparator<FacetCounts.FacetValue<K>> order) {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new FacetCounts.FacetValue<>(entry.getKey(), labels.apply(entry.getKey()), entry.getValue()))
+                .sorted(order)
+                .toList();
+    }
+
+    private static <K> Comparator<FacetCounts.FacetValue<K>> byLabel() {
+        return Comparator.comparing(FacetCounts.FacetValue::label, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private int priceRangeOf(BigDecimal price) {
+        int range = 0;
+        while (range < priceBoundaries.size() && price.compareTo(priceBoundaries.get(range)) >= 0) {
+            range++;
+        }
+        return range;
+    }
+
+    private static Double numericSize(String size) {
+        try {
+            return Double.valueOf(size);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
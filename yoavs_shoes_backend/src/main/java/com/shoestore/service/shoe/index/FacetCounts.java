@@ -0,0 +1,28 @@
+package com.shoestore.service.shoe.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable snapshot of product counts per facet value
+ */
+public record FacetCounts(
+        List<FacetValue<Long>> brands,
+        List<FacetValue<Long>> categories,
+        List<FacetValue<String>> colors,
+        List<FacetValue<String>> sizes,
+        List<PriceRangeCount> priceRanges
+) {
+
+    /**
+     * Count of products for one facet value
+     */
+    public record FacetValue<K>(K key, String label, long count) {
+    }
+
+    /**
+     * Count of products priced in [min, max); max is null for the open-ended last range
+     */
+    public record PriceRangeCount(BigDecimal min, BigDecimal max, long count) {
+    }
+}
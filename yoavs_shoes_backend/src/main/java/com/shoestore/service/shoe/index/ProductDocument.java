@@ -0,0 +1,104 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.entity.shoe.Brand;
+import com.shoestore.entity.shoe.Shoe;
+import com.shoestore.entity.shoe.ShoeCategory;
+import com.shoestore.entity.shoe.ShoeInventory;
+import com.shoestore.entity.shoe.ShoeModel;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable, flattened view of a ShoeModel used by the in-memory catalog indexes.
+ * Built once per change from a fully fetched model so that indexes never touch JPA state.
+ */
+@Value
+@Builder
+public class ProductDocument {
+
+    Long id;
+    Long shoeId;
+    Long brandId;
+    String brandName;
+    Long categoryId;
+    String categoryName;
+    Shoe.Gender gender;
+    String color;
+    BigDecimal price;
+    LocalDateTime createdAt;
+    String shoeName;
+    String shoeDescription;
+    String modelName;
+    String material;
+    boolean modelActive;
+    boolean shoeActive;
+    boolean brandActive;
+    boolean categoryActive;
+
+    /**
+     * Sizes with quantityAvailable > 0
+     */
+    Set<String> sizesInStock;
+
+    /**
+     * Units available over all sizes
+     */
+    long stockQuantity;
+
+    /**
+     * Check if the model is visible in the storefront (model, shoe, brand and category active)
+     */
+    public boolean isFullyActive() {
+        return modelActive && shoeActive && brandActive && categoryActive;
+    }
+
+    /**
+     * Build a document from a ShoeModel with shoe, brand, category and availableSizes loaded
+     */
+    public static ProductDocument from(ShoeModel model) {
+        Shoe shoe = model.getShoe();
+        Brand brand = shoe != null ? shoe.getBrand() : null;
+        ShoeCategory category = shoe != null ? shoe.getCategory() : null;
+
+        Set<String> sizes = new LinkedHashSet<>();
+        long stockQuantity = 0;
+        if (model.getAvailableSizes() != null) {
+            for (ShoeInventory inventory : model.getAvailableSizes()) {
+                if (inventory.isInStock()) {
+                    sizes.add(inventory.getSize());
+                    stockQuantity += inventory.getQuantityAvailable();
+                }
+            }
+        }
+
+        return ProductDocument.builder()
+                .id(model.getId())
+                .shoeId(model.getShoeId())
+                .brandId(brand != null ? brand.getId() : null)
+                .brandName(brand != null ? brand.getName() : null)
+                .categoryId(category != null ? category.getId() : null)
+                .categoryName(category != null ? category.getName() : null)
+                .gender(shoe != null ? shoe.getGender() : null)
+                .color(model.getColor())
+                .price(model.getPrice())
+                .createdAt(model.getCreatedAt())
+                .shoeName(shoe != null ? shoe.getName() : null)
+                .shoeDescription(shoe != null ? shoe.getDescription() : null)
+                .modelName(model.getModelName())
+                .material(model.getMaterial())
+                .modelActive(model.isCurrentlyActive())
+                .shoeActive(shoe != null && shoe.isCurrentlyActive())
+                .brandActive(brand != null && Boolean.TRUE.equals(brand.getIsActive()))
+                .categoryActive(category != null && Boolean.TRUE.equals(category.getIsActive()))
+                .sizesInStock(Collections.unmodifiableSet(sizes))
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,568 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.dto.base.KeysetCursor;
+import com.shoestore.dto.shoe.ProductFilterCriteria;
+import com.shoestore.entity.shoe.Shoe;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitset index answering product listing filters without hitting the database.
+ *
+ * Every ShoeModel gets a dense slot number; each filter value (brand, category, gender,
+ * color, size in stock, price bucket) keeps a BitSet of the slots that match it, so a
+ * {@link ProductFilterCriteria} becomes a handful of AND/OR operations over bitsets.
+ * Search terms are resolved by {@link ProductSearchIndex} and passed in as ranked IDs.
+ * Queries the index can't answer return {@link Optional#empty()} and callers fall back
+ * to the JPA Specification path.
+ *
+ * Plain java.util.BitSet rather than compressed (Roaring) bitmaps: slots are dense since freed
+ * ones are reused, so each set costs at most models / 8 bytes. With 100,000 models and a few
+ * hundred filter values that is a few MB, and AND/OR over 1,600 longs per set is cheaper than
+ * container dispatch. Compressed bitmaps pay off once sparse values (one brand out of millions
+ * of models) dominate memory, which a shoe catalog doesn't reach.
+ */
+@Component
+@Slf4j
+public class ProductFilterIndex implements CatalogIndex {
+
+    private static final Map<String, Comparator<ProductDocument>> SORTABLE_PROPERTIES = Map.of(
+            "id", Comparator.comparing(ProductDocument::getId),
+            "price", Comparator.comparing(ProductDocument::getPrice, Comparator.nullsLast(Comparator.naturalOrder())),
+            "createdAt", Comparator.comparing(ProductDocument::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())),
+            "modelName", Comparator.comparing(ProductDocument::getModelName, Comparator.nullsLast(Comparator.naturalOrder())),
+            "shoe.name", Comparator.comparing(ProductDocument::getShoeName, Comparator.nullsLast(Comparator.naturalOrder())),
+            "shoe.brand.name", Comparator.comparing(ProductDocument::getBrandName, Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BigDecimal priceBucketWidth;
+
+    // Slot allocation
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<ProductDocument> documents = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // Bitsets
+    private final BitSet activeModels = new BitSet();
+    private final BitSet fullyActiveModels = new BitSet();
+    private final Map<Long, BitSet> byBrand = new HashMap<>();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Shoe.Gender, BitSet> byGender = new EnumMap<>(Shoe.Gender.class);
+    private final Map<String, BitSet> byColor = new HashMap<>();
+    private final Map<String, BitSet> bySizeInStock = new HashMap<>();
+    private final NavigableMap<Long, BitSet> byPriceBucket = new TreeMap<>();
+
+    /**
+     * Slots ordered by a Sort, built lazily and dropped on every write
+     */
+    private final Map<Sort, int[]> sortedSlots = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Filter left out of a match, so that a facet can be counted against the other filters only
+     */
+    private enum Facet {
+        NONE, BRAND, CATEGORY, COLOR, SIZE, PRICE
+    }
+
+    public ProductFilterIndex(@Value("${app.catalog.index.price-bucket-width:25}") BigDecimal priceBucketWidth) {
+        this.priceBucketWidth = priceBucketWidth;
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> newDocuments) {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            documents.clear();
+            freeSlots.clear();
+            activeModels.clear();
+            fullyActiveModels.clear();
+            byBrand.clear();
+            byCategory.clear();
+            byGender.clear();
+            byColor.clear();
+            bySizeInStock.clear();
+            byPriceBucket.clear();
+            sortedSlots.clear();
+
+            newDocuments.forEach(this::insert);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(document.getId());
+            if (slot != null) {
+                clearSlot(slot);
+                documents.set(slot, document);
+                indexSlot(slot, document);
+            } else {
+                insert(document);
+            }
+            sortedSlots.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long shoeModelId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(shoeModelId);
+            if (slot != null) {
+                clearSlot(slot);
+                documents.set(slot, null);
+                freeSlots.push(slot);
+                sortedSlots.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find a page of matching ShoeModel IDs, in the requested order.
+     * Returns empty when the criteria or sort can't be answered from the index.
+     */
+    public Optional<Page<Long>> findIds(ProductFilterCriteria criteria, Pageable pageable) {
+        return findIds(criteria, pageable, null);
+    }
+
+    /**
+     * Find a page of matching ShoeModel IDs restricted to full-text matches.
+     * rankedIds are the search matches best first; they are required when the criteria has a
+     * search term, and give the page order when the pageable is unsorted (relevance).
+     */
+    public Optional<Page<Long>> findIds(ProductFilterCriteria criteria, Pageable pageable, List<Long> rankedIds) {
+        if (!ready || !canAnswer(criteria, pageable.getSort(), rankedIds)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria, Facet.NONE);
+
+            int[] order;
+            if (rankedIds != null) {
+                int[] rankedSlots = slotsOf(rankedIds);
+                matches.and(toBitSet(rankedSlots));
+                order = pageable.getSort().isUnsorted() ? rankedSlots : sortedSlots(pageable.getSort());
+            } else {
+                order = sortedSlots(pageable.getSort());
+            }
+
+            int total = matches.cardinality();
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            long offset = pageable.getOffset();
+            if (offset < total) {
+                int seen = 0;
+                for (int slot : order) {
+                    if (!matches.get(slot)) {
+                        continue;
+                    }
+                    if (seen++ < offset) {
+                        continue;
+                    }
+                    ids.add(documents.get(slot).getId());
+                    if (ids.size() == pageable.getPageSize()) {
+                        break;
+                    }
+                }
+            }
+            return Optional.of(new PageImpl<>(ids, pageable, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the matching ShoeModel IDs following a keyset cursor, in the order of the keyset sort.
+     * The start position is found by binary search in the sorted slots, so deep pages cost the
+     * same as the first one. rankedIds restricts to search matches when searching.
+     * Returns empty when the criteria or sort can't be answered from the index.
+     */
+    public Optional<Slice<Long>> findIdsAfter(ProductFilterCriteria criteria, Sort keysetSort, KeysetCursor cursor,
+                                              int size, List<Long> rankedIds) {
+        if (!ready || keysetSort.isUnsorted() || !canAnswer(criteria, keysetSort, rankedIds)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria, Facet.NONE);
+            if (rankedIds != null) {
+                matches.and(toBitSet(slotsOf(rankedIds)));
+            }
+
+            int[] order = sortedSlots(keysetSort);
+            int start = cursor == null ? 0 : firstAfter(order, comparatorFor(keysetSort), probe(keysetSort, cursor));
+
+            List<Long> ids = new ArrayList<>(size + 1);
+            for (int i = start; i < order.length && ids.size() <= size; i++) {
+                if (matches.get(order[i])) {
+                    ids.add(documents.get(order[i]).getId());
+                }
+            }
+
+            boolean hasNext = ids.size() > size;
+            List<Long> content = hasNext ? ids.subList(0, size) : ids;
+            return Optional.of(new SliceImpl<>(content, PageRequest.of(0, size, keysetSort), hasNext));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count products per brand, category, color, size and price range within the criteria.
+     * Each facet is counted against all the other filters but not its own, so the sidebar keeps
+     * showing alternatives for an already selected facet. Returns false when the index can't answer.
+     */
+    public boolean countFacets(ProductFilterCriteria criteria, List<Long> rankedIds, FacetCounter counter) {
+        if (!ready || !canAnswer(criteria, Sort.unsorted(), rankedIds)) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet searchMatches = rankedIds != null ? toBitSet(slotsOf(rankedIds)) : null;
+
+            BitSet brandScope = scope(criteria, Facet.BRAND, searchMatches);
+            byBrand.forEach((brandId, slots) -> {
+                int count = intersectionCount(brandScope, slots);
+                if (count > 0) {
+                    counter.addBrand(brandId, documents.get(slots.nextSetBit(0)).getBrandName(), count);
+                }
+            });
+
+            BitSet categoryScope = scope(criteria, Facet.CATEGORY, searchMatches);
+            byCategory.forEach((categoryId, slots) -> {
+                int count = intersectionCount(categoryScope, slots);
+                if (count > 0) {
+                    counter.addCategory(categoryId, documents.get(slots.nextSetBit(0)).getCategoryName(), count);
+                }
+            });
+
+            BitSet colorScope = scope(criteria, Facet.COLOR, searchMatches);
+            byColor.forEach((color, slots) -> {
+                int count = intersectionCount(colorScope, slots);
+                if (count > 0) {
+                    counter.addColor(documents.get(slots.nextSetBit(0)).getColor(), count);
+                }
+            });
+
+            BitSet sizeScope = scope(criteria, Facet.SIZE, searchMatches);
+            bySizeInStock.forEach((size, slots) -> {
+                int count = intersectionCount(sizeScope, slots);
+                if (count > 0) {
+                    counter.addSize(size, count);
+                }
+            });
+
+            BitSet priceScope = scope(criteria, Facet.PRICE, searchMatches);
+            for (int slot = priceScope.nextSetBit(0); slot >= 0; slot = priceScope.nextSetBit(slot + 1)) {
+                counter.addPrice(documents.get(slot).getPrice(), 1);
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check if every filter and sort property is supported by the index
+     */
+    private boolean canAnswer(ProductFilterCriteria criteria, Sort sort, List<Long> rankedIds) {
+        if (rankedIds == null && criteria.getSearchTerm() != null && !criteria.getSearchTerm().trim().isEmpty()) {
+            return false;
+        }
+        return sort.stream().allMatch(order -> SORTABLE_PROPERTIES.containsKey(order.getProperty()));
+    }
+
+    private BitSet scope(ProductFilterCriteria criteria, Facet excluded, BitSet searchMatches) {
+        BitSet scope = match(criteria, excluded);
+        if (searchMatches != null) {
+            scope.and(searchMatches);
+        }
+        return scope;
+    }
+
+    private int intersectionCount(BitSet scope, BitSet slots) {
+        BitSet intersection = (BitSet) slots.clone();
+        intersection.and(scope);
+        return intersection.cardinality();
+    }
+
+    /**
+     * Binary search the position of the first slot sorting strictly after the probe
+     */
+    private int firstAfter(int[] order, Comparator<ProductDocument> comparator, ProductDocument probe) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(documents.get(order[mid]), probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Build a document carrying the cursor's sort key values, to compare against indexed documents
+     */
+    private ProductDocument probe(Sort keysetSort, KeysetCursor cursor) {
+        cursor.verify(keysetSort);
+        ProductDocument.ProductDocumentBuilder probe = ProductDocument.builder();
+        int index = 0;
+        for (Sort.Order order : keysetSort) {
+            switch (order.getProperty()) {
+                case "id" -> probe.id((Long) cursor.value(index, Long.class));
+                case "price" -> probe.price((BigDecimal) cursor.value(index, BigDecimal.class));
+                case "createdAt" -> probe.createdAt((LocalDateTime) cursor.value(index, LocalDateTime.class));
+                case "modelName" -> probe.modelName((String) cursor.value(index, String.class));
+                case "shoe.name" -> probe.shoeName((String) cursor.value(index, String.class));
+                case "shoe.brand.name" -> probe.brandName((String) cursor.value(index, String.class));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            index++;
+        }
+        return probe.build();
+    }
+
+    private int[] slotsOf(List<Long> ids) {
+        return ids.stream()
+                .map(slotsById::get)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private BitSet toBitSet(int[] slots) {
+        BitSet bitSet = new BitSet();
+        for (int slot : slots) {
+            bitSet.set(slot);
+        }
+        return bitSet;
+    }
+
+    /**
+     * Intersect the bitsets selected by the criteria, ignoring the excluded facet's filter
+     */
+    private BitSet match(ProductFilterCriteria criteria, Facet excluded) {
+        BitSet result = (BitSet) (Boolean.TRUE.equals(criteria.getActiveOnly()) ? fullyActiveModels : activeModels).clone();
+
+        if (excluded != Facet.BRAND && criteria.getBrandIds() != null && !criteria.getBrandIds().isEmpty()) {
+            result.and(union(criteria.getBrandIds().stream().map(byBrand::get).toList()));
+        }
+        if (excluded != Facet.CATEGORY && criteria.getCategoryIds() != null && !criteria.getCategoryIds().isEmpty()) {
+            result.and(union(criteria.getCategoryIds().stream().map(byCategory::get).toList()));
+        }
+
+        // Same semantics as the SQL filter: a color matches when it contains any requested value
+        if (excluded != Facet.COLOR && criteria.getColors() != null && !criteria.getColors().isEmpty()) {
+            List<BitSet> colorSets = new ArrayList<>();
+            for (String requested : criteria.getColors()) {
+                String needle = requested.toLowerCase();
+                byColor.forEach((color, slots) -> {
+                    if (color.contains(needle)) {
+                        colorSets.add(slots);
+                    }
+                });
+            }
+            result.and(union(colorSets));
+        }
+
+        if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
+            // Unknown genders match nothing
+            BitSet genderSlots = Shoe.Gender.parse(criteria.getGender()).map(byGender::get).orElse(null);
+            result.and(genderSlots != null ? genderSlots : new BitSet());
+        }
+
+        if (excluded != Facet.SIZE && criteria.getSizes() != null && !criteria.getSizes().isEmpty()) {
+            result.and(union(criteria.getSizes().stream().map(bySizeInStock::get).toList()));
+        }
+
+        if (excluded != Facet.PRICE && (criteria.getMinPrice() != null || criteria.getMaxPrice() != null)) {
+            applyPriceRange(result, criteria.getMinPrice(), criteria.getMaxPrice());
+        }
+
+        return result;
+    }
+
+    /**
+     * Restrict to the price buckets covering [min, max], then check exact prices in the two edge buckets
+     */
+    private void applyPriceRange(BitSet result, BigDecimal minPrice, BigDecimal maxPrice) {
+        long lowBucket = minPrice != null ? bucketOf(minPrice) : Long.MIN_VALUE;
+        long highBucket = maxPrice != null ? bucketOf(maxPrice) : Long.MAX_VALUE;
+        if (lowBucket > highBucket) {
+            result.clear();
+            return;
+        }
+
+        result.and(union(byPriceBucket.subMap(lowBucket, true, highBucket, true).values()));
+
+        Set<Long> edgeBuckets = new HashSet<>();
+        if (minPrice != null) {
+            edgeBuckets.add(lowBucket);
+        }
+        if (maxPrice != null) {
+            edgeBuckets.add(highBucket);
+        }
+        for (Long bucket : edgeBuckets) {
+            BitSet edge = byPriceBucket.get(bucket);
+            if (edge == null) {
+                continue;
+            }
+            for (int slot = edge.nextSetBit(0); slot >= 0; slot = edge.nextSetBit(slot + 1)) {
+                BigDecimal price = documents.get(slot).getPrice();
+                if ((minPrice != null && price.compareTo(minPrice) < 0)
+                        || (maxPrice != null && price.compareTo(maxPrice) > 0)) {
+                    result.clear(slot);
+                }
+            }
+        }
+    }
+
+    private BitSet union(Collection<BitSet> sets) {
+        BitSet union = new BitSet();
+        for (BitSet set : sets) {
+            if (set != null) {
+                union.or(set);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Get all occupied slots ordered by the given sort, with ID as the final tie-breaker
+     */
+    private int[] sortedSlots(Sort sort) {
+        return sortedSlots.computeIfAbsent(sort, key -> {
+            Comparator<ProductDocument> comparator = comparatorFor(key);
+            return slotsById.values().stream()
+                    .sorted((a, b) -> comparator.compare(documents.get(a), documents.get(b)))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        });
+    }
+
+    private Comparator<ProductDocument> comparatorFor(Sort sort) {
+        Comparator<ProductDocument> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductDocument> next = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<ProductDocument> byId = Comparator.comparing(ProductDocument::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private void insert(ProductDocument document) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = documents.size();
+            documents.add(document);
+        } else {
+            slot = freeSlots.pop();
+            documents.set(slot, document);
+        }
+        slotsById.put(document.getId(), slot);
+        indexSlot(slot, document);
+    }
+
+    private void indexSlot(int slot, ProductDocument document) {
+        if (!document.isModelActive()) {
+            // Inactive models never show up in listings, so they only need a slot
+            return;
+        }
+        activeModels.set(slot);
+        if (document.isFullyActive()) {
+            fullyActiveModels.set(slot);
+        }
+        if (document.getBrandId() != null) {
+            byBrand.computeIfAbsent(document.getBrandId(), key -> new BitSet()).set(slot);
+        }
+        if (document.getCategoryId() != null) {
+            byCategory.computeIfAbsent(document.getCategoryId(), key -> new BitSet()).set(slot);
+        }
+        if (document.getGender() != null) {
+            byGender.computeIfAbsent(document.getGender(), key -> new BitSet()).set(slot);
+        }
+        if (document.getColor() != null) {
+            byColor.computeIfAbsent(document.getColor().toLowerCase(), key -> new BitSet()).set(slot);
+        }
+        for (String size : document.getSizesInStock()) {
+            bySizeInStock.computeIfAbsent(size, key -> new BitSet()).set(slot);
+        }
+        if (document.getPrice() != null) {
+            byPriceBucket.computeIfAbsent(bucketOf(document.getPrice()), key -> new BitSet()).set(slot);
+        }
+    }
+
+    private void clearSlot(int slot) {
+        ProductDocument document = documents.get(slot);
+        activeModels.clear(slot);
+        fullyActiveModels.clear(slot);
+        clearIn(byBrand, document.getBrandId(), slot);
+        clearIn(byCategory, document.getCategoryId(), slot);
+        clearIn(byGender, document.getGender(), slot);
+        clearIn(byColor, document.getColor() != null ? document.getColor().toLowerCase() : null, slot);
+        for (String size : document.getSizesInStock()) {
+            clearIn(bySizeInStock, size, slot);
+        }
+        clearIn(byPriceBucket, document.getPrice() != null ? bucketOf(document.getPrice()) : null, slot);
+    }
+
+    private <K> void clearIn(Map<K, BitSet> sets, K key, int slot) {
+        if (key == null) {
+            return;
+        }
+        BitSet set = sets.get(key);
+        if (set != null) {
+            set.clear(slot);
+            if (set.isEmpty()) {
+                sets.remove(key);
+            }
+        }
+    }
+
+    private long bucketOf(BigDecimal price) {
+        return price.divide(priceBucketWidth, 0, RoundingMode.FLOOR).longValue();
+    }
+}
@@ -0,0 +1,234 @@
+package com.shoestore.service.shoe.index;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index over product text (shoe, model, brand and category names).
+ *
+ * Keeps a posting list per normalized token with field-weighted term frequencies and ranks
+ * matches with BM25. Multi-term queries are AND-ed; every query term also matches tokens it
+ * is a prefix of, so results show up while the user is still typing.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex implements CatalogIndex {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Score multiplier for a prefix expansion compared to an exact token match
+     */
+    private static final double PREFIX_MATCH_BOOST = 0.7;
+
+    /**
+     * Upper bound of tokens a single prefix may expand to, keeping the most frequent ones
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // Field weights, applied to term frequencies
+    private static final float SHOE_NAME_WEIGHT = 3.0f;
+    private static final float MODEL_NAME_WEIGHT = 3.0f;
+    private static final float BRAND_NAME_WEIGHT = 2.5f;
+    private static final float CATEGORY_NAME_WEIGHT = 1.5f;
+    private static final float COLOR_WEIGHT = 1.5f;
+    private static final float MATERIAL_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.5f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Token -> (ShoeModel ID -> weighted term frequency), sorted for prefix lookups
+     */
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    /**
+     * ShoeModel ID -> indexed terms and weighted length, needed for scoring and removal
+     */
+    private final Map<Long, IndexedDocument> indexedDocuments = new HashMap<>();
+
+    private double totalLength;
+    private volatile boolean ready;
+
+    private record IndexedDocument(float length, Set<String> terms) {
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            indexedDocuments.clear();
+            totalLength = 0;
+            documents.forEach(this::add);
+            ready = true;
+            log.debug("Search index built with {} documents and {} terms", indexedDocuments.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument document) {
+        lock.writeLock().lock();
+        try {
+            delete(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long shoeModelId) {
+        lock.writeLock().lock();
+        try {
+            delete(shoeModelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search for ShoeModel IDs matching every query term, best match first.
+     * Returns empty when the index is not built yet.
+     */
+    public Optional<List<Long>> search(String query) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        List<String> terms = TextAnalyzer.tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND semantics: keep only documents matching every term
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Optional.of(List.of());
+                }
+            }
+
+            List<Long> ranked = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return Optional.of(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score every document containing the term or a token starting with it
+     */
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        double averageLength = indexedDocuments.isEmpty() ? 1 : totalLength / indexedDocuments.size();
+
+        for (Map.Entry<String, Map<Long, Float>> entry : expansions(term)) {
+            double boost = entry.getKey().equals(term) ? 1.0 : PREFIX_MATCH_BOOST;
+            double idf = idf(entry.getValue().size());
+            entry.getValue().forEach((id, frequency) -> {
+                double length = indexedDocuments.get(id).length();
+                double tf = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+                // A document matching several expansions keeps its best one
+                scores.merge(id, boost * idf * tf, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    /**
+     * Tokens starting with the term, capped to the ones in the most documents so a short
+     * prefix keeps its widest matches rather than the alphabetically first ones.
+     * The exact token always counts.
+     */
+    private Collection<Map.Entry<String, Map<Long, Float>>> expansions(String term) {
+        Comparator<Map.Entry<String, Map<Long, Float>>> byDocumentFrequency =
+                Comparator.comparingInt((Map.Entry<String, Map<Long, Float>> entry) -> entry.getKey().equals(term) ? 1 : 0)
+                        .thenComparingInt(entry -> entry.getValue().size());
+        // Min-heap of the best expansions seen so far
+        PriorityQueue<Map.Entry<String, Map<Long, Float>>> best = new PriorityQueue<>(byDocumentFrequency);
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(term, true).entrySet()) {
+            if (!entry.getKey().startsWith(term)) {
+                break;
+            }
+            best.add(entry);
+            if (best.size() > MAX_PREFIX_EXPANSIONS) {
+                best.poll();
+            }
+        }
+        return best;
+    }
+
+    private double idf(int documentFrequency) {
+        int documentCount = indexedDocuments.size();
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void add(ProductDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, document.getShoeName(), SHOE_NAME_WEIGHT);
+        addField(frequencies, document.getModelName(), MODEL_NAME_WEIGHT);
+        addField(frequencies, document.getBrandName(), BRAND_NAME_WEIGHT);
+        addField(frequencies, document.getCategoryName(), CATEGORY_NAME_WEIGHT);
+        addField(frequencies, document.getColor(), COLOR_WEIGHT);
+        addField(frequencies, document.getMaterial(), MATERIAL_WEIGHT);
+        addField(frequencies, document.getShoeDescription(), DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(document.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+        indexedDocuments.put(document.getId(), new IndexedDocument(length, frequencies.keySet()));
+        totalLength += length;
+    }
+
+    private void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void delete(Long shoeModelId) {
+        IndexedDocument existing = indexedDocuments.remove(shoeModelId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(shoeModelId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length();
+    }
+}
@@ -0,0 +1,428 @@
+package com.shoestore.service.shoe.index;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete index over shoe names, model names, brand names and category names.
+ *
+ * Each suggestion is reachable from the start of every word of its text through a compact
+ * prefix trie (sorted char arrays per node). Every node caches the best suggestions below it,
+ * so a lookup is a walk down the typed prefix. Suggestions are ranked by the units in stock of
+ * the storefront-visible models they cover; when a model changes only the trie paths of the
+ * suggestions it contributes to are refreshed.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex implements CatalogIndex {
+
+    /**
+     * Number of suggestions cached per trie node, upper bound of a lookup
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.stock).reversed()
+            .thenComparing(Comparator.comparingInt((Entry entry) -> entry.models).reversed())
+            .thenComparing(entry -> entry.text)
+            .thenComparing(entry -> entry.type)
+            .thenComparingLong(entry -> entry.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+
+    /**
+     * Suggestions by type and ID of the named entity
+     */
+    private final Map<EntryKey, Entry> entries = new HashMap<>();
+
+    /**
+     * Visible documents currently counted, so their contribution can be subtracted on change
+     */
+    private final Map<Long, ProductDocument> counted = new HashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * What a suggestion names
+     */
+    public enum Type {
+        BRAND, CATEGORY, SHOE, MODEL
+    }
+
+    /**
+     * Autocomplete suggestion
+     *
+     * @param type         what the suggestion names
+     * @param id           ID of the brand, category, shoe or shoe model
+     * @param text         display text
+     * @param productCount visible models covered by the suggestion
+     * @param stock        units in stock over those models
+     */
+    public record Suggestion(Type type, Long id, String text, int productCount, long stock) {
+    }
+
+    private record EntryKey(Type type, long id) {
+    }
+
+    private static final class Entry {
+        final Type type;
+        final long id;
+        String text;
+        String phrase;
+        int models;
+        long stock;
+
+        Entry(Type type, long id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        List<Entry> terminals = List.of();
+        Entry[] top = new Entry[0];
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminals.isEmpty();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            counted.clear();
+            for (ProductDocument document : documents) {
+                if (document.isFullyActive()) {
+                    contribute(document, 1);
+                    counted.put(document.getId(), document);
+                }
+            }
+
+            root = new Node();
+            for (Entry entry : entries.values()) {
+                for (String suffix : wordSuffixes(entry.phrase)) {
+                    addTerminal(suffix, entry);
+                }
+            }
+            computeTop(root);
+            ready = true;
+            log.debug("Suggest index built with {} suggestions", entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument document) {
+        lock.writeLock().lock();
+        try {
+            apply(document.getId(), document.isFullyActive() ? document : null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long shoeModelId) {
+        lock.writeLock().lock();
+        try {
+            apply(shoeModelId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the best suggestions for a typed prefix, matched against the start of any word.
+     * Returns empty when the index is not built yet.
+     */
+    public Optional<List<Suggestion>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        String phrase = toPhrase(prefix);
+        if (phrase.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < phrase.length() && node != null; i++) {
+                node = node.child(phrase.charAt(i));
+            }
+            if (node == null) {
+                return Optional.of(List.of());
+            }
+
+            int size = Math.min(limit, node.top.length);
+            List<Suggestion> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Entry entry = node.top[i];
+                suggestions.add(new Suggestion(entry.type, entry.id, entry.text, entry.models, entry.stock));
+            }
+            return Optional.of(suggestions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace a model's contribution with its new state (null when removed or not visible)
+     * and refresh the trie paths of the suggestions that changed
+     */
+    private void apply(Long shoeModelId, ProductDocument document) {
+        Map<EntryKey, String> previousPhrases = new HashMap<>();
+
+        ProductDocument previous = counted.remove(shoeModelId);
+        if (previous != null) {
+            rememberPhrases(previous, previousPhrases);
+            contribute(previous, -1);
+        }
+        if (document != null) {
+            rememberPhrases(document, previousPhrases);
+            contribute(document, 1);
+            counted.put(shoeModelId, document);
+        }
+
+        Map<Node, Integer> dirty = new HashMap<>();
+        previousPhrases.forEach((key, oldPhrase) -> {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.models <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+            String newPhrase = entry != null ? entry.phrase : null;
+
+            if (oldPhrase != null && !oldPhrase.equals(newPhrase)) {
+                Entry removed = entry != null ? entry : new Entry(key.type(), key.id());
+                for (String suffix : wordSuffixes(oldPhrase)) {
+                    removeTerminal(suffix, removed, dirty);
+                }
+            }
+            if (entry != null && !entry.phrase.equals(oldPhrase)) {
+                for (String suffix : wordSuffixes(entry.phrase)) {
+                    addTerminal(suffix, entry);
+                }
+            }
+            if (entry != null) {
+                for (String suffix : wordSuffixes(entry.phrase)) {
+                    markPath(suffix, dirty);
+                }
+            }
+        });
+
+        refresh(dirty);
+    }
+
+    /**
+     * Record the trie phrase each suggestion of the document is currently stored under
+     */
+    private void rememberPhrases(ProductDocument document, Map<EntryKey, String> phrases) {
+        for (EntryKey key : keysOf(document)) {
+            Entry entry = entries.get(key);
+            phrases.putIfAbsent(key, entry != null ? entry.phrase : null);
+        }
+    }
+
+    /**
+     * Add (delta = 1) or subtract (delta = -1) a document's contribution to its suggestions.
+     * Suggestions left without models are dropped by the caller, once the new state is applied.
+     */
+    private void contribute(ProductDocument document, int delta) {
+        contribute(Type.BRAND, document.getBrandId(), document.getBrandName(), document, delta);
+        contribute(Type.CATEGORY, document.getCategoryId(), document.getCategoryName(), document, delta);
+        contribute(Type.SHOE, document.getShoeId(), document.getShoeName(), document, delta);
+        contribute(Type.MODEL, document.getId(), document.getModelName(), document, delta);
+    }
+
+    private void contribute(Type type, Long id, String text, ProductDocument document, int delta) {
+        if (id == null || toPhrase(text).isEmpty()) {
+            return;
+        }
+        EntryKey key = new EntryKey(type, id);
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry(type, id));
+        entry.models += delta;
+        entry.stock += delta * document.getStockQuantity();
+        if (delta > 0) {
+            entry.text = text;
+            entry.phrase = toPhrase(text);
+        }
+    }
+
+    private List<EntryKey> keysOf(ProductDocument document) {
+        List<EntryKey> keys = new ArrayList<>(4);
+        if (document.getBrandId() != null) {
+            keys.add(new EntryKey(Type.BRAND, document.getBrandId()));
+        }
+        if (document.getCategoryId() != null) {
+            keys.add(new EntryKey(Type.CATEGORY, document.getCategoryId()));
+        }
+        if (document.getShoeId() != null) {
+            keys.add(new EntryKey(Type.SHOE, document.getShoeId()));
+        }
+        keys.add(new EntryKey(Type.MODEL, document.getId()));
+        return keys;
+    }
+
+    private void addTerminal(String suffix, Entry entry) {
+        Node node = root;
+        for (int i = 0; i < suffix.length(); i++) {
+            node = node.getOrAddChild(suffix.charAt(i));
+        }
+        if (!node.terminals.contains(entry)) {
+            List<Entry> terminals = new ArrayList<>(node.terminals);
+            terminals.add(entry);
+            node.terminals = terminals;
+        }
+    }
+
+    /**
+     * Remove a suggestion from the node of the suffix, pruning nodes left empty
+     */
+    private void removeTerminal(String suffix, Entry entry, Map<Node, Integer> dirty) {
+        Node[] path = new Node[suffix.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < suffix.length(); i++) {
+            path[i + 1] = path[i].child(suffix.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+
+        Node node = path[suffix.length()];
+        List<Entry> terminals = new ArrayList<>(node.terminals);
+        terminals.removeIf(terminal -> terminal.type == entry.type && terminal.id == entry.id);
+        node.terminals = terminals;
+
+        int depth = suffix.length();
+        while (depth > 0 && path[depth].isEmpty()) {
+            path[depth - 1].removeChild(suffix.charAt(depth - 1));
+            dirty.remove(path[depth]);
+            depth--;
+        }
+        for (int i = 0; i <= depth; i++) {
+            dirty.merge(path[i], i, Math::max);
+        }
+    }
+
+    private void markPath(String suffix, Map<Node, Integer> dirty) {
+        Node node = root;
+        dirty.merge(node, 0, Math::max);
+        for (int i = 0; i < suffix.length() && node != null; i++) {
+            node = node.child(suffix.charAt(i));
+            if (node != null) {
+                dirty.merge(node, i + 1, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Recompute the cached top suggestions of the given nodes, deepest first
+     */
+    private void refresh(Map<Node, Integer> dirty) {
+        dirty.entrySet().stream()
+                .sorted(Map.Entry.<Node, Integer>comparingByValue().reversed())
+                .forEach(entry -> updateTop(entry.getKey()));
+    }
+
+    /**
+     * Compute the cached top suggestions of a whole subtree
+     */
+    private void computeTop(Node node) {
+        for (Node child : node.children) {
+            computeTop(child);
+        }
+        updateTop(node);
+    }
+
+    /**
+     * Merge the node's own suggestions with its children's cached tops.
+     * A suggestion reachable from several words is kept once.
+     */
+    private void updateTop(Node node) {
+        Set<Entry> candidates = new HashSet<>(node.terminals);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        node.top = candidates.stream()
+                .sorted(RANKING)
+                .limit(MAX_SUGGESTIONS)
+                .toArray(Entry[]::new);
+    }
+
+    /**
+     * The phrase and every tail of it starting at a word, e.g. "air max 90", "max 90" and "90"
+     */
+    private static List<String> wordSuffixes(String phrase) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(phrase);
+        for (int i = phrase.indexOf(' '); i >= 0; i = phrase.indexOf(' ', i + 1)) {
+            suffixes.add(phrase.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    /**
+     * Normalize text to space-separated tokens, so "Air-Max  90" becomes "air max 90"
+     */
+    private static String toPhrase(String text) {
+        return String.join(" ", TextAnalyzer.tokenize(text));
+    }
+}
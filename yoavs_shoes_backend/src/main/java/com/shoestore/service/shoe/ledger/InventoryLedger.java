@@ -0,0 +1,581 @@
+package com.shoestore.service.shoe.ledger;
+
+import com.shoestore.entity.shoe.InventoryLedgerCheckpoint;
+import com.shoestore.entity.shoe.InventoryLedgerCommit;
+import com.shoestore.entity.shoe.ShoeInventory;
+import com.shoestore.repository.shoe.InventoryLedgerCheckpointRepository;
+import com.shoestore.repository.shoe.InventoryLedgerCommitRepository;
+import com.shoestore.repository.shoe.ShoeInventoryRepository;
+import com.shoestore.service.shoe.ShoeStockSummaryService;
+import com.shoestore.service.shoe.index.CatalogChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * In-memory inventory counters for hot SKUs (e.g. a flash sale drop).
+ *
+ * Reservations and releases of the configured SKUs are answered from memory under a striped
+ * lock instead of contending on their shoe_inventory rows. An operation changes the counters at
+ * once, so concurrent reservations see it, and returns a {@link LedgerDelta}. Before the caller's
+ * transaction commits, {@link #prepare} writes its deltas to the {@link LedgerJournal} (write-ahead)
+ * and inserts an inventory_ledger_commits row in that transaction; once it completes the caller
+ * calls {@link #confirm}, or {@link #abort} / {@link #undo} when it rolled back. Replay applies a
+ * journaled transaction only if its commit row exists, so a crash at any point neither loses a
+ * committed change nor persists one whose order didn't commit.
+ *
+ * Confirmed deltas are added to shoe_inventory (relative updates) in one transaction per flush
+ * interval, which also stores the node's journal checkpoint and deletes the flushed commit rows;
+ * on startup the journal segments after the checkpoint are replayed, so deltas not flushed before
+ * a crash are applied exactly once. After each flush the counters are rebased on the database
+ * rows plus the deltas not flushed yet.
+ *
+ * While enabled the ledger owns the quantities of its SKUs; database reads of those rows lag by up
+ * to one flush interval. Hot SKUs are only correct on a single node: counters are per node, so two
+ * nodes holding the same SKU each admit reservations against their own view and can together
+ * oversell by what the other admitted since its last flush. Enable the ledger on one node only, or
+ * route each hot SKU's traffic to one node.
+ */
+@Component
+@Slf4j
+public class InventoryLedger implements SmartInitializingSingleton {
+
+    private static final int COMMIT_DELETE_BATCH = 1000;
+
+    private final ShoeInventoryRepository inventoryRepository;
+    private final InventoryLedgerCheckpointRepository checkpointRepository;
+    private final InventoryLedgerCommitRepository commitRepository;
+    private final ShoeStockSummaryService shoeStockSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final List<String> hotSkus;
+    private final LedgerJournal journal;
+    private final ReentrantLock[] stripes;
+
+    private final Map<InventorySku, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<InventorySku> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Journaled transactions not completed yet, carried over to the next segment on rotation
+     */
+    private final Map<Long, LedgerTransaction> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Confirmed transactions whose deltas are not flushed yet, guarded by all stripes when drained
+     */
+    private final Set<Long> pendingTransactions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong transactionIds = new AtomicLong();
+
+    /**
+     * Serializes flushes with each other and with shutdown
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public InventoryLedger(
+            ShoeInventoryRepository inventoryRepository,
+            InventoryLedgerCheckpointRepository checkpointRepository,
+            InventoryLedgerCommitRepository commitRepository,
+            ShoeStockSummaryService shoeStockSummaryService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.inventory.ledger.enabled:false}") boolean enabled,
+            @Value("${app.inventory.ledger.node-id:}") String nodeId,
+            @Value("${app.inventory.ledger.hot-skus:}") List<String> hotSkus,
+            @Value("${app.inventory.ledger.journal-dir:./data/inventory-ledger}") Path journalDir,
+            @Value("${app.inventory.ledger.journal-sync:true}") boolean journalSync,
+            @Value("${app.inventory.ledger.stripes:64}") int stripeCount
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.commitRepository = commitRepository;
+        this.shoeStockSummaryService = shoeStockSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId.trim();
+        this.hotSkus = hotSkus.stream().map(String::trim).filter(sku -> !sku.isEmpty()).toList();
+        this.journal = new LedgerJournal(journalDir, journalSync);
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        Arrays.setAll(stripes, i -> new ReentrantLock());
+    }
+
+    /**
+     * Recover from the journal and load the hot SKUs before the web server takes traffic
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long checkpoint = checkpointRepository.findByNodeId(nodeId)
+                .map(InventoryLedgerCheckpoint::getFlushedSegment)
+                .orElse(0L);
+        LedgerJournal.Replay replay = journal.replay(checkpoint);
+        Map<InventorySku, int[]> recovered = new LinkedHashMap<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Committed changes that never reached the database, including SKUs no longer configured as hot;
+            // journaled transactions without a commit row rolled back or never committed
+            // Summaries and catalog indexes are rebuilt from the database once the application is ready
+            Set<Long> committed = new HashSet<>(commitRepository.findTransactionIds(nodeId));
+            replay.transactions().forEach((id, deltas) -> {
+                if (committed.contains(id)) {
+                    deltas.forEach(delta -> addTo(recovered, delta));
+                }
+            });
+            recovered.forEach((sku, delta) -> inventoryRepository.addQuantities(sku.shoeModelId(), sku.size(), delta[0], delta[1]));
+            if (replay.lastSegment() > checkpoint) {
+                saveCheckpoint(replay.lastSegment());
+            }
+            commitRepository.deleteByNode(nodeId);
+
+            for (ShoeInventory inventory : loadHotInventory()) {
+                counters.put(new InventorySku(inventory.getShoeModelId(), inventory.getSize()),
+                        new Counter(inventory.getQuantityAvailable(), inventory.getQuantityReserved()));
+            }
+        });
+
+        // Everything replayed is in the database now
+        journal.deleteThrough(Long.MAX_VALUE);
+        journal.open(replay.lastSegment());
+        ready = true;
+
+        log.info("Inventory ledger of node {} holding {} hot SKUs, recovered {} journaled SKUs in {}ms",
+                nodeId, counters.size(), recovered.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Check whether the ledger owns the quantities of a SKU
+     */
+    public boolean isHot(InventorySku sku) {
+        return ready && counters.containsKey(sku);
+    }
+
+    /**
+     * Get the quantity of a hot SKU that is available and not reserved
+     */
+    public int getUnreservedQuantity(InventorySku sku) {
+        Counter counter = counter(sku);
+        ReentrantLock stripe = stripe(sku);
+        stripe.lock();
+        try {
+            return Math.max(0, counter.available - counter.reserved);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Reserve stock if enough is unreserved; returns the applied change, empty when short
+     */
+    public Optional<LedgerDelta> reserve(InventorySku sku, int quantity) {
+        LedgerDelta delta = update(sku,
+                (available, reserved) -> available,
+                (available, reserved) -> available - reserved >= quantity ? reserved + quantity : reserved);
+        return delta.isEmpty() ? Optional.empty() : Optional.of(delta);
+    }
+
+    /**
+     * Release reserved stock, never below zero
+     */
+    public LedgerDelta release(InventorySku sku, int quantity) {
+        return update(sku,
+                (available, reserved) -> available,
+                (available, reserved) -> Math.max(0, reserved - quantity));
+    }
+
+    /**
+     * Take reserved stock off available and reserved quantities
+     */
+    public LedgerDelta commit(InventorySku sku, int quantity) {
+        return update(sku,
+                (available, reserved) -> Math.max(0, available - quantity),
+                (available, reserved) -> Math.max(0, reserved - quantity));
+    }
+
+    /**
+     * Return sold stock to available stock
+     */
+    public LedgerDelta restore(InventorySku sku, int quantity) {
+        return update(sku,
+                (available, reserved) -> available + quantity,
+                (available, reserved) -> reserved);
+    }
+
+    /**
+     * Move the quantities of a hot SKU to the given values, e.g. after an admin stock update
+     */
+    public LedgerDelta set(InventorySku sku, int available, int reserved) {
+        return update(sku, (a, r) -> available, (a, r) -> reserved);
+    }
+
+    /**
+     * Quantities of a hot SKU as {available, reserved}, including unsettled changes
+     */
+    public int[] getQuantities(InventorySku sku) {
+        Counter counter = counter(sku);
+        ReentrantLock stripe = stripe(sku);
+        stripe.lock();
+        try {
+            return new int[]{counter.available, counter.reserved};
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Journal the changes of a transaction about to commit and insert its commit row; call it inside
+     * that transaction (before commit), or without one to make the changes durable at once.
+     * Throws if the journal can't be written, so the transaction rolls back
+     */
+    public LedgerTransaction prepare(List<LedgerDelta> deltas) {
+        LedgerTransaction transaction = new LedgerTransaction(transactionIds.incrementAndGet(),
+                deltas.stream().filter(delta -> !delta.isEmpty()).toList());
+
+        // Under the stripes a rotation either sees the transaction in flight or finds it in the closed segment
+        List<ReentrantLock> locks = stripes(transaction.deltas());
+        locks.forEach(ReentrantLock::lock);
+        try {
+            journal.append(transaction);
+            inFlight.put(transaction.id(), transaction);
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+
+        try {
+            commitRepository.saveAndFlush(InventoryLedgerCommit.builder()
+                    .nodeId(nodeId)
+                    .transactionId(transaction.id())
+                    .build());
+        } catch (RuntimeException e) {
+            inFlight.remove(transaction.id());
+            throw e;
+        }
+        return transaction;
+    }
+
+    /**
+     * Queue the changes of a committed transaction for the database
+     */
+    public void confirm(LedgerTransaction transaction) {
+        List<ReentrantLock> locks = stripes(transaction.deltas());
+        locks.forEach(ReentrantLock::lock);
+        try {
+            for (LedgerDelta delta : transaction.deltas()) {
+                Counter counter = counter(delta.sku());
+                counter.settle(delta);
+                counter.pendingAvailable += delta.available();
+                counter.pendingReserved += delta.reserved();
+                dirty.add(delta.sku());
+            }
+            inFlight.remove(transaction.id());
+            pendingTransactions.add(transaction.id());
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    /**
+     * Revert the changes of a prepared transaction that rolled back; its journal records have no commit row
+     */
+    public void abort(LedgerTransaction transaction) {
+        undo(transaction.deltas());
+        inFlight.remove(transaction.id());
+    }
+
+    /**
+     * Revert changes whose transaction rolled back before they were prepared
+     */
+    public void undo(List<LedgerDelta> deltas) {
+        for (LedgerDelta delta : deltas) {
+            if (delta.isEmpty()) {
+                continue;
+            }
+            Counter counter = counter(delta.sku());
+            ReentrantLock stripe = stripe(delta.sku());
+            stripe.lock();
+            try {
+                counter.settle(delta);
+                counter.available = Math.max(0, counter.available - delta.available());
+                counter.reserved = Math.max(0, counter.reserved - delta.reserved());
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    /**
+     * Add the confirmed deltas to shoe_inventory in one transaction with the checkpoint and the
+     * deletion of their commit rows, drop the flushed journal segments and rebase the counters on the database
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.flush-interval:PT1S}")
+    public void flush() {
+        if (!ready) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            // Holding every stripe, the closed segments hold the drained deltas, rolled back ones,
+            // and in-flight ones that are copied to the new segment
+            long closedSegment;
+            Map<InventorySku, int[]> deltas = new LinkedHashMap<>();
+            List<Long> transactions;
+            Arrays.stream(stripes).forEach(ReentrantLock::lock);
+            try {
+                closedSegment = journal.rotate(List.copyOf(inFlight.values()));
+                for (InventorySku sku : dirty) {
+                    Counter counter = counters.get(sku);
+                    if (counter.pendingAvailable != 0 || counter.pendingReserved != 0) {
+                        deltas.put(sku, new int[]{counter.pendingAvailable, counter.pendingReserved});
+                        counter.pendingAvailable = 0;
+                        counter.pendingReserved = 0;
+                    }
+                }
+                dirty.clear();
+                transactions = List.copyOf(pendingTransactions);
+                pendingTransactions.clear();
+            } finally {
+                Arrays.stream(stripes).forEach(ReentrantLock::unlock);
+            }
+
+            List<ShoeInventory> rows;
+            try {
+                rows = transactionTemplate.execute(status -> {
+                    if (!deltas.isEmpty()) {
+                        deltas.forEach((sku, delta) -> inventoryRepository.addQuantities(sku.shoeModelId(), sku.size(), delta[0], delta[1]));
+                        saveCheckpoint(closedSegment);
+                    }
+                    for (int from = 0; from < transactions.size(); from += COMMIT_DELETE_BATCH) {
+                        commitRepository.deleteTransactions(nodeId,
+                                transactions.subList(from, Math.min(from + COMMIT_DELETE_BATCH, transactions.size())));
+                    }
+                    return loadHotInventory();
+                });
+            } catch (RuntimeException e) {
+                // Keep the segments and retry on the next flush
+                requeue(deltas, transactions);
+                log.error("Failed to flush {} inventory ledger SKUs", deltas.size(), e);
+                return;
+            }
+            journal.deleteThrough(closedSegment);
+
+            if (!deltas.isEmpty()) {
+                markFlushed(deltas.keySet());
+                log.debug("Flushed {} inventory ledger SKUs", deltas.size());
+            }
+            rebase(rows);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!ready) {
+            return;
+        }
+        flush();
+        ready = false;
+        journal.close();
+    }
+
+    /**
+     * Apply a change to the counters under the SKU's stripe; it stays unsettled until confirmed or undone
+     */
+    private LedgerDelta update(InventorySku sku, IntBinaryOperator newAvailable, IntBinaryOperator newReserved) {
+        Counter counter = counter(sku);
+        ReentrantLock stripe = stripe(sku);
+        stripe.lock();
+        try {
+            int available = newAvailable.applyAsInt(counter.available, counter.reserved);
+            int reserved = newReserved.applyAsInt(counter.available, counter.reserved);
+            LedgerDelta delta = new LedgerDelta(sku, available - counter.available, reserved - counter.reserved);
+            if (delta.isEmpty()) {
+                return delta;
+            }
+
+            counter.available = available;
+            counter.reserved = reserved;
+            counter.unsettledAvailable += delta.available();
+            counter.unsettledReserved += delta.reserved();
+            return delta;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Put back deltas whose flush failed
+     */
+    private void requeue(Map<InventorySku, int[]> deltas, List<Long> transactions) {
+        pendingTransactions.addAll(transactions);
+        deltas.forEach((sku, delta) -> {
+            Counter counter = counters.get(sku);
+            ReentrantLock stripe = stripe(sku);
+            stripe.lock();
+            try {
+                counter.pendingAvailable += delta[0];
+                counter.pendingReserved += delta[1];
+                dirty.add(sku);
+            } finally {
+                stripe.unlock();
+            }
+        });
+    }
+
+    /**
+     * Reset the counters to the database rows (which include other nodes' changes) plus this node's
+     * deltas that aren't in them yet: confirmed ones not flushed and unsettled ones
+     */
+    private void rebase(List<ShoeInventory> rows) {
+        for (ShoeInventory row : rows) {
+            InventorySku sku = new InventorySku(row.getShoeModelId(), row.getSize());
+            Counter counter = counters.get(sku);
+            if (counter == null) {
+                continue;
+            }
+            ReentrantLock stripe = stripe(sku);
+            stripe.lock();
+            try {
+                counter.available = row.getQuantityAvailable() + counter.pendingAvailable + counter.unsettledAvailable;
+                counter.reserved = row.getQuantityReserved() + counter.pendingReserved + counter.unsettledReserved;
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    private void saveCheckpoint(long segment) {
+        InventoryLedgerCheckpoint checkpoint = checkpointRepository.findByNodeId(nodeId)
+                .orElseGet(() -> InventoryLedgerCheckpoint.builder().nodeId(nodeId).build());
+        checkpoint.setFlushedSegment(segment);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+
+    private Counter counter(InventorySku sku) {
+        Counter counter = counters.get(sku);
+        if (counter == null) {
+            throw new IllegalStateException("Inventory SKU " + sku + " is not held by the ledger");
+        }
+        return counter;
+    }
+
+    private ReentrantLock stripe(InventorySku sku) {
+        return stripes[Math.floorMod(sku.hashCode(), stripes.length)];
+    }
+
+    /**
+     * Distinct stripes of the deltas' SKUs in stripe order, so they're always locked in the same order
+     */
+    private List<ReentrantLock> stripes(List<LedgerDelta> deltas) {
+        return deltas.stream()
+                .mapToInt(delta -> Math.floorMod(delta.sku().hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .mapToObj(index -> stripes[index])
+                .toList();
+    }
+
+    private static void addTo(Map<InventorySku, int[]> sums, LedgerDelta delta) {
+        int[] sum = sums.computeIfAbsent(delta.sku(), sku -> new int[2]);
+        sum[0] += delta.available();
+        sum[1] += delta.reserved();
+    }
+
+    /**
+     * Let stock summaries and catalog indexes pick up flushed quantities
+     */
+    private void markFlushed(Collection<InventorySku> skus) {
+        Set<Long> shoeModelIds = new TreeSet<>();
+        skus.forEach(sku -> shoeModelIds.add(sku.shoeModelId()));
+        shoeStockSummaryService.markModelsChanged(shoeModelIds);
+        shoeModelIds.forEach(id -> eventPublisher.publishEvent(CatalogChangeEvent.model(id)));
+    }
+
+    /**
+     * Inventory rows matching app.inventory.ledger.hot-skus: "modelId:size" or "modelId" for all its sizes
+     */
+    private List<ShoeInventory> loadHotInventory() {
+        Set<Long> wholeModels = new HashSet<>();
+        Set<InventorySku> sizes = new HashSet<>();
+        for (String hotSku : hotSkus) {
+            int separator = hotSku.indexOf(':');
+            try {
+                if (separator < 0) {
+                    wholeModels.add(Long.parseLong(hotSku));
+                } else {
+                    sizes.add(new InventorySku(Long.parseLong(hotSku.substring(0, separator).trim()),
+                            hotSku.substring(separator + 1).trim()));
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid hot inventory SKU '{}'", hotSku);
+            }
+        }
+
+        Set<Long> shoeModelIds = new HashSet<>(wholeModels);
+        sizes.forEach(sku -> shoeModelIds.add(sku.shoeModelId()));
+        if (shoeModelIds.isEmpty()) {
+            return List.of();
+        }
+        return inventoryRepository.findByShoeModelIdIn(shoeModelIds).stream()
+                .filter(inventory -> wholeModels.contains(inventory.getShoeModelId())
+                        || sizes.contains(new InventorySku(inventory.getShoeModelId(), inventory.getSize())))
+                .toList();
+    }
+
+    /**
+     * Quantities of one SKU, guarded by its stripe: the current view, the part of it not settled
+     * by its transaction yet, and the confirmed part not flushed to the database yet
+     */
+    private static final class Counter {
+        private int available;
+        private int reserved;
+        private int unsettledAvailable;
+        private int unsettledReserved;
+        private int pendingAvailable;
+        private int pendingReserved;
+
+        private Counter(Integer available, Integer reserved) {
+            this.available = available != null ? available : 0;
+            this.reserved = reserved != null ? reserved : 0;
+        }
+
+        private void settle(LedgerDelta delta) {
+            unsettledAvailable -= delta.available();
+            unsettledReserved -= delta.reserved();
+        }
+    }
+}
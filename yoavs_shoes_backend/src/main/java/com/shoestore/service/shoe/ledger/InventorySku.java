@@ -0,0 +1,12 @@
+package com.shoestore.service.shoe.ledger;
+
+/**
+ * One inventory row: a shoe model in a size
+ */
+public record InventorySku(Long shoeModelId, String size) {
+
+    @Override
+    public String toString() {
+        return shoeModelId + ":" + size;
+    }
+}
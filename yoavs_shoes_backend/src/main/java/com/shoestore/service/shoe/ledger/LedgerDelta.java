@@ -0,0 +1,11 @@
+package com.shoestore.service.shoe.ledger;
+
+/**
+ * Change a ledger operation applied to a SKU's counters, used to undo it
+ */
+public record LedgerDelta(InventorySku sku, int available, int reserved) {
+
+    public boolean isEmpty() {
+        return available == 0 && reserved == 0;
+    }
+}
@@ -0,0 +1,242 @@
+package com.shoestore.service.shoe.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of the inventory ledger.
+ *
+ * Each record is the delta one ledger transaction made to a SKU (available and reserved
+ * quantities), written and synced before the database transaction commits; whether it committed
+ * is decided on replay by the caller. Records go to numbered segment files; a flush rotates to a
+ * new segment, carrying over the records of transactions still in flight, adds the deltas to the
+ * database together with the number of the closed segment (the node's checkpoint), then deletes
+ * the older segments. Replay skips the segments up to the checkpoint and keeps the first copy of
+ * each transaction, so each delta is applied once. Segment numbers keep increasing across restarts.
+ * Every record carries a CRC so a torn last write is skipped on replay.
+ */
+@Slf4j
+class LedgerJournal implements AutoCloseable {
+
+    private static final String PREFIX = "inventory-ledger-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean sync;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long segment;
+
+    LedgerJournal(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+    }
+
+    /**
+     * Transactions journaled in the segments on disk after the given one, by transaction ID
+     *
+     * @param lastSegment number of the last segment replayed, or the checkpoint when none was
+     */
+    record Replay(Map<Long, List<LedgerDelta>> transactions, long lastSegment) {
+    }
+
+    /**
+     * Replay the segments after the checkpoint, oldest first
+     */
+    Replay replay(long checkpoint) {
+        Map<Long, List<LedgerDelta>> transactions = new LinkedHashMap<>();
+        long lastSegment = checkpoint;
+        for (long number : segments()) {
+            if (number <= checkpoint) {
+                continue;
+            }
+            Path file = segmentPath(number);
+            Map<Long, List<LedgerDelta>> segmentTransactions = new LinkedHashMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parse(line).ifPresentOrElse(
+                            record -> segmentTransactions.computeIfAbsent(record.transactionId(), id -> new ArrayList<>())
+                                    .add(record.delta()),
+                            () -> log.warn("Skipping corrupt inventory ledger record in {}", file));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay inventory ledger journal " + file, e);
+            }
+            // A transaction carried over by a rotation whose flush failed is in several segments
+            segmentTransactions.forEach(transactions::putIfAbsent);
+            lastSegment = number;
+        }
+        return new Replay(transactions, lastSegment);
+    }
+
+    /**
+     * Start a new segment after the ones on disk and after the given segment number
+     */
+    void open(long after) {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Long> existing = segments();
+            segment = Math.max(after, existing.isEmpty() ? 0 : existing.get(existing.size() - 1));
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open inventory ledger journal in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append the deltas of a transaction; returns once the records are written (and synced if configured)
+     */
+    void append(LedgerTransaction transaction) {
+        lock.lock();
+        try {
+            write(transaction);
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inventory ledger journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Switch appends to a new segment, copying the given in-flight transactions to it;
+     * returns the number of the last closed segment
+     */
+    long rotate(Collection<LedgerTransaction> inFlight) {
+        lock.lock();
+        try {
+            long closed = segment;
+            channel.close();
+            openNextSegment();
+            for (LedgerTransaction transaction : inFlight) {
+                write(transaction);
+            }
+            if (sync && !inFlight.isEmpty()) {
+                channel.force(false);
+            }
+            return closed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rotate inventory ledger journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete every segment up to and including the given one
+     */
+    void deleteThrough(long number) {
+        for (long existing : segments()) {
+            if (existing > number) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(existing));
+            } catch (IOException e) {
+                log.warn("Failed to delete inventory ledger segment {}", existing, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close inventory ledger journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(LedgerTransaction transaction) throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (LedgerDelta delta : transaction.deltas()) {
+            String body = transaction.id() + "\t" + delta.sku().shoeModelId() + "\t" + delta.sku().size()
+                    + "\t" + delta.available() + "\t" + delta.reserved();
+            records.append(body).append('\t').append(checksum(body)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segment++;
+        channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Long> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> name.substring(PREFIX.length(), name.length() - SUFFIX.length()))
+                    .filter(number -> number.chars().allMatch(Character::isDigit) && !number.isEmpty())
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list inventory ledger journal in " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(PREFIX + String.format("%012d", number) + SUFFIX);
+    }
+
+    private Optional<Record> parse(String line) {
+        int lastTab = line.lastIndexOf('\t');
+        if (lastTab < 0) {
+            return Optional.empty();
+        }
+        String body = line.substring(0, lastTab);
+        String[] fields = body.split("\t");
+        try {
+            if (fields.length != 5 || Long.parseLong(line.substring(lastTab + 1)) != checksum(body)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Record(Long.parseLong(fields[0]), new LedgerDelta(
+                    new InventorySku(Long.parseLong(fields[1]), fields[2]),
+                    Integer.parseInt(fields[3]), Integer.parseInt(fields[4]))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private long checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private record Record(long transactionId, LedgerDelta delta) {
+    }
+}
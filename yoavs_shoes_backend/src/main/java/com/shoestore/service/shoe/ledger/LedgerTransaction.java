@@ -0,0 +1,9 @@
+package com.shoestore.service.shoe.ledger;
+
+import java.util.List;
+
+/**
+ * Ledger changes of one database transaction, journaled under its ID before the transaction commits
+ */
+public record LedgerTransaction(long id, List<LedgerDelta> deltas) {
+}
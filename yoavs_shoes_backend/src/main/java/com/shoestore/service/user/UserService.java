@@ -1,23 +1,35 @@
 package com.shoestore.service.user;
 
 import com.shoestore.entity.user.User;
+import com.shoestore.entity.user.UserTombstone;
 import com.shoestore.exception.ResourceNotFoundException;
 import com.shoestore.repository.user.UserRepository;
+import com.shoestore.repository.user.UserTombstoneRepository;
+import com.shoestore.security.service.SecurityStampRegistry;
 import com.shoestore.service.base.BaseService;
 
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class UserService extends BaseService<User, Long, UserRepository> {
 
-    public UserService(UserRepository repository) {
+    private final SecurityStampRegistry securityStampRegistry;
+    private final UserTombstoneRepository userTombstoneRepository;
+
+    public UserService(UserRepository repository, SecurityStampRegistry securityStampRegistry,
+                       UserTombstoneRepository userTombstoneRepository) {
         super(repository, "User");
+        this.securityStampRegistry = securityStampRegistry;
+        this.userTombstoneRepository = userTombstoneRepository;
     }
 
     @Override
@@ -25,6 +37,52 @@ public class UserService extends BaseService<User, Long, UserRepository> {
         // Additional update logic can be added here
     }
 
+    /**
+     * A changed password, role or lock revokes the tokens issued before, once the new stamp
+     * is committed; other profile edits keep the user signed in
+     */
+    @Override
+    protected void afterUpdate(User entity) {
+        if (!entity.hasSecurityChanges()) {
+            return;
+        }
+
+        entity.rotateSecurityStamp();
+        Long userId = entity.getId();
+        long securityStamp = entity.getSecurityStamp();
+        boolean admin = entity.hasAdminRole();
+        afterCommit(() -> securityStampRegistry.revoke(userId, securityStamp, admin));
+    }
+
+    /**
+     * The tombstone commits with the deletion, so every node rejects the user's tokens until they expire
+     */
+    @Override
+    protected void afterDelete(User entity) {
+        Long userId = entity.getId();
+        userTombstoneRepository.save(UserTombstone.builder()
+                .userId(userId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        afterCommit(() -> securityStampRegistry.revokeAll(userId));
+    }
+
+    /**
+     * Run a registry change once the transaction commits, so a rollback leaves the tokens valid
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     /**
      * Get user by email
      */
@@ -0,0 +1,120 @@
+package com.shoestore.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel holding one deadline per key.
+ *
+ * Deadlines are rounded up to ticks and hashed into a fixed ring of buckets, so scheduling and
+ * cancelling are O(1) and advancing only scans the buckets of the ticks that passed. A bucket
+ * can hold deadlines several rotations ahead; they stay put until their own tick comes around.
+ *
+ * @param <K> key type, e.g. an order ID
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final List<Set<K>> buckets;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Last tick that has been advanced past
+     */
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule or reschedule a key; deadlines already past expire on the next advance
+     */
+    public void schedule(K key, long deadlineMillis) {
+        // Round up so a key never expires before its deadline
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), 0);
+        lock.lock();
+        try {
+            remove(key);
+            tick = Math.max(tick, currentTick + 1);
+            deadlineTicks.put(key, tick);
+            bucket(tick).add(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancel a key's deadline; returns whether it was scheduled
+     */
+    public boolean cancel(K key) {
+        lock.lock();
+        try {
+            return remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advance the wheel to the given time and return the keys whose deadline passed
+     */
+    public List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            // A full rotation covers every bucket, no matter how far behind the wheel is
+            long steps = Math.min(targetTick - currentTick, buckets.size());
+            for (long step = 1; step <= steps; step++) {
+                Iterator<K> keys = bucket(currentTick + step).iterator();
+                while (keys.hasNext()) {
+                    K key = keys.next();
+                    if (deadlineTicks.get(key) <= targetTick) {
+                        keys.remove();
+                        deadlineTicks.remove(key);
+                        expired.add(key);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, targetTick);
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    /**
+     * Get the number of scheduled keys
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return deadlineTicks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean remove(K key) {
+        Long tick = deadlineTicks.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        bucket(tick).remove(key);
+        return true;
+    }
+
+    private Set<K> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.shoestore.util;
 
+import com.shoestore.entity.user.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -27,11 +28,24 @@ import java.util.function.Function;
 @Slf4j
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_STAMP = "stamp";
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
+
+    // Built once: deriving the key and configuring a parser cost more than verifying a token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${app.jwt.secret}") String jwtSecret,
+                   @Value("${app.jwt.expiration}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
 
     /**
      * Generate JWT token from Authentication
@@ -41,6 +55,18 @@ public class JwtUtil {
         return generateToken(userPrincipal.getUsername());
     }
 
+    /**
+     * Generate JWT token carrying the user ID, role and security stamp,
+     * enough to authenticate the user without loading it
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.hasAdminRole() ? "ADMIN" : "USER");
+        claims.put(CLAIM_SECURITY_STAMP, user.getSecurityStamp() != null ? user.getSecurityStamp() : 0L);
+        return createToken(claims, user.getEmail());
+    }
+
     /**
      * Generate JWT token from username
      */
@@ -68,7 +94,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -97,12 +123,8 @@ public class JwtUtil {
     /**
      * Get all claims from JWT token
      */
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims getAllClaimsFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -118,10 +140,7 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token: {}", ex.getMessage());
@@ -145,14 +164,6 @@ public class JwtUtil {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
-    /**
-     * Get signing key for JWT
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * Get token expiration time in milliseconds
      */
@@ -164,8 +175,14 @@ public class JwtUtil {
      * Extract user ID from token (if stored in claims)
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        Object userIdClaim = claims.get("userId");
+        return getUserId(getAllClaimsFromToken(token));
+    }
+
+    /**
+     * Extract user ID from token claims (if stored in claims)
+     */
+    public Long getUserId(Claims claims) {
+        Object userIdClaim = claims.get(CLAIM_USER_ID);
         if (userIdClaim != null) {
             return Long.valueOf(userIdClaim.toString());
         }
@@ -177,6 +194,14 @@ public class JwtUtil {
      */
     public String getUserRoleFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("role");
+        return (String) claims.get(CLAIM_ROLE);
+    }
+
+    /**
+     * Extract the security stamp from token claims, 0 for tokens issued without one
+     */
+    public long getSecurityStamp(Claims claims) {
+        Object stampClaim = claims.get(CLAIM_SECURITY_STAMP);
+        return stampClaim != null ? Long.parseLong(stampClaim.toString()) : 0L;
     }
 }
\ No newline at end of file
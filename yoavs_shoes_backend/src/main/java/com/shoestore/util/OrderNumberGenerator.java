@@ -1,56 +1,110 @@
 package com.shoestore.util;
 
+import com.shoestore.entity.order.OrderNumberAllocation;
+import com.shoestore.repository.order.OrderNumberAllocationRepository;
 import com.shoestore.repository.order.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
-import java.util.Random;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
 
 /**
  * Utility class for generating unique 7-digit order numbers
+ *
+ * Order numbers are sequence indexes scrambled by a keyed Feistel permutation of the 7-digit
+ * space, so consecutive orders don't get consecutive numbers and every index maps to a distinct
+ * number. Each node leases blocks of indexes from the order_number_allocations row (hi/lo) and
+ * hands them out from an in-memory cursor, so only one query per block hits the database.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OrderNumberGenerator {
 
+    private static final String SEQUENCE_NAME = "order_number";
+
+    private static final int MIN_ORDER_NUMBER = 1000000;
+
+    /**
+     * The 9,000,000 seven-digit numbers as a 3000 x 3000 square, the two halves of the Feistel network
+     */
+    private static final int HALF = 3000;
+    private static final long SPACE = (long) HALF * HALF;
+    private static final int ROUNDS = 4;
+
+    /**
+     * Exhausted blocks with taken numbers one call skips through before giving up
+     */
+    private static final int MAX_BLOCKS_PER_NUMBER = 10;
+
+    /**
+     * Lease attempts when the allocation row is created concurrently
+     */
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+
+    private final OrderNumberAllocationRepository allocationRepository;
     private final OrderRepository orderRepository;
-    private final Random random = new SecureRandom();
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final long[] roundKeys;
+
+    private final AtomicReference<Block> block = new AtomicReference<>(Block.EMPTY);
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    public OrderNumberGenerator(
+            OrderNumberAllocationRepository allocationRepository,
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.orders.number.block-size:100}") int blockSize,
+            @Value("${app.orders.number.key:7919}") long key
+    ) {
+        this.allocationRepository = allocationRepository;
+        this.orderRepository = orderRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        // Lease in its own transaction so the row lock is held only for the lease, not the order
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        this.roundKeys = LongStream.range(0, ROUNDS).map(round -> mix(key + round)).toArray();
+    }
 
     /**
      * Generate a unique 7-digit order number
      * Format: 1000000 - 9999999
+     *
+     * @throws IllegalStateException if the numbers of several leased blocks in a row are all taken
      */
     public String generateOrderNumber() {
-        int maxAttempts = 100; // Prevent infinite loops
-        int attempts = 0;
-        
-        while (attempts < maxAttempts) {
-            // Generate random 7-digit number (1000000 - 9999999)
-            int orderNumber = 1000000 + random.nextInt(9000000);
-            String orderNumberStr = String.valueOf(orderNumber);
-            
-            // Check if this number already exists
-            if (!orderRepository.existsByOrderNumber(orderNumberStr)) {
-                log.debug("Generated unique order number: {}", orderNumberStr);
-                return orderNumberStr;
+        int skippedBlocks = 0;
+        Block skipping = null;
+        while (true) {
+            Block current = block.get();
+            long index = current.next.getAndIncrement();
+            if (index < current.end) {
+                String orderNumber = String.valueOf(MIN_ORDER_NUMBER + permute(index));
+                if (current.taken.contains(orderNumber)) {
+                    skipping = current;
+                    continue;
+                }
+                log.debug("Generated order number {} from index {}", orderNumber, index);
+                return orderNumber;
             }
-            
-            attempts++;
-            log.debug("Order number {} already exists, attempt {}/{}", orderNumberStr, attempts, maxAttempts);
+            // Only blocks this call skipped taken numbers in count, not ones drained by concurrent callers
+            if (skipping == current && ++skippedBlocks >= MAX_BLOCKS_PER_NUMBER) {
+                throw new IllegalStateException("No free order number in " + MAX_BLOCKS_PER_NUMBER
+                        + " leased blocks of " + blockSize + ", every number in them is already taken");
+            }
+            leaseNextBlock(current);
         }
-        
-        // Fallback: if we can't generate a unique 7-digit number, 
-        // use timestamp-based approach with 7 digits
-        long timestamp = System.currentTimeMillis();
-        String fallbackNumber = String.valueOf(timestamp % 10000000L + 1000000L);
-        
-        log.warn("Could not generate unique 7-digit order number after {} attempts, using fallback: {}", 
-                maxAttempts, fallbackNumber);
-        
-        return fallbackNumber;
     }
 
     /**
@@ -68,4 +122,99 @@ public class OrderNumberGenerator {
             return false;
         }
     }
+
+    /**
+     * Replace an exhausted block; callers racing on the same block wait for one lease
+     */
+    private void leaseNextBlock(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if (block.get() != exhausted) {
+                return;
+            }
+            block.set(lease());
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private Block lease() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return leaseBlock();
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the allocation row first; it exists now
+                if (attempt >= MAX_LEASE_ATTEMPTS) {
+                    throw new IllegalStateException("Failed to lease order numbers after " + attempt + " attempts", e);
+                }
+                log.debug("Order number allocation row created concurrently, retrying lease");
+            }
+        }
+    }
+
+    private Block leaseBlock() {
+        return leaseTransaction.execute(status -> {
+            OrderNumberAllocation allocation = allocationRepository.findByNameForUpdate(SEQUENCE_NAME)
+                    .orElseGet(() -> OrderNumberAllocation.builder().name(SEQUENCE_NAME).build());
+
+            long start = allocation.getNextIndex();
+            long end = Math.min(start + blockSize, SPACE);
+            if (start >= end) {
+                throw new IllegalStateException("All 7-digit order numbers have been allocated");
+            }
+            allocation.setNextIndex(end);
+            allocationRepository.saveAndFlush(allocation);
+
+            // Numbers handed out before block allocation are random and may collide; skip them
+            List<String> numbers = LongStream.range(start, end)
+                    .mapToObj(index -> String.valueOf(MIN_ORDER_NUMBER + permute(index)))
+                    .toList();
+            Set<String> taken = new HashSet<>(orderRepository.findExistingOrderNumbers(numbers));
+
+            log.info("Leased order number indexes {}-{} ({} already taken)", start, end - 1, taken.size());
+            return new Block(start, end, taken);
+        });
+    }
+
+    /**
+     * Keyed bijection of [0, 9,000,000): a Feistel network over the 3000 x 3000 square
+     */
+    private long permute(long index) {
+        long left = index / HALF;
+        long right = index % HALF;
+        for (long roundKey : roundKeys) {
+            long mixed = Math.floorMod(mix(right ^ roundKey), HALF);
+            long newRight = (left + mixed) % HALF;
+            left = right;
+            right = newRight;
+        }
+        return left * HALF + right;
+    }
+
+    /**
+     * 64-bit finalizer of SplitMix64
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Leased range of sequence indexes and the order numbers in it that already exist
+     */
+    private static final class Block {
+        private static final Block EMPTY = new Block(0, 0, Set.of());
+
+        private final AtomicLong next;
+        private final long end;
+        private final Set<String> taken;
+
+        private Block(long start, long end, Set<String> taken) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.taken = taken;
+        }
+    }
 }
@@ -2,6 +2,25 @@
 -- INITIAL DATA FOR SHOE STORE
 -- ===============================
 
+-- ===============================
+-- ID SEQUENCES
+-- ===============================
+-- Seed rows take their IDs from the entity sequences one at a time, so they stay 1..n
+ALTER SEQUENCE users_seq INCREMENT BY 1;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE brands_seq INCREMENT BY 1;
+ALTER TABLE brands ALTER COLUMN id SET DEFAULT nextval('brands_seq');
+ALTER SEQUENCE shoe_categories_seq INCREMENT BY 1;
+ALTER TABLE shoe_categories ALTER COLUMN id SET DEFAULT nextval('shoe_categories_seq');
+ALTER SEQUENCE shoes_seq INCREMENT BY 1;
+ALTER TABLE shoes ALTER COLUMN id SET DEFAULT nextval('shoes_seq');
+ALTER SEQUENCE shoe_models_seq INCREMENT BY 1;
+ALTER TABLE shoe_models ALTER COLUMN id SET DEFAULT nextval('shoe_models_seq');
+ALTER SEQUENCE shoe_inventory_seq INCREMENT BY 1;
+ALTER TABLE shoe_inventory ALTER COLUMN id SET DEFAULT nextval('shoe_inventory_seq');
+ALTER SEQUENCE user_addresses_seq INCREMENT BY 1;
+ALTER TABLE user_addresses ALTER COLUMN id SET DEFAULT nextval('user_addresses_seq');
+
 -- ===============================
 -- ADMIN USER
 -- ===============================
@@ -163,4 +182,16 @@ UPDATE shoe_categories SET version = 0 WHERE version IS NULL;
 UPDATE shoes SET version = 0 WHERE version IS NULL;
 UPDATE shoe_models SET version = 0 WHERE version IS NULL;
 UPDATE shoe_inventory SET version = 0 WHERE version IS NULL;
-UPDATE user_addresses SET version = 0 WHERE version IS NULL;
\ No newline at end of file
+UPDATE user_addresses SET version = 0 WHERE version IS NULL;
+
+-- ===============================
+-- RESTORING SEQUENCE INCREMENTS
+-- ===============================
+-- Back to the allocation size of the pooled-lo optimizer; it continues past the seeded IDs
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE brands_seq INCREMENT BY 50;
+ALTER SEQUENCE shoe_categories_seq INCREMENT BY 50;
+ALTER SEQUENCE shoes_seq INCREMENT BY 50;
+ALTER SEQUENCE shoe_models_seq INCREMENT BY 50;
+ALTER SEQUENCE shoe_inventory_seq INCREMENT BY 50;
+ALTER SEQUENCE user_addresses_seq INCREMENT BY 50;
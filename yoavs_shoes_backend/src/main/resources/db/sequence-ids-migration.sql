@@ -0,0 +1,69 @@
+-- ===============================
+-- MIGRATION: IDENTITY COLUMNS TO SEQUENCE IDS
+-- ===============================
+-- For PostgreSQL databases created while entity IDs were IDENTITY columns; not run automatically.
+-- Run once with the application stopped, then start the new version.
+--
+-- Each table gets the sequence Hibernate expects (<table>_seq, increment 50 for the pooled-lo
+-- optimizer) starting right after its highest ID. The identity is dropped so Hibernate supplies
+-- IDs, and the column defaults to the sequence so plain SQL inserts keep working.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE IF NOT EXISTS user_addresses_seq INCREMENT BY 50;
+SELECT setval('user_addresses_seq', COALESCE((SELECT MAX(id) FROM user_addresses), 0) + 1, false);
+ALTER TABLE user_addresses ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE user_addresses ALTER COLUMN id SET DEFAULT nextval('user_addresses_seq');
+
+CREATE SEQUENCE IF NOT EXISTS brands_seq INCREMENT BY 50;
+SELECT setval('brands_seq', COALESCE((SELECT MAX(id) FROM brands), 0) + 1, false);
+ALTER TABLE brands ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE brands ALTER COLUMN id SET DEFAULT nextval('brands_seq');
+
+CREATE SEQUENCE IF NOT EXISTS shoe_categories_seq INCREMENT BY 50;
+SELECT setval('shoe_categories_seq', COALESCE((SELECT MAX(id) FROM shoe_categories), 0) + 1, false);
+ALTER TABLE shoe_categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE shoe_categories ALTER COLUMN id SET DEFAULT nextval('shoe_categories_seq');
+
+CREATE SEQUENCE IF NOT EXISTS shoes_seq INCREMENT BY 50;
+SELECT setval('shoes_seq', COALESCE((SELECT MAX(id) FROM shoes), 0) + 1, false);
+ALTER TABLE shoes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE shoes ALTER COLUMN id SET DEFAULT nextval('shoes_seq');
+
+CREATE SEQUENCE IF NOT EXISTS shoe_models_seq INCREMENT BY 50;
+SELECT setval('shoe_models_seq', COALESCE((SELECT MAX(id) FROM shoe_models), 0) + 1, false);
+ALTER TABLE shoe_models ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE shoe_models ALTER COLUMN id SET DEFAULT nextval('shoe_models_seq');
+
+CREATE SEQUENCE IF NOT EXISTS shoe_inventory_seq INCREMENT BY 50;
+SELECT setval('shoe_inventory_seq', COALESCE((SELECT MAX(id) FROM shoe_inventory), 0) + 1, false);
+ALTER TABLE shoe_inventory ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE shoe_inventory ALTER COLUMN id SET DEFAULT nextval('shoe_inventory_seq');
+
+CREATE SEQUENCE IF NOT EXISTS shoe_stock_summaries_seq INCREMENT BY 50;
+SELECT setval('shoe_stock_summaries_seq', COALESCE((SELECT MAX(id) FROM shoe_stock_summaries), 0) + 1, false);
+ALTER TABLE shoe_stock_summaries ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE shoe_stock_summaries ALTER COLUMN id SET DEFAULT nextval('shoe_stock_summaries_seq');
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+
+CREATE SEQUENCE IF NOT EXISTS order_number_allocations_seq INCREMENT BY 50;
+SELECT setval('order_number_allocations_seq', COALESCE((SELECT MAX(id) FROM order_number_allocations), 0) + 1, false);
+ALTER TABLE order_number_allocations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_number_allocations ALTER COLUMN id SET DEFAULT nextval('order_number_allocations_seq');
+
+CREATE SEQUENCE IF NOT EXISTS sales_rollups_seq INCREMENT BY 50;
+SELECT setval('sales_rollups_seq', COALESCE((SELECT MAX(id) FROM sales_rollups), 0) + 1, false);
+ALTER TABLE sales_rollups ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sales_rollups ALTER COLUMN id SET DEFAULT nextval('sales_rollups_seq');
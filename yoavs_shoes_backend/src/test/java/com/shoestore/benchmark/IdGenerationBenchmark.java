@@ -0,0 +1,171 @@
+package com.shoestore.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of inserting one order with its items, the way Hibernate writes it with each ID strategy.
+ *
+ * identity is the former mapping: every insert is its own statement, and its generated ID is
+ * read back before the next one can be sent. sequence is the current mapping: IDs come from
+ * per-table sequences in blocks of 50 (pooled-lo, one nextval per block), and each table's rows
+ * go out as one JDBC batch. Both commit once per order.
+ *
+ * The round trips saved only show up in the numbers when the database is across a network, so
+ * point it at a real PostgreSQL server. The connection defaults to the local development database
+ * and can be changed with the BENCHMARK_JDBC_URL, BENCHMARK_JDBC_USER and BENCHMARK_JDBC_PASSWORD
+ * environment variables. It creates and drops its own bench_* tables.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=IdGenerationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"10"})
+    private int itemsPerOrder;
+
+    private Connection connection;
+    private PooledLo orderIds;
+    private PooledLo itemIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5433/shoe_store_db_2?reWriteBatchedInserts=true"),
+                env("BENCHMARK_JDBC_USER", "shoe_store_user_4"),
+                env("BENCHMARK_JDBC_PASSWORD", "your_password"));
+
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+            statement.execute("CREATE TABLE bench_identity_orders (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, total NUMERIC(10, 2))");
+            statement.execute("CREATE TABLE bench_identity_items (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "order_id BIGINT REFERENCES bench_identity_orders (id), quantity INT)");
+            statement.execute("CREATE SEQUENCE bench_sequence_orders_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE SEQUENCE bench_sequence_items_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE TABLE bench_sequence_orders (id BIGINT PRIMARY KEY, total NUMERIC(10, 2))");
+            statement.execute("CREATE TABLE bench_sequence_items (id BIGINT PRIMARY KEY, "
+                    + "order_id BIGINT REFERENCES bench_sequence_orders (id), quantity INT)");
+        }
+        connection.setAutoCommit(false);
+
+        orderIds = new PooledLo("bench_sequence_orders_seq");
+        itemIds = new PooledLo("bench_sequence_items_seq");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        long orderId;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity_orders (total) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setBigDecimal(1, BigDecimal.TEN);
+            insert.executeUpdate();
+            orderId = generatedKey(insert);
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity_items (order_id, quantity) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < itemsPerOrder; i++) {
+                insert.setLong(1, orderId);
+                insert.setInt(2, 1);
+                insert.executeUpdate();
+                generatedKey(insert);
+            }
+        }
+
+        connection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public long sequence() throws SQLException {
+        long orderId = orderIds.next();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_sequence_orders (id, total) VALUES (?, ?)")) {
+            insert.setLong(1, orderId);
+            insert.setBigDecimal(2, BigDecimal.TEN);
+            insert.addBatch();
+            insert.executeBatch();
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_sequence_items (id, order_id, quantity) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < itemsPerOrder; i++) {
+                insert.setLong(1, itemIds.next());
+                insert.setLong(2, orderId);
+                insert.setInt(3, 1);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        connection.commit();
+        return orderId;
+    }
+
+    private static long generatedKey(Statement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private static void dropTables(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS bench_identity_items, bench_identity_orders, bench_sequence_items, bench_sequence_orders");
+        statement.execute("DROP SEQUENCE IF EXISTS bench_sequence_orders_seq, bench_sequence_items_seq");
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Hands out IDs the way Hibernate's pooled-lo optimizer does: nextval is the low end of a block
+     * of ALLOCATION_SIZE IDs, so only the first ID of each block costs a round trip.
+     */
+    private class PooledLo {
+        private final String sequence;
+        private long next;
+        private long limit;
+
+        PooledLo(String sequence) {
+            this.sequence = sequence;
+        }
+
+        long next() throws SQLException {
+            if (next == limit) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery("SELECT nextval('" + sequence + "')")) {
+                    result.next();
+                    next = result.getLong(1);
+                    limit = next + ALLOCATION_SIZE;
+                }
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.shoestore.benchmark;
+
+import com.shoestore.security.JwtVerifier;
+import com.shoestore.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying the bearer token of one request.
+ *
+ * perCallParser is the former filter path: validateToken and getUsernameFromToken each derived
+ * the key, built a parser and parsed the token. cachedParser parses once with the key and parser
+ * JwtUtil now builds at startup (a token seen for the first time); verifierCacheHit is a token
+ * JwtVerifier already verified.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "localDevSecretKey123456789localDevSecretKey123456789";
+
+    private JwtUtil jwtUtil;
+    private JwtVerifier jwtVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L);
+        jwtVerifier = new JwtVerifier(jwtUtil, 10_000);
+        token = jwtUtil.generateToken("user@example.com", Map.of(
+                JwtUtil.CLAIM_USER_ID, 2L,
+                JwtUtil.CLAIM_ROLE, "USER",
+                JwtUtil.CLAIM_SECURITY_STAMP, 0L));
+        jwtVerifier.verify(token);
+    }
+
+    @Benchmark
+    public void perCallParser(Blackhole blackhole) {
+        // validateToken
+        blackhole.consume(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token));
+        // getUsernameFromToken
+        blackhole.consume(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject());
+    }
+
+    @Benchmark
+    public Claims cachedParser() {
+        return jwtUtil.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Object verifierCacheHit() {
+        return jwtVerifier.verify(token);
+    }
+}
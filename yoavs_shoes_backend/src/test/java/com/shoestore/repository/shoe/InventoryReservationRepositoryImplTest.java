@@ -0,0 +1,89 @@
+package com.shoestore.repository.shoe;
+
+import com.shoestore.entity.shoe.InventoryLine;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class InventoryReservationRepositoryImplTest {
+
+    private static final List<InventoryLine> LINES = List.of(
+            new InventoryLine(1L, "42", 2),
+            new InventoryLine(7L, "38.5", 1));
+
+    private EntityManager entityManager;
+    private Query query;
+    private InventoryReservationRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(Query.class);
+        when(entityManager.createQuery(anyString())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(2);
+
+        repository = new InventoryReservationRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    void reservesEachLineOnlyWhileItsUnreservedStockCoversIt() {
+        assertThat(repository.reserveAll(LINES)).isEqualTo(2);
+
+        assertThat(statement()).contains(
+                "WHERE (si.shoeModelId = :m0 AND si.size = :s0 AND si.quantityAvailable - si.quantityReserved >= :q0) "
+                        + "OR (si.shoeModelId = :m1 AND si.size = :s1 AND si.quantityAvailable - si.quantityReserved >= :q1)",
+                "si.quantityReserved = si.quantityReserved + CASE WHEN si.shoeModelId = :m0 AND si.size = :s0 THEN :q0 "
+                        + "WHEN si.shoeModelId = :m1 AND si.size = :s1 THEN :q1 ELSE 0 END",
+                "si.version = si.version + 1");
+        verify(query).setParameter("m1", 7L);
+        verify(query).setParameter("s1", "38.5");
+        verify(query).setParameter("q1", 1);
+    }
+
+    @Test
+    void releasesUnconditionallyButNeverBelowZero() {
+        repository.releaseAll(LINES);
+
+        String statement = statement();
+        assertThat(statement).contains("si.quantityReserved = CASE WHEN si.quantityReserved >= CASE");
+        assertThat(statement).doesNotContain("si.quantityAvailable - si.quantityReserved >=");
+    }
+
+    @Test
+    void flushesPendingChangesBeforeTheBulkUpdate() {
+        repository.commitAll(LINES);
+
+        var order = inOrder(entityManager, query);
+        order.verify(entityManager).flush();
+        order.verify(query).executeUpdate();
+    }
+
+    @Test
+    void runsNothingForNoLines() {
+        assertThat(repository.reserveAll(List.of())).isZero();
+
+        verifyNoInteractions(entityManager);
+    }
+
+    private String statement() {
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(statement.capture());
+        return statement.getValue();
+    }
+}
@@ -0,0 +1,194 @@
+package com.shoestore.security.aspect;
+
+import com.shoestore.entity.base.BaseEntity;
+import com.shoestore.entity.user.User;
+import com.shoestore.repository.base.BaseRepository;
+import com.shoestore.security.annotation.AccessControl;
+import com.shoestore.security.annotation.UserOwned;
+import com.shoestore.security.service.OwnershipResolver;
+import com.shoestore.service.base.BaseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of resolving the owner of an OWNER_OR_ADMIN entity, from the method arguments
+ * to the owner's user ID, for an entity loaded through its service's getById.
+ *
+ * reflective repeats what AccessControlAspect did on every call before access plans: discover
+ * the parameter names, look the service up by bean name, probe the loader methods by reflection,
+ * then walk the common owner paths field by field. accessPlan looks up the compiled
+ * {@link AccessPlan} and runs its handles. Loading is an in-memory stub, so only the
+ * resolution overhead is measured, not the query.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=AccessPlanBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessPlanBenchmark {
+
+    private static final String[] LOADER_METHOD_NAMES = {
+            "findByIdWithUser", "findByIdWithOwner", "findByIdWithRelations", "findByIdForAccessControl", "findByIdEager"
+    };
+
+    private static final String[] COMMON_OWNER_PATHS = {
+            "userId", "user.id", "owner.id", "ownerId", "createdBy.id", "createdById",
+            "assignedTo.id", "assignedToId", "customer.id", "customerId"
+    };
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private GenericApplicationContext applicationContext;
+    private AccessPlanCompiler compiler;
+    private Method method;
+    private AccessControl accessControl;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        User owner = new User();
+        owner.setId(7L);
+        Note note = new Note();
+        note.setId(42L);
+        note.setUser(owner);
+
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean("noteService", NoteService.class, () -> new NoteService(note));
+        applicationContext.refresh();
+
+        compiler = new AccessPlanCompiler(applicationContext, new OwnershipResolver(10_000));
+        method = NoteController.class.getMethod("getNote", Long.class);
+        accessControl = method.getAnnotation(AccessControl.class);
+        args = new Object[]{42L};
+        compiler.planFor(NoteController.class, method, accessControl);
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public Long accessPlan() {
+        AccessPlan plan = compiler.planFor(NoteController.class, method, accessControl);
+        Long entityId = plan.entityId(args);
+        return plan.ownerId(plan.loadEntity(entityId));
+    }
+
+    @Benchmark
+    public Long reflective() throws ReflectiveOperationException {
+        Long entityId = null;
+        String[] parameterNames = PARAMETER_NAMES.getParameterNames(method);
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (accessControl.entityIdParam().equals(parameterNames[i]) && args[i] instanceof Long id) {
+                entityId = id;
+            }
+        }
+
+        Class<?> entityType = accessControl.entityType();
+        Object service = applicationContext.getBean(entityType.getSimpleName().toLowerCase() + "Service");
+        Object entity = null;
+        for (String methodName : LOADER_METHOD_NAMES) {
+            try {
+                Object result = service.getClass().getMethod(methodName, Long.class).invoke(service, entityId);
+                entity = result instanceof Optional<?> optional ? optional.orElse(null) : result;
+                if (entity != null) {
+                    break;
+                }
+            } catch (NoSuchMethodException e) {
+                // Next candidate
+            }
+        }
+        if (entity == null) {
+            entity = service.getClass().getMethod("getById", Object.class).invoke(service, entityId);
+        }
+
+        if (method.getAnnotation(UserOwned.class) == null && NoteController.class.getAnnotation(UserOwned.class) == null) {
+            for (String path : COMMON_OWNER_PATHS) {
+                Long ownerId = ownerIdFromPath(entity, path);
+                if (ownerId != null) {
+                    return ownerId;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Long ownerIdFromPath(Object entity, String path) throws IllegalAccessException {
+        Object current = entity;
+        for (String part : path.split("\\.")) {
+            if (current == null) {
+                return null;
+            }
+            Field field = findField(current.getClass(), part);
+            if (field == null) {
+                return null;
+            }
+            field.setAccessible(true);
+            current = field.get(current);
+        }
+        return current instanceof Long ownerId ? ownerId : null;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // Look in the superclass
+            }
+        }
+        return null;
+    }
+
+    public static class Note extends BaseEntity {
+        private User user;
+
+        public User getUser() {
+            return user;
+        }
+
+        public void setUser(User user) {
+            this.user = user;
+        }
+    }
+
+    public interface NoteRepository extends BaseRepository<Note, Long> {
+    }
+
+    public static class NoteService extends BaseService<Note, Long, NoteRepository> {
+        private final Note note;
+
+        public NoteService(Note note) {
+            super(null, "Note");
+            this.note = note;
+        }
+
+        @Override
+        public Note getById(Long id) {
+            return note;
+        }
+
+        @Override
+        protected void updateEntityFields(Note existingEntity, Note newEntity) {
+        }
+    }
+
+    public static class NoteController {
+
+        @AccessControl(level = AccessControl.AccessLevel.OWNER_OR_ADMIN, entityType = Note.class)
+        public Note getNote(Long id) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.shoestore.service.base;
+
+import com.shoestore.dto.base.KeysetCursor;
+import com.shoestore.entity.shoe.Brand;
+import com.shoestore.exception.BadRequestException;
+import com.shoestore.repository.shoe.BrandRepository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages through rows with NULL sort keys. The repository evaluates the keyset Specification
+ * in memory and sorts NULLs the way PostgreSQL does: last ascending, first descending.
+ */
+class BaseServiceKeysetTest {
+
+    private final List<Brand> rows = new ArrayList<>();
+    private BaseService<Brand, Long, BrandRepository> service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rows.add(brand(1L, "b"));
+        rows.add(brand(2L, null));
+        rows.add(brand(3L, "a"));
+        rows.add(brand(4L, null));
+        rows.add(brand(5L, "b"));
+        rows.add(brand(6L, "c"));
+        rows.add(brand(7L, null));
+
+        BrandRepository repository = mock(BrandRepository.class);
+        when(repository.findIds(any(Specification.class), any(Sort.class), anyInt()))
+                .thenAnswer(invocation -> findIds(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(repository.findByIdIn(anyCollection()))
+                .thenAnswer(invocation -> rows.stream().filter(row -> invocation.<Collection<Long>>getArgument(0).contains(row.getId())).toList());
+
+        service = new BaseService<>(repository, "Brand") {
+            @Override
+            protected void updateEntityFields(Brand existingEntity, Brand newEntity) {
+            }
+        };
+    }
+
+    @Test
+    void pagesThroughNullKeysAscending() {
+        assertThat(pageThrough(Sort.by(Sort.Direction.ASC, "description"), 2))
+                .containsExactly(3L, 1L, 5L, 6L, 2L, 4L, 7L);
+    }
+
+    @Test
+    void pagesThroughNullKeysDescending() {
+        assertThat(pageThrough(Sort.by(Sort.Direction.DESC, "description"), 2))
+                .containsExactly(7L, 4L, 2L, 6L, 5L, 1L, 3L);
+    }
+
+    @Test
+    void pagesThroughNullKeysOneRowAtATime() {
+        assertThat(pageThrough(Sort.by(Sort.Direction.ASC, "description"), 1))
+                .containsExactly(3L, 1L, 5L, 6L, 2L, 4L, 7L);
+    }
+
+    @Test
+    void rejectsACursorIssuedForAnotherSort() {
+        String after = KeysetCursor.after(rows.get(0), KeysetCursor.withTieBreaker(Sort.by("name"))).encode();
+
+        assertThatThrownBy(() -> service.findSlice(null, Sort.by("description"), after, 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<Long> pageThrough(Sort sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        for (int page = 0; page <= rows.size(); page++) {
+            Slice<Brand> slice = service.findSlice(null, sort, after, size);
+            slice.getContent().forEach(row -> ids.add(row.getId()));
+            if (!slice.hasNext()) {
+                return ids;
+            }
+            after = KeysetCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1), slice.getSort()).encode();
+        }
+        throw new AssertionError("Paging did not end, read " + ids);
+    }
+
+    private List<Long> findIds(Specification<Brand> spec, Sort sort, int limit) {
+        InMemoryCriteria criteria = new InMemoryCriteria();
+        Function<Brand, Boolean> where = criteria.evaluator(spec.toPredicate(criteria.root, mock(CriteriaQuery.class), criteria.builder));
+
+        Comparator<Brand> order = null;
+        for (Sort.Order sortOrder : sort) {
+            Comparator<Brand> next = Comparator.comparing(row -> (Comparable<Object>) property(row, sortOrder.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            next = sortOrder.isAscending() ? next : next.reversed();
+            order = order == null ? next : order.thenComparing(next);
+        }
+
+        return rows.stream()
+                .filter(where::apply)
+                .sorted(order)
+                .limit(limit)
+                .map(Brand::getId)
+                .toList();
+    }
+
+    private static Object property(Brand row, String property) {
+        return new BeanWrapperImpl(row).getPropertyValue(property);
+    }
+
+    private static Brand brand(Long id, String description) {
+        Brand brand = new Brand();
+        brand.setId(id);
+        brand.setName("Brand " + id);
+        brand.setDescription(description);
+        return brand;
+    }
+
+    /**
+     * Criteria API stand-in building row predicates, with SQL NULL semantics for comparisons
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static class InMemoryCriteria {
+
+        private final Map<Object, Function<Brand, Boolean>> predicates = new IdentityHashMap<>();
+        private final Map<Object, String> paths = new IdentityHashMap<>();
+        private final Root<Brand> root = mock(Root.class, this::root);
+        private final CriteriaBuilder builder = mock(CriteriaBuilder.class, this::build);
+
+        Function<Brand, Boolean> evaluator(Predicate predicate) {
+            return predicates.get(predicate);
+        }
+
+        private Object root(InvocationOnMock invocation) {
+            if (!invocation.getMethod().getName().equals("get")) {
+                throw new UnsupportedOperationException(invocation.toString());
+            }
+            String property = invocation.getArgument(0);
+            Path<?> path = mock(Path.class, pathInvocation -> {
+                if (pathInvocation.getMethod().getName().equals("getJavaType")) {
+                    return property.equals("id") ? Long.class : String.class;
+                }
+                throw new UnsupportedOperationException(pathInvocation.toString());
+            });
+            paths.put(path, property);
+            return path;
+        }
+
+        private Object build(InvocationOnMock invocation) {
+            Object[] args = invocation.getArguments();
+            return switch (invocation.getMethod().getName()) {
+                case "conjunction" -> predicate(row -> true);
+                case "and" -> predicate(row -> operands(args).stream().allMatch(operand -> predicates.get(operand).apply(row)));
+                case "or" -> predicate(row -> operands(args).stream().anyMatch(operand -> predicates.get(operand).apply(row)));
+                case "isNull" -> predicate(row -> value(row, args[0]) == null);
+                case "isNotNull" -> predicate(row -> value(row, args[0]) != null);
+                case "equal" -> predicate(row -> compare(row, args, result -> result == 0));
+                case "greaterThan" -> predicate(row -> compare(row, args, result -> result > 0));
+                case "lessThan" -> predicate(row -> compare(row, args, result -> result < 0));
+                default -> throw new UnsupportedOperationException(invocation.toString());
+            };
+        }
+
+        private Predicate predicate(Function<Brand, Boolean> evaluator) {
+            Predicate predicate = mock(Predicate.class);
+            predicates.put(predicate, evaluator);
+            return predicate;
+        }
+
+        private List<Object> operands(Object[] args) {
+            List<Object> operands = new ArrayList<>();
+            for (Object arg : args) {
+                if (arg instanceof Object[] array) {
+                    operands.addAll(Arrays.asList(array));
+                } else {
+                    operands.add(arg);
+                }
+            }
+            return operands;
+        }
+
+        private Object value(Brand row, Object path) {
+            return property(row, paths.get(path));
+        }
+
+        /**
+         * Comparison with a NULL key is unknown, which filters the row out like false
+         */
+        private boolean compare(Brand row, Object[] args, IntPredicate test) {
+            Comparable left = (Comparable) value(row, args[0]);
+            return left != null && test.test(left.compareTo(args[1]));
+        }
+    }
+}
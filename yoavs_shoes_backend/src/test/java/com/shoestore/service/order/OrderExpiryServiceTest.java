@@ -0,0 +1,117 @@
+package com.shoestore.service.order;
+
+import com.shoestore.entity.order.Order;
+import com.shoestore.entity.order.OrderStatus;
+import com.shoestore.repository.order.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderExpiryServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private OrderRepository orderRepository;
+    private OrderService orderService;
+    private OrderExpiryService service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        orderService = mock(OrderService.class);
+        service = expiryService(true);
+    }
+
+    @Test
+    void cancelsAnOrderPlacedMoreThanTheTtlAgo() throws InterruptedException {
+        service.onStatusChange(placed(1L, LocalDateTime.now().minus(TTL).minusSeconds(1)));
+        service.onStatusChange(placed(2L, LocalDateTime.now()));
+
+        awaitNextTick();
+        service.expireDue();
+
+        verify(orderService).cancelExpiredOrders(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void forgetsAnOrderLeavingPending() throws InterruptedException {
+        LocalDateTime placedAt = LocalDateTime.now().minus(TTL).minusSeconds(1);
+        service.onStatusChange(placed(1L, placedAt));
+        service.onStatusChange(new OrderStatusChangedEvent(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED, placedAt, BigDecimal.TEN));
+
+        awaitNextTick();
+        service.expireDue();
+
+        verify(orderService, never()).cancelExpiredOrders(anyCollection(), any());
+    }
+
+    @Test
+    void rescansExpiredOrdersInBatchesUntilAShortOne() {
+        when(orderRepository.findIdsByStatusPlacedBefore(eq(OrderStatus.PENDING), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(orderService.cancelExpiredOrders(anyCollection(), any()))
+                .thenReturn(List.of(new Order(), new Order()), List.of(new Order()));
+
+        service.rescan();
+
+        verify(orderService).cancelExpiredOrders(eq(List.of(1L, 2L)), any());
+        verify(orderService).cancelExpiredOrders(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void stopsTheRescanWhenABatchCancelsNothing() {
+        // E.g. another node cancelled them between the query and the update
+        when(orderRepository.findIdsByStatusPlacedBefore(eq(OrderStatus.PENDING), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(orderService.cancelExpiredOrders(anyCollection(), any())).thenReturn(List.of());
+
+        service.rescan();
+
+        verify(orderService, times(1)).cancelExpiredOrders(anyCollection(), any());
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        OrderExpiryService disabled = expiryService(false);
+
+        disabled.rebuild();
+        disabled.onStatusChange(placed(1L, LocalDateTime.now().minusDays(1)));
+        disabled.expireDue();
+        disabled.rescan();
+
+        verifyNoInteractions(orderRepository, orderService);
+    }
+
+    private OrderExpiryService expiryService(boolean enabled) {
+        return new OrderExpiryService(orderRepository, orderService, enabled, TTL,
+                TICK, 64, 2, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Past deadlines expire on the first tick after scheduling
+     */
+    private static void awaitNextTick() throws InterruptedException {
+        Thread.sleep(TICK.toMillis() * 2);
+    }
+
+    private static OrderStatusChangedEvent placed(Long orderId, LocalDateTime orderDate) {
+        return new OrderStatusChangedEvent(orderId, null, OrderStatus.PENDING, orderDate, BigDecimal.TEN);
+    }
+}
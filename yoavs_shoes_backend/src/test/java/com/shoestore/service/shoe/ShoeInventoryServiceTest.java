@@ -0,0 +1,105 @@
+package com.shoestore.service.shoe;
+
+import com.shoestore.entity.shoe.InventoryLine;
+import com.shoestore.exception.InsufficientStockException;
+import com.shoestore.repository.shoe.ShoeInventoryRepository;
+import com.shoestore.service.shoe.ledger.InventoryLedger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservations and releases go to the database as conditional statements; the service only
+ * interprets their affected row counts. SKUs are not held by the inventory ledger here.
+ */
+class ShoeInventoryServiceTest {
+
+    private ShoeInventoryRepository repository;
+    private ShoeStockSummaryService shoeStockSummaryService;
+    private ShoeInventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ShoeInventoryRepository.class);
+        shoeStockSummaryService = mock(ShoeStockSummaryService.class);
+        service = new ShoeInventoryService(repository, mock(ShoeModelService.class), shoeStockSummaryService,
+                mock(InventoryLedger.class), mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void reservesWhenTheConditionalUpdateMatchesTheRow() {
+        when(repository.reserve(1L, "42", 2)).thenReturn(1);
+
+        assertThat(service.reserveInventory(1L, "42", 2)).isTrue();
+        verify(shoeStockSummaryService).markModelChanged(1L);
+    }
+
+    @Test
+    void refusesWhenTheConditionalUpdateMatchesNothing() {
+        when(repository.reserve(1L, "42", 2)).thenReturn(0);
+
+        assertThat(service.reserveInventory(1L, "42", 2)).isFalse();
+        verify(shoeStockSummaryService, never()).markModelChanged(any());
+    }
+
+    @Test
+    void reservesAllLinesInOneStatementWithDuplicatesMerged() {
+        when(repository.reserveAll(List.of(new InventoryLine(1L, "42", 3), new InventoryLine(2L, "40", 1))))
+                .thenReturn(2);
+
+        service.reserveAll(List.of(
+                new InventoryLine(1L, "42", 1),
+                new InventoryLine(2L, "40", 1),
+                new InventoryLine(1L, "42", 2)));
+
+        verify(shoeStockSummaryService).markModelsChanged(anyCollection());
+    }
+
+    @Test
+    void failsTheWholeReservationWhenALineIsShort() {
+        List<InventoryLine> lines = List.of(new InventoryLine(1L, "42", 1), new InventoryLine(2L, "40", 5));
+        when(repository.reserveAll(lines)).thenReturn(1);
+        when(repository.findUnreservedQuantity(1L, "42")).thenReturn(Optional.of(4));
+        when(repository.findUnreservedQuantity(2L, "40")).thenReturn(Optional.of(3));
+
+        assertThatThrownBy(() -> service.reserveAll(lines))
+                .isInstanceOfSatisfying(InsufficientStockException.class, e -> {
+                    assertThat(e.getProductId()).isEqualTo(2L);
+                    assertThat(e.getRequestedQuantity()).isEqualTo(5);
+                    assertThat(e.getAvailableQuantity()).isEqualTo(3);
+                });
+        verify(shoeStockSummaryService, never()).markModelsChanged(anyCollection());
+    }
+
+    @Test
+    void releasesWithoutTouchingTheSummariesWhenNoRowMatches() {
+        when(repository.release(1L, "42", 2)).thenReturn(0);
+
+        service.releaseReservedInventory(1L, "42", 2);
+
+        verify(repository).release(1L, "42", 2);
+        verify(shoeStockSummaryService, never()).markModelChanged(any());
+    }
+
+    @Test
+    void skipsTheStatementForNoLines() {
+        service.reserveAll(List.of());
+        service.releaseAll(List.of());
+
+        verifyNoInteractions(repository, shoeStockSummaryService);
+    }
+}
@@ -0,0 +1,98 @@
+package com.shoestore.service.shoe.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportRecordReaderTest {
+
+    @Test
+    void readsCsvRowsUnderLowerCaseHeaderNames() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.CSV, "\uFEFFName,Price\r\nRunner,99.90\r\n\r\nTrail, 120 \r\n");
+
+        assertThat(records).containsExactly(
+                ImportRecord.of(1, Map.of("name", "Runner", "price", "99.90")),
+                ImportRecord.of(2, Map.of("name", "Trail", "price", "120")));
+    }
+
+    @Test
+    void readsQuotedCsvFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.CSV,
+                "name,description\n\"Runner, Pro\",\"Light \"\"daily\"\" trainer\nwith a wide toe box\"\n");
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.text("name")).isEqualTo("Runner, Pro");
+            assertThat(record.text("description")).isEqualTo("Light \"daily\" trainer\nwith a wide toe box");
+        });
+    }
+
+    @Test
+    void leavesBlankCsvValuesOut() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.CSV, "name,color\nRunner,\n");
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.fields()).containsOnlyKeys("name");
+            assertThat(record.text("color")).isNull();
+        });
+    }
+
+    @Test
+    void reportsCsvRowsWithTheWrongFieldCountAndGoesOn() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.CSV, "name,price\nRunner\nTrail,120\n");
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).error()).isEqualTo("Expected 2 fields, found 1");
+        assertThat(records.get(1).text("name")).isEqualTo("Trail");
+    }
+
+    @Test
+    void reportsAnUnterminatedQuotedCsvField() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.CSV, "name,price\n\"Runner,99\n");
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.row()).isEqualTo(1);
+            assertThat(record.error()).contains("Unterminated");
+        });
+    }
+
+    @Test
+    void readsNdjsonObjectsAndSkipsBlankLines() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.NDJSON,
+                "{\"Name\":\"Runner\",\"price\":99.9,\"active\":true,\"color\":null,\"tags\":[\"road\"]}\n\n{\"name\":\"Trail\"}\n");
+
+        assertThat(records).containsExactly(
+                ImportRecord.of(1, Map.of("name", "Runner", "price", "99.9", "active", "true", "tags", "[\"road\"]")),
+                ImportRecord.of(2, Map.of("name", "Trail")));
+    }
+
+    @Test
+    void reportsInvalidNdjsonRowsAndGoesOn() throws IOException {
+        List<ImportRecord> records = read(CatalogImportFormat.NDJSON, "{\"name\":\n[1,2]\n{\"name\":\"Trail\"}\n");
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).error()).startsWith("Invalid JSON");
+        assertThat(records.get(1).error()).isEqualTo("Expected a JSON object");
+        assertThat(records.get(2)).isEqualTo(ImportRecord.of(3, Map.of("name", "Trail")));
+    }
+
+    private static List<ImportRecord> read(CatalogImportFormat format, String content) throws IOException {
+        List<ImportRecord> records = new ArrayList<>();
+        try (ImportRecordReader reader = ImportRecordReader.open(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, new ObjectMapper())) {
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,102 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.dto.shoe.ProductFilterCriteria;
+import com.shoestore.entity.shoe.Shoe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.shoestore.service.shoe.index.ProductFilterIndexTest.builder;
+import static com.shoestore.service.shoe.index.ProductFilterIndexTest.document;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FacetCountEngineTest {
+
+    private ProductFilterIndex index;
+    private FacetCountEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFilterIndex(new BigDecimal("25"));
+        engine = new FacetCountEngine(index, List.of(new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("150")));
+
+        List<ProductDocument> documents = List.of(
+                document(1L, 10L, 100L, Shoe.Gender.MEN, "Black", "24.99", "9", "10"),
+                document(2L, 10L, 200L, Shoe.Gender.WOMEN, "White", "75", "9.5"),
+                document(3L, 20L, 100L, Shoe.Gender.MEN, "black", "120", "10"),
+                builder(4L, 20L, 100L, Shoe.Gender.MEN, "Red", "30", "9").brandActive(false).build());
+        index.rebuild(documents);
+        engine.rebuild(documents);
+    }
+
+    @Test
+    void answersNothingBeforeTheFirstRebuild() {
+        FacetCountEngine empty = new FacetCountEngine(index, List.of());
+
+        assertThat(empty.getCounts(unfiltered(), null)).isEmpty();
+    }
+
+    @Test
+    void countsVisibleModelsWhenUnfiltered() {
+        FacetCounts counts = engine.getCounts(unfiltered(), null).orElseThrow();
+
+        assertThat(counts.brands()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple(10L, 2L), tuple(20L, 1L));
+        assertThat(counts.colors()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple("black", 2L), tuple("white", 1L));
+        assertThat(counts.sizes()).extracting(FacetCounts.FacetValue::key)
+                .containsExactly("9", "9.5", "10");
+        assertThat(counts.priceRanges()).extracting(FacetCounts.PriceRangeCount::min, FacetCounts.PriceRangeCount::count)
+                .containsExactly(tuple(BigDecimal.ZERO, 1L), tuple(new BigDecimal("50"), 1L), tuple(new BigDecimal("100"), 1L));
+    }
+
+    @Test
+    void appliesChangedModelsAsDeltas() {
+        ProductDocument moved = document(1L, 20L, 100L, Shoe.Gender.MEN, "Black", "24.99", "9", "10");
+        index.upsert(moved);
+        engine.upsert(moved);
+        index.remove(2L);
+        engine.remove(2L);
+
+        FacetCounts counts = engine.getCounts(unfiltered(), null).orElseThrow();
+
+        assertThat(counts.brands()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple(20L, 2L));
+        assertThat(counts.sizes()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple("9", 1L), tuple("10", 2L));
+        assertThat(counts.colors()).extracting(FacetCounts.FacetValue::key).containsExactly("black");
+    }
+
+    @Test
+    void countsEachFacetAgainstTheOtherFiltersOnly() {
+        ProductFilterCriteria criteria = ProductFilterCriteria.builder().brandIds(List.of(10L)).build();
+
+        FacetCounts counts = engine.getCounts(criteria, null).orElseThrow();
+
+        assertThat(counts.brands()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple(10L, 2L), tuple(20L, 1L));
+        assertThat(counts.categories()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple(100L, 1L), tuple(200L, 1L));
+        assertThat(counts.sizes()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple("9", 1L), tuple("9.5", 1L), tuple("10", 1L));
+    }
+
+    @Test
+    void restrictsToSearchMatches() {
+        ProductFilterCriteria criteria = ProductFilterCriteria.builder().searchTerm("black").build();
+
+        FacetCounts counts = engine.getCounts(criteria, List.of(3L, 1L)).orElseThrow();
+
+        assertThat(counts.brands()).extracting(FacetCounts.FacetValue::key, FacetCounts.FacetValue::count)
+                .containsExactly(tuple(10L, 1L), tuple(20L, 1L));
+        assertThat(counts.colors()).extracting(FacetCounts.FacetValue::count).containsExactly(2L);
+    }
+
+    private static ProductFilterCriteria unfiltered() {
+        return ProductFilterCriteria.builder().build();
+    }
+}
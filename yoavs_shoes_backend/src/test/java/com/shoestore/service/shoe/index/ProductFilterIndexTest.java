@@ -0,0 +1,171 @@
+package com.shoestore.service.shoe.index;
+
+import com.shoestore.dto.shoe.ProductFilterCriteria;
+import com.shoestore.entity.shoe.Shoe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFilterIndexTest {
+
+    private static final Pageable BY_ID = PageRequest.of(0, 20, Sort.by("id"));
+
+    private ProductFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFilterIndex(new BigDecimal("25"));
+        index.rebuild(List.of(
+                document(1L, 10L, 100L, Shoe.Gender.MEN, "Black", "24.99", "42", "43"),
+                document(2L, 10L, 200L, Shoe.Gender.WOMEN, "White", "25.00", "38"),
+                document(3L, 20L, 100L, Shoe.Gender.UNISEX, "Off-White", "49.99", "42"),
+                document(4L, 20L, 200L, Shoe.Gender.MEN, "Red", "50.00")));
+    }
+
+    @Test
+    void answersNothingBeforeTheFirstRebuild() {
+        ProductFilterIndex empty = new ProductFilterIndex(new BigDecimal("25"));
+
+        assertThat(empty.isReady()).isFalse();
+        assertThat(empty.findIds(criteria().build(), BY_ID)).isEmpty();
+    }
+
+    @Test
+    void intersectsFiltersAndUnionsValuesOfOneFilter() {
+        ProductFilterCriteria criteria = criteria()
+                .brandIds(List.of(10L, 20L))
+                .categoryIds(List.of(100L))
+                .gender("men")
+                .build();
+
+        assertThat(ids(criteria)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesColorsContainingAnyRequestedValue() {
+        assertThat(ids(criteria().colors(List.of("WHITE")).build())).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void matchesSizesInStockOnly() {
+        assertThat(ids(criteria().sizes(List.of("42")).build())).containsExactly(1L, 3L);
+        assertThat(ids(criteria().sizes(List.of("44")).build())).isEmpty();
+    }
+
+    @Test
+    void checksExactPricesInTheEdgeBuckets() {
+        ProductFilterCriteria criteria = criteria()
+                .minPrice(new BigDecimal("25.00"))
+                .maxPrice(new BigDecimal("49.99"))
+                .build();
+
+        assertThat(ids(criteria)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void matchesNothingForAnInvertedPriceRange() {
+        ProductFilterCriteria criteria = criteria()
+                .minPrice(new BigDecimal("60"))
+                .maxPrice(new BigDecimal("10"))
+                .build();
+
+        assertThat(ids(criteria)).isEmpty();
+    }
+
+    @Test
+    void matchesNothingForAnUnknownGender() {
+        assertThat(ids(criteria().gender("KIDS").build())).isEmpty();
+    }
+
+    @Test
+    void hidesModelsWithAnInactiveParentOnlyWhenActiveOnly() {
+        index.upsert(builder(5L, 10L, 100L, Shoe.Gender.MEN, "Blue", "30", "42")
+                .brandActive(false)
+                .build());
+        index.upsert(builder(6L, 10L, 100L, Shoe.Gender.MEN, "Blue", "30", "42")
+                .modelActive(false)
+                .build());
+
+        assertThat(ids(criteria().build())).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(ids(criteria().activeOnly(false).build())).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void reindexesUpdatedAndRemovedModels() {
+        index.upsert(document(1L, 20L, 100L, Shoe.Gender.MEN, "Black", "24.99", "42"));
+        index.remove(3L);
+        index.upsert(document(7L, 10L, 100L, Shoe.Gender.WOMEN, "Green", "70", "39"));
+
+        assertThat(ids(criteria().brandIds(List.of(10L)).build())).containsExactly(2L, 7L);
+        assertThat(ids(criteria().brandIds(List.of(20L)).build())).containsExactly(1L, 4L);
+        assertThat(ids(criteria().sizes(List.of("43")).build())).isEmpty();
+    }
+
+    @Test
+    void sortsAndPagesWithTheTotalOfAllMatches() {
+        Pageable secondPage = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price"));
+
+        Page<Long> page = index.findIds(criteria().build(), secondPage).orElseThrow();
+
+        assertThat(page.getContent()).containsExactly(2L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void restrictsToSearchMatchesInRankOrderWhenUnsorted() {
+        Page<Long> page = index.findIds(criteria().searchTerm("shoe").build(), PageRequest.of(0, 20), List.of(4L, 99L, 2L))
+                .orElseThrow();
+
+        assertThat(page.getContent()).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void fallsBackForUnsupportedSortsAndSearchesWithoutMatches() {
+        assertThat(index.findIds(criteria().build(), PageRequest.of(0, 20, Sort.by("material")))).isEmpty();
+        assertThat(index.findIds(criteria().searchTerm("shoe").build(), BY_ID)).isEmpty();
+    }
+
+    private List<Long> ids(ProductFilterCriteria criteria) {
+        return index.findIds(criteria, BY_ID).orElseThrow().getContent();
+    }
+
+    private static ProductFilterCriteria.ProductFilterCriteriaBuilder criteria() {
+        return ProductFilterCriteria.builder();
+    }
+
+    static ProductDocument document(Long id, Long brandId, Long categoryId, Shoe.Gender gender, String color,
+                                    String price, String... sizesInStock) {
+        return builder(id, brandId, categoryId, gender, color, price, sizesInStock).build();
+    }
+
+    static ProductDocument.ProductDocumentBuilder builder(Long id, Long brandId, Long categoryId, Shoe.Gender gender,
+                                                          String color, String price, String... sizesInStock) {
+        return ProductDocument.builder()
+                .id(id)
+                .brandId(brandId)
+                .brandName("Brand " + brandId)
+                .categoryId(categoryId)
+                .categoryName("Category " + categoryId)
+                .gender(gender)
+                .color(color)
+                .price(new BigDecimal(price))
+                .shoeName("Shoe " + id)
+                .modelName("Model " + id)
+                .modelActive(true)
+                .shoeActive(true)
+                .brandActive(true)
+                .categoryActive(true)
+                .sizesInStock(Set.of(sizesInStock))
+                .stockQuantity(sizesInStock.length);
+    }
+}
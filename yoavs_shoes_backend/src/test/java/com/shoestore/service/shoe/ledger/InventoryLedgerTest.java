@@ -0,0 +1,151 @@
+package com.shoestore.service.shoe.ledger;
+
+import com.shoestore.entity.shoe.InventoryLedgerCheckpoint;
+import com.shoestore.entity.shoe.ShoeInventory;
+import com.shoestore.repository.shoe.InventoryLedgerCheckpointRepository;
+import com.shoestore.repository.shoe.InventoryLedgerCommitRepository;
+import com.shoestore.repository.shoe.ShoeInventoryRepository;
+import com.shoestore.service.shoe.ShoeStockSummaryService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLedgerTest {
+
+    private static final String NODE = "node-1";
+    private static final InventorySku SKU = new InventorySku(1L, "42");
+
+    @TempDir
+    Path journalDir;
+
+    private final List<InventoryLedger> ledgers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        ledgers.forEach(InventoryLedger::shutdown);
+    }
+
+    @Test
+    void reservesOnlyUnreservedStock() {
+        InventoryLedger ledger = start(new Database());
+
+        assertThat(ledger.isHot(SKU)).isTrue();
+        assertThat(ledger.reserve(SKU, 8)).contains(new LedgerDelta(SKU, 0, 8));
+        assertThat(ledger.reserve(SKU, 3)).isEmpty();
+        assertThat(ledger.getUnreservedQuantity(SKU)).isEqualTo(2);
+    }
+
+    @Test
+    void revertsChangesWhoseTransactionRolledBack() {
+        InventoryLedger ledger = start(new Database());
+
+        ledger.abort(ledger.prepare(List.of(ledger.reserve(SKU, 4).orElseThrow())));
+        ledger.undo(List.of(ledger.reserve(SKU, 3).orElseThrow()));
+
+        assertThat(ledger.getUnreservedQuantity(SKU)).isEqualTo(10);
+    }
+
+    @Test
+    void flushesConfirmedChangesWithTheCheckpointAndDeletesTheirCommitRows() {
+        Database database = new Database();
+        InventoryLedger ledger = start(database);
+
+        LedgerTransaction transaction = ledger.prepare(List.of(ledger.reserve(SKU, 3).orElseThrow()));
+        ledger.confirm(transaction);
+        ledger.flush();
+
+        verify(database.inventory).addQuantities(1L, "42", 0, 3);
+        verify(database.commits).deleteTransactions(NODE, List.of(transaction.id()));
+        ArgumentCaptor<InventoryLedgerCheckpoint> checkpoint = ArgumentCaptor.forClass(InventoryLedgerCheckpoint.class);
+        verify(database.checkpoints).save(checkpoint.capture());
+        assertThat(checkpoint.getValue().getFlushedSegment()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsUnflushedChangesWhenTheFlushFails() {
+        Database database = new Database();
+        when(database.inventory.addQuantities(any(), anyString(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("database down"));
+        InventoryLedger ledger = start(database);
+
+        ledger.confirm(ledger.prepare(List.of(ledger.reserve(SKU, 3).orElseThrow())));
+        ledger.flush();
+
+        verify(database.checkpoints, never()).save(any());
+        assertThat(ledger.getUnreservedQuantity(SKU)).isEqualTo(7);
+    }
+
+    @Test
+    void replaysOnlyCommittedTransactionsAfterAPartialFlush() {
+        Database before = new Database();
+        when(before.inventory.addQuantities(any(), anyString(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("database down"));
+        InventoryLedger ledger = start(before);
+
+        // Committed and confirmed, committed but the node died before confirming, rolled back
+        LedgerTransaction confirmed = ledger.prepare(List.of(ledger.reserve(SKU, 3).orElseThrow()));
+        ledger.confirm(confirmed);
+        LedgerTransaction committedInFlight = ledger.prepare(List.of(ledger.reserve(SKU, 2).orElseThrow()));
+        LedgerTransaction rolledBack = ledger.prepare(List.of(ledger.reserve(SKU, 1).orElseThrow()));
+        // The failed flush rotated the journal, carrying the in-flight transactions into the new segment
+        ledger.flush();
+        ledger.abort(rolledBack);
+        // The node dies without a shutdown flush
+        ledgers.remove(ledger);
+
+        // Restart without a checkpoint; the rolled back transaction's commit row was never committed
+        Database after = new Database();
+        when(after.commits.findTransactionIds(NODE)).thenReturn(List.of(confirmed.id(), committedInFlight.id()));
+        start(after);
+
+        verify(after.inventory).addQuantities(1L, "42", 0, 5);
+        verify(after.commits).deleteByNode(NODE);
+        ArgumentCaptor<InventoryLedgerCheckpoint> checkpoint = ArgumentCaptor.forClass(InventoryLedgerCheckpoint.class);
+        verify(after.checkpoints).save(checkpoint.capture());
+        assertThat(checkpoint.getValue().getFlushedSegment()).isEqualTo(2);
+    }
+
+    private InventoryLedger start(Database database) {
+        InventoryLedger ledger = new InventoryLedger(database.inventory, database.checkpoints, database.commits,
+                mock(ShoeStockSummaryService.class), mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), true, NODE, List.of("1:42"), journalDir, true, 4);
+        ledger.afterSingletonsInstantiated();
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    /**
+     * Repositories of one run of a node, holding 10 units of the hot SKU
+     */
+    private static class Database {
+        private final ShoeInventoryRepository inventory = mock(ShoeInventoryRepository.class);
+        private final InventoryLedgerCheckpointRepository checkpoints = mock(InventoryLedgerCheckpointRepository.class);
+        private final InventoryLedgerCommitRepository commits = mock(InventoryLedgerCommitRepository.class);
+
+        Database() {
+            when(inventory.findByShoeModelIdIn(any())).thenAnswer(invocation -> List.of(ShoeInventory.builder()
+                    .shoeModelId(1L)
+                    .size("42")
+                    .quantityAvailable(10)
+                    .quantityReserved(0)
+                    .build()));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.shoestore.service.shoe.ledger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+    private static final InventorySku SKU = new InventorySku(1L, "42");
+    private static final InventorySku OTHER_SKU = new InventorySku(2L, "10.5");
+
+    @TempDir
+    Path directory;
+
+    private LedgerJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replaysTransactionsWithAllTheirDeltas() {
+        journal = open(0);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3), new LedgerDelta(OTHER_SKU, -1, -1)));
+        journal.append(transaction(2, new LedgerDelta(SKU, 0, -1)));
+        journal.close();
+
+        LedgerJournal.Replay replay = new LedgerJournal(directory, true).replay(0);
+
+        assertThat(replay.transactions()).containsOnlyKeys(1L, 2L);
+        assertThat(replay.transactions().get(1L))
+                .containsExactly(new LedgerDelta(SKU, 0, 3), new LedgerDelta(OTHER_SKU, -1, -1));
+        assertThat(replay.lastSegment()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsSegmentsUpToTheCheckpoint() {
+        journal = open(0);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3)));
+        long closed = journal.rotate(List.of());
+        journal.append(transaction(2, new LedgerDelta(SKU, 0, 2)));
+        journal.close();
+
+        LedgerJournal.Replay replay = new LedgerJournal(directory, true).replay(closed);
+
+        assertThat(replay.transactions()).containsOnlyKeys(2L);
+        assertThat(replay.lastSegment()).isEqualTo(2);
+    }
+
+    @Test
+    void replaysATransactionCarriedOverByAFailedFlushOnce() {
+        journal = open(0);
+        LedgerTransaction inFlight = transaction(2, new LedgerDelta(SKU, 0, 2));
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3)));
+        journal.append(inFlight);
+        // The flush fails after rotating, so the checkpoint stays at 0 and the segments stay on disk
+        journal.rotate(List.of(inFlight));
+        journal.rotate(List.of(inFlight));
+        journal.close();
+
+        LedgerJournal.Replay replay = new LedgerJournal(directory, true).replay(0);
+
+        assertThat(replay.transactions()).containsOnlyKeys(1L, 2L);
+        assertThat(replay.transactions().get(2L)).containsExactly(new LedgerDelta(SKU, 0, 2));
+        assertThat(replay.lastSegment()).isEqualTo(3);
+    }
+
+    @Test
+    void skipsATornLastRecord() throws IOException {
+        journal = open(0);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3)));
+        journal.close();
+        Files.writeString(segment(1), "2\t1\t42\t0\t5\t12", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        LedgerJournal.Replay replay = new LedgerJournal(directory, true).replay(0);
+
+        assertThat(replay.transactions()).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void continuesSegmentNumbersAfterTheCheckpoint() {
+        journal = open(0);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3)));
+        journal.close();
+        journal.deleteThrough(Long.MAX_VALUE);
+
+        journal = open(5);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 1)));
+
+        assertThat(segment(6)).exists();
+        assertThat(new LedgerJournal(directory, true).replay(5).lastSegment()).isEqualTo(6);
+    }
+
+    @Test
+    void deletesSegmentsThroughTheFlushedOne() {
+        journal = open(0);
+        journal.append(transaction(1, new LedgerDelta(SKU, 0, 3)));
+        long closed = journal.rotate(List.of());
+        journal.append(transaction(2, new LedgerDelta(SKU, 0, 2)));
+
+        journal.deleteThrough(closed);
+
+        assertThat(segment(1)).doesNotExist();
+        assertThat(segment(2)).exists();
+    }
+
+    private LedgerJournal open(long after) {
+        LedgerJournal opened = new LedgerJournal(directory, true);
+        opened.open(after);
+        return opened;
+    }
+
+    private Path segment(long number) {
+        return directory.resolve(String.format("inventory-ledger-%012d.journal", number));
+    }
+
+    private static LedgerTransaction transaction(long id, LedgerDelta... deltas) {
+        return new LedgerTransaction(id, List.of(deltas));
+    }
+}
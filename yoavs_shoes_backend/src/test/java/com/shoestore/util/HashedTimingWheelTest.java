@@ -0,0 +1,77 @@
+package com.shoestore.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+
+    private final HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+
+    @Test
+    void expiresKeysOnlyOnceTheirDeadlinePassed() {
+        wheel.schedule(1L, 250);
+        wheel.schedule(2L, 300);
+
+        assertThat(wheel.advance(250)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keepsDeadlinesSeveralRotationsAheadInTheirBucket() {
+        // Same bucket as tick 3, two rotations later
+        wheel.schedule(1L, 1900);
+
+        assertThat(wheel.advance(800)).isEmpty();
+        assertThat(wheel.advance(1800)).isEmpty();
+        assertThat(wheel.advance(1900)).containsExactly(1L);
+    }
+
+    @Test
+    void expiresEverythingDueWhenAdvancedMoreThanARotation() {
+        wheel.schedule(1L, 300);
+        wheel.schedule(2L, 1500);
+        wheel.schedule(3L, 5000);
+
+        assertThat(wheel.advance(4000)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.advance(5000)).containsExactly(3L);
+    }
+
+    @Test
+    void expiresPastDeadlinesOnTheNextAdvance() {
+        wheel.advance(1000);
+        wheel.schedule(1L, 200);
+
+        assertThat(wheel.advance(1000)).isEmpty();
+        assertThat(wheel.advance(1100)).containsExactly(1L);
+    }
+
+    @Test
+    void reschedulingReplacesTheDeadline() {
+        wheel.schedule(1L, 200);
+        wheel.schedule(1L, 600);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(500)).isEmpty();
+        assertThat(wheel.advance(600)).containsExactly(1L);
+    }
+
+    @Test
+    void cancelledKeysNeverExpire() {
+        wheel.schedule(1L, 200);
+
+        assertThat(wheel.cancel(1L)).isTrue();
+        assertThat(wheel.cancel(1L)).isFalse();
+        assertThat(wheel.advance(1000)).isEmpty();
+    }
+
+    @Test
+    void rejectsANonPositiveTickOrSize() {
+        assertThatThrownBy(() -> new HashedTimingWheel<Long>(0, 8, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HashedTimingWheel<Long>(TICK, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.shoestore.util;
+
+import com.shoestore.entity.order.OrderNumberAllocation;
+import com.shoestore.repository.order.OrderNumberAllocationRepository;
+import com.shoestore.repository.order.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The allocation row lives in memory; the mocked transaction manager runs each lease inline.
+ */
+class OrderNumberGeneratorTest {
+
+    private static final int BLOCK_SIZE = 50;
+
+    private OrderNumberAllocation allocation;
+    private OrderNumberAllocationRepository allocationRepository;
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        allocation = OrderNumberAllocation.builder().name("order_number").build();
+        allocationRepository = mock(OrderNumberAllocationRepository.class);
+        when(allocationRepository.findByNameForUpdate(anyString())).thenAnswer(invocation -> Optional.of(allocation));
+        orderRepository = mock(OrderRepository.class);
+    }
+
+    @Test
+    void generatesDistinctScrambledSevenDigitNumbersWithOneLeasePerBlock() {
+        OrderNumberGenerator generator = generator(7919);
+
+        List<String> numbers = generate(generator, 2 * BLOCK_SIZE);
+
+        assertThat(numbers).doesNotHaveDuplicates().allMatch(generator::isValidOrderNumber);
+        assertThat(IntStream.range(1, numbers.size())
+                .filter(i -> Integer.parseInt(numbers.get(i)) == Integer.parseInt(numbers.get(i - 1)) + 1)
+                .count()).isLessThan(3);
+        assertThat(allocation.getNextIndex()).isEqualTo(2 * BLOCK_SIZE);
+        verify(allocationRepository, times(2)).saveAndFlush(allocation);
+    }
+
+    @Test
+    void scramblesDifferentlyForAnotherKey() {
+        List<String> numbers = generate(generator(7919), BLOCK_SIZE);
+        allocation.setNextIndex(0L);
+
+        assertThat(generate(generator(104729), BLOCK_SIZE)).isNotEqualTo(numbers);
+    }
+
+    @Test
+    void skipsNumbersThatAreAlreadyTaken() {
+        List<String> numbers = generate(generator(7919), BLOCK_SIZE);
+        allocation.setNextIndex(0L);
+        Set<String> taken = Set.of(numbers.get(0), numbers.get(7));
+        when(orderRepository.findExistingOrderNumbers(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(taken));
+
+        List<String> regenerated = generate(generator(7919), BLOCK_SIZE - taken.size());
+
+        assertThat(regenerated).doesNotContainAnyElementsOf(taken);
+        assertThat(new HashSet<>(regenerated)).hasSize(BLOCK_SIZE - taken.size());
+    }
+
+    @Test
+    void givesUpWhenEveryNumberOfSeveralBlocksIsTaken() {
+        when(orderRepository.findExistingOrderNumbers(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<String>(invocation.getArgument(0)));
+        OrderNumberGenerator generator = generator(7919);
+
+        assertThatThrownBy(generator::generateOrderNumber).isInstanceOf(IllegalStateException.class);
+        verify(allocationRepository, times(10)).saveAndFlush(any());
+    }
+
+    @Test
+    void retriesTheLeaseWhenTheAllocationRowIsCreatedConcurrently() {
+        when(allocationRepository.findByNameForUpdate(anyString()))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(allocation));
+        when(allocationRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(allocation);
+
+        assertThat(generator(7919).generateOrderNumber()).isNotNull();
+    }
+
+    @Test
+    void failsAfterRepeatedLeaseConflicts() {
+        when(allocationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        OrderNumberGenerator generator = generator(7919);
+
+        assertThatThrownBy(generator::generateOrderNumber)
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(allocationRepository, times(3)).saveAndFlush(any());
+    }
+
+    @Test
+    void validatesTheSevenDigitFormat() {
+        OrderNumberGenerator generator = generator(7919);
+
+        assertThat(generator.isValidOrderNumber("1000000")).isTrue();
+        assertThat(generator.isValidOrderNumber("9999999")).isTrue();
+        assertThat(generator.isValidOrderNumber("0999999")).isFalse();
+        assertThat(generator.isValidOrderNumber("123456")).isFalse();
+        assertThat(generator.isValidOrderNumber("12a4567")).isFalse();
+        assertThat(generator.isValidOrderNumber(null)).isFalse();
+    }
+
+    private OrderNumberGenerator generator(long key) {
+        return new OrderNumberGenerator(allocationRepository, orderRepository, mock(PlatformTransactionManager.class),
+                BLOCK_SIZE, key);
+    }
+
+    private static List<String> generate(OrderNumberGenerator generator, int count) {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            numbers.add(generator.generateOrderNumber());
+        }
+        return numbers;
+    }
+}